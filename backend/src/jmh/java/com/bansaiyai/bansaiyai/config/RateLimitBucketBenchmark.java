@@ -0,0 +1,60 @@
+package com.bansaiyai.bansaiyai.config;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RateLimitConfig.RateLimitBucket#tryConsume} on one bucket shared by
+ * several threads (one client IP hammering the API), against the same call
+ * uncontended.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RateLimitBucketBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class SharedBucket {
+    RateLimitConfig.RateLimitBucket bucket;
+
+    @Setup
+    public void setUp() {
+      bucket = new RateLimitConfig.RateLimitBucket(6_000_000, 1_000_000);
+    }
+  }
+
+  @State(Scope.Thread)
+  public static class OwnBucket {
+    RateLimitConfig.RateLimitBucket bucket;
+
+    @Setup
+    public void setUp() {
+      bucket = new RateLimitConfig.RateLimitBucket(6_000_000, 1_000_000);
+    }
+  }
+
+  @Benchmark
+  @Threads(8)
+  public boolean tryConsumeContended(SharedBucket state) {
+    return state.bucket.tryConsume();
+  }
+
+  @Benchmark
+  @Threads(1)
+  public boolean tryConsumeUncontended(OwnBucket state) {
+    return state.bucket.tryConsume();
+  }
+}
@@ -0,0 +1,65 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Installment and penalty arithmetic on {@link Loan}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanBenchmark {
+
+  private Loan loan;
+  private Loan overdueLoan;
+
+  @Setup
+  public void setUp() {
+    loan = Loan.builder()
+        .principalAmount(new BigDecimal("150000.00"))
+        .interestRate(new BigDecimal("12.00"))
+        .termMonths(36)
+        .status(LoanStatus.ACTIVE)
+        .build();
+    overdueLoan = Loan.builder()
+        .principalAmount(new BigDecimal("150000.00"))
+        .interestRate(new BigDecimal("12.00"))
+        .termMonths(36)
+        .outstandingBalance(new BigDecimal("48250.75"))
+        .maturityDate(LocalDate.now().minusDays(45))
+        .status(LoanStatus.ACTIVE)
+        .build();
+  }
+
+  @Benchmark
+  public BigDecimal calculateMonthlyInstallment() {
+    return loan.calculateMonthlyInstallment();
+  }
+
+  @Benchmark
+  public BigDecimal calculatePenalty() {
+    return overdueLoan.calculatePenalty();
+  }
+
+  @Benchmark
+  public BigDecimal calculatePenaltyFormula() {
+    return Loan.calculatePenalty(overdueLoan.getOutstandingBalance(), 45);
+  }
+}
@@ -0,0 +1,57 @@
+package com.bansaiyai.bansaiyai.security;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token verification and claim parsing done by the JWT filter on every
+ * authenticated request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilsBenchmark {
+
+  private JwtUtils jwtUtils;
+  private String token;
+
+  @Setup
+  public void setUp() {
+    jwtUtils = new JwtUtils();
+    ReflectionTestUtils.setField(jwtUtils, "jwtSecret",
+        "benchmark-secret-key-for-jwt-signing-must-be-at-least-256-bits-long");
+    ReflectionTestUtils.setField(jwtUtils, "jwtExpirationMs", 86_400_000);
+    token = jwtUtils.generateTokenFromUsername("officer01", List.of("ROLE_OFFICER"),
+        List.of("loan.view", "loan.approve", "payment.create", "saving.deposit", "member.view"));
+  }
+
+  @Benchmark
+  public Boolean validateToken() {
+    return jwtUtils.validateToken(token);
+  }
+
+  @Benchmark
+  public String getUsernameFromToken() {
+    return jwtUtils.getUsernameFromToken(token);
+  }
+
+  @Benchmark
+  public List<String> getPermissionsFromToken() {
+    return jwtUtils.getPermissionsFromToken(token);
+  }
+}
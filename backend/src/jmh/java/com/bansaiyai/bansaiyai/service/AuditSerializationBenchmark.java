@@ -0,0 +1,65 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.TransactionResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of old/new values done by {@link AuditService} for
+ * every audited action, with an ObjectMapper configured as Spring Boot's.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditSerializationBenchmark {
+
+  private AuditService auditService;
+  private Map<String, Object> capturedArguments;
+  private TransactionResponse response;
+
+  @Setup
+  public void setUp() {
+    auditService = new AuditService();
+    ReflectionTestUtils.setField(auditService, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+
+    // Shape produced by AuditAspect.captureState
+    capturedArguments = new LinkedHashMap<>();
+    capturedArguments.put("arg0", 1042L);
+    capturedArguments.put("arg1", new BigDecimal("2500.00"));
+    capturedArguments.put("arg2", "Monthly share deposit");
+    capturedArguments.put("arg3", LocalDateTime.of(2025, 10, 14, 9, 30));
+
+    response = new TransactionResponse(88231L, "TXN-20251014093000-A1B2", "DEPOSIT",
+        new BigDecimal("2500.00"), LocalDateTime.of(2025, 10, 14, 9, 30), "SUCCESS",
+        "Deposit processed successfully");
+  }
+
+  @Benchmark
+  public String serializeArguments() {
+    return auditService.serializeToJson(capturedArguments);
+  }
+
+  @Benchmark
+  public String serializeResponse() {
+    return auditService.serializeToJson(response);
+  }
+}
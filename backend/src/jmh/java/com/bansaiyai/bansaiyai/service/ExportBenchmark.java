@@ -0,0 +1,74 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.report.OverdueLoanDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CSV formatting in {@link ExportService} and Excel generation in
+ * {@link DataExportService#exportToExcel}, both without a database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ExportBenchmark {
+
+  @Param({ "1000", "10000" })
+  public int rows;
+
+  private ExportService exportService;
+  private DataExportService dataExportService;
+  private List<OverdueLoanDTO> overdueLoans;
+  private List<String> headers;
+  private List<List<Object>> data;
+
+  @Setup
+  public void setUp() {
+    dataExportService = new DataExportService();
+    exportService = new ExportService(null, null, dataExportService);
+
+    overdueLoans = new ArrayList<>(rows);
+    headers = List.of("Member ID", "Name", "Joined", "Share Capital", "Savings", "Loan Balance");
+    data = new ArrayList<>(rows);
+    LocalDate today = LocalDate.now();
+    for (int i = 0; i < rows; i++) {
+      overdueLoans.add(OverdueLoanDTO.builder()
+          .loanNumber("LN-2025-" + i)
+          .memberName("Member, \"" + i + "\"")
+          .outstandingBalance(BigDecimal.valueOf(1_000_000L + i * 37L, 2))
+          .lastPaymentDate(today.minusDays(i % 120))
+          .daysOverdue(i % 120)
+          .build());
+      data.add(List.of("M" + i, "Member " + i, today.minusDays(i), BigDecimal.valueOf(50_000L + i, 2),
+          BigDecimal.valueOf(250_000L + i, 2), BigDecimal.valueOf(1_000_000L + i, 2)));
+    }
+  }
+
+  @Benchmark
+  public String overdueLoansCsv() {
+    return exportService.generateOverdueLoansCsv(overdueLoans);
+  }
+
+  @Benchmark
+  public byte[] exportToExcel() {
+    return dataExportService.exportToExcel("Members", headers, data);
+  }
+}
@@ -0,0 +1,49 @@
+package com.bansaiyai.bansaiyai.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Penalty / interest / principal split applied by
+ * {@link TransactionService#processCompositePayment}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaymentSplitBenchmark {
+
+  /** Partial (penalty only), interest-bound and principal-reaching payments. */
+  @Param({ "30.00", "260.00", "5000.00" })
+  public String amount;
+
+  private BigDecimal paymentAmount;
+  private BigDecimal penaltyDue;
+  private BigDecimal interestDue;
+
+  @Setup
+  public void setUp() {
+    paymentAmount = new BigDecimal(amount);
+    penaltyDue = new BigDecimal("48.25");
+    interestDue = new BigDecimal("1482.50");
+  }
+
+  @Benchmark
+  public TransactionService.PaymentSplit splitPayment() {
+    return TransactionService.splitPayment(paymentAmount, penaltyDue, interestDue);
+  }
+}
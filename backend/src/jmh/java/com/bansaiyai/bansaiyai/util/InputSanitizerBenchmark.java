@@ -0,0 +1,47 @@
+package com.bansaiyai.bansaiyai.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InputSanitizer#sanitizeText} on clean Thai text and on markup that
+ * needs encoding.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InputSanitizerBenchmark {
+
+  @Param({ "plain", "markup" })
+  public String kind;
+
+  private InputSanitizer sanitizer;
+  private String input;
+
+  @Setup
+  public void setUp() {
+    sanitizer = new InputSanitizer();
+    input = "plain".equals(kind)
+        ? "  ชำระค่างวดเงินกู้ประจำเดือนตุลาคม สมาชิกเลขที่ 0421 ผ่านธนาคารกรุงไทย  "
+        : "<script>alert('x')</script><img src=x onerror=\"steal()\"> & \"quoted\" <b>note</b>";
+  }
+
+  @Benchmark
+  public String sanitizeText() {
+    return sanitizer.sanitizeText(input);
+  }
+}
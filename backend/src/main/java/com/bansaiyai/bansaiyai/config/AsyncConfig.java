@@ -2,6 +2,7 @@ package com.bansaiyai.bansaiyai.config;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
@@ -66,6 +67,41 @@ public class AsyncConfig implements AsyncConfigurer {
     return executor;
   }
 
+  /**
+   * Interest run workers. Each worker holds a database connection while it
+   * credits a chunk, so keep this below the connection pool size; chunks
+   * queue until a worker is free.
+   */
+  @Bean(name = "interestExecutor")
+  public Executor interestExecutor(@Value("${app.interest.workers:4}") int workers) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(workers);
+    executor.setMaxPoolSize(workers);
+    executor.setThreadNamePrefix("Interest-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(120);
+    executor.initialize();
+    return executor;
+  }
+
+  /**
+   * Writes HTTP access log lines off the request thread. One thread keeps
+   * lines in completion order; when the queue is full, lines are dropped
+   * rather than slowing down requests.
+   */
+  @Bean(name = "requestLogExecutor")
+  public Executor requestLogExecutor(@Value("${logging.http.queue-capacity:10000}") int queueCapacity) {
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(1);
+    executor.setMaxPoolSize(1);
+    executor.setQueueCapacity(queueCapacity);
+    executor.setThreadNamePrefix("RequestLog-");
+    executor.setWaitForTasksToCompleteOnShutdown(true);
+    executor.setAwaitTerminationSeconds(5);
+    executor.initialize();
+    return executor;
+  }
+
   @Override
   public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
     return new AsyncExceptionHandler();
@@ -0,0 +1,46 @@
+package com.bansaiyai.bansaiyai.config;
+
+import com.bansaiyai.bansaiyai.service.storage.BlobStore;
+import com.bansaiyai.bansaiyai.service.storage.LocalBlobStore;
+import com.bansaiyai.bansaiyai.service.storage.S3BlobStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Clock;
+
+/**
+ * Selects the blob store backing loan documents and payment slips:
+ * the local filesystem (default) or an S3-compatible object store.
+ */
+@Configuration
+@Slf4j
+public class BlobStoreConfig {
+
+  @Bean
+  @ConditionalOnProperty(name = "app.storage.type", havingValue = "local", matchIfMissing = true)
+  public BlobStore localBlobStore(
+      @Value("${app.storage.local.root:/opt/bansaiyai/uploads/blobs}") String root) {
+    log.info("Blob store: local filesystem at {}", root);
+    return new LocalBlobStore(Paths.get(root));
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "app.storage.type", havingValue = "s3")
+  public BlobStore s3BlobStore(
+      @Value("${app.storage.s3.endpoint}") String endpoint,
+      @Value("${app.storage.s3.bucket}") String bucket,
+      @Value("${app.storage.s3.prefix:blobs/}") String prefix,
+      @Value("${app.storage.s3.region:us-east-1}") String region,
+      @Value("${app.storage.s3.access-key}") String accessKey,
+      @Value("${app.storage.s3.secret-key}") String secretKey,
+      @Value("${app.storage.s3.staging-dir:${java.io.tmpdir}/bansaiyai-blob-staging}") String stagingDir) {
+    log.info("Blob store: S3-compatible bucket {} at {}", bucket, endpoint);
+    return new S3BlobStore(URI.create(endpoint), bucket, prefix, region, accessKey, secretKey,
+        Paths.get(stagingDir), Clock.systemUTC());
+  }
+}
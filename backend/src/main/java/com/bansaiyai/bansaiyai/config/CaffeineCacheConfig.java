@@ -46,7 +46,6 @@ public class CaffeineCacheConfig {
         "dividendEstimate",
         "fiscalPeriod",
         "memberSearch",
-        "rolePermissions",
         "dashboardStats"));
 
     return cacheManager;
@@ -26,7 +26,7 @@ public class CorsConfig {
   @Value("${cors.allowed-headers:*}")
   private String allowedHeaders;
 
-  @Value("${cors.exposed-headers:Authorization,Content-Disposition}")
+  @Value("${cors.exposed-headers:Authorization,Content-Disposition,X-Has-More}")
   private String exposedHeaders;
 
   @Value("${cors.allow-credentials:true}")
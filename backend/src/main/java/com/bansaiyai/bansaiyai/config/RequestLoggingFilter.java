@@ -1,30 +1,53 @@
 package com.bansaiyai.bansaiyai.config;
 
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.UUID;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * HTTP Request/Response logging filter for debugging and monitoring.
- * Logs request details, response status, and execution time.
+ * HTTP access logging: one structured (key=value) line per request with
+ * method, path, status and duration, written off the request thread.
+ *
+ * Requests and responses pass through unwrapped unless payload logging is
+ * on, so downloads and exports stream straight to the client. When payload
+ * logging is on, only textual bodies are captured, and only up to
+ * {@code max-payload-length} bytes; bodies are never buffered in full.
+ * {@code sample-rate} thins out successful requests; 4xx and 5xx are always
+ * logged. Async requests (streamed exports) are logged when the async
+ * exchange completes, so status and duration cover the whole body.
  */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 @Slf4j
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
+  private static final String REQUEST_ID_HEADER = "X-Request-Id";
+
   @Value("${logging.http.enabled:true}")
   private boolean loggingEnabled;
 
@@ -34,6 +57,16 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
   @Value("${logging.http.max-payload-length:1000}")
   private int maxPayloadLength;
 
+  @Value("${logging.http.sample-rate:1.0}")
+  private double sampleRate;
+
+  private final Executor logExecutor;
+  private final AtomicLong dropped = new AtomicLong();
+
+  public RequestLoggingFilter(@Qualifier("requestLogExecutor") Executor logExecutor) {
+    this.logExecutor = logExecutor;
+  }
+
   @Override
   protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
       FilterChain filterChain) throws ServletException, IOException {
@@ -50,51 +83,122 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
       return;
     }
 
-    ContentCachingRequestWrapper wrappedRequest = new ContentCachingRequestWrapper(request, maxPayloadLength);
-    ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
-    String requestId = UUID.randomUUID().toString().substring(0, 8);
-    long startTime = System.currentTimeMillis();
+    boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    boolean capture = includePayload && sampled;
+
+    ContentCachingRequestWrapper capturedRequest =
+        capture && isLoggablePayload(request.getContentType(), request.getContentLengthLong())
+            ? new ContentCachingRequestWrapper(request, maxPayloadLength + 1)
+            : null;
+    // One byte over the limit tells the log line the body was truncated
+    PayloadCapturingResponse capturedResponse =
+        capture ? new PayloadCapturingResponse(response, maxPayloadLength + 1) : null;
 
+    long startNanos = System.nanoTime();
+    Throwable failure = null;
     try {
-      // Log request
-      logRequest(wrappedRequest, requestId);
+      filterChain.doFilter(
+          capturedRequest != null ? capturedRequest : request,
+          capturedResponse != null ? capturedResponse : response);
+    } catch (IOException | ServletException | RuntimeException | Error e) {
+      failure = e;
+      throw e;
+    } finally {
+      if (failure == null && request.isAsyncStarted()) {
+        // Streamed bodies are written after the chain returns; log once the exchange is done
+        request.getAsyncContext().addListener(new AsyncListener() {
+          private Throwable asyncFailure;
 
-      filterChain.doFilter(wrappedRequest, wrappedResponse);
+          @Override
+          public void onComplete(AsyncEvent event) {
+            logExchange(request, response, path, sampled, startNanos, asyncFailure,
+                capturedRequest, capturedResponse);
+          }
 
-    } finally {
-      // Log response
-      long duration = System.currentTimeMillis() - startTime;
-      logResponse(wrappedResponse, requestId, duration);
+          @Override
+          public void onError(AsyncEvent event) {
+            asyncFailure = event.getThrowable();
+          }
 
-      // Copy response body back to original response
-      wrappedResponse.copyBodyToResponse();
+          @Override
+          public void onTimeout(AsyncEvent event) {
+          }
+
+          @Override
+          public void onStartAsync(AsyncEvent event) {
+          }
+        });
+      } else {
+        logExchange(request, response, path, sampled, startNanos, failure, capturedRequest, capturedResponse);
+      }
     }
   }
 
-  private void logRequest(ContentCachingRequestWrapper request, String requestId) {
-    String queryString = request.getQueryString();
-    String path = queryString != null ? request.getRequestURI() + "?" + queryString : request.getRequestURI();
-
-    log.info("[{}] --> {} {} (from: {}, user-agent: {})",
-        requestId,
-        request.getMethod(),
-        path,
-        getClientIP(request),
-        truncate(request.getHeader("User-Agent"), 50));
+  private void logExchange(HttpServletRequest request, HttpServletResponse response, String path,
+      boolean sampled, long startNanos, Throwable failure,
+      ContentCachingRequestWrapper capturedRequest, PayloadCapturingResponse capturedResponse) {
+    if (capturedResponse != null) {
+      capturedResponse.flushWriter();
+    }
+    // An exception escaping the chain becomes a 500 further up
+    int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+    if (sampled || status >= 400) {
+      submit(new AccessLogEntry(
+          request.getMethod(),
+          path,
+          request.getQueryString(),
+          status,
+          System.nanoTime() - startNanos,
+          response.getHeader("Content-Length"),
+          getClientIP(request),
+          request.getHeader("User-Agent"),
+          request.getHeader(REQUEST_ID_HEADER),
+          failure != null ? failure.getClass().getSimpleName() : null,
+          capturedRequest != null ? capturedRequest.getContentAsByteArray() : null,
+          capturedResponse != null ? capturedResponse.capturedPayload() : null));
+    }
   }
 
-  private void logResponse(ContentCachingResponseWrapper response, String requestId, long duration) {
-    int status = response.getStatus();
+  private void submit(AccessLogEntry entry) {
+    try {
+      logExecutor.execute(() -> write(entry, dropped.getAndSet(0)));
+    } catch (RejectedExecutionException e) {
+      // Queue full: shed log lines rather than slow down requests
+      dropped.incrementAndGet();
+    }
+  }
 
-    if (status >= 500) {
-      log.error("[{}] <-- {} ({} ms)", requestId, status, duration);
-    } else if (status >= 400) {
-      log.warn("[{}] <-- {} ({} ms)", requestId, status, duration);
+  private void write(AccessLogEntry entry, long droppedBefore) {
+    String line = entry.format(maxPayloadLength, droppedBefore);
+    if (entry.status() >= 500) {
+      log.error("{}", line);
+    } else if (entry.status() >= 400) {
+      log.warn("{}", line);
     } else {
-      log.info("[{}] <-- {} ({} ms)", requestId, status, duration);
+      log.info("{}", line);
     }
   }
 
+  /**
+   * Whether a body of this type and declared length is worth capturing:
+   * textual, and small enough to log whole. Unknown lengths qualify since
+   * capture is capped anyway.
+   */
+  static boolean isLoggablePayload(String contentType, long contentLength, int maxPayloadLength) {
+    if (contentType == null || contentLength > maxPayloadLength) {
+      return false;
+    }
+    String type = contentType.toLowerCase();
+    return type.startsWith("text/")
+        || type.contains("json")
+        || type.contains("xml")
+        || type.startsWith("application/x-www-form-urlencoded");
+  }
+
+  private boolean isLoggablePayload(String contentType, long contentLength) {
+    return isLoggablePayload(contentType, contentLength, maxPayloadLength);
+  }
+
   private String getClientIP(HttpServletRequest request) {
     String xForwardedFor = request.getHeader("X-Forwarded-For");
     if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
@@ -103,9 +207,208 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
     return request.getRemoteAddr();
   }
 
-  private String truncate(String value, int maxLength) {
-    if (value == null)
-      return "unknown";
-    return value.length() > maxLength ? value.substring(0, maxLength) + "..." : value;
+  /**
+   * Everything needed for one log line, captured on the request thread so
+   * formatting can happen on the log thread.
+   */
+  record AccessLogEntry(
+      String method,
+      String path,
+      String query,
+      int status,
+      long durationNanos,
+      String contentLength,
+      String client,
+      String userAgent,
+      String requestId,
+      String error,
+      byte[] requestPayload,
+      byte[] responsePayload) {
+
+    String format(int maxPayloadLength, long droppedBefore) {
+      StringBuilder line = new StringBuilder(160);
+      field(line, "method", method);
+      field(line, "path", query != null ? path + "?" + query : path);
+      field(line, "status", Integer.toString(status));
+      field(line, "duration_ms", Long.toString(TimeUnit.NANOSECONDS.toMillis(durationNanos)));
+      field(line, "bytes", contentLength);
+      field(line, "client", client);
+      field(line, "user_agent", truncate(userAgent, 100));
+      field(line, "request_id", truncate(requestId, 64));
+      field(line, "error", error);
+      if (requestPayload != null && requestPayload.length > 0) {
+        field(line, "request_body", payload(requestPayload, maxPayloadLength));
+      }
+      if (responsePayload != null && responsePayload.length > 0) {
+        field(line, "response_body", payload(responsePayload, maxPayloadLength));
+      }
+      if (droppedBefore > 0) {
+        field(line, "dropped", Long.toString(droppedBefore));
+      }
+      return line.toString();
+    }
+
+    private static void field(StringBuilder line, String key, String value) {
+      if (value == null) {
+        return;
+      }
+      if (line.length() > 0) {
+        line.append(' ');
+      }
+      line.append(key).append('=');
+      boolean quote = value.isEmpty() || value.chars().anyMatch(c -> c <= ' ' || c == '"' || c == '=');
+      if (!quote) {
+        line.append(value);
+        return;
+      }
+      line.append('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        switch (c) {
+          case '"' -> line.append("\\\"");
+          case '\\' -> line.append("\\\\");
+          case '\n' -> line.append("\\n");
+          case '\r' -> line.append("\\r");
+          case '\t' -> line.append("\\t");
+          default -> line.append(c);
+        }
+      }
+      line.append('"');
+    }
+
+    private static String payload(byte[] bytes, int maxPayloadLength) {
+      int length = Math.min(bytes.length, maxPayloadLength);
+      String text = new String(bytes, 0, length, StandardCharsets.UTF_8);
+      return bytes.length > maxPayloadLength ? text + "..." : text;
+    }
+
+    private static String truncate(String value, int maxLength) {
+      if (value == null) {
+        return null;
+      }
+      return value.length() > maxLength ? value.substring(0, maxLength) + "..." : value;
+    }
+  }
+
+  /**
+   * Passes the response body straight through to the client while keeping
+   * a copy of at most {@code limit} bytes. Whether to copy is decided on
+   * the first write, once the content type is known, so binary bodies are
+   * not copied at all.
+   */
+  static final class PayloadCapturingResponse extends HttpServletResponseWrapper {
+
+    private final int limit;
+    private ByteArrayOutputStream captured;
+    private boolean decided;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    PayloadCapturingResponse(HttpServletResponse response, int limit) {
+      super(response);
+      this.limit = limit;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        outputStream = new TeeOutputStream(super.getOutputStream());
+      }
+      return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      if (writer == null) {
+        writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+      }
+      return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      flushWriter();
+      super.flushBuffer();
+    }
+
+    void flushWriter() {
+      if (writer != null) {
+        writer.flush();
+      }
+    }
+
+    byte[] capturedPayload() {
+      return captured != null ? captured.toByteArray() : null;
+    }
+
+    /**
+     * Whether there is still room to copy into, deciding on first use.
+     */
+    private boolean capturing() {
+      if (!decided) {
+        decided = true;
+        if (isLoggablePayload(getContentType(), declaredLength(), limit)) {
+          captured = new ByteArrayOutputStream(Math.min(limit, 1024));
+        }
+      }
+      return captured != null && captured.size() < limit;
+    }
+
+    private long declaredLength() {
+      String header = getHeader("Content-Length");
+      if (header == null) {
+        return -1;
+      }
+      try {
+        return Long.parseLong(header);
+      } catch (NumberFormatException e) {
+        return -1;
+      }
+    }
+
+    private final class TeeOutputStream extends ServletOutputStream {
+
+      private final ServletOutputStream delegate;
+
+      TeeOutputStream(ServletOutputStream delegate) {
+        this.delegate = delegate;
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+        delegate.write(b);
+        if (capturing()) {
+          captured.write(b);
+        }
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        delegate.write(b, off, len);
+        if (capturing()) {
+          captured.write(b, off, Math.min(len, limit - captured.size()));
+        }
+      }
+
+      @Override
+      public void flush() throws IOException {
+        delegate.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+        delegate.close();
+      }
+
+      @Override
+      public boolean isReady() {
+        return delegate.isReady();
+      }
+
+      @Override
+      public void setWriteListener(WriteListener listener) {
+        delegate.setWriteListener(listener);
+      }
+    }
   }
 }
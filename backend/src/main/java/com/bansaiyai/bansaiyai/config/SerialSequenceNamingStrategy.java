@@ -0,0 +1,49 @@
+package com.bansaiyai.bansaiyai.config;
+
+import org.hibernate.boot.model.naming.Identifier;
+import org.hibernate.boot.model.relational.QualifiedName;
+import org.hibernate.boot.model.relational.QualifiedNameParser;
+import org.hibernate.boot.model.relational.QualifiedSequenceName;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.id.enhanced.ImplicitDatabaseObjectNamingStrategy;
+import org.hibernate.id.enhanced.StandardNamingStrategy;
+import org.hibernate.service.ServiceRegistry;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Names implicit ID sequences {@code <table>_<pk column>_seq}, the name
+ * PostgreSQL gives the sequence behind a BIGSERIAL column. Entities using
+ * {@code GenerationType.SEQUENCE} therefore draw their pooled ID blocks from
+ * the sequences the Flyway schema already created (re-sized by V16) instead
+ * of a separate {@code <Entity>_SEQ} per entity.
+ *
+ * Enabled through {@code hibernate.id.db_structure_naming_strategy}.
+ */
+public class SerialSequenceNamingStrategy implements ImplicitDatabaseObjectNamingStrategy {
+
+  private final StandardNamingStrategy fallback = new StandardNamingStrategy();
+
+  @Override
+  public QualifiedName determineSequenceName(Identifier catalogName, Identifier schemaName,
+      Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+    Object table = configValues.get(PersistentIdentifierGenerator.TABLE);
+    Object column = configValues.get(PersistentIdentifierGenerator.PK);
+    if (table == null || column == null) {
+      return fallback.determineSequenceName(catalogName, schemaName, configValues, serviceRegistry);
+    }
+    String sequence = unquote(table.toString()) + "_" + unquote(column.toString()) + "_seq";
+    return new QualifiedSequenceName(catalogName, schemaName, Identifier.toIdentifier(sequence));
+  }
+
+  @Override
+  public QualifiedName determineTableName(Identifier catalogName, Identifier schemaName,
+      Map<?, ?> configValues, ServiceRegistry serviceRegistry) {
+    return fallback.determineTableName(catalogName, schemaName, configValues, serviceRegistry);
+  }
+
+  private static String unquote(String name) {
+    return QualifiedNameParser.INSTANCE.parse(name).getObjectName().getText().toLowerCase(Locale.ROOT);
+  }
+}
@@ -28,6 +28,14 @@ public class AccountingController {
         return ResponseEntity.ok(result);
     }
 
+    @PostMapping("/reopen-month")
+    @PreAuthorize("hasRole('PRESIDENT')")
+    public ResponseEntity<String> reopenMonth(@RequestBody CloseMonthRequest request,
+            java.security.Principal principal) {
+        accountingService.reopenMonth(request.getMonth(), request.getYear(), principal.getName());
+        return ResponseEntity.ok("Reopened " + request.getMonth() + "/" + request.getYear());
+    }
+
     @Data
     public static class CloseMonthRequest {
         private int month;
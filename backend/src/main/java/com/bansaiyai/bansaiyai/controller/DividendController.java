@@ -1,11 +1,19 @@
 package com.bansaiyai.bansaiyai.controller;
 
 import com.bansaiyai.bansaiyai.dto.DividendCalculationRequest;
+import com.bansaiyai.bansaiyai.dto.DividendSimulationRequest;
+import com.bansaiyai.bansaiyai.dto.DividendSimulationResponse;
 import com.bansaiyai.bansaiyai.entity.DividendDistribution;
 import com.bansaiyai.bansaiyai.entity.DividendRecipient;
 import com.bansaiyai.bansaiyai.entity.User;
+import com.bansaiyai.bansaiyai.entity.enums.ApprovalStatus;
+import com.bansaiyai.bansaiyai.entity.enums.ReportArtifactType;
 import com.bansaiyai.bansaiyai.service.DividendService;
+import com.bansaiyai.bansaiyai.service.ReportArtifactService;
 import com.bansaiyai.bansaiyai.service.UserService;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -13,7 +21,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/dividends")
@@ -23,6 +34,7 @@ public class DividendController {
     private final DividendService dividendService;
     private final UserService userService;
     private final com.bansaiyai.bansaiyai.service.ExportService exportService;
+    private final ReportArtifactService reportArtifactService;
 
     @PostMapping("/calculate")
     @PreAuthorize("hasAnyRole('PRESIDENT', 'SECRETARY')")
@@ -41,6 +53,21 @@ public class DividendController {
         return ResponseEntity.ok(dist);
     }
 
+    /**
+     * Evaluate many rate combinations without persisting anything.
+     * Commit the chosen rates via /calculate.
+     */
+    @PostMapping("/simulate")
+    @PreAuthorize("hasAnyRole('PRESIDENT', 'SECRETARY')")
+    public ResponseEntity<DividendSimulationResponse> simulateDividends(
+            @Valid @RequestBody DividendSimulationRequest request) {
+        return ResponseEntity.ok(dividendService.simulateDividends(
+                request.getYear(),
+                request.getDividendRates(),
+                request.getAverageReturnRates(),
+                request.getTargetPayout()));
+    }
+
     @PostMapping("/{year}/distribute")
     @PreAuthorize("hasRole('PRESIDENT')")
     public ResponseEntity<DividendDistribution> distributeDividends(
@@ -67,17 +94,28 @@ public class DividendController {
         return ResponseEntity.ok(dividendService.getRecipients(dist.getId()));
     }
 
+    /**
+     * Recipient list as CSV. Once the distribution has been paid out the
+     * list can no longer change, so it is stored and served as immutable.
+     */
     @GetMapping("/{year}/recipients/export")
     @PreAuthorize("hasAnyRole('PRESIDENT', 'SECRETARY', 'OFFICER')")
-    public ResponseEntity<byte[]> exportRecipients(@PathVariable Integer year) {
+    public void exportRecipients(@PathVariable Integer year,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
         DividendDistribution dist = dividendService.getDistribution(year);
-        List<DividendRecipient> recipients = dividendService.getRecipients(dist.getId());
-        String csv = exportService.generateDividendRecipientsCsv(recipients);
+        ReportArtifactService.Artifact artifact = reportArtifactService.resolve(
+                new ReportArtifactService.Key(ReportArtifactType.DIVIDEND_RECIPIENTS,
+                        YearMonth.of(year, 1), YearMonth.of(year, 12), "csv", Map.of()),
+                "text/csv",
+                dist.getStatus() == ApprovalStatus.APPROVED,
+                () -> exportService.generateDividendRecipientsCsv(dividendService.getRecipients(dist.getId()))
+                        .getBytes());
 
-        return ResponseEntity.ok()
-                .header(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=dividend-recipients-" + year + ".csv")
-                .contentType(org.springframework.http.MediaType.parseMediaType("text/csv"))
-                .body(csv.getBytes());
+        response.setContentType(artifact.contentType());
+        response.setHeader(org.springframework.http.HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=dividend-recipients-" + year + ".csv");
+        response.setHeader(org.springframework.http.HttpHeaders.CACHE_CONTROL, artifact.cacheControl());
+        RangedFileResponse.write(request, response, artifact.body(), artifact.etag());
     }
 }
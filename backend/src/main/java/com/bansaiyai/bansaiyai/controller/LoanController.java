@@ -13,6 +13,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -20,6 +21,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -227,24 +229,42 @@ public class LoanController {
     }
   }
 
+  /**
+   * Search loans by loan number, borrower name or purpose. Returns a Slice:
+   * content and whether a next page exists, without totalElements or
+   * totalPages, which cost a COUNT over every match. Use
+   * {@code /loans/search/count} for the total. Results are ordered by
+   * relevance (newest first without pg_trgm); a {@code sort} parameter is
+   * no longer accepted.
+   */
   @GetMapping("/search")
   @PreAuthorize("hasAnyRole('ROLE_PRESIDENT', 'ROLE_SECRETARY', 'ROLE_OFFICER')")
-  public ResponseEntity<Page<LoanResponse>> searchLoans(
+  public ResponseEntity<Slice<LoanResponse>> searchLoans(
       @RequestParam String keyword,
       @RequestParam(defaultValue = "0") int page,
-      @RequestParam(defaultValue = "10") int size,
-      @RequestParam(defaultValue = "id,desc") String sort) {
+      @RequestParam(defaultValue = "10") int size) {
     try {
-      Sort sortObj = Sort.by(Sort.Direction.fromString(sort.contains("desc") ? "DESC" : "ASC"),
-          sort.split(",")[0]);
-      Pageable pageable = PageRequest.of(page, size, sortObj);
-      Page<LoanResponse> loans = loanService.searchLoans(keyword, pageable);
+      Slice<LoanResponse> loans = loanService.searchLoans(keyword, page, size);
       return ResponseEntity.ok(loans);
     } catch (Exception e) {
       return ResponseEntity.badRequest().build();
     }
   }
 
+  /**
+   * Total number of loans {@code /loans/search} matches, for clients that
+   * show page counts.
+   */
+  @GetMapping("/search/count")
+  @PreAuthorize("hasAnyRole('ROLE_PRESIDENT', 'ROLE_SECRETARY', 'ROLE_OFFICER')")
+  public ResponseEntity<Map<String, Long>> countSearchLoans(@RequestParam String keyword) {
+    try {
+      return ResponseEntity.ok(Map.of("totalElements", loanService.countSearchLoans(keyword)));
+    } catch (Exception e) {
+      return ResponseEntity.badRequest().build();
+    }
+  }
+
   @PutMapping("/{loanId}")
   @PreAuthorize("hasAnyRole('ROLE_PRESIDENT', 'ROLE_SECRETARY', 'ROLE_OFFICER')")
   public ResponseEntity<LoanResponse> updateLoan(@PathVariable Long loanId,
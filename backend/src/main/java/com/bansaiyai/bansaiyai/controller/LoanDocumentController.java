@@ -2,11 +2,13 @@ package com.bansaiyai.bansaiyai.controller;
 
 import com.bansaiyai.bansaiyai.dto.LoanDocumentResponse;
 import com.bansaiyai.bansaiyai.service.LoanDocumentService;
+import com.bansaiyai.bansaiyai.service.storage.Rendition;
 import com.bansaiyai.bansaiyai.security.UserContext;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -15,11 +17,10 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.UUID;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for loan document management.
@@ -172,18 +173,24 @@ public class LoanDocumentController {
      * Serve document file
      * GET /api/loans/documents/files/{loanId}/{filename}
      * 
-     * This endpoint serves the actual file content
+     * This endpoint serves the actual file content. Supports Range requests
+     * (206) so mobile clients can resume, and ETag revalidation (304).
+     * With ?rendition=thumbnail|preview it serves a downscaled JPEG instead.
      */
     @GetMapping("/documents/files/{loanId}/{filename:.+}")
     @PreAuthorize("hasRole('OFFICER') or hasRole('PRESIDENT') or hasRole('SECRETARY') or hasRole('MEMBER')")
-    public ResponseEntity<Resource> getDocumentFile(
+    public void getDocumentFile(
             @PathVariable Long loanId,
-            @PathVariable String filename) {
+            @PathVariable String filename,
+            @RequestParam(value = "rendition", required = false) String rendition,
+            HttpServletRequest request,
+            HttpServletResponse response) {
         try {
             // Security: Validate filename to prevent path traversal
             if (filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
                 log.warn("Path traversal attempt detected: loan={}, file={}", loanId, filename);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
 
             // Security: Validate file extension
@@ -191,7 +198,8 @@ public class LoanDocumentController {
             if (!lowerFilename.endsWith(".pdf") && !lowerFilename.endsWith(".jpg") &&
                     !lowerFilename.endsWith(".jpeg") && !lowerFilename.endsWith(".png")) {
                 log.warn("Invalid file extension requested: {}", filename);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
 
             // Security: Verify member can only access their own loan documents
@@ -204,44 +212,52 @@ public class LoanDocumentController {
                 if (currentMemberId == null || !loanDocumentService.verifyLoanOwnership(loanId, currentMemberId)) {
                     log.warn("Unauthorized file access attempt: loan={}, member={}",
                             loanId, currentMemberId);
-                    return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+                    response.setStatus(HttpStatus.FORBIDDEN.value());
+                    return;
                 }
             }
 
-            // Construct document path
-            String documentPath = loanId + "/" + filename;
-
-            // Load file as Resource
-            Path filePath = loanDocumentService.getDocumentPath(documentPath);
-
-            // Security: Verify path is within allowed directory
-            Path allowedDir = Paths.get("/opt/bansaiyai/uploads/loan-documents").normalize();
-            if (!filePath.normalize().startsWith(allowedDir)) {
-                log.warn("Path traversal attempt blocked: {}", documentPath);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            Optional<LoanDocumentService.DocumentFile> document;
+            String contentType;
+            if (rendition != null) {
+                Rendition selected;
+                try {
+                    selected = Rendition.fromParam(rendition);
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.BAD_REQUEST.value());
+                    return;
+                }
+                document = loanDocumentService.openDocumentRendition(loanId, filename, selected);
+                contentType = "image/jpeg";
+                // Renditions are derived from immutable content
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+            } else {
+                document = loanDocumentService.openDocumentFile(loanId, filename);
+                // Determine content type
+                contentType = determineContentType(filename);
             }
 
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
+            if (document.isEmpty()) {
+                response.reset();
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
             }
 
-            // Determine content type
-            String contentType = determineContentType(filename);
-
             // Security: Set security headers
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION,
-                            "inline; filename=\"" + resource.getFilename() + "\"")
-                    .header("X-Content-Type-Options", "nosniff")
-                    .header("X-Frame-Options", "DENY")
-                    .body(resource);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                    "inline; filename=\"" + filename + "\"");
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            response.setHeader("X-Frame-Options", "DENY");
+
+            RangedFileResponse.write(request, response, document.get().body(), document.get().etag());
 
         } catch (Exception e) {
             log.error("Error serving document file: {}/{}", loanId, filename, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
         }
     }
 
@@ -8,6 +8,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -156,9 +157,12 @@ public class MemberController {
 
   @GetMapping("/search")
   @PreAuthorize("hasAnyRole('PRESIDENT', 'SECRETARY', 'OFFICER')")
-  public ResponseEntity<List<Member>> searchMembers(@RequestParam String keyword) {
-    List<Member> members = memberService.searchMembers(keyword);
-    return ResponseEntity.ok(members);
+  public ResponseEntity<List<Member>> searchMembers(@RequestParam String keyword,
+      @RequestParam(defaultValue = "50") int limit) {
+    Slice<Member> members = memberService.searchMembers(keyword, limit);
+    return ResponseEntity.ok()
+        .header("X-Has-More", String.valueOf(members.hasNext()))
+        .body(members.getContent());
   }
 
   @GetMapping("/active")
@@ -3,12 +3,14 @@ package com.bansaiyai.bansaiyai.controller;
 import com.bansaiyai.bansaiyai.dto.*;
 import com.bansaiyai.bansaiyai.entity.enums.NotificationStatus;
 import com.bansaiyai.bansaiyai.service.PaymentNotificationService;
+import com.bansaiyai.bansaiyai.service.storage.Rendition;
 import com.bansaiyai.bansaiyai.security.UserContext;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -17,10 +19,9 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * REST controller for payment notification operations.
@@ -265,15 +266,23 @@ public class PaymentNotificationController {
     /**
      * Serve slip image file
      * GET /api/payment-notifications/slips/{filename}
+     *
+     * Supports Range requests (206) and ETag revalidation (304). With
+     * ?rendition=thumbnail|preview it serves a downscaled JPEG instead.
      */
     @GetMapping("/slips/{filename:.+}")
     @PreAuthorize("hasRole('MEMBER') or hasRole('OFFICER')")
-    public ResponseEntity<Resource> getSlipImage(@PathVariable String filename) {
+    public void getSlipImage(
+            @PathVariable String filename,
+            @RequestParam(value = "rendition", required = false) String rendition,
+            HttpServletRequest request,
+            HttpServletResponse response) {
         try {
             // Security: Validate filename to prevent path traversal
             if (filename.contains("..") || filename.contains("/") || filename.contains("\\")) {
                 log.warn("Path traversal attempt detected: {}", filename);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
 
             // Security: Validate file extension
@@ -281,23 +290,37 @@ public class PaymentNotificationController {
             if (!lowerFilename.endsWith(".jpg") && !lowerFilename.endsWith(".jpeg") &&
                     !lowerFilename.endsWith(".png") && !lowerFilename.endsWith(".pdf")) {
                 log.warn("Invalid file extension requested: {}", filename);
-                return ResponseEntity.badRequest().build();
+                response.setStatus(HttpStatus.BAD_REQUEST.value());
+                return;
             }
 
-            // Load file as Resource
-            Path filePath = Paths.get("/opt/bansaiyai/uploads/slips").resolve(filename).normalize();
-
-            // Security: Ensure resolved path is still within allowed directory
-            Path allowedDir = Paths.get("/opt/bansaiyai/uploads/slips").normalize();
-            if (!filePath.startsWith(allowedDir)) {
-                log.warn("Path traversal attempt blocked: {}", filename);
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            if (rendition != null) {
+                Rendition selected;
+                try {
+                    selected = Rendition.fromParam(rendition);
+                } catch (IllegalArgumentException e) {
+                    response.setStatus(HttpStatus.BAD_REQUEST.value());
+                    return;
+                }
+                Optional<PaymentNotificationService.SlipFile> scaled =
+                        paymentNotificationService.openSlipRendition(filename, selected);
+                if (scaled.isEmpty()) {
+                    response.setStatus(HttpStatus.NOT_FOUND.value());
+                    return;
+                }
+                response.setContentType("image/jpeg");
+                // Renditions are derived from immutable content
+                response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=31536000, immutable");
+                response.setHeader("X-Content-Type-Options", "nosniff");
+                response.setHeader("X-Frame-Options", "DENY");
+                RangedFileResponse.write(request, response, scaled.get().body(), scaled.get().etag());
+                return;
             }
 
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists() || !resource.isReadable()) {
-                return ResponseEntity.notFound().build();
+            Optional<PaymentNotificationService.SlipFile> slip = paymentNotificationService.openSlipFile(filename);
+            if (slip.isEmpty()) {
+                response.setStatus(HttpStatus.NOT_FOUND.value());
+                return;
             }
 
             // Determine content type
@@ -311,16 +334,19 @@ public class PaymentNotificationController {
             }
 
             // Security: Set security headers
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType(contentType))
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + resource.getFilename() + "\"")
-                    .header("X-Content-Type-Options", "nosniff")
-                    .header("X-Frame-Options", "DENY")
-                    .body(resource);
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + filename + "\"");
+            response.setHeader("X-Content-Type-Options", "nosniff");
+            response.setHeader("X-Frame-Options", "DENY");
+
+            RangedFileResponse.write(request, response, slip.get().body(), slip.get().etag());
 
         } catch (Exception e) {
             log.error("Error serving slip image: {}", filename, e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+            }
         }
     }
 
@@ -1,47 +1,75 @@
 package com.bansaiyai.bansaiyai.controller;
 
-import com.bansaiyai.bansaiyai.dto.report.MonthlyReportDTO;
 import com.bansaiyai.bansaiyai.dto.report.OverdueLoanDTO;
+import com.bansaiyai.bansaiyai.entity.enums.ReportArtifactType;
+import com.bansaiyai.bansaiyai.service.ReportArtifactService;
 import com.bansaiyai.bansaiyai.service.ReportService;
 import com.bansaiyai.bansaiyai.service.ExportService;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/reports")
 @RequiredArgsConstructor
 public class ReportController {
 
+    private static final String TEXT_CSV = "text/csv";
+
     private final ReportService reportService;
     private final ExportService exportService;
+    private final ReportArtifactService reportArtifactService;
+    private final ObjectMapper objectMapper;
 
+    /**
+     * Monthly report. Reports of closed periods are stored on first request
+     * and served as immutable; see {@link ReportArtifactService}.
+     */
     @GetMapping("/monthly")
     @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
-    public ResponseEntity<MonthlyReportDTO> getMonthlyReport(
+    public void getMonthlyReport(
             @RequestParam int month,
-            @RequestParam int year) {
-        return ResponseEntity.ok(reportService.generateMonthlyReport(month, year));
+            @RequestParam int year,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        YearMonth period = YearMonth.of(year, month);
+        ReportArtifactService.Artifact artifact = reportArtifactService.resolve(
+                new ReportArtifactService.Key(ReportArtifactType.MONTHLY_REPORT, period, period, "json", Map.of()),
+                MediaType.APPLICATION_JSON_VALUE,
+                () -> json(reportService.generateMonthlyReport(month, year)));
+        write(artifact, null, request, response);
     }
 
     @GetMapping("/monthly/export")
     @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
-    public ResponseEntity<byte[]> exportMonthlyReport(
+    public void exportMonthlyReport(
             @RequestParam int month,
-            @RequestParam int year) {
-        MonthlyReportDTO report = reportService.generateMonthlyReport(month, year);
-        String csv = exportService.generateMonthlyReportCsv(report);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION,
-                        "attachment; filename=monthly-report-" + year + "-" + month + ".csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv.getBytes());
+            @RequestParam int year,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        YearMonth period = YearMonth.of(year, month);
+        ReportArtifactService.Artifact artifact = reportArtifactService.resolve(
+                new ReportArtifactService.Key(ReportArtifactType.MONTHLY_REPORT, period, period, "csv", Map.of()),
+                TEXT_CSV,
+                () -> exportService.generateMonthlyReportCsv(reportService.generateMonthlyReport(month, year))
+                        .getBytes());
+        write(artifact, "monthly-report-" + year + "-" + month + ".csv", request, response);
     }
 
     @GetMapping("/overdue-loans")
@@ -64,45 +92,45 @@ public class ReportController {
 
     @GetMapping("/income-expense")
     @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
-    public ResponseEntity<com.bansaiyai.bansaiyai.dto.report.IncomeExpenseReportDTO> getIncomeExpenseReport(
+    public void getIncomeExpenseReport(
             @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate startDate,
-            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate endDate) {
-        return ResponseEntity.ok(reportService.generateIncomeExpenseReport(startDate, endDate));
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate endDate,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        write(incomeExpense(startDate, endDate, "json", MediaType.APPLICATION_JSON_VALUE, this::json),
+                null, request, response);
     }
 
     @GetMapping("/income-expense/export")
     @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
-    public ResponseEntity<byte[]> exportIncomeExpenseReport(
+    public void exportIncomeExpenseReport(
             @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate startDate,
-            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate endDate) {
-        com.bansaiyai.bansaiyai.dto.report.IncomeExpenseReportDTO report = reportService
-                .generateIncomeExpenseReport(startDate, endDate);
-        String csv = exportService.generateIncomeExpenseReportCsv(report);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=income-expense.csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv.getBytes());
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate endDate,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        write(incomeExpense(startDate, endDate, "csv", TEXT_CSV,
+                report -> exportService.generateIncomeExpenseReportCsv(report).getBytes()),
+                "income-expense.csv", request, response);
     }
 
     @GetMapping("/balance-sheet")
     @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
-    public ResponseEntity<com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO> getBalanceSheet(
-            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate asOfDate) {
-        return ResponseEntity.ok(reportService.generateBalanceSheet(asOfDate));
+    public void getBalanceSheet(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate asOfDate,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        write(balanceSheet(asOfDate, "json", MediaType.APPLICATION_JSON_VALUE, this::json), null, request, response);
     }
 
     @GetMapping("/balance-sheet/export")
     @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
-    public ResponseEntity<byte[]> exportBalanceSheet(
-            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate asOfDate) {
-        com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO report = reportService.generateBalanceSheet(asOfDate);
-        String csv = exportService.generateBalanceSheetCsv(report);
-
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=balance-sheet.csv")
-                .contentType(MediaType.parseMediaType("text/csv"))
-                .body(csv.getBytes());
+    public void exportBalanceSheet(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate asOfDate,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        write(balanceSheet(asOfDate, "csv", TEXT_CSV,
+                report -> exportService.generateBalanceSheetCsv(report).getBytes()),
+                "balance-sheet.csv", request, response);
     }
 
     @GetMapping("/member/{memberId}/statement")
@@ -141,4 +169,88 @@ public class ReportController {
                 .contentType(MediaType.parseMediaType("text/csv"))
                 .body(csv.getBytes());
     }
+
+    /**
+     * Full general ledger export. Streams rows from a database cursor directly
+     * into the response, so memory use is constant regardless of ledger size.
+     */
+    @GetMapping("/ledger/export")
+    @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
+    public ResponseEntity<StreamingResponseBody> exportLedger(
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate startDate,
+            @RequestParam @org.springframework.format.annotation.DateTimeFormat(iso = org.springframework.format.annotation.DateTimeFormat.ISO.DATE) java.time.LocalDate endDate,
+            @RequestParam(required = false) String accountCode) {
+        StreamingResponseBody body = out -> exportService.writeLedgerCsv(startDate, endDate, accountCode, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=ledger-" + startDate + "-" + endDate + ".csv")
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(body);
+    }
+
+    /**
+     * Yearly saving transaction export as Excel, streamed to the response.
+     */
+    @GetMapping("/transactions/export")
+    @PreAuthorize("hasAnyRole('SECRETARY', 'PRESIDENT')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(@RequestParam int year) {
+        java.time.LocalDate startDate = java.time.LocalDate.of(year, 1, 1);
+        java.time.LocalDate endDate = java.time.LocalDate.of(year, 12, 31);
+        StreamingResponseBody body = out -> exportService.writeSavingTransactionsExcel(startDate, endDate, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=transactions-" + year + ".xlsx")
+                .contentType(MediaType.parseMediaType(
+                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"))
+                .body(body);
+    }
+
+    /**
+     * Income and expense over whole months is stored once the months are
+     * closed; a range starting or ending mid-month is rendered every time.
+     */
+    private ReportArtifactService.Artifact incomeExpense(java.time.LocalDate startDate,
+            java.time.LocalDate endDate, String format, String contentType,
+            Function<com.bansaiyai.bansaiyai.dto.report.IncomeExpenseReportDTO, byte[]> render) {
+        YearMonth from = YearMonth.from(startDate);
+        YearMonth to = YearMonth.from(endDate);
+        boolean wholeMonths = startDate.getDayOfMonth() == 1 && endDate.equals(to.atEndOfMonth());
+        ReportArtifactService.Key key = new ReportArtifactService.Key(
+                ReportArtifactType.INCOME_EXPENSE, from, to, format, Map.of());
+        Supplier<byte[]> generator = () -> render.apply(reportService.generateIncomeExpenseReport(startDate, endDate));
+        return wholeMonths
+                ? reportArtifactService.resolve(key, contentType, generator)
+                : reportArtifactService.resolve(key, contentType, false, generator);
+    }
+
+    /**
+     * A balance sheet accumulates the whole ledger, so it is stored once the
+     * period of its date is closed.
+     */
+    private ReportArtifactService.Artifact balanceSheet(java.time.LocalDate asOfDate, String format,
+            String contentType, Function<com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO, byte[]> render) {
+        ReportArtifactService.Key key = new ReportArtifactService.Key(ReportArtifactType.BALANCE_SHEET,
+                null, YearMonth.from(asOfDate), format, Map.of("asOfDate", asOfDate));
+        return reportArtifactService.resolve(key, contentType,
+                () -> render.apply(reportService.generateBalanceSheet(asOfDate)));
+    }
+
+    private byte[] json(Object report) {
+        try {
+            return objectMapper.writeValueAsBytes(report);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize report", e);
+        }
+    }
+
+    private static void write(ReportArtifactService.Artifact artifact, String filename,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(artifact.contentType());
+        if (filename != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, artifact.cacheControl());
+        RangedFileResponse.write(request, response, artifact.body(), artifact.etag());
+    }
 }
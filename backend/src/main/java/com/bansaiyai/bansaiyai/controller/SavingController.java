@@ -2,6 +2,9 @@ package com.bansaiyai.bansaiyai.controller;
 
 import com.bansaiyai.bansaiyai.dto.SavingAccountRequest;
 import com.bansaiyai.bansaiyai.dto.SavingResponse;
+import com.bansaiyai.bansaiyai.entity.InterestRun;
+import com.bansaiyai.bansaiyai.entity.enums.InterestRunStatus;
+import com.bansaiyai.bansaiyai.service.InterestRunService;
 import com.bansaiyai.bansaiyai.service.SavingService;
 import com.bansaiyai.bansaiyai.service.SavingService.AccountStatistics;
 import jakarta.validation.Valid;
@@ -33,6 +36,7 @@ import java.util.Map;
 public class SavingController {
 
   private final SavingService savingService;
+  private final InterestRunService interestRunService;
   private final com.bansaiyai.bansaiyai.security.UserContext userContext;
 
   /**
@@ -218,7 +222,8 @@ public class SavingController {
   }
 
   /**
-   * Calculate and credit interest to accounts
+   * Calculate and credit interest to accounts. Re-posting the same date
+   * resumes an incomplete run.
    */
   @PostMapping("/accounts/calculate-interest")
   @PreAuthorize("hasAnyRole('ROLE_PRESIDENT')")
@@ -226,10 +231,16 @@ public class SavingController {
       @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate asOfDate) {
 
     try {
-      savingService.calculateAndCreditInterest(asOfDate);
+      InterestRun run = interestRunService.runInterest(asOfDate, userContext.getCurrentUsername());
       return ResponseEntity.ok(Map.of(
-          "message", "Interest calculation completed successfully",
-          "asOfDate", asOfDate.toString()));
+          "message", run.getStatus() == InterestRunStatus.COMPLETED
+              ? "Interest calculation completed successfully"
+              : "Interest calculation incomplete: " + run.getLastError(),
+          "asOfDate", asOfDate.toString(),
+          "status", run.getStatus().name(),
+          "completedChunks", run.getCompletedChunks() + "/" + run.getTotalChunks(),
+          "accountsCredited", String.valueOf(run.getAccountsCredited()),
+          "totalInterest", run.getTotalInterest().toPlainString()));
     } catch (Exception e) {
       log.error("Error calculating interest: {}", e.getMessage());
       return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -1,24 +1,60 @@
 package com.bansaiyai.bansaiyai.controller;
 
+import com.bansaiyai.bansaiyai.seeder.BulkDataGenerator;
+import com.bansaiyai.bansaiyai.seeder.GeneratorOptions;
 import com.bansaiyai.bansaiyai.seeder.StressTestSeeder;
+import com.bansaiyai.bansaiyai.service.AccountPeriodBalanceService;
+import com.bansaiyai.bansaiyai.service.MemberSearchIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/dev/seed")
 @RequiredArgsConstructor
-// Optional: @Profile("dev") or similar to restrict access in prod
+// Seeding and bulk generation write straight to the database; never exposed in prod
+@Profile({ "dev", "test" })
 public class SeederController {
 
     private final StressTestSeeder stressTestSeeder;
+    private final BulkDataGenerator bulkDataGenerator;
+    private final MemberSearchIndex memberSearchIndex;
+    private final AccountPeriodBalanceService accountPeriodBalanceService;
 
     @PostMapping("/stress")
     public ResponseEntity<String> triggerStressSeed() {
         stressTestSeeder.seedStressData();
         return ResponseEntity.ok("Stress test data seeded successfully.");
     }
+
+    /**
+     * Generate a production-sized data set, e.g.
+     * {@code POST /api/dev/seed/generate?members=100000&years=5}.
+     * Loan mix is given as {@code PERSONAL:50,EMERGENCY:25,...}.
+     */
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('PRESIDENT')")
+    public ResponseEntity<BulkDataGenerator.GenerationReport> generate(
+            @RequestParam(defaultValue = "10000") int members,
+            @RequestParam(defaultValue = "5") int years,
+            @RequestParam(defaultValue = "2") int transactionsPerMonth,
+            @RequestParam(defaultValue = "0.4") double borrowerRatio,
+            @RequestParam(required = false) String loanMix,
+            @RequestParam(defaultValue = "500") int chunkSize,
+            @RequestParam(defaultValue = "4") int parallelism,
+            @RequestParam(defaultValue = "42") long seed) {
+        GeneratorOptions options = new GeneratorOptions(members, years, transactionsPerMonth, borrowerRatio,
+                GeneratorOptions.parseLoanMix(loanMix), chunkSize, parallelism, seed);
+        BulkDataGenerator.GenerationReport report = bulkDataGenerator.generate(options);
+        // Rows were written behind JPA's back; member search serves from memory
+        memberSearchIndex.rebuild();
+        // Journal rows bypassed posting, so period balances are derived afresh
+        accountPeriodBalanceService.verifyAndRepair();
+        return ResponseEntity.ok(report);
+    }
 }
@@ -0,0 +1,34 @@
+package com.bansaiyai.bansaiyai.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Request for a dividend what-if simulation. Every combination of
+ * dividendRates x averageReturnRates is evaluated; nothing is persisted.
+ */
+@Data
+public class DividendSimulationRequest {
+
+    @NotNull(message = "Year is required")
+    @Min(value = 2000, message = "Invalid year")
+    private Integer year;
+
+    @NotEmpty(message = "At least one dividend rate is required")
+    private List<BigDecimal> dividendRates;
+
+    @NotEmpty(message = "At least one average return rate is required")
+    private List<BigDecimal> averageReturnRates;
+
+    /**
+     * Optional payout budget. When set, the highest dividend rate whose total
+     * payout stays within this amount is solved for each average return rate.
+     */
+    @Min(value = 0, message = "Target payout cannot be negative")
+    private BigDecimal targetPayout;
+}
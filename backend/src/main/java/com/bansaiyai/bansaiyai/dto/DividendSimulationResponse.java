@@ -0,0 +1,49 @@
+package com.bansaiyai.bansaiyai.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of a dividend what-if simulation.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DividendSimulationResponse {
+
+    private Integer year;
+    private int memberCount;
+    private BigDecimal totalShareCapital;
+    private BigDecimal totalInterestPaid;
+    private BigDecimal targetPayout;
+    private List<Scenario> scenarios;
+
+    /**
+     * Best scenario per average return rate that fits within the target payout.
+     * Empty when no target was given.
+     */
+    private List<Scenario> targetMatches;
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Scenario {
+        private BigDecimal dividendRate;
+        private BigDecimal averageReturnRate;
+        private BigDecimal totalDividendAmount;
+        private BigDecimal totalAverageReturnAmount;
+        private BigDecimal totalPayout;
+        private int recipientCount;
+        private BigDecimal medianPayout;
+        private BigDecimal p90Payout;
+        private BigDecimal maxPayout;
+        private Boolean withinTarget;
+    }
+}
@@ -18,6 +18,8 @@ public class LoanDocumentResponse {
     private String documentName;
     private String documentType;
     private String documentUrl;
+    private String thumbnailUrl; // Downscaled JPEG renditions; null for PDFs
+    private String previewUrl;
     private Long fileSize;
     private String uploadedBy;
     private String uploadedAt;
@@ -40,6 +40,8 @@ public class PaymentNotificationResponse {
     private BigDecimal payAmount;
     private LocalDateTime payDate;
     private String slipImageUrl;
+    private String slipThumbnailUrl; // Downscaled JPEG renditions; null for PDFs and legacy slips
+    private String slipPreviewUrl;
     private String notes;
 
     // Status
@@ -2,6 +2,7 @@ package com.bansaiyai.bansaiyai.dto;
 
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
+import com.bansaiyai.bansaiyai.repository.projection.PaymentListRow;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -128,15 +129,28 @@ public class PaymentResponse {
     if (payment == null)
       return null;
 
+    return from(payment,
+        payment.getMember() != null ? payment.getMember().getName() : null,
+        payment.getLoan() != null ? payment.getLoan().getLoanNumber() : null,
+        payment.getSavingAccount() != null ? payment.getSavingAccount().getAccountNumber() : null);
+  }
+
+  // Static factory method from a listing row; reads no lazy association
+  public static PaymentResponse fromListRow(PaymentListRow row) {
+    return from(row.payment(), row.memberName(), row.loanNumber(), row.savingAccountNumber());
+  }
+
+  private static PaymentResponse from(com.bansaiyai.bansaiyai.entity.Payment payment, String memberName,
+      String loanNumber, String savingAccountNumber) {
     return PaymentResponse.builder()
         .id(payment.getId())
         .paymentNumber(payment.getPaymentNumber())
         .memberId(payment.getMember() != null ? payment.getMember().getId() : null)
-        .memberName(payment.getMember() != null ? payment.getMember().getName() : null)
+        .memberName(memberName)
         .loanId(payment.getLoan() != null ? payment.getLoan().getId() : null)
-        .loanNumber(payment.getLoan() != null ? payment.getLoan().getLoanNumber() : null)
+        .loanNumber(loanNumber)
         .savingAccountId(payment.getSavingAccount() != null ? payment.getSavingAccount().getId() : null)
-        .savingAccountNumber(payment.getSavingAccount() != null ? payment.getSavingAccount().getAccountNumber() : null)
+        .savingAccountNumber(savingAccountNumber)
         .paymentType(payment.getPaymentType())
         .paymentTypeDisplay(payment.getPaymentType() != null ? payment.getPaymentType().getDisplayName() : null)
         .paymentStatus(payment.getPaymentStatus())
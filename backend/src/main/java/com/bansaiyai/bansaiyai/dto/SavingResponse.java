@@ -1,6 +1,7 @@
 package com.bansaiyai.bansaiyai.dto;
 
 import com.bansaiyai.bansaiyai.entity.enums.AccountType;
+import com.bansaiyai.bansaiyai.repository.projection.SavingAccountListRow;
 import lombok.*;
 
 import java.math.BigDecimal;
@@ -94,11 +95,20 @@ public class SavingResponse {
     if (account == null)
       return null;
 
+    return from(account, account.getMember() != null ? account.getMember().getName() : null);
+  }
+
+  // Static factory method from a listing row; reads no lazy association
+  public static SavingResponse fromListRow(SavingAccountListRow row) {
+    return from(row.account(), row.memberName());
+  }
+
+  private static SavingResponse from(com.bansaiyai.bansaiyai.entity.SavingAccount account, String memberName) {
     return SavingResponse.builder()
         .id(account.getId())
         .accountNumber(account.getAccountNumber())
         .memberId(account.getMember() != null ? account.getMember().getId() : null)
-        .memberName(account.getMember() != null ? account.getMember().getName() : null)
+        .memberName(memberName)
         .accountType(account.getAccountType())
         .accountTypeDisplay(account.getAccountType() != null ? account.getAccountType().getDisplayName() : null)
         .accountName(account.getAccountName())
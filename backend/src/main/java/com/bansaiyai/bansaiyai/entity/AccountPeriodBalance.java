@@ -0,0 +1,90 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ledger totals of one account in one fiscal period ("yyyy-MM"). Balances
+ * are net debit (debits minus credits): the closing balance is the opening
+ * balance plus the period's debits minus its credits, and the opening
+ * balance is the previous period's closing. Maintained in the same
+ * transaction as every journal posting, so the trial balance and financial
+ * statements read one row per account instead of scanning entries.
+ */
+@Entity
+@Table(name = "account_period_balance", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_account_period_balance", columnNames = { "account_code", "fiscal_period" })
+}, indexes = {
+    @Index(name = "idx_account_period_balance_period", columnList = "fiscal_period")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountPeriodBalance {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "balance_id")
+  private Long balanceId;
+
+  @Column(name = "account_code", nullable = false, length = 10)
+  private String accountCode;
+
+  @Column(name = "fiscal_period", nullable = false, length = 20)
+  private String fiscalPeriod;
+
+  @Column(name = "account_name", length = 100)
+  private String accountName;
+
+  @Column(name = "opening_balance", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal openingBalance = BigDecimal.ZERO;
+
+  @Column(name = "period_debit", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal periodDebit = BigDecimal.ZERO;
+
+  @Column(name = "period_credit", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal periodCredit = BigDecimal.ZERO;
+
+  @Column(name = "closing_balance", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal closingBalance = BigDecimal.ZERO;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  /**
+   * Net movement of the period, debits minus credits.
+   */
+  public BigDecimal netMovement() {
+    return periodDebit.subtract(periodCredit);
+  }
+
+  /**
+   * Whether the stored figures equal the given ones.
+   */
+  public boolean hasFigures(BigDecimal opening, BigDecimal debit, BigDecimal credit) {
+    return openingBalance.compareTo(opening) == 0
+        && periodDebit.compareTo(debit) == 0
+        && periodCredit.compareTo(credit) == 0
+        && closingBalance.compareTo(opening.add(debit).subtract(credit)) == 0;
+  }
+
+  /**
+   * Set the period figures and derive the closing balance from them.
+   */
+  public void setFigures(BigDecimal opening, BigDecimal debit, BigDecimal credit) {
+    openingBalance = opening;
+    periodDebit = debit;
+    periodCredit = credit;
+    closingBalance = opening.add(debit).subtract(credit);
+    updatedAt = LocalDateTime.now();
+  }
+}
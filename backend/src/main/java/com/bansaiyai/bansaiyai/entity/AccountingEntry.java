@@ -15,7 +15,8 @@ import java.time.LocalDate;
         @Index(name = "idx_accounting_fiscal_period", columnList = "fiscal_period"),
         @Index(name = "idx_accounting_debit", columnList = "debit"),
         @Index(name = "idx_accounting_credit", columnList = "credit"),
-        @Index(name = "idx_accounting_account_code", columnList = "account_code")
+        @Index(name = "idx_accounting_account_code", columnList = "account_code"),
+        @Index(name = "idx_accounting_account_code_posting_seq", columnList = "account_code, posting_seq")
 })
 public class AccountingEntry extends BaseEntity {
 
@@ -49,6 +50,10 @@ public class AccountingEntry extends BaseEntity {
     @Column(name = "reference_number", length = 50)
     private String referenceNumber; // e.g., "JRN-123456789"
 
+    // Commit order of the posting; null until the posting transaction commits
+    @Column(name = "posting_seq")
+    private Long postingSeq;
+
     // Constructors
     public AccountingEntry() {
     }
@@ -145,4 +150,12 @@ public class AccountingEntry extends BaseEntity {
     public void setReferenceNumber(String referenceNumber) {
         this.referenceNumber = referenceNumber;
     }
+
+    public Long getPostingSeq() {
+        return postingSeq;
+    }
+
+    public void setPostingSeq(Long postingSeq) {
+        this.postingSeq = postingSeq;
+    }
 }
@@ -0,0 +1,27 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single row that orders postings against cash checkpoints. A posting holds
+ * it in share mode from drawing its posting sequence until it commits; a
+ * checkpoint locks it exclusively, so it waits for those postings without
+ * postings waiting for each other.
+ */
+@Entity
+@Table(name = "accounting_posting_fence")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AccountingPostingFence {
+
+  /** The only row. */
+  public static final int ID = 1;
+
+  @Id
+  @Column(name = "id")
+  private Integer id;
+}
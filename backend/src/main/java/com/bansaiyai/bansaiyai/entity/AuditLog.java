@@ -26,7 +26,8 @@ import java.time.LocalDateTime;
 public class AuditLog {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // Pooled like BaseEntity ids: audit rows are often written in bursts
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
   @Column(name = "log_id")
   private Long logId;
 
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public abstract class BaseEntity {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  // Pooled sequence (blocks of 50, see SerialSequenceNamingStrategy) so inserts batch
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
   private Long id;
 
   @Column(name = "uuid", unique = true, nullable = false, updatable = false)
@@ -0,0 +1,58 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpointed closing balance of a ledger account, written when a cash
+ * reconciliation is approved. The balance covers every entry of the account
+ * dated on or before {@code balanceDate} with a posting sequence up to
+ * {@code lastPostingSeq}; later balances are derived as checkpoint + delta.
+ */
+@Entity
+@Table(name = "cash_balance_checkpoints", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_cash_checkpoint_account_date", columnNames = { "account_code", "balance_date" })
+}, indexes = {
+    @Index(name = "idx_cash_checkpoint_account_date", columnList = "account_code, balance_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CashBalanceCheckpoint {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "checkpoint_id")
+  private Long checkpointId;
+
+  @Column(name = "account_code", nullable = false, length = 10)
+  private String accountCode;
+
+  @Column(name = "balance_date", nullable = false)
+  private LocalDate balanceDate;
+
+  @Column(name = "closing_balance", nullable = false, precision = 15, scale = 2)
+  private BigDecimal closingBalance;
+
+  /**
+   * Highest posting sequence included in the closing balance. Entries
+   * back-dated into the checkpointed range after it was taken commit with a
+   * higher sequence and are still picked up by the delta query.
+   */
+  @Column(name = "last_posting_seq", nullable = false)
+  private Long lastPostingSeq;
+
+  @Column(name = "reconciliation_id")
+  private Long reconciliationId;
+
+  @Column(name = "created_at", nullable = false, updatable = false)
+  @CreationTimestamp
+  private LocalDateTime createdAt;
+}
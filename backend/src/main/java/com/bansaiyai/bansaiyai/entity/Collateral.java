@@ -118,6 +118,9 @@ public class Collateral extends BaseEntity {
   @Size(max = 500, message = "Document path must not exceed 500 characters")
   private String documentPath;
 
+  @Column(name = "document_sha256", length = 64)
+  private String documentSha256;
+
   // Business logic methods
   /**
    * Check if collateral is valid (not expired)
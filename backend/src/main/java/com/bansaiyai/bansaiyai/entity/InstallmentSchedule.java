@@ -0,0 +1,92 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One installment of a loan's amortization schedule. Rows are generated
+ * when the loan is disbursed and repayments are allocated to them oldest
+ * first, so the amount still due on an installment is
+ * {@code amountDue - principalPaid - interestPaid}.
+ */
+@Entity
+@Table(name = "installment_schedule", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_installment_schedule_loan_no", columnNames = { "loan_id", "installment_no" })
+}, indexes = {
+    @Index(name = "idx_installment_open_due", columnList = "due_date"),
+    @Index(name = "idx_installment_open_member_due", columnList = "member_id, due_date")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InstallmentSchedule {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  private Long id;
+
+  @Column(name = "loan_id", nullable = false)
+  private Long loanId;
+
+  @Column(name = "member_id", nullable = false)
+  private Long memberId;
+
+  @Column(name = "installment_no", nullable = false)
+  private Integer installmentNo;
+
+  @Column(name = "due_date", nullable = false)
+  private LocalDate dueDate;
+
+  @Column(name = "opening_balance", nullable = false, precision = 15, scale = 2)
+  private BigDecimal openingBalance;
+
+  @Column(name = "principal_due", nullable = false, precision = 15, scale = 2)
+  private BigDecimal principalDue;
+
+  @Column(name = "interest_due", nullable = false, precision = 15, scale = 2)
+  private BigDecimal interestDue;
+
+  @Column(name = "amount_due", nullable = false, precision = 15, scale = 2)
+  private BigDecimal amountDue;
+
+  @Column(name = "closing_balance", nullable = false, precision = 15, scale = 2)
+  private BigDecimal closingBalance;
+
+  @Column(name = "principal_paid", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal principalPaid = BigDecimal.ZERO;
+
+  @Column(name = "interest_paid", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal interestPaid = BigDecimal.ZERO;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  @Builder.Default
+  private InstallmentStatus status = InstallmentStatus.PENDING;
+
+  @Column(name = "paid_date")
+  private LocalDate paidDate;
+
+  public BigDecimal getPrincipalRemaining() {
+    return principalDue.subtract(principalPaid);
+  }
+
+  public BigDecimal getInterestRemaining() {
+    return interestDue.subtract(interestPaid);
+  }
+
+  public BigDecimal getAmountRemaining() {
+    return amountDue.subtract(principalPaid).subtract(interestPaid);
+  }
+
+  public boolean isOverdue(LocalDate today) {
+    return status != InstallmentStatus.PAID && dueDate.isBefore(today);
+  }
+}
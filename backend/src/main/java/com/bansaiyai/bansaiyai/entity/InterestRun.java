@@ -0,0 +1,67 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import com.bansaiyai.bansaiyai.entity.enums.InterestRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One savings interest crediting run, unique per as-of date. The accounts
+ * due for interest are split into {@link InterestRunChunk}s by ID range when
+ * the run is created; calling the run again for the same date resumes it,
+ * processing only chunks that have not completed.
+ */
+@Entity
+@Table(name = "interest_run")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestRun {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  private Long id;
+
+  @Column(name = "as_of_date", nullable = false, unique = true)
+  private LocalDate asOfDate;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  private InterestRunStatus status;
+
+  @Column(name = "chunk_size", nullable = false)
+  private Integer chunkSize;
+
+  @Column(name = "total_chunks", nullable = false)
+  @Builder.Default
+  private Integer totalChunks = 0;
+
+  @Column(name = "completed_chunks", nullable = false)
+  @Builder.Default
+  private Integer completedChunks = 0;
+
+  @Column(name = "accounts_credited", nullable = false)
+  @Builder.Default
+  private Integer accountsCredited = 0;
+
+  @Column(name = "total_interest", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal totalInterest = BigDecimal.ZERO;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  @Column(name = "started_by", length = 100)
+  private String startedBy;
+
+  @Column(name = "started_at", nullable = false)
+  private LocalDateTime startedAt;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+}
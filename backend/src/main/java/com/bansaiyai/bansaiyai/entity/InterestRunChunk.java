@@ -0,0 +1,59 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import com.bansaiyai.bansaiyai.entity.enums.InterestRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A contiguous savings account ID range of an {@link InterestRun}. A chunk
+ * is credited in its own transaction, which also marks it COMPLETED, so a
+ * crash leaves it PENDING and a restart credits it exactly once.
+ */
+@Entity
+@Table(name = "interest_run_chunk", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_interest_run_chunk", columnNames = { "run_id", "chunk_index" })
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InterestRunChunk {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  private Long id;
+
+  @Column(name = "run_id", nullable = false)
+  private Long runId;
+
+  @Column(name = "chunk_index", nullable = false)
+  private Integer chunkIndex;
+
+  @Column(name = "first_account_id", nullable = false)
+  private Long firstAccountId;
+
+  @Column(name = "last_account_id", nullable = false)
+  private Long lastAccountId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  private InterestRunStatus status;
+
+  @Column(name = "accounts_credited", nullable = false)
+  @Builder.Default
+  private Integer accountsCredited = 0;
+
+  @Column(name = "interest_total", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal interestTotal = BigDecimal.ZERO;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  @Column(name = "completed_at")
+  private LocalDateTime completedAt;
+}
@@ -9,6 +9,7 @@ import lombok.experimental.FieldNameConstants;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.math.BigDecimal;
+import java.math.MathContext;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -36,6 +37,10 @@ import java.util.UUID;
 @EntityListeners(AuditingEntityListener.class)
 public class Loan extends BaseEntity {
 
+  /** Overdue penalty per day: 1% per month on the outstanding balance. */
+  public static final BigDecimal DAILY_PENALTY_RATE = new BigDecimal("0.01")
+      .divide(BigDecimal.valueOf(30), 8, RoundingMode.HALF_UP);
+
   /**
    * UUID for external API use - prevents ID enumeration attacks
    * This is the primary identifier exposed in public APIs
@@ -165,15 +170,28 @@ public class Loan extends BaseEntity {
     if (principalAmount == null || interestRate == null || termMonths == null) {
       return BigDecimal.ZERO;
     }
+    return calculateInstallment(principalAmount, interestRate, termMonths);
+  }
 
-    // Convert annual rate to monthly rate
-    BigDecimal monthlyRate = interestRate.divide(BigDecimal.valueOf(1200), 8, RoundingMode.HALF_UP);
-
-    // Calculate installment using formula: P * r / (1 - (1 + r)^-n)
-    BigDecimal denominator = BigDecimal.ONE.subtract(
-        BigDecimal.ONE.add(monthlyRate).pow(-termMonths));
+  /**
+   * Monthly rate used by the schedule: the annual percentage rate / 1200.
+   */
+  public static BigDecimal monthlyRate(BigDecimal annualRatePercent) {
+    return annualRatePercent.divide(BigDecimal.valueOf(1200), 8, RoundingMode.HALF_UP);
+  }
 
-    return principalAmount.multiply(monthlyRate).divide(denominator, 2, RoundingMode.HALF_UP);
+  /**
+   * Level installment for a reducing balance loan: {@code P * r / (1 - (1 + r)^-n)},
+   * computed as {@code P * r * g / (g - 1)} with {@code g = (1 + r)^n}.
+   */
+  public static BigDecimal calculateInstallment(BigDecimal principal, BigDecimal annualRatePercent, int months) {
+    BigDecimal monthlyRate = monthlyRate(annualRatePercent);
+    if (monthlyRate.signum() == 0) {
+      return principal.divide(BigDecimal.valueOf(months), 2, RoundingMode.HALF_UP);
+    }
+    BigDecimal growth = BigDecimal.ONE.add(monthlyRate).pow(months, MathContext.DECIMAL128);
+    return principal.multiply(monthlyRate).multiply(growth)
+        .divide(growth.subtract(BigDecimal.ONE), 2, RoundingMode.HALF_UP);
   }
 
   /**
@@ -219,14 +237,15 @@ public class Loan extends BaseEntity {
       return BigDecimal.ZERO;
     }
 
-    Long daysOverdue = getDaysOverdue();
-    BigDecimal outstandingBalance = getOutstandingBalance();
-
-    // Penalty rate: 1% per month on outstanding balance
-    BigDecimal monthlyPenaltyRate = new BigDecimal("0.01");
-    BigDecimal dailyRate = monthlyPenaltyRate.divide(BigDecimal.valueOf(30), 8, RoundingMode.HALF_UP);
+    return calculatePenalty(getOutstandingBalance(), getDaysOverdue());
+  }
 
-    return outstandingBalance.multiply(dailyRate).multiply(BigDecimal.valueOf(daysOverdue))
+  /**
+   * Penalty on an outstanding balance overdue for the given number of days.
+   * The daily delinquency job applies the same formula in bulk SQL.
+   */
+  public static BigDecimal calculatePenalty(BigDecimal outstandingBalance, long daysOverdue) {
+    return outstandingBalance.multiply(DAILY_PENALTY_RATE).multiply(BigDecimal.valueOf(daysOverdue))
         .setScale(2, RoundingMode.HALF_UP);
   }
 
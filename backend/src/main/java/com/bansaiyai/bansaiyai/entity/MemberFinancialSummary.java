@@ -0,0 +1,110 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Denormalized per-member financial position, one row per member.
+ * Maintained in the same transaction as every posting that touches the
+ * member's savings, share capital, loans or guarantees, so dashboards,
+ * risk profiles and eligibility checks read a single row instead of
+ * aggregating the member's accounts on every request.
+ */
+@Entity
+@Table(name = "member_financial_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberFinancialSummary {
+
+  @Id
+  @Column(name = "member_id")
+  private Long memberId;
+
+  /** Sum of balances of the member's active savings accounts. */
+  @Column(name = "total_savings", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal totalSavings = BigDecimal.ZERO;
+
+  @Column(name = "savings_account_count", nullable = false)
+  @Builder.Default
+  private Integer savingsAccountCount = 0;
+
+  @Column(name = "share_capital", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal shareCapital = BigDecimal.ZERO;
+
+  /** Outstanding balance across the member's ACTIVE loans. */
+  @Column(name = "outstanding_principal", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal outstandingPrincipal = BigDecimal.ZERO;
+
+  @Column(name = "active_loan_count", nullable = false)
+  @Builder.Default
+  private Integer activeLoanCount = 0;
+
+  /** All loans ever applied for, in any status. */
+  @Column(name = "loan_count", nullable = false)
+  @Builder.Default
+  private Integer loanCount = 0;
+
+  /** Amount the member guarantees on other members' loans (active guarantees). */
+  @Column(name = "guaranteed_exposure", nullable = false, precision = 15, scale = 2)
+  @Builder.Default
+  private BigDecimal guaranteedExposure = BigDecimal.ZERO;
+
+  @Column(name = "last_payment_date")
+  private LocalDate lastPaymentDate;
+
+  /** Earliest due date of an unpaid installment of the member's ACTIVE loans. */
+  @Column(name = "next_due_date")
+  private LocalDate nextDueDate;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+
+  public static MemberFinancialSummary empty(Long memberId) {
+    return MemberFinancialSummary.builder()
+        .memberId(memberId)
+        .updatedAt(LocalDateTime.now())
+        .build();
+  }
+
+  /**
+   * Whether the stored figures match a freshly computed summary.
+   */
+  public boolean sameFiguresAs(MemberFinancialSummary other) {
+    return totalSavings.compareTo(other.totalSavings) == 0
+        && savingsAccountCount.equals(other.savingsAccountCount)
+        && shareCapital.compareTo(other.shareCapital) == 0
+        && outstandingPrincipal.compareTo(other.outstandingPrincipal) == 0
+        && activeLoanCount.equals(other.activeLoanCount)
+        && loanCount.equals(other.loanCount)
+        && guaranteedExposure.compareTo(other.guaranteedExposure) == 0
+        && Objects.equals(lastPaymentDate, other.lastPaymentDate)
+        && Objects.equals(nextDueDate, other.nextDueDate);
+  }
+
+  /**
+   * Overwrite the stored figures with those of a freshly computed summary.
+   */
+  public void copyFiguresFrom(MemberFinancialSummary other) {
+    totalSavings = other.totalSavings;
+    savingsAccountCount = other.savingsAccountCount;
+    shareCapital = other.shareCapital;
+    outstandingPrincipal = other.outstandingPrincipal;
+    activeLoanCount = other.activeLoanCount;
+    loanCount = other.loanCount;
+    guaranteedExposure = other.guaranteedExposure;
+    lastPaymentDate = other.lastPaymentDate;
+    nextDueDate = other.nextDueDate;
+    updatedAt = LocalDateTime.now();
+  }
+}
@@ -0,0 +1,81 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import com.bansaiyai.bansaiyai.entity.enums.OutboxStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An email waiting to be sent. Rows are written in the transaction of the
+ * business change that caused them and delivered later by the outbox
+ * dispatcher, so a burst of notifications queues in the database instead of
+ * in an executor.
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_notification_outbox_due", columnList = "provider, next_attempt_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.SEQUENCE)
+  private Long id;
+
+  /** Sending provider; dispatch is rate limited per provider. */
+  @Column(name = "provider", nullable = false, length = 50)
+  private String provider;
+
+  @Column(name = "recipient", nullable = false, length = 255)
+  private String recipient;
+
+  @Column(name = "subject", nullable = false, length = 255)
+  private String subject;
+
+  @Column(name = "template", nullable = false, length = 100)
+  private String template;
+
+  /** Template variables as a JSON object of strings. */
+  @Column(name = "variables", columnDefinition = "TEXT")
+  private String variables;
+
+  /** Identifies the event notified, so generators can run again safely. */
+  @Column(name = "dedupe_key", unique = true, length = 150)
+  private String dedupeKey;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "status", nullable = false, length = 20)
+  @Builder.Default
+  private OutboxStatus status = OutboxStatus.PENDING;
+
+  @Column(name = "attempts", nullable = false)
+  @Builder.Default
+  private Integer attempts = 0;
+
+  @Column(name = "next_attempt_at", nullable = false)
+  private LocalDateTime nextAttemptAt;
+
+  @Column(name = "last_error", length = 1000)
+  private String lastError;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  @Column(name = "sent_at")
+  private LocalDateTime sentAt;
+
+  @PrePersist
+  protected void onCreate() {
+    if (createdAt == null) {
+      createdAt = LocalDateTime.now();
+    }
+    if (nextAttemptAt == null) {
+      nextAttemptAt = createdAt;
+    }
+  }
+}
@@ -60,6 +60,10 @@ public class PaymentNotification extends BaseEntity {
     @Size(max = 255, message = "Slip image path must not exceed 255 characters")
     private String slipImage;
 
+    /** SHA-256 of the slip in the blob store; null for legacy slip files. */
+    @Column(name = "slip_sha256", length = 64)
+    private String slipSha256;
+
     @Column(name = "notes", length = 500)
     private String notes;
 
@@ -196,7 +200,7 @@ public class PaymentNotification extends BaseEntity {
         if (slipImage == null || slipImage.isEmpty()) {
             return null;
         }
-        return "/api/files/slips/" + slipImage;
+        return "/api/payment-notifications/slips/" + slipImage;
     }
 
     @PrePersist
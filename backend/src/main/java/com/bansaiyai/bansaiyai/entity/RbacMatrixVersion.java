@@ -0,0 +1,33 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single-row counter bumped on every role-permission edit, so each
+ * application node can tell when its in-memory matrix is out of date.
+ */
+@Entity
+@Table(name = "rbac_matrix_version")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RbacMatrixVersion {
+
+  /** The only row. */
+  public static final int ID = 1;
+
+  @Id
+  @Column(name = "id")
+  private Integer id;
+
+  @Column(name = "version", nullable = false)
+  private Long version;
+
+  @Column(name = "updated_at", nullable = false)
+  private LocalDateTime updatedAt;
+}
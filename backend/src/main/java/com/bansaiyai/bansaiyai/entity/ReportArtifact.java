@@ -0,0 +1,63 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import com.bansaiyai.bansaiyai.entity.enums.ReportArtifactType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A rendered report of closed fiscal periods. The bytes live in the blob
+ * store under {@link #contentSha256}, which is also the report's strong
+ * ETag; this row holds one reference to that blob.
+ */
+@Entity
+@Table(name = "report_artifact", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_report_artifact",
+        columnNames = { "report_type", "period_to", "format", "params_hash" })
+}, indexes = {
+    @Index(name = "idx_report_artifact_period_to", columnList = "period_to")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportArtifact {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "artifact_id")
+  private Long artifactId;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "report_type", nullable = false, length = 40)
+  private ReportArtifactType reportType;
+
+  /** First period covered, "yyyy-MM"; null when the report starts at the beginning of the ledger. */
+  @Column(name = "period_from", length = 7)
+  private String periodFrom;
+
+  /** Last period covered, "yyyy-MM". */
+  @Column(name = "period_to", nullable = false, length = 7)
+  private String periodTo;
+
+  @Column(name = "format", nullable = false, length = 10)
+  private String format;
+
+  /** Lower-case hex SHA-256 of the report's other parameters. */
+  @Column(name = "params_hash", nullable = false, length = 64)
+  private String paramsHash;
+
+  @Column(name = "content_type", nullable = false, length = 100)
+  private String contentType;
+
+  @Column(name = "content_sha256", nullable = false, length = 64)
+  private String contentSha256;
+
+  @Column(name = "size_bytes", nullable = false)
+  private Long sizeBytes;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+}
@@ -102,9 +102,11 @@ public class SavingAccount extends BaseEntity {
   private String notes;
 
   // Relationships
+  @JsonIgnore
   @OneToMany(mappedBy = "savingAccount", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private List<SavingTransaction> transactions;
 
+  @JsonIgnore
   @OneToMany(mappedBy = "savingAccount", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
   private List<SavingBalance> balances;
 
@@ -0,0 +1,41 @@
+package com.bansaiyai.bansaiyai.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A content-addressed blob in the blob store and the number of document and
+ * slip rows that reference it. Rows whose count drops to zero are kept until
+ * the sweeper deletes the blob, so a re-upload in the meantime revives the
+ * existing copy instead of racing the delete.
+ */
+@Entity
+@Table(name = "stored_blob")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StoredBlob {
+
+  /** Lower-case hex SHA-256 of the content; also the storage key. */
+  @Id
+  @Column(name = "sha256", length = 64)
+  private String sha256;
+
+  @Column(name = "size_bytes", nullable = false)
+  private Long sizeBytes;
+
+  @Column(name = "ref_count", nullable = false)
+  @Builder.Default
+  private Integer refCount = 0;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  /** When the count last dropped to zero; null while referenced. */
+  @Column(name = "released_at")
+  private LocalDateTime releasedAt;
+}
@@ -0,0 +1,12 @@
+package com.bansaiyai.bansaiyai.entity.enums;
+
+/**
+ * Repayment state of one scheduled loan installment. An installment is in
+ * arrears when it is past its due date and not PAID; that is derived from
+ * the due date rather than stored, so nothing has to flip it nightly.
+ */
+public enum InstallmentStatus {
+  PENDING,
+  PARTIAL,
+  PAID
+}
@@ -0,0 +1,12 @@
+package com.bansaiyai.bansaiyai.entity.enums;
+
+/**
+ * State of an interest run and of each of its chunks. Chunks move from
+ * PENDING to COMPLETED in the transaction that credits them, or to FAILED.
+ */
+public enum InterestRunStatus {
+  PENDING,
+  RUNNING,
+  COMPLETED,
+  FAILED
+}
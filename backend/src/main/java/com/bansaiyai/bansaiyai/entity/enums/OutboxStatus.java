@@ -0,0 +1,14 @@
+package com.bansaiyai.bansaiyai.entity.enums;
+
+/**
+ * Delivery state of a notification_outbox row. SENDING rows are leased to a
+ * dispatcher until their next_attempt_at; a dispatcher that dies leaves them
+ * to be claimed again once the lease runs out. DEAD rows exhausted their
+ * retries and are kept for inspection.
+ */
+public enum OutboxStatus {
+  PENDING,
+  SENDING,
+  SENT,
+  DEAD
+}
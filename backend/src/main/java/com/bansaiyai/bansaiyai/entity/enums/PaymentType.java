@@ -57,6 +57,15 @@ public enum PaymentType {
         this == LOAN_PENALTY || this == LATE_FEE;
   }
 
+  /**
+   * Check if payment type reduces a loan's outstanding principal: teller
+   * repayments are recorded as LOAN_PRINCIPAL, posted repayments as
+   * LOAN_REPAYMENT or LOAN_CLOSURE
+   */
+  public boolean isPrincipalRepayment() {
+    return this == LOAN_PRINCIPAL || this == LOAN_REPAYMENT || this == LOAN_CLOSURE;
+  }
+
   /**
    * Check if payment type is related to savings
    */
@@ -0,0 +1,11 @@
+package com.bansaiyai.bansaiyai.entity.enums;
+
+/**
+ * Reports that are stored once their fiscal periods are closed.
+ */
+public enum ReportArtifactType {
+  MONTHLY_REPORT,
+  INCOME_EXPENSE,
+  BALANCE_SHEET,
+  DIVIDEND_RECIPIENTS
+}
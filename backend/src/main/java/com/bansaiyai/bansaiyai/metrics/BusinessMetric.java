@@ -0,0 +1,31 @@
+package com.bansaiyai.bansaiyai.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a service method whose calls should be timed. The
+ * {@link BusinessMetricAspect} records a timer per call, tagged with the
+ * operation, the outcome (success or failure) and the caller's role, and
+ * published at /actuator/prometheus.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BusinessMetric {
+
+    /**
+     * The metric name, e.g. {@code bansaiyai.transaction.post}.
+     *
+     * @return the metric name
+     */
+    String value();
+
+    /**
+     * The operation tag. If not specified, the method name is used.
+     *
+     * @return the operation name
+     */
+    String operation() default "";
+}
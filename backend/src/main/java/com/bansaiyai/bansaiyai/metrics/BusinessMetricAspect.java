@@ -0,0 +1,106 @@
+package com.bansaiyai.bansaiyai.metrics;
+
+import com.bansaiyai.bansaiyai.dto.CompositeTransactionResponse;
+import com.bansaiyai.bansaiyai.dto.TransactionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * AOP aspect timing methods annotated with {@link BusinessMetric}.
+ *
+ * Each call records one sample on a timer tagged with {@code operation},
+ * {@code outcome} ({@code success} or {@code failure}), {@code exception}
+ * (simple class name, or {@code none}) and {@code role}. Transaction
+ * postings report most failures as a {@code FAILED} response rather than
+ * an exception; those count as failures too. The role is taken
+ * from the caller's {@code ROLE_*} authority; calls without an
+ * authenticated user, such as scheduled jobs, are tagged {@code SYSTEM}.
+ * The timer count doubles as the call counter.
+ */
+@Aspect
+@Component
+public class BusinessMetricAspect {
+
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String FAILED_STATUS = "FAILED";
+
+    private final MeterRegistry meterRegistry;
+
+    public BusinessMetricAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(com.bansaiyai.bansaiyai.metrics.BusinessMetric)")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        BusinessMetric metric = signature.getMethod().getAnnotation(BusinessMetric.class);
+        String operation = metric.operation().isEmpty()
+                ? signature.getMethod().getName()
+                : metric.operation();
+        String role = currentRole();
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        boolean failed = false;
+        try {
+            Object result = joinPoint.proceed();
+            failed = isFailedResponse(result);
+            return result;
+        } catch (Throwable t) {
+            exception = t.getClass().getSimpleName();
+            failed = true;
+            throw t;
+        } finally {
+            sample.stop(Timer.builder(metric.value())
+                    .tags(Tags.of(
+                            "operation", operation,
+                            "outcome", failed ? "failure" : "success",
+                            "exception", exception,
+                            "role", role))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Whether the method returned a transaction response it marked failed.
+     */
+    static boolean isFailedResponse(Object result) {
+        if (result instanceof TransactionResponse response) {
+            return FAILED_STATUS.equals(response.getStatus());
+        }
+        if (result instanceof CompositeTransactionResponse response) {
+            return FAILED_STATUS.equals(response.getStatus());
+        }
+        return false;
+    }
+
+    /**
+     * The caller's role without the {@code ROLE_} prefix.
+     */
+    static String currentRole() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return "SYSTEM";
+        }
+        if (authentication instanceof AnonymousAuthenticationToken) {
+            return "ANONYMOUS";
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                return name.substring(ROLE_PREFIX.length());
+            }
+        }
+        return "NONE";
+    }
+}
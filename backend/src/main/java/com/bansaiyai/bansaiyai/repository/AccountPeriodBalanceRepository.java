@@ -0,0 +1,116 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.AccountPeriodBalance;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for per-account, per-period ledger totals.
+ */
+@Repository
+public interface AccountPeriodBalanceRepository extends JpaRepository<AccountPeriodBalance, Long> {
+
+  /**
+   * Load an account's row for a period and lock it, serializing concurrent
+   * refreshes of the same account and period.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM AccountPeriodBalance b WHERE b.accountCode = :accountCode AND b.fiscalPeriod = :fiscalPeriod")
+  Optional<AccountPeriodBalance> findForUpdate(@Param("accountCode") String accountCode,
+      @Param("fiscalPeriod") String fiscalPeriod);
+
+  /**
+   * Create an all-zero row for the account and period unless one exists
+   * (PostgreSQL). Concurrent first postings to a period both succeed, so
+   * {@link #findForUpdate} always finds a row to lock afterwards.
+   *
+   * @return 1 if a row was created, 0 otherwise
+   */
+  @Modifying
+  @Query(value = "INSERT INTO account_period_balance (account_code, fiscal_period, opening_balance, " +
+      "period_debit, period_credit, closing_balance, updated_at) " +
+      "VALUES (:accountCode, :fiscalPeriod, 0, 0, 0, 0, CURRENT_TIMESTAMP) " +
+      "ON CONFLICT (account_code, fiscal_period) DO NOTHING", nativeQuery = true)
+  int insertIfMissing(@Param("accountCode") String accountCode, @Param("fiscalPeriod") String fiscalPeriod);
+
+  /**
+   * The account's latest row before the given period, whose closing
+   * balance is the period's opening balance.
+   */
+  Optional<AccountPeriodBalance> findFirstByAccountCodeAndFiscalPeriodLessThanOrderByFiscalPeriodDesc(
+      String accountCode, String fiscalPeriod);
+
+  List<AccountPeriodBalance> findByFiscalPeriod(String fiscalPeriod);
+
+  /**
+   * Every account's latest row at or before the given period: its closing
+   * balance is the account balance at the end of that period.
+   */
+  @Query("SELECT b FROM AccountPeriodBalance b WHERE b.fiscalPeriod = (SELECT MAX(b2.fiscalPeriod) " +
+      "FROM AccountPeriodBalance b2 WHERE b2.accountCode = b.accountCode AND b2.fiscalPeriod <= :fiscalPeriod)")
+  List<AccountPeriodBalance> findLatestUpTo(@Param("fiscalPeriod") String fiscalPeriod);
+
+  /**
+   * The latest row of each of the given accounts: its closing balance is
+   * the account's balance over the whole journal.
+   */
+  @Query("SELECT b FROM AccountPeriodBalance b WHERE b.accountCode IN :accountCodes AND b.fiscalPeriod = " +
+      "(SELECT MAX(b2.fiscalPeriod) FROM AccountPeriodBalance b2 WHERE b2.accountCode = b.accountCode)")
+  List<AccountPeriodBalance> findLatestByAccountCodeIn(@Param("accountCodes") List<String> accountCodes);
+
+  List<AccountPeriodBalance> findAllByOrderByAccountCodeAscFiscalPeriodAsc();
+
+  /**
+   * Sum of debits posted in a fiscal period, across all accounts.
+   */
+  @Query("SELECT COALESCE(SUM(b.periodDebit), 0) FROM AccountPeriodBalance b WHERE b.fiscalPeriod = :fiscalPeriod")
+  BigDecimal sumDebitsByFiscalPeriod(@Param("fiscalPeriod") String fiscalPeriod);
+
+  /**
+   * Sum of credits posted in a fiscal period, across all accounts.
+   */
+  @Query("SELECT COALESCE(SUM(b.periodCredit), 0) FROM AccountPeriodBalance b WHERE b.fiscalPeriod = :fiscalPeriod")
+  BigDecimal sumCreditsByFiscalPeriod(@Param("fiscalPeriod") String fiscalPeriod);
+
+  /**
+   * (accountName, SUM credits) by account name over a range of periods, for
+   * accounts matching the code pattern. Carried-forward rows without
+   * postings are left out.
+   */
+  @Query("SELECT b.accountName, SUM(b.periodCredit) FROM AccountPeriodBalance b " +
+      "WHERE b.fiscalPeriod BETWEEN :fromPeriod AND :toPeriod AND b.accountCode LIKE :codePattern " +
+      "AND (b.periodDebit <> 0 OR b.periodCredit <> 0) GROUP BY b.accountName")
+  List<Object[]> sumCreditByCodePatternAndPeriodRange(@Param("fromPeriod") String fromPeriod,
+      @Param("toPeriod") String toPeriod, @Param("codePattern") String codePattern);
+
+  /**
+   * (accountName, SUM debits) by account name over a range of periods, for
+   * accounts matching the code pattern. Carried-forward rows without
+   * postings are left out.
+   */
+  @Query("SELECT b.accountName, SUM(b.periodDebit) FROM AccountPeriodBalance b " +
+      "WHERE b.fiscalPeriod BETWEEN :fromPeriod AND :toPeriod AND b.accountCode LIKE :codePattern " +
+      "AND (b.periodDebit <> 0 OR b.periodCredit <> 0) GROUP BY b.accountName")
+  List<Object[]> sumDebitByCodePatternAndPeriodRange(@Param("fromPeriod") String fromPeriod,
+      @Param("toPeriod") String toPeriod, @Param("codePattern") String codePattern);
+
+  /**
+   * Move the opening and closing balances of the account's later periods by
+   * {@code delta}, after a posting changed an earlier period's closing.
+   */
+  @Modifying(flushAutomatically = true, clearAutomatically = true)
+  @Query("UPDATE AccountPeriodBalance b SET b.openingBalance = b.openingBalance + :delta, " +
+      "b.closingBalance = b.closingBalance + :delta " +
+      "WHERE b.accountCode = :accountCode AND b.fiscalPeriod > :fiscalPeriod")
+  int shiftLaterPeriods(@Param("accountCode") String accountCode, @Param("fiscalPeriod") String fiscalPeriod,
+      @Param("delta") BigDecimal delta);
+}
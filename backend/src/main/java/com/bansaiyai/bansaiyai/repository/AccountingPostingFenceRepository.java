@@ -0,0 +1,36 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.AccountingPostingFence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Repository for the posting fence and the posting sequence it guards.
+ */
+@Repository
+public interface AccountingPostingFenceRepository extends JpaRepository<AccountingPostingFence, Integer> {
+
+  /**
+   * Hold the fence in share mode until the transaction ends; other postings
+   * can too, checkpoints cannot.
+   */
+  @Lock(LockModeType.PESSIMISTIC_READ)
+  @Query("SELECT f FROM AccountingPostingFence f WHERE f.id = " + AccountingPostingFence.ID)
+  Optional<AccountingPostingFence> findForShare();
+
+  /**
+   * Hold the fence exclusively, waiting for postings that have drawn a
+   * sequence to commit and holding off new ones until the transaction ends.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT f FROM AccountingPostingFence f WHERE f.id = " + AccountingPostingFence.ID)
+  Optional<AccountingPostingFence> findForUpdate();
+
+  @Query(value = "SELECT nextval('accounting_posting_seq')", nativeQuery = true)
+  long nextPostingSeq();
+}
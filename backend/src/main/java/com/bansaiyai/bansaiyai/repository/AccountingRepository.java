@@ -2,12 +2,17 @@ package com.bansaiyai.bansaiyai.repository;
 
 import com.bansaiyai.bansaiyai.entity.AccountingEntry;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for AccountingEntry entity.
@@ -34,6 +39,45 @@ public interface AccountingRepository extends JpaRepository<AccountingEntry, Lon
         @Query("SELECT COALESCE(SUM(a.credit), 0) FROM AccountingEntry a WHERE a.fiscalPeriod = :fiscalPeriod")
         BigDecimal sumCreditsByFiscalPeriod(@Param("fiscalPeriod") String fiscalPeriod);
 
+        /**
+         * (SUM debits, SUM credits, account name) of one account in one fiscal period
+         */
+        @Query("SELECT COALESCE(SUM(a.debit), 0), COALESCE(SUM(a.credit), 0), MAX(a.accountName) " +
+                        "FROM AccountingEntry a WHERE a.accountCode = :accountCode AND a.fiscalPeriod = :fiscalPeriod")
+        List<Object[]> sumByAccountCodeAndFiscalPeriod(
+                        @Param("accountCode") String accountCode,
+                        @Param("fiscalPeriod") String fiscalPeriod);
+
+        /**
+         * Net balance (debits - credits) of an account over all fiscal periods
+         * before the given one
+         */
+        @Query("SELECT COALESCE(SUM(COALESCE(a.debit, 0) - COALESCE(a.credit, 0)), 0) FROM AccountingEntry a " +
+                        "WHERE a.accountCode = :accountCode AND a.fiscalPeriod < :fiscalPeriod")
+        BigDecimal sumNetByAccountCodeBeforeFiscalPeriod(
+                        @Param("accountCode") String accountCode,
+                        @Param("fiscalPeriod") String fiscalPeriod);
+
+        /**
+         * (accountCode, fiscalPeriod, SUM debits, SUM credits) for every account
+         * and period, ordered by account then period
+         */
+        @Query("SELECT a.accountCode, a.fiscalPeriod, COALESCE(SUM(a.debit), 0), COALESCE(SUM(a.credit), 0) " +
+                        "FROM AccountingEntry a GROUP BY a.accountCode, a.fiscalPeriod " +
+                        "ORDER BY a.accountCode, a.fiscalPeriod")
+        List<Object[]> sumGroupByAccountCodeAndFiscalPeriod();
+
+        /**
+         * (accountCode, net debits - credits) per account over a fiscal period's
+         * entries dated on or before the given date
+         */
+        @Query("SELECT a.accountCode, COALESCE(SUM(COALESCE(a.debit, 0) - COALESCE(a.credit, 0)), 0) " +
+                        "FROM AccountingEntry a WHERE a.fiscalPeriod = :fiscalPeriod AND a.transactionDate <= :date " +
+                        "GROUP BY a.accountCode")
+        List<Object[]> sumNetByFiscalPeriodUpToDateGroupByAccountCode(
+                        @Param("fiscalPeriod") String fiscalPeriod,
+                        @Param("date") java.time.LocalDate date);
+
         /**
          * Find entries by account code range (for financial statement classification)
          */
@@ -50,6 +94,58 @@ public interface AccountingRepository extends JpaRepository<AccountingEntry, Lon
                         @Param("accountCode") String accountCode,
                         @Param("date") java.time.LocalDate date);
 
+        /**
+         * Net balance (debits - credits) of an account over entries dated before
+         * the given date, limited to postings up to maxPostingSeq; a null bound
+         * also counts entries of open transactions, which have no sequence yet.
+         */
+        @Query("SELECT COALESCE(SUM(COALESCE(a.debit, 0) - COALESCE(a.credit, 0)), 0) FROM AccountingEntry a " +
+                        "WHERE a.accountCode = :accountCode AND a.transactionDate < :date " +
+                        "AND (:maxPostingSeq IS NULL OR a.postingSeq <= :maxPostingSeq)")
+        BigDecimal sumNetByAccountCodeBefore(
+                        @Param("accountCode") String accountCode,
+                        @Param("date") java.time.LocalDate date,
+                        @Param("maxPostingSeq") Long maxPostingSeq);
+
+        /**
+         * Net balance (debits - credits) of an account over entries dated after
+         * {@code fromDate} and before {@code date}, limited to postings up to
+         * maxPostingSeq as in {@link #sumNetByAccountCodeBefore}. A range scan of
+         * the (account_code, transaction_date) index.
+         */
+        @Query("SELECT COALESCE(SUM(COALESCE(a.debit, 0) - COALESCE(a.credit, 0)), 0) FROM AccountingEntry a " +
+                        "WHERE a.accountCode = :accountCode AND a.transactionDate > :fromDate " +
+                        "AND a.transactionDate < :date " +
+                        "AND (:maxPostingSeq IS NULL OR a.postingSeq <= :maxPostingSeq)")
+        BigDecimal sumNetByAccountCodeBetween(
+                        @Param("accountCode") String accountCode,
+                        @Param("fromDate") java.time.LocalDate fromDate,
+                        @Param("date") java.time.LocalDate date,
+                        @Param("maxPostingSeq") Long maxPostingSeq);
+
+        /**
+         * Net balance of an account over entries dated on or before
+         * {@code throughDate} that were posted (back-dated) after
+         * {@code sincePostingSeq}, or are not posted yet. A range scan of the
+         * (account_code, posting_seq) index.
+         */
+        @Query("SELECT COALESCE(SUM(COALESCE(a.debit, 0) - COALESCE(a.credit, 0)), 0) FROM AccountingEntry a " +
+                        "WHERE a.accountCode = :accountCode AND a.transactionDate <= :throughDate " +
+                        "AND (a.postingSeq > :sincePostingSeq OR a.postingSeq IS NULL) " +
+                        "AND (:maxPostingSeq IS NULL OR a.postingSeq <= :maxPostingSeq)")
+        BigDecimal sumNetByAccountCodePostedSince(
+                        @Param("accountCode") String accountCode,
+                        @Param("throughDate") java.time.LocalDate throughDate,
+                        @Param("sincePostingSeq") Long sincePostingSeq,
+                        @Param("maxPostingSeq") Long maxPostingSeq);
+
+        /**
+         * Stamp the posting sequence on entries about to commit.
+         */
+        @Modifying
+        @Query("UPDATE AccountingEntry a SET a.postingSeq = :postingSeq WHERE a.id IN :ids")
+        int assignPostingSeq(@Param("ids") java.util.Collection<Long> ids, @Param("postingSeq") Long postingSeq);
+
         /**
          * Sum credits by account code pattern and date range
          */
@@ -68,5 +164,27 @@ public interface AccountingRepository extends JpaRepository<AccountingEntry, Lon
                         @Param("endDate") java.time.LocalDate endDate,
                         @Param("codePattern") String codePattern);
 
+        /**
+         * Stream ledger rows for export through a read-only cursor. Returns
+         * scalar projections (date, period, code, name, debit, credit,
+         * referenceType, referenceNumber, description) so nothing accumulates in
+         * the persistence context. Must be consumed inside a transaction and
+         * closed.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+                        @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+        })
+        @Query("SELECT a.transactionDate, a.fiscalPeriod, a.accountCode, a.accountName, a.debit, a.credit, " +
+                        "a.referenceType, a.referenceNumber, a.description FROM AccountingEntry a " +
+                        "WHERE a.transactionDate BETWEEN :startDate AND :endDate " +
+                        "AND (:accountCode IS NULL OR a.accountCode = :accountCode) " +
+                        "ORDER BY a.transactionDate, a.id")
+        Stream<Object[]> streamLedgerRows(
+                        @Param("startDate") java.time.LocalDate startDate,
+                        @Param("endDate") java.time.LocalDate endDate,
+                        @Param("accountCode") String accountCode);
+
         boolean existsByAccountCode(String accountCode);
 }
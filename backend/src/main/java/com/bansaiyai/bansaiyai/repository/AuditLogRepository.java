@@ -77,7 +77,7 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         * @param limit the maximum number of results
         * @return a list of critical audit logs
         */
-       @Query("SELECT a FROM AuditLog a WHERE a.action LIKE '%DELETE%' OR a.action LIKE '%OVERRIDE%' " +
+       @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.user u LEFT JOIN FETCH u.member WHERE a.action LIKE '%DELETE%' OR a.action LIKE '%OVERRIDE%' " +
                      "ORDER BY a.timestamp DESC")
        List<AuditLog> findCriticalActions(Pageable pageable);
 
@@ -89,7 +89,7 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         * @param since the start time to search from
         * @return a list of role violation audit logs
         */
-       @Query("SELECT a FROM AuditLog a WHERE a.action = 'ACCESS_DENIED' AND a.timestamp >= :since " +
+       @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.user u LEFT JOIN FETCH u.member WHERE a.action = 'ACCESS_DENIED' AND a.timestamp >= :since " +
                      "ORDER BY a.timestamp DESC")
        List<AuditLog> findRoleViolations(@Param("since") LocalDateTime since);
 
@@ -99,7 +99,7 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         * @param pageable pagination information
         * @return a page of role violation audit logs
         */
-       @Query("SELECT a FROM AuditLog a WHERE a.action = 'ACCESS_DENIED' ORDER BY a.timestamp DESC")
+       @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.user u LEFT JOIN FETCH u.member WHERE a.action = 'ACCESS_DENIED' ORDER BY a.timestamp DESC")
        Page<AuditLog> findAllRoleViolations(Pageable pageable);
 
        /**
@@ -122,7 +122,7 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
         * @param since the start time to search from
         * @return a list of audit logs for off-hours activity
         */
-       @Query("SELECT a FROM AuditLog a WHERE a.timestamp >= :since " +
+       @Query("SELECT a FROM AuditLog a LEFT JOIN FETCH a.user u LEFT JOIN FETCH u.member WHERE a.timestamp >= :since " +
                      "AND (HOUR(a.timestamp) < 9 OR HOUR(a.timestamp) >= 17) " +
                      "ORDER BY a.timestamp DESC")
        List<AuditLog> findOffHoursActivity(@Param("since") LocalDateTime since);
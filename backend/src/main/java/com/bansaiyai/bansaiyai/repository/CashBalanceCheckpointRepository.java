@@ -0,0 +1,34 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.CashBalanceCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Repository for checkpointed ledger account balances.
+ */
+@Repository
+public interface CashBalanceCheckpointRepository extends JpaRepository<CashBalanceCheckpoint, Long> {
+
+  /**
+   * Find the latest checkpoint strictly before the given date.
+   *
+   * @param accountCode the ledger account code
+   * @param date        the exclusive upper bound
+   * @return the most recent usable checkpoint, if any
+   */
+  Optional<CashBalanceCheckpoint> findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(
+      String accountCode, LocalDate date);
+
+  /**
+   * Find the checkpoint for an exact date.
+   *
+   * @param accountCode the ledger account code
+   * @param balanceDate the checkpoint date
+   * @return the checkpoint, if any
+   */
+  Optional<CashBalanceCheckpoint> findByAccountCodeAndBalanceDate(String accountCode, LocalDate balanceDate);
+}
@@ -49,6 +49,18 @@ public interface CollateralRepository extends JpaRepository<Collateral, Long> {
     @Query("SELECT c FROM Collateral c WHERE c.loan.id = :loanId AND c.documentPath IS NOT NULL")
     List<Collateral> findWithDocumentsByLoanId(@Param("loanId") Long loanId);
 
+    /**
+     * Content hash of the document stored at a path, used as its download ETag
+     */
+    @Query("SELECT c.documentSha256 FROM Collateral c " +
+            "WHERE c.documentPath = :documentPath AND c.documentSha256 IS NOT NULL")
+    List<String> findDocumentSha256ByDocumentPath(@Param("documentPath") String documentPath);
+
+    /**
+     * Check if a loan has a document with the given content hash
+     */
+    boolean existsByLoanIdAndDocumentSha256(Long loanId, String documentSha256);
+
     /**
      * Count collateral for a loan
      */
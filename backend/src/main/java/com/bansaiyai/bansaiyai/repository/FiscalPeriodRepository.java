@@ -2,6 +2,8 @@ package com.bansaiyai.bansaiyai.repository;
 
 import com.bansaiyai.bansaiyai.entity.FiscalPeriod;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +11,12 @@ import java.util.Optional;
 @Repository
 public interface FiscalPeriodRepository extends JpaRepository<FiscalPeriod, Long> {
     Optional<FiscalPeriod> findByMonthAndYear(Integer month, Integer year);
+
+    /**
+     * Number of closed periods between two months inclusive, each given as
+     * {@code year * 100 + month}
+     */
+    @Query("SELECT COUNT(f) FROM FiscalPeriod f WHERE f.status = 'CLOSED' " +
+            "AND (f.year * 100 + f.month) BETWEEN :fromMonth AND :toMonth")
+    long countClosedBetween(@Param("fromMonth") int fromMonth, @Param("toMonth") int toMonth);
 }
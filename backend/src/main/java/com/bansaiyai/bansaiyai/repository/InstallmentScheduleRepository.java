@@ -0,0 +1,73 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.InstallmentSchedule;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InstallmentScheduleRepository extends JpaRepository<InstallmentSchedule, Long> {
+
+  List<InstallmentSchedule> findByLoanIdOrderByInstallmentNo(Long loanId);
+
+  List<InstallmentSchedule> findByLoanIdAndStatusNotOrderByInstallmentNo(Long loanId, InstallmentStatus status);
+
+  boolean existsByLoanId(Long loanId);
+
+  /**
+   * Earliest open installment of a loan: the amount the borrower owes next.
+   */
+  Optional<InstallmentSchedule> findFirstByLoanIdAndStatusNotOrderByInstallmentNo(Long loanId,
+      InstallmentStatus status);
+
+  /**
+   * Earliest open installment across a member's loans, read from the
+   * (member_id, due_date) index of open installments.
+   */
+  Optional<InstallmentSchedule> findFirstByMemberIdAndStatusNotOrderByDueDateAscInstallmentNoAsc(Long memberId,
+      InstallmentStatus status);
+
+  /**
+   * Open installments falling due in [from, to], e.g. the current week.
+   */
+  @Query("SELECT i FROM InstallmentSchedule i WHERE i.dueDate BETWEEN :from AND :to " +
+      "AND i.status <> com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus.PAID " +
+      "ORDER BY i.dueDate, i.loanId, i.installmentNo")
+  List<InstallmentSchedule> findOpenDueBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+  /**
+   * Installments past their due date and not yet paid, oldest first.
+   */
+  @Query("SELECT i FROM InstallmentSchedule i WHERE i.dueDate < :today " +
+      "AND i.status <> com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus.PAID " +
+      "ORDER BY i.dueDate, i.loanId, i.installmentNo")
+  List<InstallmentSchedule> findInArrears(@Param("today") LocalDate today);
+
+  /**
+   * Arrears per loan: {@code [loanId, memberId, installments in arrears,
+   * amount in arrears, oldest due date]}.
+   */
+  @Query("SELECT i.loanId, i.memberId, COUNT(i), " +
+      "SUM(i.amountDue - i.principalPaid - i.interestPaid), MIN(i.dueDate) " +
+      "FROM InstallmentSchedule i WHERE i.dueDate < :today " +
+      "AND i.status <> com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus.PAID " +
+      "GROUP BY i.loanId, i.memberId ORDER BY MIN(i.dueDate)")
+  List<Object[]> summarizeArrearsByLoan(@Param("today") LocalDate today);
+
+  /**
+   * Open installments due in [from, to] whose borrower has an email:
+   * {@code [installmentId, dueDate, amount remaining, member name, email, loan number]}.
+   */
+  @Query("SELECT i.id, i.dueDate, i.amountDue - i.principalPaid - i.interestPaid, m.name, m.email, l.loanNumber " +
+      "FROM InstallmentSchedule i JOIN Member m ON m.id = i.memberId JOIN Loan l ON l.id = i.loanId " +
+      "WHERE i.dueDate BETWEEN :from AND :to " +
+      "AND i.status <> com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus.PAID " +
+      "AND m.email IS NOT NULL ORDER BY i.dueDate, i.id")
+  List<Object[]> findReminderRows(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,34 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.InterestRunChunk;
+import com.bansaiyai.bansaiyai.entity.enums.InterestRunStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InterestRunChunkRepository extends JpaRepository<InterestRunChunk, Long> {
+
+  List<InterestRunChunk> findByRunIdAndStatusNotOrderByChunkIndex(Long runId, InterestRunStatus status);
+
+  /**
+   * Load a chunk and lock it, so two workers resuming the same run never
+   * credit the same chunk.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT c FROM InterestRunChunk c WHERE c.id = :id")
+  Optional<InterestRunChunk> findForUpdate(@Param("id") Long id);
+
+  /**
+   * Run totals over its chunks in one status: {@code [chunks, accounts credited, interest]}.
+   */
+  @Query("SELECT COUNT(c), COALESCE(SUM(c.accountsCredited), 0), COALESCE(SUM(c.interestTotal), 0) " +
+      "FROM InterestRunChunk c WHERE c.runId = :runId AND c.status = :status")
+  List<Object[]> summarizeByRunIdAndStatus(@Param("runId") Long runId, @Param("status") InterestRunStatus status);
+}
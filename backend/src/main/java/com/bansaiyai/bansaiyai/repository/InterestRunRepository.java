@@ -0,0 +1,14 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.InterestRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface InterestRunRepository extends JpaRepository<InterestRun, Long> {
+
+  Optional<InterestRun> findByAsOfDate(LocalDate asOfDate);
+}
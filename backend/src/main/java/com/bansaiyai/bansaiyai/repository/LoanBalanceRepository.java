@@ -36,6 +36,33 @@ public interface LoanBalanceRepository extends JpaRepository<LoanBalance, Long>
     @Query("SELECT b FROM LoanBalance b WHERE b.balanceDate = :date")
     List<LoanBalance> findByBalanceDate(@Param("date") LocalDate date);
 
-    @Query("SELECT COALESCE(SUM(b.outstandingBalance), 0) FROM LoanBalance b WHERE b.balanceDate = :date")
-    java.math.BigDecimal sumOutstandingBalanceByDate(@Param("date") LocalDate date);
+    /**
+     * IDs of the loans that already have a snapshot for the date
+     */
+    @Query("SELECT b.loan.id FROM LoanBalance b WHERE b.balanceDate = :date")
+    List<Long> findLoanIdsByBalanceDate(@Param("date") LocalDate date);
+
+    /**
+     * Date of the latest snapshot on or before the given date, or null if none
+     */
+    @Query("SELECT MAX(b.balanceDate) FROM LoanBalance b WHERE b.balanceDate <= :date")
+    LocalDate findLatestBalanceDateOnOrBefore(@Param("date") LocalDate date);
+
+    /**
+     * Loans receivable at the end of {@code asOfDate}: the outstanding balances
+     * of the snapshot taken on {@code snapshotDate}, plus the principal of loans
+     * disbursed since, minus the principal of repayments received since.
+     */
+    @Query("SELECT COALESCE(SUM(b.outstandingBalance), 0) " +
+            "+ (SELECT COALESCE(SUM(COALESCE(l.approvedAmount, l.principalAmount)), 0) FROM Loan l " +
+            "WHERE l.disbursementDate > :snapshotDate AND l.disbursementDate <= :asOfDate) " +
+            "- (SELECT COALESCE(SUM(p.principalAmount), 0) FROM Payment p WHERE p.loan IS NOT NULL " +
+            "AND p.paymentType IN (:repaymentTypes) AND p.paymentStatus = :status " +
+            "AND p.paymentDate > :snapshotDate AND p.paymentDate <= :asOfDate) " +
+            "FROM LoanBalance b WHERE b.balanceDate = :snapshotDate")
+    java.math.BigDecimal sumOutstandingBalanceAsOf(
+            @Param("snapshotDate") LocalDate snapshotDate,
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("repaymentTypes") List<com.bansaiyai.bansaiyai.entity.enums.PaymentType> repaymentTypes,
+            @Param("status") com.bansaiyai.bansaiyai.entity.enums.PaymentStatus status);
 }
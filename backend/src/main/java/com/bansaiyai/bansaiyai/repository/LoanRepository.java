@@ -3,14 +3,21 @@ package com.bansaiyai.bansaiyai.repository;
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
 import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.repository.projection.LoanListRow;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,11 +60,101 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
   Page<Loan> findByLoanTypeAndStatus(LoanType loanType, LoanStatus status, Pageable pageable);
 
-  @Query("SELECT l FROM Loan l WHERE " +
-      "l.loanNumber LIKE %:keyword% OR " +
-      "l.member.name LIKE %:keyword% OR " +
-      "l.purpose LIKE %:keyword%")
-  Page<Loan> searchLoans(@Param("keyword") String keyword, Pageable pageable);
+  // ============================================
+  // Listing and detail fetch plans
+  // ============================================
+
+  String LIST_ROW_SELECT = "SELECT new com.bansaiyai.bansaiyai.repository.projection.LoanListRow(l, m.name) "
+      + "FROM Loan l JOIN l.member m";
+
+  /**
+   * Loan with its borrower, for detail views.
+   */
+  @EntityGraph(attributePaths = "member")
+  Optional<Loan> findWithMemberById(Long id);
+
+  /**
+   * Loan with its borrower by UUID, for detail views.
+   */
+  @EntityGraph(attributePaths = "member")
+  Optional<Loan> findWithMemberByUuid(UUID uuid);
+
+  /**
+   * Page of loans with borrower names: one select plus the count.
+   */
+  @Query(value = LIST_ROW_SELECT, countQuery = "SELECT COUNT(l) FROM Loan l")
+  Page<LoanListRow> findListRows(Pageable pageable);
+
+  @Query(value = LIST_ROW_SELECT + " WHERE l.status = :status",
+      countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.status = :status")
+  Page<LoanListRow> findListRowsByStatus(@Param("status") LoanStatus status, Pageable pageable);
+
+  @Query(value = LIST_ROW_SELECT + " WHERE m.id = :memberId",
+      countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.member.id = :memberId")
+  Page<LoanListRow> findListRowsByMemberId(@Param("memberId") Long memberId, Pageable pageable);
+
+  @Query(value = LIST_ROW_SELECT + " WHERE l.loanType = :loanType",
+      countQuery = "SELECT COUNT(l) FROM Loan l WHERE l.loanType = :loanType")
+  Page<LoanListRow> findListRowsByLoanType(@Param("loanType") LoanType loanType, Pageable pageable);
+
+  /**
+   * Listing rows for the given loan ids, in no particular order.
+   */
+  @Query(LIST_ROW_SELECT + " WHERE l.id IN :ids")
+  List<LoanListRow> findListRowsByIdIn(@Param("ids") List<Long> ids);
+
+  /**
+   * Trigram-ranked loan search (PostgreSQL with pg_trgm).
+   * Each arm of the UNION is served by a GIN trigram index (V14): loan number
+   * and purpose on loan, borrower name on member. Rows are ordered by best
+   * similarity to the keyword. Returned as a Slice, so no COUNT query runs.
+   * Only ids are returned; load the rows with {@link #findListRowsByIdIn}.
+   *
+   * @param keyword raw keyword, used for similarity ranking
+   * @param pattern escaped {@code %keyword%} pattern
+   */
+  @Query(value = "SELECT l.id FROM loan l JOIN member m ON m.id = l.member_id " +
+      "WHERE l.id IN (" +
+      "  SELECT lo.id FROM loan lo WHERE lo.loan_number ILIKE :pattern OR lo.purpose ILIKE :pattern " +
+      "  UNION " +
+      "  SELECT lo.id FROM loan lo JOIN member mo ON mo.id = lo.member_id WHERE mo.name ILIKE :pattern) " +
+      "ORDER BY GREATEST(similarity(l.loan_number, :keyword), similarity(m.name, :keyword), " +
+      "  similarity(COALESCE(l.purpose, ''), :keyword)) DESC, l.id DESC", nativeQuery = true)
+  Slice<Long> searchLoansRanked(@Param("keyword") String keyword, @Param("pattern") String pattern,
+      Pageable pageable);
+
+  /**
+   * Portable loan search for databases without pg_trgm (H2 in dev/test).
+   * Newest loans first; returned as a Slice, so no COUNT query runs.
+   *
+   * @param pattern escaped {@code %keyword%} pattern
+   */
+  @Query(LIST_ROW_SELECT + " WHERE " +
+      "LOWER(l.loanNumber) LIKE LOWER(:pattern) OR " +
+      "LOWER(m.name) LIKE LOWER(:pattern) OR " +
+      "LOWER(l.purpose) LIKE LOWER(:pattern) " +
+      "ORDER BY l.id DESC")
+  Slice<LoanListRow> searchLoans(@Param("pattern") String pattern, Pageable pageable);
+
+  /**
+   * Number of loans {@link #searchLoansRanked} matches, served by the same
+   * trigram indexes.
+   */
+  @Query(value = "SELECT COUNT(*) FROM (" +
+      "  SELECT lo.id FROM loan lo WHERE lo.loan_number ILIKE :pattern OR lo.purpose ILIKE :pattern " +
+      "  UNION " +
+      "  SELECT lo.id FROM loan lo JOIN member mo ON mo.id = lo.member_id WHERE mo.name ILIKE :pattern) matched",
+      nativeQuery = true)
+  long countSearchLoansRanked(@Param("pattern") String pattern);
+
+  /**
+   * Number of loans {@link #searchLoans} matches.
+   */
+  @Query("SELECT COUNT(l) FROM Loan l JOIN l.member m WHERE " +
+      "LOWER(l.loanNumber) LIKE LOWER(:pattern) OR " +
+      "LOWER(m.name) LIKE LOWER(:pattern) OR " +
+      "LOWER(l.purpose) LIKE LOWER(:pattern)")
+  long countSearchLoans(@Param("pattern") String pattern);
 
   long countByStatus(LoanStatus status);
 
@@ -75,8 +172,55 @@ public interface LoanRepository extends JpaRepository<Loan, Long> {
 
   List<Loan> findByStatusIn(List<LoanStatus> statuses);
 
-  @Query("SELECT l FROM Loan l WHERE l.status = :status AND l.maturityDate < CURRENT_DATE")
-  List<Loan> findOverdueLoansByStatus(@Param("status") LoanStatus status);
+  /**
+   * Flip every ACTIVE loan past maturity with a balance left to DEFAULTED in
+   * one statement (PostgreSQL). Returns one row per flagged loan:
+   * {@code [id, member_id, loan_number, outstanding_balance, maturity_date]}.
+   */
+  @Query(value = "UPDATE loan SET status = 'DEFAULTED', updated_at = CURRENT_TIMESTAMP " +
+      "WHERE status = 'ACTIVE' AND maturity_date < :today AND outstanding_balance > 0 " +
+      "RETURNING id, member_id, loan_number, outstanding_balance, maturity_date", nativeQuery = true)
+  List<Object[]> flagOverdueLoansReturning(@Param("today") LocalDate today);
+
+  /**
+   * Loans in the status past maturity with a balance left, locked, for
+   * databases without {@code UPDATE ... RETURNING} (H2 in dev/test). The lock
+   * makes a following {@link #updateStatusByIds} change exactly these loans.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT l FROM Loan l " +
+      "WHERE l.status = :status AND l.maturityDate < :today AND l.outstandingBalance > 0")
+  List<Loan> findOverdueForUpdate(@Param("status") LoanStatus status, @Param("today") LocalDate today);
+
+  /**
+   * Move the given loans from one status to another in one statement,
+   * skipping any whose status has already changed.
+   */
+  @Modifying
+  @Query("UPDATE Loan l SET l.status = :to, l.updatedAt = CURRENT_TIMESTAMP " +
+      "WHERE l.id IN :ids AND l.status = :from")
+  int updateStatusByIds(@Param("ids") List<Long> ids, @Param("from") LoanStatus from,
+      @Param("to") LoanStatus to);
+
+  /**
+   * Recompute the penalty of every loan in the status past maturity as
+   * {@code outstanding * dailyRate * days overdue}, rounded to 2 places,
+   * matching {@link Loan#calculatePenalty()}. The rate is cast explicitly:
+   * otherwise it is bound with the balance column's scale and rounds to 0.
+   */
+  @Modifying
+  @Query("UPDATE Loan l SET l.penaltyAmount = ROUND(l.outstandingBalance * CAST(:dailyRate AS BigDecimal(12, 8)) * " +
+      "((:today - l.maturityDate) by day), 2) " +
+      "WHERE l.status = :status AND l.maturityDate < :today AND l.outstandingBalance > 0")
+  int accruePenaltiesByStatus(@Param("status") LoanStatus status, @Param("today") LocalDate today,
+      @Param("dailyRate") BigDecimal dailyRate);
+
+  /**
+   * Penalty totals for a status: {@code [loans with a penalty, penalty sum]}.
+   */
+  @Query("SELECT COUNT(l), COALESCE(SUM(l.penaltyAmount), 0) FROM Loan l " +
+      "WHERE l.status = :status AND l.penaltyAmount > 0")
+  List<Object[]> sumPenaltiesByStatus(@Param("status") LoanStatus status);
 
   List<Loan> findByDisbursementDateBetween(java.time.LocalDate startDate, java.time.LocalDate endDate);
 
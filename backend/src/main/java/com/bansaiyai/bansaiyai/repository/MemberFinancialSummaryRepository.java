@@ -0,0 +1,142 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.MemberFinancialSummary;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the per-member financial summary and the aggregates it is
+ * derived from. Each aggregate exists in a single-member form (used when a
+ * posting refreshes one member) and a grouped form (used by the
+ * verification job to recompute every member in a few set-based queries).
+ */
+@Repository
+public interface MemberFinancialSummaryRepository extends JpaRepository<MemberFinancialSummary, Long> {
+
+  /**
+   * Load a member's summary row and lock it, serializing concurrent
+   * refreshes of the same member.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT s FROM MemberFinancialSummary s WHERE s.memberId = :memberId")
+  Optional<MemberFinancialSummary> findForUpdate(@Param("memberId") Long memberId);
+
+  /**
+   * Create an all-zero row for the member unless one exists (PostgreSQL).
+   * Concurrent first postings for a member both succeed, so
+   * {@link #findForUpdate} always finds a row to lock afterwards. Inserts
+   * nothing for a member that no longer exists.
+   *
+   * @return 1 if a row was created, 0 otherwise
+   */
+  @Modifying
+  @Query(value = "INSERT INTO member_financial_summary (member_id, total_savings, savings_account_count, " +
+      "share_capital, outstanding_principal, active_loan_count, loan_count, guaranteed_exposure, updated_at) " +
+      "SELECT m.id, 0, 0, 0, 0, 0, 0, 0, CURRENT_TIMESTAMP FROM member m WHERE m.id = :memberId " +
+      "ON CONFLICT (member_id) DO NOTHING", nativeQuery = true)
+  int insertIfMissing(@Param("memberId") Long memberId);
+
+  /**
+   * (memberId, shareCapital) for one member.
+   */
+  @Query("SELECT m.id, COALESCE(m.shareCapital, 0) FROM Member m WHERE m.id = :memberId")
+  List<Object[]> shareCapitalByMember(@Param("memberId") Long memberId);
+
+  /**
+   * (memberId, shareCapital) for every member.
+   */
+  @Query("SELECT m.id, COALESCE(m.shareCapital, 0) FROM Member m")
+  List<Object[]> shareCapitalGroupByMember();
+
+  /**
+   * (memberId, SUM balance, COUNT) over one member's active savings accounts.
+   */
+  @Query("SELECT sa.member.id, COALESCE(SUM(sa.balance), 0), COUNT(sa) FROM SavingAccount sa " +
+      "WHERE sa.member.id = :memberId AND sa.isActive = true GROUP BY sa.member.id")
+  List<Object[]> savingsByMember(@Param("memberId") Long memberId);
+
+  /**
+   * (memberId, SUM balance, COUNT) over active savings accounts, per member.
+   */
+  @Query("SELECT sa.member.id, COALESCE(SUM(sa.balance), 0), COUNT(sa) FROM SavingAccount sa " +
+      "WHERE sa.isActive = true GROUP BY sa.member.id")
+  List<Object[]> savingsGroupByMember();
+
+  /**
+   * (memberId, outstanding of loans in {@code status}, count in {@code status},
+   * count of all loans) for one member.
+   */
+  @Query("SELECT l.member.id, " +
+      "COALESCE(SUM(CASE WHEN l.status = :status THEN l.outstandingBalance ELSE 0 END), 0), " +
+      "SUM(CASE WHEN l.status = :status THEN 1 ELSE 0 END), " +
+      "COUNT(l) " +
+      "FROM Loan l WHERE l.member.id = :memberId GROUP BY l.member.id")
+  List<Object[]> loansByMember(@Param("memberId") Long memberId, @Param("status") LoanStatus status);
+
+  /**
+   * Same as {@link #loansByMember} for every member with at least one loan.
+   */
+  @Query("SELECT l.member.id, " +
+      "COALESCE(SUM(CASE WHEN l.status = :status THEN l.outstandingBalance ELSE 0 END), 0), " +
+      "SUM(CASE WHEN l.status = :status THEN 1 ELSE 0 END), " +
+      "COUNT(l) " +
+      "FROM Loan l GROUP BY l.member.id")
+  List<Object[]> loansGroupByMember(@Param("status") LoanStatus status);
+
+  /**
+   * (memberId, earliest due date of an installment not in {@code paid}) over
+   * one member's loans in {@code status}.
+   */
+  @Query("SELECT i.memberId, MIN(i.dueDate) FROM InstallmentSchedule i, Loan l " +
+      "WHERE i.memberId = :memberId AND l.id = i.loanId AND l.status = :status AND i.status <> :paid " +
+      "GROUP BY i.memberId")
+  List<Object[]> nextDueByMember(@Param("memberId") Long memberId, @Param("status") LoanStatus status,
+      @Param("paid") InstallmentStatus paid);
+
+  /**
+   * Same as {@link #nextDueByMember} for every member with an open installment.
+   */
+  @Query("SELECT i.memberId, MIN(i.dueDate) FROM InstallmentSchedule i, Loan l " +
+      "WHERE l.id = i.loanId AND l.status = :status AND i.status <> :paid " +
+      "GROUP BY i.memberId")
+  List<Object[]> nextDueGroupByMember(@Param("status") LoanStatus status, @Param("paid") InstallmentStatus paid);
+
+  /**
+   * (memberId, SUM guaranteedAmount) over one member's active guarantees.
+   */
+  @Query("SELECT g.member.id, COALESCE(SUM(g.guaranteedAmount), 0) FROM Guarantor g " +
+      "WHERE g.member.id = :memberId AND g.isActive = true GROUP BY g.member.id")
+  List<Object[]> guaranteesByMember(@Param("memberId") Long memberId);
+
+  /**
+   * (memberId, SUM guaranteedAmount) over active guarantees, per member.
+   */
+  @Query("SELECT g.member.id, COALESCE(SUM(g.guaranteedAmount), 0) FROM Guarantor g " +
+      "WHERE g.isActive = true GROUP BY g.member.id")
+  List<Object[]> guaranteesGroupByMember();
+
+  /**
+   * (memberId, latest payment date) over one member's payments in {@code status}.
+   */
+  @Query("SELECT p.member.id, MAX(p.paymentDate) FROM Payment p " +
+      "WHERE p.member.id = :memberId AND p.paymentStatus = :status GROUP BY p.member.id")
+  List<Object[]> lastPaymentByMember(@Param("memberId") Long memberId, @Param("status") PaymentStatus status);
+
+  /**
+   * (memberId, latest payment date) over payments in {@code status}, per member.
+   */
+  @Query("SELECT p.member.id, MAX(p.paymentDate) FROM Payment p " +
+      "WHERE p.paymentStatus = :status GROUP BY p.member.id")
+  List<Object[]> lastPaymentGroupByMember(@Param("status") PaymentStatus status);
+}
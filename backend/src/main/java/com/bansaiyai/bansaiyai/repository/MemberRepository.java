@@ -1,6 +1,9 @@
 package com.bansaiyai.bansaiyai.repository;
 
 import com.bansaiyai.bansaiyai.entity.Member;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -47,15 +50,45 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
 
   long countByCreatedAtBefore(java.time.LocalDateTime date);
 
+  /**
+   * Members by status with their savings account joined in; the account is
+   * serialized with each member and, as an inverse one-to-one, would
+   * otherwise be loaded with one select per member
+   */
+  @EntityGraph(attributePaths = "savingAccount")
   List<Member> findByIsActive(boolean isActive);
 
+  /**
+   * Trigram-ranked member search (PostgreSQL with pg_trgm).
+   * The ILIKE predicates are served by the GIN trigram indexes from V14;
+   * rows are ordered by best similarity to the keyword. Returned as a Slice,
+   * so no COUNT query runs.
+   *
+   * @param keyword raw keyword, used for similarity ranking
+   * @param pattern escaped {@code %keyword%} pattern
+   */
+  @Query(value = "SELECT m.* FROM member m WHERE " +
+      "m.member_id ILIKE :pattern OR m.name ILIKE :pattern OR m.id_card ILIKE :pattern OR " +
+      "m.email ILIKE :pattern OR m.phone ILIKE :pattern " +
+      "ORDER BY GREATEST(similarity(m.member_id, :keyword), similarity(m.name, :keyword), " +
+      "  similarity(m.id_card, :keyword), similarity(COALESCE(m.email, ''), :keyword), " +
+      "  similarity(m.phone, :keyword)) DESC, m.id", nativeQuery = true)
+  Slice<Member> searchMembersRanked(@Param("keyword") String keyword, @Param("pattern") String pattern,
+      Pageable pageable);
+
+  /**
+   * Portable member search for databases without pg_trgm (H2 in dev/test).
+   *
+   * @param pattern escaped {@code %keyword%} pattern
+   */
   @Query("SELECT m FROM Member m WHERE " +
-      "LOWER(m.memberId) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-      "LOWER(m.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-      "LOWER(m.idCard) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-      "LOWER(m.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-      "LOWER(m.phone) LIKE LOWER(CONCAT('%', :keyword, '%'))")
-  List<Member> searchMembers(@Param("keyword") String keyword);
+      "LOWER(m.memberId) LIKE LOWER(:pattern) OR " +
+      "LOWER(m.name) LIKE LOWER(:pattern) OR " +
+      "LOWER(m.idCard) LIKE LOWER(:pattern) OR " +
+      "LOWER(m.email) LIKE LOWER(:pattern) OR " +
+      "LOWER(m.phone) LIKE LOWER(:pattern) " +
+      "ORDER BY m.id")
+  Slice<Member> searchMembers(@Param("pattern") String pattern, Pageable pageable);
 
   @Query("SELECT m FROM Member m WHERE m.isActive = true ORDER BY m.name")
   List<Member> findActiveMembersOrderBy();
@@ -78,4 +111,31 @@ public interface MemberRepository extends JpaRepository<Member, Long> {
 
   @Query("SELECT COALESCE(SUM(m.shareCapital), 0) FROM Member m WHERE m.isActive = true")
   java.math.BigDecimal sumTotalShareCapital();
+
+  /**
+   * Share capital of active members at the end of {@code asOfDate}: the
+   * current total less share capital payments completed after the date.
+   */
+  @Query("SELECT COALESCE(SUM(m.shareCapital), 0) " +
+      "- (SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.member.isActive = true " +
+      "AND p.paymentType = :type AND p.paymentStatus = :status AND p.paymentDate > :asOfDate) " +
+      "FROM Member m WHERE m.isActive = true")
+  java.math.BigDecimal sumShareCapitalAsOf(@Param("asOfDate") java.time.LocalDate asOfDate,
+      @Param("type") com.bansaiyai.bansaiyai.entity.enums.PaymentType type,
+      @Param("status") com.bansaiyai.bansaiyai.entity.enums.PaymentStatus status);
+
+  /**
+   * Project (id, shareCapital) for every active member, ordered by id.
+   * Used to build in-memory snapshots without materializing Member entities.
+   */
+  @Query("SELECT m.id, COALESCE(m.shareCapital, 0) FROM Member m WHERE m.isActive = true ORDER BY m.id")
+  List<Object[]> findActiveMemberShareCapital();
+
+  /**
+   * Project the searchable fields of every member
+   * (id, memberId, name, idCard, phone, photoPath, isActive).
+   * Used to build the in-memory member search index.
+   */
+  @Query("SELECT m.id, m.memberId, m.name, m.idCard, m.phone, m.photoPath, m.isActive FROM Member m ORDER BY m.id")
+  List<Object[]> findSearchIndexRows();
 }
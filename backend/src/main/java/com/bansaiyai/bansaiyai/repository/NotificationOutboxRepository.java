@@ -0,0 +1,62 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.NotificationOutbox;
+import com.bansaiyai.bansaiyai.entity.enums.OutboxStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+  /**
+   * Lock up to a page of due rows of one provider, oldest first, skipping
+   * rows another dispatcher has locked ({@code FOR UPDATE SKIP LOCKED}; a
+   * lock timeout of -2 is Hibernate's SKIP_LOCKED). A row is due when it is
+   * PENDING or a SENDING lease has expired and its next attempt time passed.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+  @Query("SELECT o FROM NotificationOutbox o WHERE o.provider = :provider " +
+      "AND o.status IN (com.bansaiyai.bansaiyai.entity.enums.OutboxStatus.PENDING, " +
+      "com.bansaiyai.bansaiyai.entity.enums.OutboxStatus.SENDING) " +
+      "AND o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt, o.id")
+  List<NotificationOutbox> claimDue(@Param("provider") String provider, @Param("now") LocalDateTime now,
+      Pageable page);
+
+  /**
+   * The given dedupe keys that are already queued or sent.
+   */
+  @Query("SELECT o.dedupeKey FROM NotificationOutbox o WHERE o.dedupeKey IN :keys")
+  List<String> findExistingDedupeKeys(@Param("keys") Collection<String> keys);
+
+  /**
+   * Queue a PENDING message unless its dedupe key is already in the outbox
+   * (PostgreSQL). A duplicate skips only its own row instead of failing the
+   * transaction.
+   *
+   * @return 1 if the row was queued, 0 if its key was taken
+   */
+  @Modifying
+  @Query(value = "INSERT INTO notification_outbox (provider, recipient, subject, template, variables, " +
+      "dedupe_key, status, attempts, next_attempt_at, created_at) " +
+      "VALUES (:provider, :recipient, :subject, :template, :variables, :dedupeKey, 'PENDING', 0, " +
+      "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP) " +
+      "ON CONFLICT (dedupe_key) DO NOTHING", nativeQuery = true)
+  int insertIfNewKey(@Param("provider") String provider, @Param("recipient") String recipient,
+      @Param("subject") String subject, @Param("template") String template, @Param("variables") String variables,
+      @Param("dedupeKey") String dedupeKey);
+
+  long countByStatus(OutboxStatus status);
+}
@@ -151,4 +151,9 @@ public interface PaymentNotificationRepository extends JpaRepository<PaymentNoti
          * Check if notification exists by UUID
          */
         boolean existsByUuid(java.util.UUID uuid);
+
+        /**
+         * Check if any notification references a slip by content hash
+         */
+        boolean existsBySlipSha256(String slipSha256);
 }
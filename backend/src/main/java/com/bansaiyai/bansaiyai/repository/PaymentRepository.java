@@ -4,8 +4,10 @@ import com.bansaiyai.bansaiyai.entity.Payment;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
 import com.bansaiyai.bansaiyai.entity.enums.ApprovalStatus;
+import com.bansaiyai.bansaiyai.repository.projection.PaymentListRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -67,11 +69,50 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
          */
         Page<Payment> findByMemberIdAndPaymentStatus(Long memberId, PaymentStatus status, Pageable pageable);
 
+        // ============================================
+        // Listing and detail fetch plans
+        // ============================================
+
+        String LIST_ROW_SELECT = "SELECT new com.bansaiyai.bansaiyai.repository.projection.PaymentListRow("
+                        + "p, m.name, l.loanNumber, sa.accountNumber) "
+                        + "FROM Payment p JOIN p.member m LEFT JOIN p.loan l LEFT JOIN p.savingAccount sa";
+
+        /**
+         * Payment with its member, loan and savings account, for detail views
+         */
+        @EntityGraph(attributePaths = { "member", "loan", "savingAccount" })
+        Optional<Payment> findWithAssociationsById(Long id);
+
+        /**
+         * Page of payments with member, loan and account display columns: one
+         * select plus the count
+         */
+        @Query(value = LIST_ROW_SELECT, countQuery = "SELECT COUNT(p) FROM Payment p")
+        Page<PaymentListRow> findListRows(Pageable pageable);
+
+        @Query(value = LIST_ROW_SELECT + " WHERE m.id = :memberId",
+                        countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.member.id = :memberId")
+        Page<PaymentListRow> findListRowsByMemberId(@Param("memberId") Long memberId, Pageable pageable);
+
+        @Query(value = LIST_ROW_SELECT + " WHERE l.id = :loanId",
+                        countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.loan.id = :loanId")
+        Page<PaymentListRow> findListRowsByLoanId(@Param("loanId") Long loanId, Pageable pageable);
+
+        @Query(value = LIST_ROW_SELECT + " WHERE sa.id = :savingAccountId",
+                        countQuery = "SELECT COUNT(p) FROM Payment p WHERE p.savingAccount.id = :savingAccountId")
+        Page<PaymentListRow> findListRowsBySavingAccountId(@Param("savingAccountId") Long savingAccountId,
+                        Pageable pageable);
+
         /**
          * Find payments by loan and status
          */
         List<Payment> findByLoanIdAndPaymentStatus(Long loanId, PaymentStatus status);
 
+        /**
+         * Payments of several loans in one query, e.g. all of a member's loans
+         */
+        List<Payment> findByLoanIdIn(List<Long> loanIds);
+
         /**
          * Find overdue payments
          */
@@ -114,6 +155,17 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
         List<Payment> findLoanPaymentsByLoan(@Param("loanId") Long loanId,
                         @Param("loanPaymentTypes") List<PaymentType> loanPaymentTypes);
 
+        /**
+         * Loan payments of the given types and status within a date range,
+         * across all loans, for month-end closing
+         */
+        @Query("SELECT p FROM Payment p WHERE p.loan IS NOT NULL AND p.paymentType IN (:types) " +
+                        "AND p.paymentStatus = :status AND p.paymentDate BETWEEN :startDate AND :endDate")
+        List<Payment> findLoanPaymentsByDateRange(@Param("types") List<PaymentType> types,
+                        @Param("status") PaymentStatus status,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
         /**
          * Find payments by payment method
          */
@@ -263,6 +315,16 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
         List<Payment> findTop10ByMemberIdOrderByPaymentDateDesc(Long memberId);
 
+        /**
+         * Newest payments of the given status and types as (id, paymentDate,
+         * createdAt, member name, paymentType, amount) rows
+         */
+        @Query("SELECT p.id, p.paymentDate, p.createdAt, m.name, p.paymentType, p.amount FROM Payment p JOIN p.member m " +
+                        "WHERE p.paymentStatus = :status AND p.paymentType IN (:types) " +
+                        "ORDER BY p.paymentDate DESC, p.createdAt DESC")
+        List<Object[]> findRecentActivityRows(@Param("status") PaymentStatus status,
+                        @Param("types") List<PaymentType> types, Pageable pageable);
+
         @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.member.id = :memberId AND p.paymentDate BETWEEN :startDate AND :endDate")
         java.math.BigDecimal sumPaymentsByMemberAndDateRange(@Param("memberId") Long memberId,
                         @Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
@@ -283,6 +345,17 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
                         "AND p.paymentStatus = 'COMPLETED'")
         BigDecimal sumInterestByMemberAndYear(@Param("memberId") Long memberId, @Param("year") Integer year);
 
+        /**
+         * Sum interest paid per member for completed payments within a date range.
+         * Returns (memberId, interestSum) rows in a single grouped query.
+         */
+        @Query("SELECT p.member.id, COALESCE(SUM(p.interestAmount), 0) FROM Payment p " +
+                        "WHERE p.paymentDate BETWEEN :startDate AND :endDate " +
+                        "AND p.paymentStatus = 'COMPLETED' " +
+                        "GROUP BY p.member.id")
+        List<Object[]> sumInterestByDateRangeGroupByMember(@Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
         List<Payment> findByApprovalStatus(ApprovalStatus approvalStatus);
 
         @Query("SELECT p.paymentType, COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate AND p.paymentStatus = 'COMPLETED' GROUP BY p.paymentType")
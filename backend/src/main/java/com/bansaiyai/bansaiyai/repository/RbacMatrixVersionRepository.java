@@ -0,0 +1,31 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.RbacMatrixVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository for the role-permission matrix version row.
+ */
+@Repository
+public interface RbacMatrixVersionRepository extends JpaRepository<RbacMatrixVersion, Integer> {
+
+  @Query("SELECT v.version FROM RbacMatrixVersion v WHERE v.id = " + RbacMatrixVersion.ID)
+  Optional<Long> findCurrentVersion();
+
+  /**
+   * Bump the version in place.
+   *
+   * @return 1, or 0 if the row does not exist yet
+   */
+  @Modifying
+  @Query("UPDATE RbacMatrixVersion v SET v.version = v.version + 1, v.updatedAt = :now WHERE v.id = "
+      + RbacMatrixVersion.ID)
+  int increment(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,29 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.ReportArtifact;
+import com.bansaiyai.bansaiyai.entity.enums.ReportArtifactType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for stored reports of closed fiscal periods.
+ */
+@Repository
+public interface ReportArtifactRepository extends JpaRepository<ReportArtifact, Long> {
+
+  Optional<ReportArtifact> findByReportTypeAndPeriodToAndFormatAndParamsHash(ReportArtifactType reportType,
+      String periodTo, String format, String paramsHash);
+
+  /**
+   * Artifacts whose range includes the period: those ending at or after it
+   * that start at or before it, or that start at the beginning of the ledger.
+   */
+  @Query("SELECT a FROM ReportArtifact a WHERE a.periodTo >= :fiscalPeriod " +
+      "AND (a.periodFrom IS NULL OR a.periodFrom <= :fiscalPeriod)")
+  List<ReportArtifact> findCovering(@Param("fiscalPeriod") String fiscalPeriod);
+}
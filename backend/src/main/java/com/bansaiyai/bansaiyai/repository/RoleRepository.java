@@ -2,8 +2,10 @@ package com.bansaiyai.bansaiyai.repository;
 
 import com.bansaiyai.bansaiyai.entity.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -28,4 +30,13 @@ public interface RoleRepository extends JpaRepository<Role, Integer> {
    * @return true if the role exists, false otherwise
    */
   boolean existsByRoleName(String roleName);
+
+  /**
+   * Project (roleName, permSlug) for every role-permission pair, in one
+   * query. Roles without permissions appear once with a null slug.
+   *
+   * @return the role-permission matrix as rows
+   */
+  @Query("SELECT r.roleName, p.permSlug FROM Role r LEFT JOIN r.permissions p")
+  List<Object[]> findRolePermissionPairs();
 }
@@ -23,6 +23,34 @@ public interface SavingBalanceRepository extends JpaRepository<SavingBalance, Lo
     @Query("SELECT b FROM SavingBalance b WHERE b.balanceDate = :date")
     List<SavingBalance> findByBalanceDate(@Param("date") LocalDate date);
 
-    @Query("SELECT COALESCE(SUM(b.closingBalance), 0) FROM SavingBalance b WHERE b.balanceDate = :date")
-    BigDecimal sumClosingBalanceByDate(@Param("date") LocalDate date);
+    @Query("SELECT b.savingAccount.id FROM SavingBalance b WHERE b.balanceDate = :date")
+    List<Long> findSavingAccountIdsByBalanceDate(@Param("date") LocalDate date);
+
+    /**
+     * Date of the latest snapshot on or before the given date, or null if none
+     */
+    @Query("SELECT MAX(b.balanceDate) FROM SavingBalance b WHERE b.balanceDate <= :date")
+    LocalDate findLatestBalanceDateOnOrBefore(@Param("date") LocalDate date);
+
+    /**
+     * Member savings at the end of {@code asOfDate}: the closing balances of
+     * the snapshot taken on {@code snapshotDate}, plus the balance change of
+     * every transaction dated since and not voided by {@code asOfEnd}, minus
+     * that of earlier transactions voided between the two.
+     */
+    @Query("SELECT COALESCE(SUM(b.closingBalance), 0) " +
+            "+ (SELECT COALESCE(SUM(CASE " +
+            "WHEN st.transactionDate > :snapshotDate AND st.transactionDate <= :asOfDate " +
+            "AND (st.voidedAt IS NULL OR st.voidedAt >= :asOfEnd) THEN st.balanceAfter - st.balanceBefore " +
+            "WHEN st.transactionDate <= :snapshotDate AND st.voidedAt >= :snapshotEnd " +
+            "AND st.voidedAt < :asOfEnd THEN st.balanceBefore - st.balanceAfter " +
+            "ELSE 0 END), 0) FROM SavingTransaction st " +
+            "WHERE (st.transactionDate > :snapshotDate AND st.transactionDate <= :asOfDate) " +
+            "OR (st.voidedAt >= :snapshotEnd AND st.voidedAt < :asOfEnd)) " +
+            "FROM SavingBalance b WHERE b.balanceDate = :snapshotDate")
+    BigDecimal sumClosingBalanceAsOf(
+            @Param("snapshotDate") LocalDate snapshotDate,
+            @Param("asOfDate") LocalDate asOfDate,
+            @Param("snapshotEnd") java.time.LocalDateTime snapshotEnd,
+            @Param("asOfEnd") java.time.LocalDateTime asOfEnd);
 }
@@ -5,6 +5,7 @@ import com.bansaiyai.bansaiyai.entity.SavingTransaction;
 import com.bansaiyai.bansaiyai.entity.SavingBalance;
 import com.bansaiyai.bansaiyai.entity.enums.AccountType;
 import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
+import com.bansaiyai.bansaiyai.repository.projection.SavingAccountListRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -38,6 +39,27 @@ public interface SavingRepository extends JpaRepository<SavingAccount, Long> {
         @Query("SELECT sa FROM SavingAccount sa WHERE sa.isActive = true AND sa.isFrozen = false")
         Page<SavingAccount> findActiveAccounts(Pageable pageable);
 
+        String LIST_ROW_SELECT = "SELECT new com.bansaiyai.bansaiyai.repository.projection.SavingAccountListRow("
+                        + "sa, m.name) FROM SavingAccount sa JOIN sa.member m";
+
+        /**
+         * Page of active, unfrozen accounts with owner names: one select plus the
+         * count
+         */
+        @Query(value = LIST_ROW_SELECT + " WHERE sa.isActive = true AND sa.isFrozen = false",
+                        countQuery = "SELECT COUNT(sa) FROM SavingAccount sa WHERE sa.isActive = true AND sa.isFrozen = false")
+        Page<SavingAccountListRow> findActiveListRows(Pageable pageable);
+
+        /**
+         * Page of a member's accounts with the owner's name: one select plus the
+         * count
+         */
+        @Query(value = LIST_ROW_SELECT + " WHERE m.id = :memberId AND sa.isActive = :isActive",
+                        countQuery = "SELECT COUNT(sa) FROM SavingAccount sa "
+                                        + "WHERE sa.member.id = :memberId AND sa.isActive = :isActive")
+        Page<SavingAccountListRow> findListRowsByMemberIdAndIsActive(@Param("memberId") Long memberId,
+                        @Param("isActive") Boolean isActive, Pageable pageable);
+
         @Query("SELECT SUM(sa.balance) FROM SavingAccount sa WHERE sa.member.id = :memberId AND sa.isActive = true")
         BigDecimal sumBalancesByMemberId(@Param("memberId") Long memberId);
 
@@ -47,8 +69,23 @@ public interface SavingRepository extends JpaRepository<SavingAccount, Long> {
         @Query("SELECT sa FROM SavingAccount sa WHERE sa.balance < sa.minimumBalance AND sa.isActive = true")
         List<SavingAccount> findAccountsBelowMinimumBalance();
 
-        @Query("SELECT sa FROM SavingAccount sa WHERE sa.lastInterestDate < :date AND sa.isActive = true")
-        List<SavingAccount> findAccountsRequiringInterest(@Param("date") LocalDate date);
+        /**
+         * IDs of active accounts not yet credited interest up to the date,
+         * ascending; used to cut an interest run into ID range chunks.
+         */
+        @Query("SELECT sa.id FROM SavingAccount sa WHERE sa.isActive = true " +
+                        "AND (sa.lastInterestDate IS NULL OR sa.lastInterestDate < :date) ORDER BY sa.id")
+        List<Long> findIdsRequiringInterest(@Param("date") LocalDate date);
+
+        /**
+         * Active accounts in an ID range not yet credited interest up to the
+         * date, ascending by ID. Accounts credited by an earlier attempt of the
+         * same run drop out, which keeps a rerun idempotent.
+         */
+        @Query("SELECT sa FROM SavingAccount sa WHERE sa.id BETWEEN :firstId AND :lastId AND sa.isActive = true " +
+                        "AND (sa.lastInterestDate IS NULL OR sa.lastInterestDate < :date) ORDER BY sa.id")
+        List<SavingAccount> findRequiringInterestInRange(@Param("firstId") Long firstId,
+                        @Param("lastId") Long lastId, @Param("date") LocalDate date);
 
         // Transaction queries
         @Query("SELECT st FROM SavingTransaction st WHERE st.savingAccount.id = :savingAccountId ORDER BY st.transactionDate DESC")
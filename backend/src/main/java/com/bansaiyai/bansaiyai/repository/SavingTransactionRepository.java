@@ -2,13 +2,17 @@ package com.bansaiyai.bansaiyai.repository;
 
 import com.bansaiyai.bansaiyai.entity.SavingTransaction;
 import com.bansaiyai.bansaiyai.entity.enums.ApprovalStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface SavingTransactionRepository extends JpaRepository<SavingTransaction, Long> {
@@ -16,6 +20,16 @@ public interface SavingTransactionRepository extends JpaRepository<SavingTransac
         @Query("SELECT st FROM SavingTransaction st ORDER BY st.transactionDate DESC, st.createdAt DESC")
         List<SavingTransaction> findRecentTransactions(Pageable pageable);
 
+        /**
+         * Newest non-reversed transactions as (id, transactionDate, createdAt,
+         * member name, transactionType, amount) rows, without loading the
+         * account or member entities
+         */
+        @Query("SELECT st.id, st.transactionDate, st.createdAt, m.name, st.transactionType, st.amount " +
+                        "FROM SavingTransaction st JOIN st.savingAccount sa JOIN sa.member m " +
+                        "WHERE st.isReversed = false ORDER BY st.transactionDate DESC, st.createdAt DESC")
+        List<Object[]> findRecentActivityRows(Pageable pageable);
+
         List<SavingTransaction> findByApprovalStatus(ApprovalStatus approvalStatus);
 
         List<SavingTransaction> findBySavingAccountIdOrderByTransactionDateDesc(Long savingAccountId);
@@ -30,4 +44,40 @@ public interface SavingTransactionRepository extends JpaRepository<SavingTransac
         List<SavingTransaction> findByMemberAndDateRange(@Param("memberId") Long memberId,
                         @Param("startDate") java.time.LocalDate startDate,
                         @Param("endDate") java.time.LocalDate endDate);
+
+        /**
+         * Stream transactions in a date range as scalar rows for export:
+         * (date, transactionNumber, accountNumber, memberId, memberName, type,
+         * amount, balanceAfter, description). Must be consumed inside a
+         * transaction and closed.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("SELECT st.transactionDate, st.transactionNumber, sa.accountNumber, m.memberId, m.name, " +
+                        "st.transactionType, st.amount, st.balanceAfter, st.description " +
+                        "FROM SavingTransaction st JOIN st.savingAccount sa JOIN sa.member m " +
+                        "WHERE st.transactionDate BETWEEN :startDate AND :endDate " +
+                        "ORDER BY st.transactionDate, st.id")
+        Stream<Object[]> streamExportRows(@Param("startDate") java.time.LocalDate startDate,
+                        @Param("endDate") java.time.LocalDate endDate);
+
+        /**
+         * Stream the balance history of an account ID range after a date as
+         * (accountId, transactionDate, balanceBefore, balanceAfter), ordered
+         * by account then date, so average daily balances of a whole interest
+         * chunk are built in one pass. Must be consumed inside a transaction
+         * and closed.
+         */
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("SELECT st.savingAccount.id, st.transactionDate, st.balanceBefore, st.balanceAfter " +
+                        "FROM SavingTransaction st " +
+                        "WHERE st.savingAccount.id BETWEEN :firstId AND :lastId AND st.transactionDate > :after " +
+                        "ORDER BY st.savingAccount.id, st.transactionDate, st.id")
+        Stream<Object[]> streamBalanceHistory(@Param("firstId") Long firstId, @Param("lastId") Long lastId,
+                        @Param("after") java.time.LocalDate after);
 }
@@ -0,0 +1,49 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.StoredBlob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for blob reference counts.
+ */
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+  /**
+   * Load a blob's row and lock it, serializing reference changes and the
+   * sweeper's delete for the same content.
+   */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT b FROM StoredBlob b WHERE b.sha256 = :sha256")
+  Optional<StoredBlob> findForUpdate(@Param("sha256") String sha256);
+
+  /**
+   * Create the row of new content with no references, unless it exists, so
+   * concurrent first uploads of the same content both find a row to lock
+   * instead of racing on the key. PostgreSQL only ({@code ON CONFLICT}).
+   *
+   * @return 1 if a row was created, 0 otherwise
+   */
+  @Modifying
+  @Query(value = "INSERT INTO stored_blob (sha256, size_bytes, ref_count, created_at) " +
+      "VALUES (:sha256, :sizeBytes, 0, CURRENT_TIMESTAMP) ON CONFLICT (sha256) DO NOTHING", nativeQuery = true)
+  int insertIfMissing(@Param("sha256") String sha256, @Param("sizeBytes") long sizeBytes);
+
+  /**
+   * Unreferenced blobs released before the cutoff, oldest first.
+   */
+  @Query("SELECT b.sha256 FROM StoredBlob b WHERE b.refCount = 0 AND b.releasedAt < :cutoff " +
+      "ORDER BY b.releasedAt")
+  List<String> findReleasedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.bansaiyai.bansaiyai.repository.projection;
+
+import com.bansaiyai.bansaiyai.entity.Loan;
+
+/**
+ * One row of a loan listing: the loan and its borrower's name, read in the
+ * same statement so mapping a page never initializes the member proxy.
+ */
+public record LoanListRow(Loan loan, String memberName) {
+}
@@ -0,0 +1,13 @@
+package com.bansaiyai.bansaiyai.repository.projection;
+
+import com.bansaiyai.bansaiyai.entity.Payment;
+
+/**
+ * One row of a payment listing: the payment plus the display columns of its
+ * member, loan and savings account, read in the same statement so mapping a
+ * page never initializes those proxies. Loan and account columns are null
+ * for payments without one.
+ */
+public record PaymentListRow(Payment payment, String memberName, String loanNumber,
+    String savingAccountNumber) {
+}
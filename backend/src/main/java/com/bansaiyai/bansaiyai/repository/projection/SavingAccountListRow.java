@@ -0,0 +1,11 @@
+package com.bansaiyai.bansaiyai.repository.projection;
+
+import com.bansaiyai.bansaiyai.entity.SavingAccount;
+
+/**
+ * One row of a savings account listing: the account and its owner's name,
+ * read in the same statement so mapping a page never initializes the member
+ * proxy.
+ */
+public record SavingAccountListRow(SavingAccount account, String memberName) {
+}
@@ -0,0 +1,624 @@
+package com.bansaiyai.bansaiyai.seeder;
+
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.enums.AccountType;
+import com.bansaiyai.bansaiyai.entity.enums.ApprovalStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
+import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates production-sized data sets: members with saving accounts and
+ * monthly saving transactions, loans with their repayment history, the
+ * matching double-entry accounting lines and audit log rows.
+ *
+ * Rows are written with plain JDBC rather than JPA. Members are generated
+ * in chunks; each chunk is buffered per table and loaded in one database
+ * transaction with {@code COPY ... FROM STDIN} on PostgreSQL, or a JDBC
+ * batch on other databases. On PostgreSQL, IDs are reserved from each
+ * table's sequence in blocks, moving the sequence past a block before any
+ * of its IDs is used, so they never overlap blocks the application has
+ * reserved. Elsewhere IDs are assigned past both {@code MAX(id)} and the
+ * sequence's current value, and the sequences restarted afterwards. Either way, run it against a database
+ * nobody else is writing to. Generated journal rows get one posting
+ * sequence, drawn when the run ends, like a single posting transaction.
+ *
+ * Each member's data is derived from the seed and the member's position,
+ * so the same options produce the same amounts and dates regardless of
+ * parallelism; only the IDs depend on the order chunks are loaded in.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkDataGenerator {
+
+    private static final String GENERATOR = "generator";
+
+    private static final String CASH = "10100";
+    private static final String LOANS_RECEIVABLE = "10300";
+    private static final String MEMBER_SAVINGS = "20100";
+    private static final String INTEREST_INCOME = "40100";
+
+    private static final int[] LOAN_TERMS = { 12, 24, 36, 60, 120 };
+    private static final String[] FIRST_NAMES = { "Somchai", "Somsak", "Malee", "Nattapong", "Siriporn",
+            "Wichai", "Kanya", "Prasert", "Ratana", "Anong", "Boonmee", "Chaiya", "Duangjai", "Kittisak" };
+    private static final String[] LAST_NAMES = { "Saetang", "Srisuk", "Wongsawat", "Chaiyaporn", "Thongdee",
+            "Rattanakul", "Boonyarat", "Phromma", "Kaewmanee", "Sukjai", "Inthachak", "Panya" };
+
+    private final DataSource dataSource;
+
+    /**
+     * Tables in load order, so foreign keys are satisfied within each chunk.
+     */
+    enum Target {
+        MEMBER("member", "id",
+                "id", "uuid", "member_id", "name", "id_card", "date_of_birth", "address", "phone",
+                "registration_date", "is_active", "share_capital", "created_at", "updated_at", "created_by"),
+        SAVING_ACCOUNT("saving_account", "id",
+                "id", "uuid", "account_number", "member_id", "account_type", "account_name", "balance",
+                "available_balance", "share_capital", "interest_rate", "minimum_balance", "overdraft_limit",
+                "opening_date", "is_active", "is_frozen", "created_at", "updated_at", "created_by"),
+        LOAN("loan", "id",
+                "id", "uuid", "loan_number", "member_id", "loan_type", "principal_amount", "interest_rate",
+                "term_months", "start_date", "end_date", "status", "purpose", "approved_amount",
+                "disbursement_date", "maturity_date", "outstanding_balance", "paid_principal", "paid_interest",
+                "penalty_amount", "approved_by", "approved_date", "created_at", "updated_at", "created_by"),
+        SAVING_TRANSACTION("saving_transaction", "id",
+                "id", "uuid", "transaction_number", "saving_account_id", "transaction_type", "amount",
+                "transaction_date", "processed_date", "description", "balance_before", "balance_after",
+                "is_reversed", "approval_status", "channel", "created_at", "updated_at", "created_by"),
+        PAYMENT("payments", "id",
+                "id", "uuid", "payment_number", "member_id", "loan_id", "payment_type", "payment_status",
+                "amount", "principal_amount", "interest_amount", "penalty_amount", "payment_date", "due_date",
+                "processed_date", "completed_date", "payment_method", "description", "is_recurring",
+                "auto_debit", "is_verified", "approval_status", "version", "created_at", "updated_at", "created_by"),
+        ACCOUNTING("accounting", "id",
+                "id", "uuid", "fiscal_period", "account_code", "account_name", "debit", "credit",
+                "transaction_date", "description", "reference_type", "reference_id", "created_at",
+                "updated_at", "created_by"),
+        AUDIT_LOG("system_audit_log", "log_id",
+                "log_id", "uuid", "action", "entity_type", "entity_id", "new_values", "timestamp");
+
+        final String table;
+        final String key;
+        final String[] columns;
+
+        Target(String table, String key, String... columns) {
+            this.table = table;
+            this.key = key;
+            this.columns = columns;
+        }
+    }
+
+    /**
+     * Rows written per table and the wall-clock time taken.
+     */
+    public record GenerationReport(Map<String, Long> rows, long elapsedMillis) {
+    }
+
+    public GenerationReport generate(GeneratorOptions options) {
+        long start = System.currentTimeMillis();
+        log.info("Generating {} members with {} years of history ({} transactions/member/month)",
+                options.members(), options.years(), options.transactionsPerMemberPerMonth());
+
+        // Held for the whole run: ID blocks are reserved on it as workers need them
+        try (Connection sequences = dataSource.getConnection()) {
+            Run run;
+            try {
+                run = Run.prepare(sequences, options);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not prepare data generation", e);
+            }
+            load(run);
+            try {
+                run.finish(sequences);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not advance ID and posting sequences", e);
+            }
+
+            Map<String, Long> rows = new LinkedHashMap<>();
+            for (Target target : Target.values()) {
+                rows.put(target.table, run.rowCounts.get(target).get());
+            }
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("Data generation completed in {} ms: {}", elapsed, rows);
+            return new GenerationReport(rows, elapsed);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not open a connection for data generation", e);
+        }
+    }
+
+    private void load(Run run) {
+        GeneratorOptions options = run.options;
+        int chunks = (options.members() + options.chunkSize() - 1) / options.chunkSize();
+        AtomicInteger nextChunk = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(options.parallelism(), chunks));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < Math.min(options.parallelism(), chunks); i++) {
+                futures.add(workers.submit(() -> {
+                    loadChunks(run, nextChunk, chunks);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data generation failed", e.getCause());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void loadChunks(Run run, AtomicInteger nextChunk, int chunks) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks && !Thread.currentThread().isInterrupted()) {
+                Map<Target, BulkTableWriter> writers = new EnumMap<>(Target.class);
+                for (Target target : Target.values()) {
+                    writers.put(target, BulkTableWriter.create(run.tables.get(target), run.copy));
+                }
+
+                int first = chunk * run.options.chunkSize();
+                int last = Math.min(first + run.options.chunkSize(), run.options.members());
+                for (int member = first; member < last; member++) {
+                    generateMember(run, writers, member);
+                }
+
+                try {
+                    if (run.copy) {
+                        try (Statement statement = connection.createStatement()) {
+                            // Generated data can be regenerated; no need to wait for the WAL flush
+                            statement.execute("SET LOCAL synchronous_commit TO OFF");
+                        }
+                    }
+                    for (Target target : Target.values()) {
+                        writers.get(target).flush(connection);
+                    }
+                    connection.commit();
+                } catch (SQLException | RuntimeException e) {
+                    connection.rollback();
+                    throw e;
+                }
+                for (Target target : Target.values()) {
+                    run.rowCounts.get(target).addAndGet(writers.get(target).rowCount());
+                }
+                log.debug("Generated members {} to {}", first, last - 1);
+            }
+        }
+    }
+
+    private void generateMember(Run run, Map<Target, BulkTableWriter> writers, int index) {
+        GeneratorOptions options = run.options;
+        SplittableRandom random = new SplittableRandom(options.seed() ^ (index * 0x9E3779B97F4A7C15L));
+
+        // Skew registrations towards the start of the history so most members
+        // have several years of transactions, as in a long-running cooperative
+        double skew = random.nextDouble();
+        int joinedMonth = (int) (skew * skew * options.months());
+        LocalDate registered = run.historyStart.plusMonths(joinedMonth).atDay(1 + random.nextInt(28));
+        LocalDateTime registeredAt = registered.atTime(9, random.nextInt(60));
+
+        long memberId = run.nextId(Target.MEMBER);
+        long accountId = run.nextId(Target.SAVING_ACCOUNT);
+        BigDecimal shareCapital = money(100L * (10 + random.nextInt(91)));
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+
+        writers.get(Target.MEMBER).add(
+                memberId, uuid(random, memberId), String.format("M%08d", memberId), name,
+                String.format("9%012d", memberId), LocalDate.of(1950 + random.nextInt(55), 1 + random.nextInt(12),
+                        1 + random.nextInt(28)),
+                (1 + random.nextInt(300)) + " Moo " + (1 + random.nextInt(15)) + ", Ban Sai Yai",
+                String.format("08%08d", memberId % 100_000_000L), registered, random.nextInt(100) < 95,
+                shareCapital, registeredAt, registeredAt, GENERATOR);
+
+        BigDecimal balance = generateSavings(run, writers, random, accountId, joinedMonth);
+        writers.get(Target.SAVING_ACCOUNT).add(
+                accountId, uuid(random, accountId), String.format("SA%010d", accountId), memberId,
+                AccountType.SAVINGS, name, balance, balance, shareCapital, new BigDecimal("1.50"),
+                BigDecimal.ZERO.setScale(2), BigDecimal.ZERO.setScale(2), registered, true, false, registeredAt,
+                registeredAt, GENERATOR);
+
+        if (random.nextDouble() < options.borrowerRatio()) {
+            int loans = random.nextInt(5) == 0 ? 2 : 1;
+            for (int i = 0; i < loans; i++) {
+                generateLoan(run, writers, random, memberId, joinedMonth);
+            }
+        }
+    }
+
+    /**
+     * Saving transactions from the joining month to the end of the history.
+     *
+     * @return the closing balance
+     */
+    private BigDecimal generateSavings(Run run, Map<Target, BulkTableWriter> writers, SplittableRandom random,
+            long accountId, int joinedMonth) {
+        BigDecimal balance = BigDecimal.ZERO.setScale(2);
+        for (int month = joinedMonth; month < run.options.months(); month++) {
+            YearMonth yearMonth = run.historyStart.plusMonths(month);
+            // In date order, so balance_before/balance_after chain chronologically
+            int[] days = new int[run.options.transactionsPerMemberPerMonth()];
+            for (int i = 0; i < days.length; i++) {
+                days[i] = 1 + random.nextInt(yearMonth.lengthOfMonth());
+            }
+            Arrays.sort(days);
+            for (int day : days) {
+                LocalDate date = yearMonth.atDay(day);
+                LocalDateTime at = date.atTime(8 + random.nextInt(9), random.nextInt(60));
+
+                BigDecimal amount;
+                TransactionType type;
+                if (random.nextInt(5) == 0 && balance.compareTo(BigDecimal.valueOf(500)) > 0) {
+                    type = TransactionType.WITHDRAWAL;
+                    amount = money(10L * (1 + random.nextInt(balance.intValue() / 20)));
+                } else {
+                    type = TransactionType.DEPOSIT;
+                    amount = money(10L * (10 + random.nextInt(490)));
+                }
+                BigDecimal after = type == TransactionType.DEPOSIT ? balance.add(amount) : balance.subtract(amount);
+
+                long id = run.nextId(Target.SAVING_TRANSACTION);
+                String number = number("ST", id);
+                String description = type == TransactionType.DEPOSIT ? "Savings deposit" : "Savings withdrawal";
+                writers.get(Target.SAVING_TRANSACTION).add(
+                        id, uuid(random, id), number, accountId, type, amount, date, at, description, balance,
+                        after, false, ApprovalStatus.APPROVED, "COUNTER", at, at, GENERATOR);
+
+                if (type == TransactionType.DEPOSIT) {
+                    journal(run, writers, random, date, CASH, "Cash on Hand", amount, null,
+                            description, "SAVINGS", id, at);
+                    journal(run, writers, random, date, MEMBER_SAVINGS, "Member Savings", null, amount,
+                            description, "SAVINGS", id, at);
+                } else {
+                    journal(run, writers, random, date, MEMBER_SAVINGS, "Member Savings", amount, null,
+                            description, "SAVINGS", id, at);
+                    journal(run, writers, random, date, CASH, "Cash on Hand", null, amount,
+                            description, "SAVINGS", id, at);
+                }
+                audit(run, writers, random, "TRANSACTION_CREATE", "SavingTransaction", id,
+                        "{\"transactionNumber\":\"" + number + "\",\"type\":\"" + type.name()
+                                + "\",\"amount\":" + amount.toPlainString() + "}",
+                        at);
+                balance = after;
+            }
+        }
+        return balance;
+    }
+
+    /**
+     * One loan, disbursed some time after the member joined, with monthly
+     * repayments (and the odd missed month) up to the end of the history.
+     */
+    private void generateLoan(Run run, Map<Target, BulkTableWriter> writers, SplittableRandom random,
+            long memberId, int joinedMonth) {
+        int remainingMonths = run.options.months() - joinedMonth - 1;
+        if (remainingMonths < 1) {
+            return;
+        }
+        LoanType type = run.options.pickLoanType(random);
+        int term = Math.min(type.getMaximumTerm(), LOAN_TERMS[random.nextInt(LOAN_TERMS.length)]);
+        long maxThousands = Math.min(type.getMaximumAmount().longValue(), 300_000L) / 1000;
+        BigDecimal principal = money(1000L * (5 + random.nextLong(Math.max(1, maxThousands - 4))));
+        BigDecimal rate = BigDecimal.valueOf(6 + random.nextInt(7)).setScale(2);
+
+        YearMonth startMonth = run.historyStart.plusMonths(joinedMonth + 1 + random.nextInt(remainingMonths));
+        LocalDate startDate = startMonth.atDay(1 + random.nextInt(28));
+        LocalDate endDate = startDate.plusMonths(term);
+        LocalDateTime approvedAt = startDate.atTime(10, random.nextInt(60));
+
+        long loanId = run.nextId(Target.LOAN);
+        String loanNumber = number("LN", loanId);
+        journal(run, writers, random, startDate, LOANS_RECEIVABLE, "Loans Receivable", principal, null,
+                "Loan disbursement " + loanNumber, "LOAN", loanId, approvedAt);
+        journal(run, writers, random, startDate, CASH, "Cash on Hand", null, principal,
+                "Loan disbursement " + loanNumber, "LOAN", loanId, approvedAt);
+        audit(run, writers, random, "LOAN_APPROVAL", "Loan", loanId,
+                "{\"loanNumber\":\"" + loanNumber + "\",\"status\":\"APPROVED\",\"principalAmount\":"
+                        + principal.toPlainString() + "}",
+                approvedAt);
+
+        BigDecimal installment = Loan.calculateInstallment(principal, rate, term);
+        BigDecimal monthlyRate = Loan.monthlyRate(rate);
+        BigDecimal outstanding = principal;
+        BigDecimal paidPrincipal = BigDecimal.ZERO.setScale(2);
+        BigDecimal paidInterest = BigDecimal.ZERO.setScale(2);
+
+        for (int n = 1; n <= term && outstanding.signum() > 0; n++) {
+            LocalDate dueDate = startDate.plusMonths(n);
+            if (!dueDate.isBefore(run.historyEnd)) {
+                break;
+            }
+            if (random.nextInt(100) < 8) {
+                continue;
+            }
+            LocalDate paidOn = dueDate.minusDays(random.nextInt(5));
+            LocalDateTime at = paidOn.atTime(8 + random.nextInt(9), random.nextInt(60));
+            BigDecimal interest = outstanding.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalPart = installment.subtract(interest).min(outstanding).max(BigDecimal.ZERO);
+            BigDecimal amount = principalPart.add(interest);
+
+            long paymentId = run.nextId(Target.PAYMENT);
+            String paymentNumber = number("PY", paymentId);
+            writers.get(Target.PAYMENT).add(
+                    paymentId, uuid(random, paymentId), paymentNumber, memberId, loanId,
+                    PaymentType.LOAN_REPAYMENT, PaymentStatus.COMPLETED, amount, principalPart, interest,
+                    BigDecimal.ZERO.setScale(2), paidOn, dueDate, at, at, "CASH", "Loan repayment " + loanNumber,
+                    false, false, true, ApprovalStatus.APPROVED, 0L, at, at, GENERATOR);
+
+            journal(run, writers, random, paidOn, CASH, "Cash on Hand", amount, null,
+                    "Loan repayment " + loanNumber, "PAYMENT", paymentId, at);
+            journal(run, writers, random, paidOn, LOANS_RECEIVABLE, "Loans Receivable", null, principalPart,
+                    "Loan repayment - principal", "PAYMENT", paymentId, at);
+            if (interest.signum() > 0) {
+                journal(run, writers, random, paidOn, INTEREST_INCOME, "Interest Income", null, interest,
+                        "Loan repayment - interest", "PAYMENT", paymentId, at);
+            }
+            audit(run, writers, random, "PAYMENT_CREATE", "Payment", paymentId,
+                    "{\"paymentNumber\":\"" + paymentNumber + "\",\"amount\":" + amount.toPlainString() + "}",
+                    at);
+
+            outstanding = outstanding.subtract(principalPart);
+            paidPrincipal = paidPrincipal.add(principalPart);
+            paidInterest = paidInterest.add(interest);
+        }
+
+        writers.get(Target.LOAN).add(
+                loanId, uuid(random, loanId), loanNumber, memberId, type, principal, rate, term, startDate, endDate,
+                outstanding.signum() > 0 ? LoanStatus.ACTIVE : LoanStatus.COMPLETED, type.getDisplayName(),
+                principal, startDate, endDate, outstanding, paidPrincipal, paidInterest,
+                BigDecimal.ZERO.setScale(2), GENERATOR, startDate, approvedAt, approvedAt, GENERATOR);
+    }
+
+    private void journal(Run run, Map<Target, BulkTableWriter> writers, SplittableRandom random,
+            LocalDate date, String accountCode, String accountName, BigDecimal debit, BigDecimal credit,
+            String description, String referenceType, long referenceId, LocalDateTime at) {
+        BigDecimal zero = BigDecimal.ZERO.setScale(2);
+        long id = run.nextId(Target.ACCOUNTING);
+        writers.get(Target.ACCOUNTING).add(
+                id, uuid(random, id), YearMonth.from(date).toString(), accountCode,
+                accountName, debit != null ? debit : zero, credit != null ? credit : zero, date, description,
+                referenceType, referenceId, at, at, GENERATOR);
+    }
+
+    private void audit(Run run, Map<Target, BulkTableWriter> writers, SplittableRandom random, String action,
+            String entityType, long entityId, String newValues, LocalDateTime at) {
+        long id = run.nextId(Target.AUDIT_LOG);
+        writers.get(Target.AUDIT_LOG).add(
+                id, uuid(random, id), action, entityType, entityId, newValues, at);
+    }
+
+    /**
+     * A version 4 style UUID whose low bits are the row ID, so it is unique
+     * per table without the cost of {@link UUID#randomUUID()}'s SecureRandom.
+     */
+    private static UUID uuid(SplittableRandom random, long id) {
+        return new UUID((random.nextLong() & ~0xF000L) | 0x4000L, Long.MIN_VALUE | id);
+    }
+
+    /**
+     * {@code prefix} followed by the ID zero-padded to 12 digits; called per
+     * row, so avoids {@link String#format}.
+     */
+    private static String number(String prefix, long id) {
+        String digits = Long.toString(id);
+        StringBuilder number = new StringBuilder(prefix.length() + 12).append(prefix);
+        for (int i = digits.length(); i < 12; i++) {
+            number.append('0');
+        }
+        return number.append(digits).toString();
+    }
+
+    private static BigDecimal money(long amount) {
+        return BigDecimal.valueOf(amount).setScale(2);
+    }
+
+    /**
+     * IDs reserved for one table, handed out in order.
+     */
+    private static final class IdRange {
+        long next = 1;
+        long last;
+    }
+
+    /**
+     * State shared by the workers of one generation run.
+     */
+    private static final class Run {
+
+        /**
+         * IDs reserved from a sequence at a time, per table.
+         */
+        private static final long ID_BLOCK = 10_000;
+
+        final GeneratorOptions options;
+        final boolean copy;
+        final YearMonth historyStart;
+        final LocalDate historyEnd;
+        final Connection sequences;
+        final Map<Target, BulkTableWriter.Table> tables = new EnumMap<>(Target.class);
+        final Map<Target, IdRange> ids = new EnumMap<>(Target.class);
+        final Map<Target, AtomicLong> rowCounts = new EnumMap<>(Target.class);
+
+        private Run(GeneratorOptions options, boolean copy, Connection sequences) {
+            this.options = options;
+            this.copy = copy;
+            this.sequences = sequences;
+            // History covers whole months and ends with last month
+            YearMonth currentMonth = YearMonth.now();
+            this.historyStart = currentMonth.minusMonths(options.months());
+            this.historyEnd = currentMonth.atDay(1);
+        }
+
+        static Run prepare(Connection connection, GeneratorOptions options) throws SQLException {
+            Run run = new Run(options, BulkTableWriter.supportsCopy(connection), connection);
+            for (Target target : Target.values()) {
+                run.tables.put(target, BulkTableWriter.Table.resolve(
+                        connection, target.table, target.key, target.columns));
+                IdRange range = new IdRange();
+                if (!run.copy) {
+                    try (Statement statement = connection.createStatement();
+                            ResultSet rs = statement.executeQuery(
+                                    "SELECT COALESCE(MAX(" + target.key + "), 0) FROM " + target.table)) {
+                        rs.next();
+                        range.next = Math.max(rs.getLong(1), drawSequence(connection, target)) + 1;
+                        range.last = Long.MAX_VALUE;
+                    }
+                }
+                run.ids.put(target, range);
+                run.rowCounts.put(target, new AtomicLong());
+            }
+            log.info("Loading with {}", run.copy ? "COPY FROM STDIN" : "JDBC batch inserts");
+            return run;
+        }
+
+        /**
+         * Take one value from the table's sequence, or 0 if it has none. A
+         * pooled block Hibernate already holds ends at or below any value
+         * drawn later, so IDs past this one are free even where the block's
+         * IDs have not been written yet.
+         */
+        private static long drawSequence(Connection connection, Target target) throws SQLException {
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("SELECT NEXT VALUE FOR " + sequenceName(target))) {
+                rs.next();
+                return rs.getLong(1);
+            } catch (SQLException e) {
+                log.debug("No sequence for {}: {}", target.table, e.getMessage());
+                return 0;
+            }
+        }
+
+        long nextId(Target target) {
+            IdRange range = ids.get(target);
+            synchronized (range) {
+                if (range.next > range.last) {
+                    reserve(target, range);
+                }
+                return range.next++;
+            }
+        }
+
+        /**
+         * Reserve the next {@link #ID_BLOCK} IDs of the table's sequence by
+         * moving it past them first. Values handed out before are at most
+         * the {@code nextval} taken here, and every later one is past the
+         * block, whatever the sequence's increment.
+         */
+        private void reserve(Target target, IdRange range) {
+            synchronized (sequences) {
+                try (PreparedStatement statement = sequences.prepareStatement(
+                        "SELECT setval(?::regclass, nextval(?::regclass) + ?)")) {
+                    String sequence = sequenceName(target);
+                    statement.setString(1, sequence);
+                    statement.setString(2, sequence);
+                    statement.setLong(3, ID_BLOCK);
+                    try (ResultSet rs = statement.executeQuery()) {
+                        rs.next();
+                        range.last = rs.getLong(1);
+                        range.next = range.last - ID_BLOCK + 1;
+                    }
+                } catch (SQLException e) {
+                    throw new IllegalStateException("Could not reserve IDs for " + target.table, e);
+                }
+            }
+        }
+
+        /**
+         * Give the generated journal rows their posting sequence, and, where
+         * IDs did not come from the sequences, move each sequence so the next
+         * pooled block Hibernate reserves starts after the generated rows, as
+         * V16 does for existing rows.
+         */
+        void finish(Connection connection) throws SQLException {
+            stampPostingSequence(connection);
+            if (copy) {
+                return;
+            }
+            for (Target target : Target.values()) {
+                long next = ids.get(target).next - 1 + 50;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER SEQUENCE IF EXISTS " + sequenceName(target) + " RESTART WITH " + next);
+                }
+            }
+        }
+
+        /**
+         * Draw one posting sequence for all generated journal rows, holding
+         * the posting fence until they carry it, as a posting transaction
+         * does. Until then the rows have none, which cash checkpoint deltas
+         * already count.
+         */
+        private void stampPostingSequence(Connection connection) throws SQLException {
+            connection.setAutoCommit(false);
+            try {
+                long seq;
+                try (Statement statement = connection.createStatement()) {
+                    try (ResultSet rs = statement.executeQuery(
+                            "SELECT id FROM accounting_posting_fence WHERE id = 1 FOR UPDATE")) {
+                        if (!rs.next()) {
+                            statement.executeUpdate("INSERT INTO accounting_posting_fence (id) VALUES (1)");
+                        }
+                    }
+                    try (ResultSet rs = statement.executeQuery("SELECT nextval('accounting_posting_seq')")) {
+                        rs.next();
+                        seq = rs.getLong(1);
+                    }
+                }
+                try (PreparedStatement statement = connection.prepareStatement(
+                        "UPDATE accounting SET posting_seq = ? WHERE posting_seq IS NULL AND created_by = ?")) {
+                    statement.setLong(1, seq);
+                    statement.setString(2, GENERATOR);
+                    statement.executeUpdate();
+                }
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        }
+
+        private static String sequenceName(Target target) {
+            return target.table + "_" + target.key + "_seq";
+        }
+    }
+}
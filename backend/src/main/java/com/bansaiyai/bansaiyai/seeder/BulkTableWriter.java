@@ -0,0 +1,259 @@
+package com.bansaiyai.bansaiyai.seeder;
+
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Buffers the rows one generator chunk produces for a table and writes them
+ * in a single round trip: {@code COPY ... FROM STDIN} on PostgreSQL, a JDBC
+ * batch insert anywhere else (H2 in tests).
+ *
+ * Rows are passed in the {@link Table}'s declared column order. Columns the
+ * database does not have are dropped, since the Flyway schema and the
+ * Hibernate-generated test schema differ in a few optional columns.
+ */
+abstract class BulkTableWriter {
+
+    private static final int BATCH_SIZE = 1000;
+
+    protected final Table table;
+    private long rowCount;
+
+    private BulkTableWriter(Table table) {
+        this.table = table;
+    }
+
+    static BulkTableWriter create(Table table, boolean copy) {
+        return copy ? new CopyWriter(table) : new BatchWriter(table);
+    }
+
+    /**
+     * Whether this connection can take {@code COPY ... FROM STDIN}.
+     */
+    static boolean supportsCopy(Connection connection) throws SQLException {
+        return connection.isWrapperFor(BaseConnection.class);
+    }
+
+    final void add(Object... values) {
+        if (values.length != table.columns.length) {
+            throw new IllegalArgumentException("Expected " + table.columns.length + " values for "
+                    + table.name + ", got " + values.length);
+        }
+        append(values);
+        rowCount++;
+    }
+
+    long rowCount() {
+        return rowCount;
+    }
+
+    protected abstract void append(Object[] values);
+
+    /**
+     * Write everything buffered since the last flush on the given connection.
+     */
+    abstract void flush(Connection connection) throws SQLException;
+
+    /**
+     * Append a value in COPY text format: {@code \N} for null, backslash
+     * escapes for the delimiter, line breaks and the backslash itself.
+     */
+    static void appendCopyValue(StringBuilder line, Object value) {
+        if (value == null) {
+            line.append("\\N");
+            return;
+        }
+        if (value instanceof Boolean flag) {
+            line.append(flag ? 't' : 'f');
+            return;
+        }
+        String text;
+        if (value instanceof BigDecimal decimal) {
+            text = decimal.toPlainString();
+        } else if (value instanceof Enum<?> constant) {
+            text = constant.name();
+        } else {
+            text = value.toString();
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> line.append("\\\\");
+                case '\t' -> line.append("\\t");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                default -> line.append(c);
+            }
+        }
+    }
+
+    /**
+     * A target table with the subset of its declared columns that exist in
+     * the connected database.
+     */
+    static final class Table {
+
+        final String name;
+        final String key;
+        final String[] columns;
+        final boolean[] present;
+        final boolean[] json;
+        final String columnList;
+
+        private Table(String name, String key, String[] columns, boolean[] present, boolean[] json) {
+            this.name = name;
+            this.key = key;
+            this.columns = columns;
+            this.present = present;
+            this.json = json;
+            StringJoiner list = new StringJoiner(", ");
+            for (int i = 0; i < columns.length; i++) {
+                if (present[i]) {
+                    list.add(columns[i]);
+                }
+            }
+            this.columnList = list.toString();
+        }
+
+        static Table resolve(Connection connection, String name, String key, String... columns)
+                throws SQLException {
+            Map<String, String> types = new HashMap<>();
+            try (Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery("SELECT * FROM " + name + " WHERE 1 = 0")) {
+                ResultSetMetaData meta = rs.getMetaData();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    types.put(meta.getColumnName(i).toLowerCase(Locale.ROOT),
+                            meta.getColumnTypeName(i).toUpperCase(Locale.ROOT));
+                }
+            }
+            if (!types.containsKey(key)) {
+                throw new IllegalStateException("Table " + name + " has no column " + key);
+            }
+            boolean[] present = new boolean[columns.length];
+            boolean[] json = new boolean[columns.length];
+            for (int i = 0; i < columns.length; i++) {
+                String type = types.get(columns[i]);
+                present[i] = type != null;
+                json[i] = type != null && type.startsWith("JSON");
+            }
+            return new Table(name, key, columns, present, json);
+        }
+    }
+
+    private static final class CopyWriter extends BulkTableWriter {
+
+        private final StringBuilder buffer = new StringBuilder(1 << 16);
+
+        CopyWriter(Table table) {
+            super(table);
+        }
+
+        @Override
+        protected void append(Object[] values) {
+            boolean first = true;
+            for (int i = 0; i < values.length; i++) {
+                if (!table.present[i]) {
+                    continue;
+                }
+                if (!first) {
+                    buffer.append('\t');
+                }
+                first = false;
+                appendCopyValue(buffer, values[i]);
+            }
+            buffer.append('\n');
+        }
+
+        @Override
+        void flush(Connection connection) throws SQLException {
+            if (buffer.length() == 0) {
+                return;
+            }
+            CopyManager copyManager = new CopyManager(connection.unwrap(BaseConnection.class));
+            try {
+                copyManager.copyIn("COPY " + table.name + " (" + table.columnList + ") FROM STDIN",
+                        new StringReader(buffer.toString()));
+            } catch (IOException e) {
+                throw new SQLException("COPY into " + table.name + " failed", e);
+            }
+            buffer.setLength(0);
+        }
+    }
+
+    private static final class BatchWriter extends BulkTableWriter {
+
+        private final List<Object[]> rows = new ArrayList<>();
+
+        BatchWriter(Table table) {
+            super(table);
+        }
+
+        @Override
+        protected void append(Object[] values) {
+            rows.add(values);
+        }
+
+        @Override
+        void flush(Connection connection) throws SQLException {
+            if (rows.isEmpty()) {
+                return;
+            }
+            StringJoiner placeholders = new StringJoiner(", ");
+            for (boolean present : table.present) {
+                if (present) {
+                    placeholders.add("?");
+                }
+            }
+            String sql = "INSERT INTO " + table.name + " (" + table.columnList + ") VALUES (" + placeholders + ")";
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                int pending = 0;
+                for (Object[] row : rows) {
+                    int parameter = 1;
+                    for (int i = 0; i < row.length; i++) {
+                        if (table.present[i]) {
+                            bind(statement, parameter++, row[i], table.json[i]);
+                        }
+                    }
+                    statement.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        statement.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    statement.executeBatch();
+                }
+            }
+            rows.clear();
+        }
+
+        private static void bind(PreparedStatement statement, int parameter, Object value, boolean json)
+                throws SQLException {
+            if (value instanceof Enum<?> constant) {
+                statement.setString(parameter, constant.name());
+            } else if (json && value != null) {
+                // A string bound to a JSON column would be stored as a JSON string literal
+                statement.setBytes(parameter, value.toString().getBytes(StandardCharsets.UTF_8));
+            } else {
+                statement.setObject(parameter, value);
+            }
+        }
+    }
+}
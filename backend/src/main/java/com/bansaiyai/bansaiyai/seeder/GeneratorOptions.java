@@ -0,0 +1,99 @@
+package com.bansaiyai.bansaiyai.seeder;
+
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Shape of the data set produced by {@link BulkDataGenerator}.
+ *
+ * @param members                       number of members to create
+ * @param years                         months of history, in years, ending last month
+ * @param transactionsPerMemberPerMonth saving transactions per member per month
+ * @param borrowerRatio                 share of members (0..1) that take out loans
+ * @param loanMix                       relative weight of each loan type
+ * @param chunkSize                     members generated and loaded per database transaction
+ * @param parallelism                   chunks loaded concurrently, one connection each
+ * @param seed                          random seed; the same seed yields the same data
+ */
+public record GeneratorOptions(
+        int members,
+        int years,
+        int transactionsPerMemberPerMonth,
+        double borrowerRatio,
+        Map<LoanType, Integer> loanMix,
+        int chunkSize,
+        int parallelism,
+        long seed) {
+
+    public static final Map<LoanType, Integer> DEFAULT_LOAN_MIX = Map.of(
+            LoanType.PERSONAL, 50,
+            LoanType.EMERGENCY, 25,
+            LoanType.EDUCATION, 10,
+            LoanType.BUSINESS, 10,
+            LoanType.HOUSING, 5);
+
+    public GeneratorOptions {
+        if (members <= 0) {
+            throw new IllegalArgumentException("members must be positive");
+        }
+        if (years <= 0 || years > 30) {
+            throw new IllegalArgumentException("years must be between 1 and 30");
+        }
+        if (transactionsPerMemberPerMonth < 0) {
+            throw new IllegalArgumentException("transactionsPerMemberPerMonth must not be negative");
+        }
+        if (borrowerRatio < 0 || borrowerRatio > 1) {
+            throw new IllegalArgumentException("borrowerRatio must be between 0 and 1");
+        }
+        if (chunkSize <= 0 || parallelism <= 0) {
+            throw new IllegalArgumentException("chunkSize and parallelism must be positive");
+        }
+        loanMix = loanMix == null || loanMix.isEmpty() ? DEFAULT_LOAN_MIX : Map.copyOf(loanMix);
+        if (loanMix.values().stream().anyMatch(weight -> weight < 0)
+                || loanMix.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("loanMix weights must be non-negative and not all zero");
+        }
+    }
+
+    /**
+     * Parse a loan mix written as {@code PERSONAL:50,EMERGENCY:25,...}.
+     */
+    public static Map<LoanType, Integer> parseLoanMix(String spec) {
+        Map<LoanType, Integer> mix = new EnumMap<>(LoanType.class);
+        if (spec == null || spec.isBlank()) {
+            return mix;
+        }
+        for (String part : spec.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid loan mix entry: " + part);
+            }
+            try {
+                mix.put(LoanType.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid loan mix entry: " + part, e);
+            }
+        }
+        return mix;
+    }
+
+    int months() {
+        return years * 12;
+    }
+
+    LoanType pickLoanType(SplittableRandom random) {
+        int total = loanMix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        // Iterate in declaration order so a seed always maps to the same type
+        for (LoanType type : LoanType.values()) {
+            pick -= loanMix.getOrDefault(type, 0);
+            if (pick < 0) {
+                return type;
+            }
+        }
+        throw new IllegalStateException("Loan mix weights changed during iteration");
+    }
+}
@@ -0,0 +1,304 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.AccountPeriodBalance;
+import com.bansaiyai.bansaiyai.entity.AccountingEntry;
+import com.bansaiyai.bansaiyai.repository.AccountPeriodBalanceRepository;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link AccountPeriodBalance} rows.
+ *
+ * Every service that saves an {@link AccountingEntry} calls
+ * {@link #recordPosting(AccountingEntry)}. Just before the posting
+ * transaction commits, the debits and credits it posted to each account and
+ * period are added to that row, and the account's later periods are moved by
+ * their net. Only a row that does not exist yet is derived from the journal.
+ * Closing a period carries every account's closing balance into the next
+ * one. A nightly job re-derives all rows with one grouped query and repairs
+ * any drift, e.g. from rows loaded by the bulk data generator.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AccountPeriodBalanceService {
+
+  private static final Object PENDING_KEY = AccountPeriodBalanceService.class.getName() + ".pending";
+
+  private final AccountPeriodBalanceRepository balanceRepository;
+  private final AccountingRepository accountingRepository;
+  private final AccountingPostingService postingService;
+
+  @Value("${app.persistence.insert-on-conflict-enabled:false}")
+  private boolean insertOnConflictEnabled;
+
+  /**
+   * An account in a fiscal period. Sorted by account, then period, so
+   * earlier periods are refreshed before the later ones they carry into.
+   */
+  record AccountPeriod(String accountCode, String fiscalPeriod) implements Comparable<AccountPeriod> {
+
+    private static final Comparator<AccountPeriod> ORDER = Comparator
+        .comparing(AccountPeriod::accountCode)
+        .thenComparing(AccountPeriod::fiscalPeriod);
+
+    @Override
+    public int compareTo(AccountPeriod other) {
+      return ORDER.compare(this, other);
+    }
+  }
+
+  /**
+   * Debits and credits posted to one account and period in a transaction.
+   */
+  static final class Movement {
+
+    private BigDecimal debit = BigDecimal.ZERO;
+    private BigDecimal credit = BigDecimal.ZERO;
+    private String accountName;
+
+    Movement add(AccountingEntry entry) {
+      debit = debit.add(money(entry.getDebit()));
+      credit = credit.add(money(entry.getCredit()));
+      if (entry.getAccountName() != null) {
+        accountName = entry.getAccountName();
+      }
+      return this;
+    }
+  }
+
+  /**
+   * Schedule the entry's debit and credit to be applied to its account and
+   * period before the current transaction commits; applies them immediately
+   * when there is none. The entry's posting sequence is stamped after the
+   * balance rows are updated.
+   */
+  public void recordPosting(AccountingEntry entry) {
+    if (entry == null || entry.getAccountCode() == null || entry.getFiscalPeriod() == null) {
+      postingService.stamp(entry);
+      return;
+    }
+    AccountPeriod key = new AccountPeriod(entry.getAccountCode(), entry.getFiscalPeriod());
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      apply(key, new Movement().add(entry));
+      postingService.stamp(entry);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    SortedMap<AccountPeriod, Movement> pending =
+        (SortedMap<AccountPeriod, Movement>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      // Sorted so concurrent transactions lock balance rows in the same order
+      SortedMap<AccountPeriod, Movement> movements = new TreeMap<>();
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, movements);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          movements.forEach(AccountPeriodBalanceService.this::apply);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+        }
+      });
+      pending = movements;
+    }
+    pending.computeIfAbsent(key, k -> new Movement()).add(entry);
+    // Registered after the refresh, so the posting lock is taken last
+    postingService.stamp(entry);
+  }
+
+  /**
+   * Add a transaction's movement to the account's row for the period and
+   * move the account's later periods by its net. The row is locked first,
+   * so concurrent postings to the same account and period add up. A row
+   * that does not exist yet has nothing to add to; it is derived from the
+   * journal, which already holds the transaction's entries. On PostgreSQL a
+   * missing row is first created with ON CONFLICT DO NOTHING, so the first
+   * postings to a period also serialize on it instead of racing to insert it.
+   */
+  private void apply(AccountPeriod key, Movement movement) {
+    String accountCode = key.accountCode();
+    String fiscalPeriod = key.fiscalPeriod();
+    boolean created = insertIfMissing(accountCode, fiscalPeriod);
+    AccountPeriodBalance row = balanceRepository.findForUpdate(accountCode, fiscalPeriod).orElse(null);
+    if (row == null || created) {
+      rederive(accountCode, fiscalPeriod, row, created);
+      return;
+    }
+    if (movement.accountName != null) {
+      row.setAccountName(movement.accountName);
+    }
+    row.setFigures(row.getOpeningBalance(), row.getPeriodDebit().add(movement.debit),
+        row.getPeriodCredit().add(movement.credit));
+    balanceRepository.save(row);
+
+    BigDecimal delta = movement.debit.subtract(movement.credit);
+    if (delta.signum() != 0) {
+      balanceRepository.shiftLaterPeriods(accountCode, fiscalPeriod, delta);
+    }
+  }
+
+  /**
+   * Re-derive one account's row for a period from the journal and move the
+   * account's later periods by the change in its closing balance. Used to
+   * repair rows; postings add to the row instead. The row is locked before
+   * the entries are summed, so concurrent postings cannot interleave.
+   */
+  @Transactional
+  public AccountPeriodBalance refresh(String accountCode, String fiscalPeriod) {
+    boolean created = insertIfMissing(accountCode, fiscalPeriod);
+    AccountPeriodBalance row = balanceRepository.findForUpdate(accountCode, fiscalPeriod).orElse(null);
+    return rederive(accountCode, fiscalPeriod, row, created);
+  }
+
+  /**
+   * Create an all-zero row on PostgreSQL unless one exists.
+   *
+   * @return whether it was created
+   */
+  private boolean insertIfMissing(String accountCode, String fiscalPeriod) {
+    return insertOnConflictEnabled && balanceRepository.insertIfMissing(accountCode, fiscalPeriod) > 0;
+  }
+
+  /**
+   * Derive the locked {@code row}, or a new one when it is null, from the
+   * journal. A row just {@code created} by {@link #insertIfMissing} holds no
+   * figures yet and is treated as new.
+   */
+  private AccountPeriodBalance rederive(String accountCode, String fiscalPeriod, AccountPeriodBalance row,
+      boolean created) {
+    Object[] sums = accountingRepository.sumByAccountCodeAndFiscalPeriod(accountCode, fiscalPeriod).get(0);
+    BigDecimal opening = balanceRepository
+        .findFirstByAccountCodeAndFiscalPeriodLessThanOrderByFiscalPeriodDesc(accountCode, fiscalPeriod)
+        .map(AccountPeriodBalance::getClosingBalance)
+        .orElseGet(() -> accountingRepository.sumNetByAccountCodeBeforeFiscalPeriod(accountCode, fiscalPeriod));
+
+    BigDecimal previousClosing;
+    if (row == null) {
+      row = AccountPeriodBalance.builder().accountCode(accountCode).fiscalPeriod(fiscalPeriod).build();
+      // Later periods, if any, were carried from the previous closing
+      previousClosing = opening;
+    } else {
+      previousClosing = created ? opening : row.getClosingBalance();
+    }
+    if (sums[2] != null) {
+      row.setAccountName((String) sums[2]);
+    }
+    row.setFigures(opening, money(sums[0]), money(sums[1]));
+    row = balanceRepository.save(row);
+
+    BigDecimal delta = row.getClosingBalance().subtract(previousClosing);
+    if (delta.signum() != 0) {
+      balanceRepository.shiftLaterPeriods(accountCode, fiscalPeriod, delta);
+    }
+    return row;
+  }
+
+  /**
+   * Carry every account's balance at the end of a closed period into the
+   * next period, so the next period's rows exist, with their opening
+   * balances, before anything is posted to them.
+   *
+   * @param fiscalPeriod the closed period, "yyyy-MM"
+   * @return number of rows created
+   */
+  @Transactional
+  public int rollForward(String fiscalPeriod) {
+    String nextPeriod = YearMonth.parse(fiscalPeriod).plusMonths(1).toString();
+    Set<String> carried = balanceRepository.findByFiscalPeriod(nextPeriod).stream()
+        .map(AccountPeriodBalance::getAccountCode)
+        .collect(Collectors.toSet());
+
+    List<AccountPeriodBalance> created = new ArrayList<>();
+    for (AccountPeriodBalance closed : balanceRepository.findLatestUpTo(fiscalPeriod)) {
+      if (carried.contains(closed.getAccountCode())) {
+        continue;
+      }
+      AccountPeriodBalance next = AccountPeriodBalance.builder()
+          .accountCode(closed.getAccountCode())
+          .fiscalPeriod(nextPeriod)
+          .accountName(closed.getAccountName())
+          .build();
+      next.setFigures(closed.getClosingBalance(), BigDecimal.ZERO, BigDecimal.ZERO);
+      created.add(next);
+    }
+    if (!created.isEmpty()) {
+      balanceRepository.saveAll(created);
+    }
+    log.info("Rolled {} account balances forward from {} to {}", created.size(), fiscalPeriod, nextPeriod);
+    return created.size();
+  }
+
+  /**
+   * Re-derive every row from one grouped query over the journal. For each
+   * account, the first period whose stored figures differ is refreshed
+   * along with every later period of the account.
+   *
+   * @return number of rows created or corrected
+   */
+  @Scheduled(cron = "${app.ledger-balance.verify-cron:0 45 1 * * ?}")
+  @Transactional
+  public int verifyAndRepair() {
+    Map<AccountPeriod, Object[]> sums = new TreeMap<>();
+    for (Object[] row : accountingRepository.sumGroupByAccountCodeAndFiscalPeriod()) {
+      sums.put(new AccountPeriod((String) row[0], (String) row[1]), row);
+    }
+    Map<AccountPeriod, AccountPeriodBalance> stored = new TreeMap<>();
+    for (AccountPeriodBalance row : balanceRepository.findAllByOrderByAccountCodeAscFiscalPeriodAsc()) {
+      stored.put(new AccountPeriod(row.getAccountCode(), row.getFiscalPeriod()), row);
+    }
+    Set<AccountPeriod> keys = new TreeSet<>(sums.keySet());
+    keys.addAll(stored.keySet());
+
+    // Walk each account's periods in order with the expected running balance
+    List<AccountPeriod> toRefresh = new ArrayList<>();
+    String account = null;
+    BigDecimal running = BigDecimal.ZERO;
+    boolean drifted = false;
+    for (AccountPeriod key : keys) {
+      if (!key.accountCode().equals(account)) {
+        account = key.accountCode();
+        running = BigDecimal.ZERO;
+        drifted = false;
+      }
+      Object[] sum = sums.get(key);
+      BigDecimal debit = sum != null ? money(sum[2]) : BigDecimal.ZERO;
+      BigDecimal credit = sum != null ? money(sum[3]) : BigDecimal.ZERO;
+      AccountPeriodBalance row = stored.get(key);
+      drifted = drifted || row == null || !row.hasFigures(running, debit, credit);
+      if (drifted) {
+        toRefresh.add(key);
+      }
+      running = running.add(debit).subtract(credit);
+    }
+
+    toRefresh.forEach(key -> refresh(key.accountCode(), key.fiscalPeriod()));
+    log.info("Verified {} account period balances, repaired {}", keys.size(), toRefresh.size());
+    return toRefresh.size();
+  }
+
+  private static BigDecimal money(Object value) {
+    return value != null ? (BigDecimal) value : BigDecimal.ZERO;
+  }
+}
@@ -0,0 +1,103 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.AccountingEntry;
+import com.bansaiyai.bansaiyai.entity.AccountingPostingFence;
+import com.bansaiyai.bansaiyai.repository.AccountingPostingFenceRepository;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Numbers journal entries in commit order.
+ *
+ * Entry ids come from pooled sequence blocks, so an entry committed later can
+ * have a lower id, on this node or another. Anything that needs "entries
+ * posted after X", such as cash checkpoints, uses the posting sequence
+ * instead: one value per posting transaction, drawn from the
+ * {@code accounting_posting_seq} database sequence as the last step before
+ * commit. Postings draw concurrently, so values may commit out of order; each
+ * posting holds {@link AccountingPostingFence} in share mode from its draw to
+ * its commit, and {@link #lockWatermark()} takes it exclusively to wait them
+ * out.
+ */
+@Service
+@RequiredArgsConstructor
+public class AccountingPostingService {
+
+  private static final Object PENDING_KEY = AccountingPostingService.class.getName() + ".pending";
+
+  private final AccountingPostingFenceRepository fenceRepository;
+  private final AccountingRepository accountingRepository;
+
+  /**
+   * Stamp the entry's posting sequence just before the current transaction
+   * commits. Joins the caller's transaction, or runs in one of its own.
+   */
+  @Transactional
+  public void stamp(AccountingEntry entry) {
+    if (entry == null || entry.getId() == null) {
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    List<Long> pending = (List<Long>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      List<Long> ids = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, ids);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public int getOrder() {
+          // After other before-commit work, to hold the fence briefly
+          return Ordered.LOWEST_PRECEDENCE;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          assign(ids);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+        }
+      });
+      pending = ids;
+    }
+    pending.add(entry.getId());
+  }
+
+  /**
+   * A posting sequence no committed entry exceeds. Locks the fence until the
+   * current transaction ends: postings that have drawn a value are waited
+   * for, so every entry at or below the result is visible to later queries,
+   * and new postings cannot draw in the meantime.
+   */
+  @Transactional
+  public long lockWatermark() {
+    if (fenceRepository.findForUpdate().isEmpty()) {
+      createFence();
+    }
+    return fenceRepository.nextPostingSeq();
+  }
+
+  private void assign(Collection<Long> ids) {
+    if (fenceRepository.findForShare().isEmpty()) {
+      createFence();
+    }
+    accountingRepository.assignPostingSeq(ids, fenceRepository.nextPostingSeq());
+  }
+
+  /** Only before the migration has run, as on schemas Hibernate generates. */
+  private void createFence() {
+    fenceRepository.saveAndFlush(AccountingPostingFence.builder()
+        .id(AccountingPostingFence.ID)
+        .build());
+  }
+}
@@ -1,11 +1,13 @@
 package com.bansaiyai.bansaiyai.service;
 
+import com.bansaiyai.bansaiyai.entity.AuditLog;
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.LoanBalance;
 import com.bansaiyai.bansaiyai.entity.Payment;
 import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
 import com.bansaiyai.bansaiyai.repository.LoanBalanceRepository;
 import com.bansaiyai.bansaiyai.repository.LoanRepository;
 import com.bansaiyai.bansaiyai.repository.PaymentRepository;
@@ -14,6 +16,7 @@ import com.bansaiyai.bansaiyai.repository.AccountingRepository;
 import com.bansaiyai.bansaiyai.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -22,8 +25,14 @@ import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,9 +48,16 @@ public class AccountingService {
         private final com.bansaiyai.bansaiyai.repository.AccountRepository accountRepository;
         private final com.bansaiyai.bansaiyai.repository.FiscalPeriodRepository fiscalPeriodRepository;
         private final com.bansaiyai.bansaiyai.repository.SavingAccountRepository savingAccountRepository;
+        private final MemberFinancialSummaryService memberFinancialSummaryService;
+        private final AccountPeriodBalanceService accountPeriodBalanceService;
+        private final ReportArtifactService reportArtifactService;
         private final com.bansaiyai.bansaiyai.repository.SavingBalanceRepository savingBalanceRepository;
         private final AuditService auditService;
 
+        /** Flag loans with one PostgreSQL UPDATE ... RETURNING; H2 profiles read then update. */
+        @Value("${app.delinquency.update-returning-enabled:false}")
+        private boolean updateReturningEnabled;
+
         /**
          * Execute monthly closing for a specific month and year.
          * This process snapshots the balance of all active loans.
@@ -52,6 +68,7 @@ public class AccountingService {
          */
         @Transactional
         @PreAuthorize("hasRole('SECRETARY')")
+        @BusinessMetric("bansaiyai.accounting.close_month")
         public String closeMonth(int month, int year, String username) {
                 YearMonth targetMonth = YearMonth.of(year, month);
                 LocalDate startDate = targetMonth.atDay(1);
@@ -80,39 +97,49 @@ public class AccountingService {
                                                         totalDebits, totalCredits));
                 }
 
-                // Fetch all active loans (and Defaulted ones too as they still accrue/balances)
+                // Fetch all active loans (and Defaulted ones too as they still accrue/balances).
+                // Existing snapshots and the month's repayments are read once for all loans
+                // and the new snapshots saved as one batch.
                 List<Loan> activeLoans = loanRepository
                                 .findByStatusIn(List.of(LoanStatus.ACTIVE, LoanStatus.DEFAULTED));
+                Set<Long> closedLoanIds = new HashSet<>(loanBalanceRepository.findLoanIdsByBalanceDate(endDate));
+                Map<Long, List<Payment>> paymentsByLoan = paymentRepository.findLoanPaymentsByDateRange(
+                                List.of(PaymentType.LOAN_REPAYMENT, PaymentType.LOAN_CLOSURE),
+                                PaymentStatus.COMPLETED, startDate, endDate).stream()
+                                .collect(Collectors.groupingBy(p -> p.getLoan().getId()));
 
-                int processedLoans = 0;
+                List<LoanBalance> loanSnapshots = new ArrayList<>();
                 BigDecimal totalLoanBalance = BigDecimal.ZERO;
 
                 for (Loan loan : activeLoans) {
                         // Check if already closed for this month
-                        Optional<LoanBalance> existingBalance = loanBalanceRepository.findByLoanIdAndBalanceDate(
-                                        loan.getId(),
-                                        endDate);
-                        if (existingBalance.isPresent()) {
+                        if (closedLoanIds.contains(loan.getId())) {
                                 log.warn("Loan {} already closed for {}/{}", loan.getLoanNumber(), month, year);
                                 continue;
                         }
 
-                        processLoanClosing(loan, startDate, endDate);
-                        processedLoans++;
+                        loanSnapshots.add(processLoanClosing(loan, startDate, endDate,
+                                        paymentsByLoan.getOrDefault(loan.getId(), List.of())));
 
                         // Add to total for summary (using current outstanding)
                         totalLoanBalance = totalLoanBalance.add(loan.getOutstandingBalance());
                 }
+                if (!loanSnapshots.isEmpty()) {
+                        loanBalanceRepository.saveAll(loanSnapshots);
+                }
+                int processedLoans = loanSnapshots.size();
 
                 // Process Savings Snapshots
                 List<com.bansaiyai.bansaiyai.entity.SavingAccount> activeSavings = savingAccountRepository
                                 .findByIsActiveTrue();
-                int processedSavings = 0;
+                Set<Long> closedAccountIds = new HashSet<>(
+                                savingBalanceRepository.findSavingAccountIdsByBalanceDate(endDate));
+                List<com.bansaiyai.bansaiyai.entity.SavingBalance> savingSnapshots = new ArrayList<>();
                 BigDecimal totalSavingBalance = BigDecimal.ZERO;
 
                 for (com.bansaiyai.bansaiyai.entity.SavingAccount account : activeSavings) {
                         // Check if snapshot exists
-                        if (savingBalanceRepository.existsBySavingAccountIdAndBalanceDate(account.getId(), endDate)) {
+                        if (closedAccountIds.contains(account.getId())) {
                                 continue;
                         }
 
@@ -133,10 +160,13 @@ public class AccountingService {
                                         .interestRate(account.getInterestRate())
                                         .build();
 
-                        savingBalanceRepository.save(snapshot);
-                        processedSavings++;
+                        savingSnapshots.add(snapshot);
                         totalSavingBalance = totalSavingBalance.add(account.getBalance());
                 }
+                if (!savingSnapshots.isEmpty()) {
+                        savingBalanceRepository.saveAll(savingSnapshots);
+                }
+                int processedSavings = savingSnapshots.size();
 
                 // Lock the Period
                 com.bansaiyai.bansaiyai.entity.FiscalPeriod period = fiscalPeriodRepository
@@ -150,6 +180,9 @@ public class AccountingService {
                 period.setClosedBy(username);
                 fiscalPeriodRepository.save(period);
 
+                // Open the next period with every account's closing balance
+                accountPeriodBalanceService.rollForward(periodStr);
+
                 log.info("Monthly closing completed. Loans: {}, Savings: {}", processedLoans, processedSavings);
 
                 // Audit Log
@@ -168,24 +201,11 @@ public class AccountingService {
                                 month, year, processedLoans, totalLoanBalance, processedSavings, totalSavingBalance);
         }
 
-        private void processLoanClosing(Loan loan, LocalDate startDate, LocalDate endDate) {
-                // 1. Get Opening Balance (Previous month's closing or Loan creation details)
-                BigDecimal openingPrincipal = loan.getOutstandingBalance(); // This is current live balance, but for
-                                                                            // snapshot we
-                                                                            // might want to reconstruct?
-                // ideally we trust the live Loan entity is up to date with payments.
-                // But strictly for "forward", we want: Start Balance - Payments + Interest =
-                // End Balance.
-
-                // Let's get the payments for THIS month to analyze what happened
-                List<Payment> paymentsThisMonth = paymentRepository.findLoanPaymentsByLoan(
-                                loan.getId(),
-                                List.of(PaymentType.LOAN_REPAYMENT, PaymentType.LOAN_CLOSURE)).stream()
-                                .filter(p -> !p.getPaymentDate().isBefore(startDate)
-                                                && !p.getPaymentDate().isAfter(endDate))
-                                .filter(p -> p.getPaymentStatus() == PaymentStatus.COMPLETED)
-                                .toList();
-
+        /**
+         * Month-end snapshot of one loan, from its completed repayments in the month.
+         */
+        private LoanBalance processLoanClosing(Loan loan, LocalDate startDate, LocalDate endDate,
+                        List<Payment> paymentsThisMonth) {
                 BigDecimal principalPaid = paymentsThisMonth.stream()
                                 .map(p -> p.getPrincipalAmount() != null ? p.getPrincipalAmount() : BigDecimal.ZERO)
                                 .reduce(BigDecimal.ZERO, BigDecimal::add);
@@ -251,7 +271,7 @@ public class AccountingService {
                                         balance.getOutstandingBalance());
                 }
 
-                loanBalanceRepository.save(balance);
+                return balance;
         }
 
         private long targetMonthDays(LocalDate date) {
@@ -259,39 +279,92 @@ public class AccountingService {
         }
 
         /**
-         * Check for loans that have passed maturity date and have outstanding balance.
-         */
-        /**
-         * Check for loans that have passed maturity date and have outstanding balance.
+         * Daily delinquency run. ACTIVE loans past maturity with a balance left
+         * are flipped to DEFAULTED in one set-based UPDATE, the penalties of all
+         * DEFAULTED loans are recomputed in one more, and the run is audited as
+         * a summary row plus one row per flagged loan, saved as a batch.
          */
         @Transactional
         public void checkAndFlagOverdueLoans() {
-                // Find active loans that are past their maturity date
-                List<Loan> overdueLoans = loanRepository.findOverdueLoansByStatus(LoanStatus.ACTIVE);
-
-                int updatedCount = 0;
-                for (Loan loan : overdueLoans) {
-                        // Double check outstanding balance just in case
-                        if (loan.getOutstandingBalance().compareTo(BigDecimal.ZERO) > 0) {
-                                log.warn("Loan {} is overdue. Maturity Date: {}. Marking as DEFAULTED.",
-                                                loan.getLoanNumber(), loan.getMaturityDate());
-
-                                loan.setStatus(LoanStatus.DEFAULTED);
-                                loanRepository.save(loan);
-                                updatedCount++;
-
-                                // Optional: Create an Audit Log for system action?
-                                // System user might not exist in repository easily here without specific
-                                // lookup,
-                                // but we could log it if we fetched a system user. For now, Logger is
-                                // sufficient.
-                        }
+                LocalDate today = LocalDate.now();
+                List<OverdueLoan> flagged = updateReturningEnabled
+                                ? loanRepository.flagOverdueLoansReturning(today).stream()
+                                                .map(OverdueLoan::from).toList()
+                                : flagOverdueLoansPortable(today);
+
+                int accrued = loanRepository.accruePenaltiesByStatus(LoanStatus.DEFAULTED, today,
+                                Loan.DAILY_PENALTY_RATE);
+                BigDecimal totalPenalty = loanRepository.sumPenaltiesByStatus(LoanStatus.DEFAULTED).stream()
+                                .findFirst().map(row -> (BigDecimal) row[1]).orElse(BigDecimal.ZERO);
+
+                List<AuditLog> auditRows = new ArrayList<>(flagged.size() + 1);
+                for (OverdueLoan loan : flagged) {
+                        long daysOverdue = ChronoUnit.DAYS.between(loan.maturityDate(), today);
+                        log.warn("Loan {} is overdue. Maturity Date: {}. Marked as DEFAULTED.",
+                                        loan.loanNumber(), loan.maturityDate());
+                        memberFinancialSummaryService.markChanged(loan.memberId());
+
+                        Map<String, Object> newValues = new LinkedHashMap<>();
+                        newValues.put("status", LoanStatus.DEFAULTED);
+                        newValues.put("loanNumber", loan.loanNumber());
+                        newValues.put("outstandingBalance", loan.outstandingBalance());
+                        newValues.put("daysOverdue", daysOverdue);
+                        newValues.put("penaltyAmount", Loan.calculatePenalty(loan.outstandingBalance(), daysOverdue));
+                        auditRows.add(auditService.systemEntry("LOAN_DEFAULTED", "Loan", loan.loanId(),
+                                        Map.of("status", LoanStatus.ACTIVE), newValues));
                 }
 
-                if (updatedCount > 0) {
-                        log.info("Overdue Check: Flagged {} loans as DEFAULTED.", updatedCount);
+                Map<String, Object> summary = new LinkedHashMap<>();
+                summary.put("runDate", today.toString());
+                summary.put("flaggedLoans", flagged.size());
+                summary.put("penaltyAccruedLoans", accrued);
+                summary.put("totalDefaultedPenalty", totalPenalty);
+                auditRows.add(auditService.systemEntry("OVERDUE_LOAN_CHECK", "Loan", null, null, summary));
+                auditService.logSystemActions(auditRows);
+
+                if (!flagged.isEmpty()) {
+                        log.info("Overdue Check: Flagged {} loans as DEFAULTED; penalties accrued on {} loans.",
+                                        flagged.size(), accrued);
                 } else {
-                        log.info("Overdue Check: No new overdue loans found.");
+                        log.info("Overdue Check: No new overdue loans found; penalties accrued on {} loans.", accrued);
+                }
+        }
+
+        /**
+         * Two-statement equivalent of {@code UPDATE ... RETURNING} for H2: lock
+         * the overdue loans, then flip them. A concurrent run waits on the locks
+         * and then no longer sees the loans as ACTIVE, so each loan is flagged
+         * and audited by one run only.
+         */
+        private List<OverdueLoan> flagOverdueLoansPortable(LocalDate today) {
+                List<OverdueLoan> overdue = loanRepository.findOverdueForUpdate(LoanStatus.ACTIVE, today).stream()
+                                .map(OverdueLoan::from).toList();
+                if (!overdue.isEmpty()) {
+                        loanRepository.updateStatusByIds(overdue.stream().map(OverdueLoan::loanId).toList(),
+                                        LoanStatus.ACTIVE, LoanStatus.DEFAULTED);
+                }
+                return overdue;
+        }
+
+        /**
+         * Loan flipped to DEFAULTED by the delinquency run, read from a
+         * {@code [id, member_id, loan_number, outstanding_balance, maturity_date]}
+         * RETURNING row or from the locked loan.
+         */
+        private record OverdueLoan(Long loanId, Long memberId, String loanNumber,
+                        BigDecimal outstandingBalance, LocalDate maturityDate) {
+
+                static OverdueLoan from(Object[] row) {
+                        LocalDate maturityDate = row[4] instanceof java.sql.Date date
+                                        ? date.toLocalDate()
+                                        : (LocalDate) row[4];
+                        return new OverdueLoan(((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                                        (String) row[2], (BigDecimal) row[3], maturityDate);
+                }
+
+                static OverdueLoan from(Loan loan) {
+                        return new OverdueLoan(loan.getId(), loan.getMember().getId(), loan.getLoanNumber(),
+                                        loan.getOutstandingBalance(), loan.getMaturityDate());
                 }
         }
 
@@ -339,7 +412,41 @@ public class AccountingService {
                         log.error("Failed to audit journal entry", e);
                 }
 
-                return accountingRepository.save(entry);
+                com.bansaiyai.bansaiyai.entity.AccountingEntry saved = accountingRepository.save(entry);
+                accountPeriodBalanceService.recordPosting(saved);
+                return saved;
+        }
+
+        /**
+         * Reopen a closed fiscal period so corrections can be posted to it.
+         * Stored reports covering the period are dropped, since they were
+         * served as immutable and no longer hold once it changes.
+         */
+        @Transactional
+        @PreAuthorize("hasRole('PRESIDENT')")
+        public void reopenMonth(int month, int year, String username) {
+                com.bansaiyai.bansaiyai.entity.FiscalPeriod period = fiscalPeriodRepository
+                                .findByMonthAndYear(month, year)
+                                .filter(fp -> "CLOSED".equals(fp.getStatus()))
+                                .orElseThrow(() -> new com.bansaiyai.bansaiyai.exception.BusinessException(
+                                                "Fiscal period " + month + "/" + year + " is not closed."));
+                period.setStatus("OPEN");
+                period.setClosedAt(null);
+                period.setClosedBy(null);
+                fiscalPeriodRepository.save(period);
+
+                int invalidated = reportArtifactService.invalidate(YearMonth.of(year, month));
+                log.info("Reopened {}/{}; dropped {} stored report(s)", month, year, invalidated);
+
+                try {
+                        User user = userRepository.findByUsername(username).orElse(null);
+                        if (user != null) {
+                                auditService.logAction(user, "MONTH_REOPEN", "Accounting", null, null,
+                                                "Month: " + month + ", Year: " + year);
+                        }
+                } catch (Exception e) {
+                        log.error("Failed to audit month reopen", e);
+                }
         }
 
         /**
@@ -3,6 +3,7 @@ package com.bansaiyai.bansaiyai.service;
 import com.bansaiyai.bansaiyai.dto.*;
 import com.bansaiyai.bansaiyai.entity.AuditLog;
 import com.bansaiyai.bansaiyai.entity.User;
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
 import com.bansaiyai.bansaiyai.repository.AuditLogRepository;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -53,6 +54,7 @@ public class AuditService {
      *                   Requirements: 11.1
      */
     @Transactional
+    @BusinessMetric("bansaiyai.audit.log")
     public void logAction(User user, String action, String entityType, Long entityId,
             Object oldValues, Object newValues) {
         try {
@@ -97,6 +99,44 @@ public class AuditService {
         }
     }
 
+    /**
+     * Build an audit row for an action taken by a scheduled job rather than a
+     * user. Nothing is saved until the rows are passed to
+     * {@link #logSystemActions(List)}.
+     *
+     * @param action     the action being performed
+     * @param entityType the type of entity being affected
+     * @param entityId   the ID of the entity being affected, or null for a summary row
+     * @param oldValues  the old values before the action
+     * @param newValues  the new values after the action
+     */
+    public AuditLog systemEntry(String action, String entityType, Long entityId,
+            Object oldValues, Object newValues) {
+        return AuditLog.builder()
+                .action(action)
+                .entityType(entityType)
+                .entityId(entityId)
+                .oldValues(serializeToJson(oldValues))
+                .newValues(serializeToJson(newValues))
+                .build();
+    }
+
+    /**
+     * Save system audit rows in one batched insert (audit IDs come from a
+     * pooled sequence, so Hibernate sends them in JDBC batches).
+     *
+     * @param entries rows built with {@link #systemEntry}
+     */
+    @Transactional
+    @BusinessMetric(value = "bansaiyai.audit.log", operation = "logSystemActions")
+    public void logSystemActions(List<AuditLog> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        auditLogRepository.saveAll(entries);
+        logger.debug("Audit log created: {} system rows, action={}", entries.size(), entries.get(0).getAction());
+    }
+
     /**
      * Log an access denied event (403 error).
      * 
@@ -302,12 +342,13 @@ public class AuditService {
     // ==================== Helper Methods ====================
 
     /**
-     * Serialize an object to JSON string.
+     * Serialize an object to JSON string. Package-private for the JMH
+     * benchmarks.
      * 
      * @param object the object to serialize
      * @return the JSON string representation
      */
-    private String serializeToJson(Object object) {
+    String serializeToJson(Object object) {
         if (object == null) {
             return null;
         }
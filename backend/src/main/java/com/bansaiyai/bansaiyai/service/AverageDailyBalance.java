@@ -0,0 +1,88 @@
+package com.bansaiyai.bansaiyai.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Average daily balance of one savings account over an interest period
+ * (periodStart, periodEnd], built from its transactions in date order.
+ *
+ * The balance in effect at the start of the period is the balanceBefore of
+ * the first transaction after periodStart, even one dated after periodEnd;
+ * with no such transaction it is the account's current balance. Each later
+ * transaction inside the period weights the running balance by the days it
+ * was held.
+ */
+final class AverageDailyBalance {
+
+  private static final BigDecimal DAYS_PER_YEAR_PERCENT = new BigDecimal("36500");
+
+  private final LocalDate periodStart;
+  private final LocalDate periodEnd;
+  private final BigDecimal currentBalance;
+
+  private BigDecimal balance;
+  private LocalDate cursor;
+  private BigDecimal balanceDays = BigDecimal.ZERO;
+
+  AverageDailyBalance(LocalDate periodStart, LocalDate periodEnd, BigDecimal currentBalance) {
+    this.periodStart = periodStart;
+    this.periodEnd = periodEnd;
+    this.currentBalance = currentBalance;
+    this.cursor = periodStart;
+  }
+
+  /**
+   * Apply the next transaction of the account, in date order.
+   */
+  void accept(LocalDate date, BigDecimal balanceBefore, BigDecimal balanceAfter) {
+    if (!date.isAfter(periodStart)) {
+      return;
+    }
+    if (balance == null) {
+      balance = balanceBefore;
+    }
+    if (date.isAfter(periodEnd)) {
+      return;
+    }
+    balanceDays = balanceDays.add(balance.multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(cursor, date))));
+    cursor = date;
+    balance = balanceAfter;
+  }
+
+  long days() {
+    return Math.max(ChronoUnit.DAYS.between(periodStart, periodEnd), 0);
+  }
+
+  /**
+   * Sum of the end-of-day balance over every day of the period.
+   */
+  BigDecimal balanceDays() {
+    if (days() == 0) {
+      return BigDecimal.ZERO;
+    }
+    BigDecimal closing = balance != null ? balance : currentBalance;
+    return balanceDays.add(closing.multiply(BigDecimal.valueOf(ChronoUnit.DAYS.between(cursor, periodEnd))));
+  }
+
+  BigDecimal average() {
+    long days = days();
+    return days == 0 ? BigDecimal.ZERO
+        : balanceDays().divide(BigDecimal.valueOf(days), 2, RoundingMode.HALF_UP);
+  }
+
+  /**
+   * Simple interest on the average daily balance at an annual percentage
+   * rate: {@code average * rate / 100 * days / 365}. Zero when the average
+   * is not positive.
+   */
+  BigDecimal interest(BigDecimal annualRatePercent) {
+    BigDecimal balanceDays = balanceDays();
+    if (balanceDays.signum() <= 0 || annualRatePercent == null || annualRatePercent.signum() <= 0) {
+      return BigDecimal.ZERO.setScale(2);
+    }
+    return balanceDays.multiply(annualRatePercent).divide(DAYS_PER_YEAR_PERCENT, 2, RoundingMode.HALF_UP);
+  }
+}
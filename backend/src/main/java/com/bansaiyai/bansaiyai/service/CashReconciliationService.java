@@ -1,9 +1,11 @@
 package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.entity.AccountingEntry;
+import com.bansaiyai.bansaiyai.entity.CashBalanceCheckpoint;
 import com.bansaiyai.bansaiyai.entity.CashReconciliation;
 import com.bansaiyai.bansaiyai.entity.User;
 import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import com.bansaiyai.bansaiyai.repository.CashBalanceCheckpointRepository;
 import com.bansaiyai.bansaiyai.repository.CashReconciliationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +17,7 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Service for managing cash reconciliation operations.
@@ -28,7 +31,10 @@ public class CashReconciliationService {
 
   private final CashReconciliationRepository cashReconciliationRepository;
   private final AccountingRepository accountingRepository;
+  private final CashBalanceCheckpointRepository checkpointRepository;
   private final AuditService auditService;
+  private final AccountPeriodBalanceService accountPeriodBalanceService;
+  private final AccountingPostingService postingService;
 
   private static final String CASH_ACCOUNT_CODE = "1001"; // Typical cash account code
 
@@ -41,30 +47,69 @@ public class CashReconciliationService {
   @Transactional(readOnly = true)
   public BigDecimal calculateDatabaseBalance(LocalDate date) {
     log.debug("Calculating database balance for date: {}", date);
+    return calculateBalanceBefore(date, null);
+  }
 
-    // Sum all debit entries for cash account up to the given date
-    BigDecimal totalDebits = accountingRepository
-        .findByAccountCodeAndTransactionDateBefore(CASH_ACCOUNT_CODE, date)
-        .stream()
-        .map(entry -> entry.getDebit() != null ? entry.getDebit() : BigDecimal.ZERO)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-    // Sum all credit entries for cash account up to given date
-    BigDecimal totalCredits = accountingRepository
-        .findByAccountCodeAndTransactionDateBefore(CASH_ACCOUNT_CODE, date)
-        .stream()
-        .map(entry -> entry.getCredit() != null ? entry.getCredit() : BigDecimal.ZERO)
-        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  /**
+   * Cash balance over entries dated before {@code date} with a posting
+   * sequence up to {@code maxPostingSeq}, or every entry when it is null.
+   * Starts from the latest checkpoint before the date and adds the entries
+   * not covered by it, so the cost is proportional to activity since the
+   * last approved reconciliation.
+   */
+  private BigDecimal calculateBalanceBefore(LocalDate date, Long maxPostingSeq) {
+    Optional<CashBalanceCheckpoint> checkpoint = checkpointRepository
+        .findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(CASH_ACCOUNT_CODE, date);
+
+    if (checkpoint.isEmpty()) {
+      BigDecimal balance = accountingRepository.sumNetByAccountCodeBefore(CASH_ACCOUNT_CODE, date, maxPostingSeq);
+      log.debug("Database balance calculated without checkpoint: {}", balance);
+      return balance;
+    }
 
-    // For cash account: balance = debits - credits
-    BigDecimal balance = totalDebits.subtract(totalCredits);
+    // Entries not covered by the checkpoint: those dated after it, and those
+    // dated up to it but posted after it was taken. Each is summed over its
+    // own index range rather than one OR over every entry of the account.
+    CashBalanceCheckpoint cp = checkpoint.get();
+    BigDecimal delta = accountingRepository.sumNetByAccountCodeBetween(
+        CASH_ACCOUNT_CODE, cp.getBalanceDate(), date, maxPostingSeq)
+        .add(accountingRepository.sumNetByAccountCodePostedSince(
+            CASH_ACCOUNT_CODE, cp.getBalanceDate(), cp.getLastPostingSeq(), maxPostingSeq));
+    BigDecimal balance = cp.getClosingBalance().add(delta);
 
-    log.debug("Database balance calculated: {} (Debits: {}, Credits: {})",
-        balance, totalDebits, totalCredits);
+    log.debug("Database balance calculated: {} (Checkpoint {}: {}, Delta: {})",
+        balance, cp.getBalanceDate(), cp.getClosingBalance(), delta);
 
     return balance;
   }
 
+  /**
+   * Checkpoint the cash balance at the close of the day before the
+   * reconciliation date, i.e. the balance the reconciliation was counted
+   * against. Taken when a reconciliation closes: on approval, or on creation
+   * when the count shows no variance. Postings are held off until that
+   * commits, so none can commit below the recorded sequence after it was read.
+   */
+  private void checkpointBalance(CashReconciliation reconciliation) {
+    LocalDate balanceDate = reconciliation.getDate().minusDays(1);
+    long lastPostingSeq = postingService.lockWatermark();
+    BigDecimal closingBalance = calculateBalanceBefore(reconciliation.getDate(), lastPostingSeq);
+
+    CashBalanceCheckpoint checkpoint = checkpointRepository
+        .findByAccountCodeAndBalanceDate(CASH_ACCOUNT_CODE, balanceDate)
+        .orElseGet(() -> CashBalanceCheckpoint.builder()
+            .accountCode(CASH_ACCOUNT_CODE)
+            .balanceDate(balanceDate)
+            .build());
+    checkpoint.setClosingBalance(closingBalance);
+    checkpoint.setLastPostingSeq(lastPostingSeq);
+    checkpoint.setReconciliationId(reconciliation.getReconciliationId());
+    checkpointRepository.save(checkpoint);
+
+    log.debug("Checkpointed cash balance {} as of {} (posting seq {})", closingBalance, balanceDate,
+        lastPostingSeq);
+  }
+
   /**
    * Create a new cash reconciliation
    * 
@@ -102,6 +147,11 @@ public class CashReconciliationService {
 
     CashReconciliation savedReconciliation = cashReconciliationRepository.save(reconciliation);
 
+    // Nothing to approve: the count confirms the balance, so the day closes here
+    if (!hasVariance(savedReconciliation)) {
+      checkpointBalance(savedReconciliation);
+    }
+
     // Log the action
     auditService.logAction(
         officer,
@@ -160,6 +210,9 @@ public class CashReconciliationService {
       throw new IllegalStateException("No variance to approve: " + reconciliationId);
     }
 
+    // Checkpoint before posting the variance entry (dated on the reconciliation day)
+    checkpointBalance(reconciliation);
+
     // Create accounting entry for the variance
     createVarianceAccountingEntry(reconciliation, secretary);
 
@@ -309,7 +362,7 @@ public class CashReconciliationService {
     entry.setReferenceType("CASH_RECONCILIATION");
     entry.setReferenceId(reconciliation.getReconciliationId());
 
-    accountingRepository.save(entry);
+    accountPeriodBalanceService.recordPosting(accountingRepository.save(entry));
 
     log.debug("Created variance accounting entry: {}", entry.getDescription());
   }
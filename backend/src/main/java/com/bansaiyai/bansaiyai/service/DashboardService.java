@@ -4,9 +4,10 @@ import com.bansaiyai.bansaiyai.entity.AccountingEntry;
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.Member;
 import com.bansaiyai.bansaiyai.entity.Payment;
-import com.bansaiyai.bansaiyai.entity.SavingAccount;
 import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
 import com.bansaiyai.bansaiyai.repository.MemberRepository;
 import com.bansaiyai.bansaiyai.repository.LoanRepository;
 import com.bansaiyai.bansaiyai.repository.SavingRepository;
@@ -17,6 +18,7 @@ import com.bansaiyai.bansaiyai.dto.dashboard.PARAnalysisDTO;
 import com.bansaiyai.bansaiyai.dto.dashboard.MembershipTrendsDTO;
 import com.bansaiyai.bansaiyai.entity.SavingTransaction;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -47,6 +49,9 @@ public class DashboardService {
   private final SavingTransactionRepository savingTransactionRepository;
   private final com.bansaiyai.bansaiyai.repository.AccountingRepository accountingRepository;
   private final com.bansaiyai.bansaiyai.repository.AccountRepository accountRepository;
+  private final MemberSearchIndex memberSearchIndex;
+  private final MemberFinancialSummaryService memberFinancialSummaryService;
+  private final com.bansaiyai.bansaiyai.repository.AccountPeriodBalanceRepository accountPeriodBalanceRepository;
 
   /**
    * Get current fiscal period status
@@ -68,22 +73,14 @@ public class DashboardService {
 
   /**
    * Search members by query string
-   * Searches across member_id, name, and id_card fields
+   * Served from the in-memory index over member_id, name, id_card and phone
    */
   public List<com.bansaiyai.bansaiyai.dto.dashboard.MemberSearchResultDTO> searchMembers(String query, int limit) {
     try {
       if (query == null || query.trim().isEmpty()) {
         return List.of();
       }
-
-      // Search using repository method
-      List<Member> members = memberRepository.searchMembers(query.trim());
-
-      // Convert to DTOs and limit results
-      return members.stream()
-          .limit(limit)
-          .map(this::convertToSearchResultDTO)
-          .collect(Collectors.toList());
+      return memberSearchIndex.search(query, limit);
     } catch (Exception e) {
       log.error("Error searching members with query '{}': {}", query, e.getMessage());
       return List.of();
@@ -94,30 +91,16 @@ public class DashboardService {
    * Get member financial information for teller action card
    * Includes savings balance, loan principal, and loan status
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "memberFinancials")
   public com.bansaiyai.bansaiyai.dto.dashboard.MemberFinancialsDTO getMemberFinancials(Long memberId) {
     try {
-      // Get member's savings balance
-      BigDecimal savingsBalance = savingRepository.sumBalancesByMemberId(memberId);
-      if (savingsBalance == null) {
-        savingsBalance = BigDecimal.ZERO;
-      }
-
-      // Get member's active loan information
-      List<Loan> activeLoans = loanRepository.findByMemberIdAndStatus(memberId, LoanStatus.ACTIVE);
-
-      BigDecimal loanPrincipal = BigDecimal.ZERO;
-      String loanStatus = "NO_LOAN";
-
-      if (!activeLoans.isEmpty()) {
-        // Get the most recent active loan
-        Loan activeLoan = activeLoans.get(0);
-        loanPrincipal = activeLoan.getOutstandingBalance();
-        loanStatus = activeLoan.getStatus().name();
-      }
+      com.bansaiyai.bansaiyai.entity.MemberFinancialSummary summary = memberFinancialSummaryService
+          .getSummary(memberId);
+      String loanStatus = summary.getActiveLoanCount() > 0 ? LoanStatus.ACTIVE.name() : "NO_LOAN";
 
       return new com.bansaiyai.bansaiyai.dto.dashboard.MemberFinancialsDTO(
-          savingsBalance,
-          loanPrincipal,
+          summary.getTotalSavings(),
+          summary.getOutstandingPrincipal(),
           loanStatus);
     } catch (Exception e) {
       log.error("Error getting member financials for member {}: {}", memberId, e.getMessage());
@@ -132,6 +115,7 @@ public class DashboardService {
    * Calculate cash box tally for the current date
    * Includes total inflows, outflows, and net cash
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "cashBox")
   public com.bansaiyai.bansaiyai.dto.dashboard.CashBoxDTO calculateCashBoxTally() {
     return calculateCashBoxTally(LocalDate.now());
   }
@@ -206,19 +190,10 @@ public class DashboardService {
   /**
    * Convert Member entity to MemberSearchResultDTO
    */
-  private com.bansaiyai.bansaiyai.dto.dashboard.MemberSearchResultDTO convertToSearchResultDTO(Member member) {
-    return new com.bansaiyai.bansaiyai.dto.dashboard.MemberSearchResultDTO(
-        member.getId(),
-        member.getName().split(" ")[0], // First name (simplified)
-        member.getName().contains(" ") ? member.getName().substring(member.getName().indexOf(" ") + 1) : "", // Last
-                                                                                                             // name
-        member.getPhotoPath() != null ? member.getPhotoPath() : "/default-avatar.png",
-        member.getIsActive() ? "Active" : "Inactive");
-  }
-
   /**
    * Get admin dashboard statistics
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "adminStats")
   public AdminDashboardStats getAdminDashboardStats() {
     try {
       LocalDate today = LocalDate.now();
@@ -298,6 +273,7 @@ public class DashboardService {
   /**
    * Get member dashboard statistics
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "memberStats")
   public MemberDashboardStats getMemberDashboardStats(Long memberId) {
     try {
       Member member = memberRepository.findById(memberId).orElse(null);
@@ -305,19 +281,8 @@ public class DashboardService {
         return MemberDashboardStats.empty();
       }
 
-      // Loan information
-      List<Loan> memberLoans = loanRepository.findByMemberIdOrderByCreatedAtDesc(memberId);
-      long activeLoans = memberLoans.stream().mapToLong(loan -> loan.getStatus() == LoanStatus.ACTIVE ? 1 : 0).sum();
-      BigDecimal totalLoanBalance = memberLoans.stream()
-          .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE)
-          .map(Loan::getPrincipalAmount) // Using getPrincipalAmount method
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      // Savings information
-      List<SavingAccount> memberSavings = savingRepository.findByMemberId(memberId);
-      BigDecimal totalSavingsBalance = memberSavings.stream()
-          .map(SavingAccount::getBalance) // Using getBalance method
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
+      com.bansaiyai.bansaiyai.entity.MemberFinancialSummary summary = memberFinancialSummaryService
+          .getSummary(memberId);
 
       // Recent payments
       List<Payment> recentPayments = paymentRepository.findTop10ByMemberIdOrderByPaymentDateDesc(memberId);
@@ -328,17 +293,17 @@ public class DashboardService {
           .memberId(memberId)
           .memberName(member.getName())
           .memberStatus(member.getIsActive() ? "Active" : "Inactive") // Using getIsActive() method
-          .totalLoans(memberLoans.size())
-          .activeLoans((int) activeLoans)
-          .totalLoanBalance(totalLoanBalance)
-          .totalSavingsAccounts(memberSavings.size())
-          .totalSavingsBalance(totalSavingsBalance)
+          .totalLoans(summary.getLoanCount())
+          .activeLoans(summary.getActiveLoanCount())
+          .totalLoanBalance(summary.getOutstandingPrincipal())
+          .totalSavingsAccounts(summary.getSavingsAccountCount())
+          .totalSavingsBalance(summary.getTotalSavings())
           .recentPayments(recentPayments.stream()
               .limit(5)
               .map(this::createPaymentSummary)
               .collect(Collectors.toList()))
           .totalPaymentsThisMonth(totalPaymentsThisMonth != null ? totalPaymentsThisMonth : BigDecimal.ZERO)
-          .nextLoanPaymentDate(calculateNextLoanPaymentDate(memberLoans))
+          .nextLoanPaymentDate(summary.getNextDueDate())
           .lastUpdated(LocalDateTime.now())
           .build();
 
@@ -351,6 +316,7 @@ public class DashboardService {
   /**
    * Get officer dashboard statistics
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "officerStats")
   public OfficerDashboardStats getOfficerDashboardStats(String officerUsername) {
     try {
       LocalDate today = LocalDate.now();
@@ -398,6 +364,7 @@ public class DashboardService {
   /**
    * Get system health indicators
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "systemHealth")
   public SystemHealthIndicators getSystemHealthIndicators() {
     try {
       // System performance metrics
@@ -433,6 +400,7 @@ public class DashboardService {
   /**
    * Get recent activities for the dashboard
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "recentActivities")
   public List<DashboardDTO.ActivityItem> getRecentActivities(int limit) {
     List<DashboardDTO.ActivityItem> activities = new ArrayList<>();
 
@@ -534,14 +502,6 @@ public class DashboardService {
         .build();
   }
 
-  private LocalDate calculateNextLoanPaymentDate(List<Loan> loans) {
-    return loans.stream()
-        .filter(loan -> loan.getStatus() == LoanStatus.ACTIVE && loan.getMaturityDate() != null)
-        .map(Loan::getMaturityDate)
-        .min(LocalDate::compareTo)
-        .orElse(null);
-  }
-
   private double calculateSystemLoad() {
     // Simplified system load calculation
     // In a real implementation, this would check CPU, memory, database connections
@@ -581,6 +541,7 @@ public class DashboardService {
    * Provides insight into the cooperative's ability to cover potential
    * withdrawals.
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "liquidity")
   public com.bansaiyai.bansaiyai.dto.dashboard.LiquidityDTO calculateLiquidityRatio() {
     try {
       // 1. Calculate Cash & Bank Balance (Asset Accounts like 10100, 10200)
@@ -592,22 +553,12 @@ public class DashboardService {
 
       BigDecimal cashBalance = BigDecimal.ZERO;
 
-      // Calculate balance from accounting entries for Cash (10100) and Bank (10200)
-      // For asset accounts, balance = debits - credits
-      List<com.bansaiyai.bansaiyai.entity.AccountingEntry> cashEntries = accountingRepository.findAll().stream()
-          .filter(e -> "10100".equals(e.getAccountCode()) || "10200".equals(e.getAccountCode()))
-          .collect(java.util.stream.Collectors.toList());
-
-      BigDecimal totalDebits = cashEntries.stream()
-          .map(e -> e.getDebit() != null ? e.getDebit() : BigDecimal.ZERO)
+      // Balance of Cash (10100) and Bank (10200): the closing balance (debits -
+      // credits) of each account's latest period
+      cashBalance = accountPeriodBalanceRepository.findLatestByAccountCodeIn(List.of("10100", "10200")).stream()
+          .map(com.bansaiyai.bansaiyai.entity.AccountPeriodBalance::getClosingBalance)
           .reduce(BigDecimal.ZERO, BigDecimal::add);
 
-      BigDecimal totalCredits = cashEntries.stream()
-          .map(e -> e.getCredit() != null ? e.getCredit() : BigDecimal.ZERO)
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      cashBalance = totalDebits.subtract(totalCredits);
-
       // If no accounts found (e.g. before full accounting seed), fallback to
       // CashBoxTally calculation as a proxy
       if (cashBalance.compareTo(BigDecimal.ZERO) == 0) {
@@ -672,6 +623,7 @@ public class DashboardService {
    * Calculate Portfolio At Risk (PAR) Analysis
    * Breaks down overdue loans by age: 1-30, 31-60, 61-90, >90 days.
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "parAnalysis")
   public PARAnalysisDTO calculatePARAnalysis() {
     try {
       LocalDate today = LocalDate.now();
@@ -735,6 +687,7 @@ public class DashboardService {
   /**
    * Get Membership Trends for the last N months
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "membershipTrends")
   public MembershipTrendsDTO getMembershipTrends(int months) {
     try {
       List<String> labels = new ArrayList<>();
@@ -1432,82 +1385,33 @@ public class DashboardService {
    * Get recent transactions for Officer Dashboard transaction feed
    * Combines savings transactions and loan payments with member information
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "recentTransactions")
   public List<com.bansaiyai.bansaiyai.dto.dashboard.TransactionDTO> getRecentTransactions(int limit) {
     try {
       List<com.bansaiyai.bansaiyai.dto.dashboard.TransactionDTO> transactions = new ArrayList<>();
 
-      // Get recent savings transactions
-      List<SavingTransaction> savingTransactions = savingTransactionRepository.findAll().stream()
-          .filter(txn -> !txn.getIsReversed())
-          .sorted((a, b) -> {
-            // Sort by transaction date descending, then by created date
-            int dateCompare = b.getTransactionDate().compareTo(a.getTransactionDate());
-            if (dateCompare != 0)
-              return dateCompare;
-            return b.getCreatedAt().compareTo(a.getCreatedAt());
-          })
-          .limit(limit * 2) // Get more to ensure we have enough after combining
-          .collect(Collectors.toList());
-
-      // Convert savings transactions to DTOs
-      for (SavingTransaction txn : savingTransactions) {
-        String memberName = txn.getSavingAccount() != null && txn.getSavingAccount().getMember() != null
-            ? txn.getSavingAccount().getMember().getName()
-            : "Unknown Member";
-
-        LocalDateTime timestamp = txn.getTransactionDate().atStartOfDay();
-        if (txn.getCreatedAt() != null) {
-          timestamp = txn.getCreatedAt();
-        }
-
-        transactions.add(new com.bansaiyai.bansaiyai.dto.dashboard.TransactionDTO(
-            txn.getId(),
-            timestamp,
-            memberName,
-            txn.getTransactionType().name(),
-            txn.getAmount()));
-      }
-
-      // Get recent loan payments
-      List<Payment> payments = paymentRepository.findAll().stream()
-          .filter(p -> p.getPaymentStatus() == PaymentStatus.COMPLETED)
-          .filter(p -> p.isLoanPayment())
-          .sorted((a, b) -> {
-            // Sort by payment date descending
-            if (a.getPaymentDate() == null)
-              return 1;
-            if (b.getPaymentDate() == null)
-              return -1;
-            int dateCompare = b.getPaymentDate().compareTo(a.getPaymentDate());
-            if (dateCompare != 0)
-              return dateCompare;
-            if (a.getCreatedAt() != null && b.getCreatedAt() != null) {
-              return b.getCreatedAt().compareTo(a.getCreatedAt());
-            }
-            return 0;
-          })
-          .limit(limit * 2)
+      // Newest savings transactions and loan payments, read as display rows so
+      // the member names come from the same query
+      org.springframework.data.domain.Pageable candidates = org.springframework.data.domain.PageRequest
+          .of(0, Math.max(limit, 1) * 2);
+      List<Object[]> rows = new ArrayList<>(savingTransactionRepository.findRecentActivityRows(candidates));
+      List<PaymentType> loanPaymentTypes = Arrays.stream(PaymentType.values())
+          .filter(PaymentType::isLoanRelated)
           .collect(Collectors.toList());
+      rows.addAll(paymentRepository.findRecentActivityRows(PaymentStatus.COMPLETED, loanPaymentTypes, candidates));
 
-      // Convert payments to DTOs
-      for (Payment payment : payments) {
-        String memberName = payment.getMember() != null
-            ? payment.getMember().getName()
-            : "Unknown Member";
-
-        LocalDateTime timestamp = payment.getPaymentDate() != null
-            ? payment.getPaymentDate().atStartOfDay()
-            : LocalDateTime.now();
-        if (payment.getCreatedAt() != null) {
-          timestamp = payment.getCreatedAt();
-        }
+      for (Object[] row : rows) {
+        LocalDate date = (LocalDate) row[1];
+        LocalDateTime createdAt = (LocalDateTime) row[2];
+        LocalDateTime timestamp = createdAt != null ? createdAt
+            : date != null ? date.atStartOfDay() : LocalDateTime.now();
 
         transactions.add(new com.bansaiyai.bansaiyai.dto.dashboard.TransactionDTO(
-            payment.getId(),
+            (Long) row[0],
             timestamp,
-            memberName,
-            payment.getPaymentType().name(),
-            payment.getAmount()));
+            row[3] != null ? (String) row[3] : "Unknown Member",
+            ((Enum<?>) row[4]).name(),
+            (BigDecimal) row[5]));
       }
 
       // Sort all transactions by timestamp descending and limit
@@ -1526,6 +1430,7 @@ public class DashboardService {
    * Calculate trial balance for the current fiscal period
    * Returns total debits, credits, variance, and balanced status
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "trialBalance")
   public com.bansaiyai.bansaiyai.dto.dashboard.TrialBalanceDTO calculateTrialBalance() {
     try {
       // Get current fiscal period
@@ -1535,9 +1440,9 @@ public class DashboardService {
       // Convert period format from "MONTH YEAR" to "YYYY-MM" for database query
       String fiscalPeriodKey = convertPeriodToKey(period);
 
-      // Calculate total debits and credits for the fiscal period
-      BigDecimal totalDebits = accountingRepository.sumDebitsByFiscalPeriod(fiscalPeriodKey);
-      BigDecimal totalCredits = accountingRepository.sumCreditsByFiscalPeriod(fiscalPeriodKey);
+      // Calculate total debits and credits for the fiscal period, one row per account
+      BigDecimal totalDebits = accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(fiscalPeriodKey);
+      BigDecimal totalCredits = accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(fiscalPeriodKey);
 
       // Handle null values
       if (totalDebits == null) {
@@ -1616,6 +1521,7 @@ public class DashboardService {
    * An unclassified transaction is one that doesn't have a corresponding
    * AccountingEntry
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "unclassifiedCount")
   public int countUnclassifiedTransactions() {
     try {
       // Get all saving transaction IDs
@@ -1735,6 +1641,7 @@ public class DashboardService {
    * Generate financial statement previews for Secretary Dashboard
    * Includes income vs expenses bar chart and asset distribution pie chart
    */
+  @BusinessMetric(value = "bansaiyai.dashboard.widget", operation = "financialPreviews")
   public com.bansaiyai.bansaiyai.dto.dashboard.FinancialPreviewsDTO generateFinancialPreviews() {
     try {
       // Get current fiscal period
@@ -1742,61 +1649,20 @@ public class DashboardService {
       String period = fiscalPeriod.period();
       String fiscalPeriodKey = convertPeriodToKey(period);
 
-      // Get all accounting entries for the fiscal period
-      List<AccountingEntry> entries = accountingRepository.findByFiscalPeriod(fiscalPeriodKey);
-
-      // Calculate income data (4xxx = Income accounts)
-      BigDecimal interestIncome = entries.stream()
-          .filter(e -> e.getAccountCode() != null && e.getAccountCode().startsWith("4"))
-          .map(e -> {
-            BigDecimal credit = e.getCredit() != null ? e.getCredit() : BigDecimal.ZERO;
-            BigDecimal debit = e.getDebit() != null ? e.getDebit() : BigDecimal.ZERO;
-            return credit.subtract(debit); // Net income (credits - debits)
-          })
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      // Calculate expenses (5xxx = Expense accounts)
-      BigDecimal expenses = entries.stream()
-          .filter(e -> e.getAccountCode() != null && e.getAccountCode().startsWith("5"))
-          .map(e -> {
-            BigDecimal debit = e.getDebit() != null ? e.getDebit() : BigDecimal.ZERO;
-            BigDecimal credit = e.getCredit() != null ? e.getCredit() : BigDecimal.ZERO;
-            return debit.subtract(credit); // Net expenses (debits - credits)
-          })
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      // Calculate asset distribution (1xxx = Asset accounts)
-      BigDecimal cashAndBank = entries.stream()
-          .filter(e -> e.getAccountCode() != null &&
-              (e.getAccountCode().startsWith("100") || e.getAccountCode().startsWith("101")))
-          .map(e -> {
-            BigDecimal debit = e.getDebit() != null ? e.getDebit() : BigDecimal.ZERO;
-            BigDecimal credit = e.getCredit() != null ? e.getCredit() : BigDecimal.ZERO;
-            return debit.subtract(credit); // Net asset balance (debits - credits)
-          })
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      BigDecimal loansReceivable = entries.stream()
-          .filter(e -> e.getAccountCode() != null && e.getAccountCode().startsWith("12"))
-          .map(e -> {
-            BigDecimal debit = e.getDebit() != null ? e.getDebit() : BigDecimal.ZERO;
-            BigDecimal credit = e.getCredit() != null ? e.getCredit() : BigDecimal.ZERO;
-            return debit.subtract(credit);
-          })
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-      BigDecimal otherAssets = entries.stream()
-          .filter(e -> e.getAccountCode() != null &&
-              e.getAccountCode().startsWith("1") &&
-              !e.getAccountCode().startsWith("100") &&
-              !e.getAccountCode().startsWith("101") &&
-              !e.getAccountCode().startsWith("12"))
-          .map(e -> {
-            BigDecimal debit = e.getDebit() != null ? e.getDebit() : BigDecimal.ZERO;
-            BigDecimal credit = e.getCredit() != null ? e.getCredit() : BigDecimal.ZERO;
-            return debit.subtract(credit);
-          })
-          .reduce(BigDecimal.ZERO, BigDecimal::add);
+      // Period totals of each account in the fiscal period
+      List<com.bansaiyai.bansaiyai.entity.AccountPeriodBalance> balances = accountPeriodBalanceRepository
+          .findByFiscalPeriod(fiscalPeriodKey);
+
+      // Income (4xxx): net credits; expenses (5xxx) and assets (1xxx): net debits
+      BigDecimal interestIncome = sumNetMovement(balances, code -> code.startsWith("4")).negate();
+      BigDecimal expenses = sumNetMovement(balances, code -> code.startsWith("5"));
+      BigDecimal cashAndBank = sumNetMovement(balances,
+          code -> code.startsWith("100") || code.startsWith("101"));
+      BigDecimal loansReceivable = sumNetMovement(balances, code -> code.startsWith("12"));
+      BigDecimal otherAssets = sumNetMovement(balances, code -> code.startsWith("1")
+          && !code.startsWith("100")
+          && !code.startsWith("101")
+          && !code.startsWith("12"));
 
       // Build income chart data
       List<String> incomeLabels = List.of("Income", "Expenses");
@@ -1828,4 +1694,15 @@ public class DashboardService {
       return new com.bansaiyai.bansaiyai.dto.dashboard.FinancialPreviewsDTO();
     }
   }
+
+  /**
+   * Sum of debits minus credits over the accounts whose code matches.
+   */
+  private static BigDecimal sumNetMovement(List<com.bansaiyai.bansaiyai.entity.AccountPeriodBalance> balances,
+      java.util.function.Predicate<String> accountCode) {
+    return balances.stream()
+        .filter(b -> b.getAccountCode() != null && accountCode.test(b.getAccountCode()))
+        .map(com.bansaiyai.bansaiyai.entity.AccountPeriodBalance::netMovement)
+        .reduce(BigDecimal.ZERO, BigDecimal::add);
+  }
 }
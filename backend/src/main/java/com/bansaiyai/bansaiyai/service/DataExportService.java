@@ -1,24 +1,36 @@
 package com.bansaiyai.bansaiyai.service;
 
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
+import com.bansaiyai.bansaiyai.util.CsvStreamWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
 
 /**
  * Service for exporting data to various formats (Excel, CSV).
  * Supports async export for large datasets.
+ *
+ * Excel output uses POI's streaming SXSSF workbook: only a window of rows is
+ * kept in memory and older rows are flushed to (optionally compressed) temp
+ * files, so sheet size is bounded by disk rather than heap.
  */
 @Service
 @RequiredArgsConstructor
@@ -28,6 +40,14 @@ public class DataExportService {
   private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd");
   private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
+  /** Rows kept in memory per sheet before older rows are flushed to disk. */
+  @Value("${app.export.excel.row-window:500}")
+  private int rowWindow = 500;
+
+  /** Gzip the SXSSF temp files (less disk, slightly more CPU). */
+  @Value("${app.export.excel.compress-temp-files:true}")
+  private boolean compressTempFiles = true;
+
   /**
    * Export data to Excel format.
    *
@@ -36,48 +56,21 @@ public class DataExportService {
    * @param data      List of row data (each row is a list of values)
    * @return byte array of the Excel file
    */
+  @BusinessMetric(value = "bansaiyai.export", operation = "excel")
   public byte[] exportToExcel(String sheetName, List<String> headers, List<List<Object>> data) {
-    try (Workbook workbook = new XSSFWorkbook();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-      Sheet sheet = workbook.createSheet(sheetName);
-
-      // Create header style
-      CellStyle headerStyle = createHeaderStyle(workbook);
-
-      // Create header row
-      Row headerRow = sheet.createRow(0);
-      for (int i = 0; i < headers.size(); i++) {
-        Cell cell = headerRow.createCell(i);
-        cell.setCellValue(headers.get(i));
-        cell.setCellStyle(headerStyle);
-      }
-
-      // Create data rows
-      CellStyle dateStyle = createDateStyle(workbook);
-      CellStyle currencyStyle = createCurrencyStyle(workbook);
-
-      int rowNum = 1;
-      for (List<Object> rowData : data) {
-        Row row = sheet.createRow(rowNum++);
-        for (int i = 0; i < rowData.size(); i++) {
-          Cell cell = row.createCell(i);
-          setCellValue(cell, rowData.get(i), dateStyle, currencyStyle);
-        }
-      }
-
-      // Auto-size columns
-      for (int i = 0; i < headers.size(); i++) {
-        sheet.autoSizeColumn(i);
-      }
-
-      workbook.write(outputStream);
-      return outputStream.toByteArray();
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    exportToExcel(sheetName, headers, data.stream(), outputStream);
+    return outputStream.toByteArray();
+  }
 
-    } catch (IOException e) {
-      log.error("Error exporting to Excel", e);
-      throw new RuntimeException("Failed to export to Excel", e);
-    }
+  /**
+   * Stream rows into a single-sheet Excel file written to {@code out}.
+   * The caller owns (and must close) both the row stream and the output.
+   */
+  @BusinessMetric(value = "bansaiyai.export", operation = "excel")
+  public void exportToExcel(String sheetName, List<String> headers, Stream<? extends List<?>> rows,
+      OutputStream out) {
+    writeWorkbook(out, (workbook, styles) -> writeSheet(workbook, styles, sheetName, headers, rows));
   }
 
   /**
@@ -95,107 +88,133 @@ public class DataExportService {
   /**
    * Export data to CSV format.
    */
+  @BusinessMetric(value = "bansaiyai.export", operation = "csv")
   public byte[] exportToCsv(List<String> headers, List<List<Object>> data) {
-    StringBuilder csv = new StringBuilder();
-
-    // Add headers
-    csv.append(String.join(",", headers)).append("\n");
-
-    // Add data rows
-    for (List<Object> row : data) {
-      csv.append(row.stream()
-          .map(this::formatCsvValue)
-          .reduce((a, b) -> a + "," + b)
-          .orElse(""))
-          .append("\n");
-    }
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    exportToCsv(headers, data.stream(), outputStream);
+    return outputStream.toByteArray();
+  }
 
-    return csv.toString().getBytes();
+  /**
+   * Stream rows to CSV without materializing them. Rows are pulled from the
+   * stream one at a time and written through a fixed-size buffer; the caller
+   * owns (and must close) both the stream and the output.
+   */
+  @BusinessMetric(value = "bansaiyai.export", operation = "csv")
+  public void exportToCsv(List<String> headers, Stream<? extends List<?>> rows, OutputStream out) {
+    try (CsvStreamWriter csv = new CsvStreamWriter(out)) {
+      for (String header : headers) {
+        csv.field(header);
+      }
+      csv.endRow();
+
+      rows.forEach(row -> {
+        for (Object value : row) {
+          csv.value(value);
+        }
+        csv.endRow();
+      });
+    }
   }
 
   /**
    * Export multiple sheets to a single Excel file.
    */
+  @BusinessMetric(value = "bansaiyai.export", operation = "multiSheetExcel")
   public byte[] exportMultiSheetExcel(Map<String, ExportSheet> sheets) {
-    try (Workbook workbook = new XSSFWorkbook();
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream()) {
-
-      CellStyle headerStyle = createHeaderStyle(workbook);
-      CellStyle dateStyle = createDateStyle(workbook);
-      CellStyle currencyStyle = createCurrencyStyle(workbook);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    exportMultiSheetExcel(sheets, outputStream);
+    return outputStream.toByteArray();
+  }
 
+  /**
+   * Export multiple sheets to a single Excel file written to {@code out}.
+   */
+  @BusinessMetric(value = "bansaiyai.export", operation = "multiSheetExcel")
+  public void exportMultiSheetExcel(Map<String, ExportSheet> sheets, OutputStream out) {
+    writeWorkbook(out, (workbook, styles) -> {
       for (Map.Entry<String, ExportSheet> entry : sheets.entrySet()) {
-        Sheet sheet = workbook.createSheet(entry.getKey());
         ExportSheet exportSheet = entry.getValue();
-
-        // Create header row
-        Row headerRow = sheet.createRow(0);
-        for (int i = 0; i < exportSheet.headers().size(); i++) {
-          Cell cell = headerRow.createCell(i);
-          cell.setCellValue(exportSheet.headers().get(i));
-          cell.setCellStyle(headerStyle);
-        }
-
-        // Create data rows
-        int rowNum = 1;
-        for (List<Object> rowData : exportSheet.data()) {
-          Row row = sheet.createRow(rowNum++);
-          for (int i = 0; i < rowData.size(); i++) {
-            Cell cell = row.createCell(i);
-            setCellValue(cell, rowData.get(i), dateStyle, currencyStyle);
-          }
-        }
-
-        // Auto-size columns
-        for (int i = 0; i < exportSheet.headers().size(); i++) {
-          sheet.autoSizeColumn(i);
-        }
+        writeSheet(workbook, styles, entry.getKey(), exportSheet.headers(), exportSheet.data().stream());
       }
+    });
+  }
 
-      workbook.write(outputStream);
-      return outputStream.toByteArray();
-
+  private void writeWorkbook(OutputStream out, WorkbookWriter writer) {
+    SXSSFWorkbook workbook = new SXSSFWorkbook(rowWindow);
+    workbook.setCompressTempFiles(compressTempFiles);
+    try {
+      writer.write(workbook, new ExcelStyles(workbook));
+      workbook.write(out);
     } catch (IOException e) {
-      log.error("Error exporting multi-sheet Excel", e);
-      throw new RuntimeException("Failed to export to Excel", e);
+      log.error("Error exporting to Excel", e);
+      throw new UncheckedIOException("Failed to export to Excel", e);
+    } finally {
+      // Delete the temp files backing flushed rows
+      workbook.dispose();
+      try {
+        workbook.close();
+      } catch (IOException e) {
+        log.warn("Failed to close Excel workbook", e);
+      }
     }
   }
 
-  private CellStyle createHeaderStyle(Workbook workbook) {
-    CellStyle style = workbook.createCellStyle();
-    Font font = workbook.createFont();
-    font.setBold(true);
-    style.setFont(font);
-    style.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
-    style.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-    style.setBorderBottom(BorderStyle.THIN);
-    return style;
-  }
+  /**
+   * Write one sheet. Column widths are auto-sized from the header and the
+   * first window of rows only, since flushed rows are no longer available.
+   */
+  private void writeSheet(SXSSFWorkbook workbook, ExcelStyles styles, String sheetName, List<String> headers,
+      Stream<? extends List<?>> rows) {
+    SXSSFSheet sheet = workbook.createSheet(sheetName);
+    sheet.trackAllColumnsForAutoSizing();
+
+    Row headerRow = sheet.createRow(0);
+    for (int i = 0; i < headers.size(); i++) {
+      Cell cell = headerRow.createCell(i);
+      cell.setCellValue(headers.get(i));
+      cell.setCellStyle(styles.header);
+    }
 
-  private CellStyle createDateStyle(Workbook workbook) {
-    CellStyle style = workbook.createCellStyle();
-    style.setDataFormat(workbook.createDataFormat().getFormat("yyyy-mm-dd"));
-    return style;
+    int rowNum = 1;
+    boolean sized = false;
+    Iterator<? extends List<?>> iterator = rows.iterator();
+    while (iterator.hasNext()) {
+      List<?> rowData = iterator.next();
+      Row row = sheet.createRow(rowNum++);
+      for (int i = 0; i < rowData.size(); i++) {
+        Cell cell = row.createCell(i);
+        setCellValue(cell, rowData.get(i), styles);
+      }
+      if (!sized && rowNum == rowWindow) {
+        autoSizeColumns(sheet, headers.size());
+        sized = true;
+      }
+    }
+    if (!sized) {
+      autoSizeColumns(sheet, headers.size());
+    }
   }
 
-  private CellStyle createCurrencyStyle(Workbook workbook) {
-    CellStyle style = workbook.createCellStyle();
-    style.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
-    return style;
+  private void autoSizeColumns(SXSSFSheet sheet, int columns) {
+    for (int i = 0; i < columns; i++) {
+      sheet.autoSizeColumn(i);
+    }
+    sheet.untrackAllColumnsForAutoSizing();
   }
 
-  private void setCellValue(Cell cell, Object value, CellStyle dateStyle, CellStyle currencyStyle) {
+  private void setCellValue(Cell cell, Object value, ExcelStyles styles) {
     if (value == null) {
       cell.setCellValue("");
     } else if (value instanceof Number) {
       cell.setCellValue(((Number) value).doubleValue());
       if (value instanceof Double || value instanceof Float ||
           value instanceof java.math.BigDecimal) {
-        cell.setCellStyle(currencyStyle);
+        cell.setCellStyle(styles.currency);
       }
     } else if (value instanceof LocalDate) {
       cell.setCellValue(((LocalDate) value).format(DATE_FORMATTER));
-      cell.setCellStyle(dateStyle);
+      cell.setCellStyle(styles.date);
     } else if (value instanceof LocalDateTime) {
       cell.setCellValue(((LocalDateTime) value).format(DATETIME_FORMATTER));
     } else if (value instanceof Boolean) {
@@ -205,15 +224,35 @@ public class DataExportService {
     }
   }
 
-  private String formatCsvValue(Object value) {
-    if (value == null)
-      return "";
-    String str = value.toString();
-    // Escape quotes and wrap in quotes if contains comma, quote, or newline
-    if (str.contains(",") || str.contains("\"") || str.contains("\n")) {
-      return "\"" + str.replace("\"", "\"\"") + "\"";
+  /**
+   * Cell styles shared by every sheet of a workbook. Workbooks have a hard
+   * limit on distinct styles, so these are created exactly once.
+   */
+  private static final class ExcelStyles {
+    private final CellStyle header;
+    private final CellStyle date;
+    private final CellStyle currency;
+
+    private ExcelStyles(Workbook workbook) {
+      header = workbook.createCellStyle();
+      Font font = workbook.createFont();
+      font.setBold(true);
+      header.setFont(font);
+      header.setFillForegroundColor(IndexedColors.GREY_25_PERCENT.getIndex());
+      header.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+      header.setBorderBottom(BorderStyle.THIN);
+
+      DataFormat format = workbook.createDataFormat();
+      date = workbook.createCellStyle();
+      date.setDataFormat(format.getFormat("yyyy-mm-dd"));
+      currency = workbook.createCellStyle();
+      currency.setDataFormat(format.getFormat("#,##0.00"));
     }
-    return str;
+  }
+
+  @FunctionalInterface
+  private interface WorkbookWriter {
+    void write(SXSSFWorkbook workbook, ExcelStyles styles) throws IOException;
   }
 
   /**
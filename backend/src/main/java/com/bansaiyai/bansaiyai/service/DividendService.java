@@ -1,8 +1,10 @@
 package com.bansaiyai.bansaiyai.service;
 
+import com.bansaiyai.bansaiyai.dto.DividendSimulationResponse;
 import com.bansaiyai.bansaiyai.entity.*;
 import com.bansaiyai.bansaiyai.entity.enums.ApprovalStatus;
 import com.bansaiyai.bansaiyai.exception.BusinessException;
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
 import com.bansaiyai.bansaiyai.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -10,13 +12,20 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class DividendService {
 
+    /** Upper bound on rate combinations evaluated by a single simulation. */
+    static final int MAX_SIMULATION_SCENARIOS = 2_500;
+
     private final DividendDistributionRepository dividendDistributionRepository;
     private final DividendRecipientRepository dividendRecipientRepository;
     private final MemberRepository memberRepository;
@@ -29,6 +38,7 @@ public class DividendService {
      * Calculate dividend preview and save as DRAFT.
      */
     @Transactional
+    @BusinessMetric(value = "bansaiyai.dividend", operation = "calculate")
     public DividendDistribution calculateDividends(Integer year, BigDecimal dividendRate, BigDecimal averageReturnRate,
             User creator) {
         if (dividendDistributionRepository.existsByYear(year)) {
@@ -51,27 +61,29 @@ public class DividendService {
         // up, but let's save dist first.
         dist = dividendDistributionRepository.save(dist);
 
-        List<Member> activeMembers = memberRepository.findByIsActiveTrue();
+        // Share capital and the year's interest come from two projections and the
+        // recipients are saved as one batch, so the statement count does not
+        // depend on the number of members
+        Map<Long, BigDecimal> interestByMember = new HashMap<>();
+        for (Object[] row : paymentRepository.sumInterestByDateRangeGroupByMember(
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31))) {
+            interestByMember.put(((Number) row[0]).longValue(), (BigDecimal) row[1]);
+        }
+
+        List<DividendRecipient> recipients = new ArrayList<>();
         BigDecimal totalDiv = BigDecimal.ZERO;
         BigDecimal totalAvg = BigDecimal.ZERO;
 
-        for (Member member : activeMembers) {
-            // 1. Share Capital Dividend
-            // Logic: Get share capital from SAVINGS account (assuming 1 main savings per
-            // member)
-            // 1. Share Capital Dividend
-            BigDecimal shareCapital = member.getShareCapital();
-            if (shareCapital == null) {
-                shareCapital = BigDecimal.ZERO;
-            }
+        for (Object[] row : memberRepository.findActiveMemberShareCapital()) {
+            Long memberId = ((Number) row[0]).longValue();
+            BigDecimal shareCapital = (BigDecimal) row[1];
 
+            // 1. Share Capital Dividend
             BigDecimal divAmount = shareCapital.multiply(dividendRate).divide(new BigDecimal("100"), 2,
                     RoundingMode.HALF_UP);
 
             // 2. Average Return (Interest Cashback)
-            BigDecimal interestPaid = paymentRepository.sumInterestByMemberAndYear(member.getId(), year);
-            if (interestPaid == null)
-                interestPaid = BigDecimal.ZERO;
+            BigDecimal interestPaid = interestByMember.getOrDefault(memberId, BigDecimal.ZERO);
 
             BigDecimal avgRetAmount = interestPaid.multiply(averageReturnRate).divide(new BigDecimal("100"), 2,
                     RoundingMode.HALF_UP);
@@ -79,21 +91,21 @@ public class DividendService {
             BigDecimal memberTotal = divAmount.add(avgRetAmount);
 
             if (memberTotal.compareTo(BigDecimal.ZERO) > 0) {
-                DividendRecipient recipient = DividendRecipient.builder()
+                recipients.add(DividendRecipient.builder()
                         .dividendDistribution(dist)
-                        .member(member)
+                        .member(memberRepository.getReferenceById(memberId))
                         .shareCapitalSnapshot(shareCapital)
                         .interestPaidSnapshot(interestPaid)
                         .dividendAmount(divAmount)
                         .averageReturnAmount(avgRetAmount)
                         .totalAmount(memberTotal)
-                        .build();
-                dividendRecipientRepository.save(recipient);
+                        .build());
 
                 totalDiv = totalDiv.add(divAmount);
                 totalAvg = totalAvg.add(avgRetAmount);
             }
         }
+        dividendRecipientRepository.saveAll(recipients);
 
         dist.setTotalDividendAmount(totalDiv);
         dist.setTotalAverageReturnAmount(totalAvg);
@@ -111,6 +123,7 @@ public class DividendService {
      * Confirm and Distribute Dividends to Savings Accounts.
      */
     @Transactional
+    @BusinessMetric(value = "bansaiyai.dividend", operation = "distribute")
     public DividendDistribution distributeDividends(Integer year, User distributor) {
         DividendDistribution dist = dividendDistributionRepository.findByYear(year)
                 .orElseThrow(() -> new BusinessException("Dividend calculation for " + year + " not found."));
@@ -139,6 +152,82 @@ public class DividendService {
         return dividendDistributionRepository.save(dist);
     }
 
+    /**
+     * What-if simulation over many rate combinations. Member share capital and
+     * yearly interest are loaded once into a columnar snapshot; nothing is
+     * persisted. Use {@link #calculateDividends} to commit the chosen rates.
+     */
+    @Transactional(readOnly = true)
+    public DividendSimulationResponse simulateDividends(Integer year, List<BigDecimal> dividendRates,
+            List<BigDecimal> averageReturnRates, BigDecimal targetPayout) {
+        if ((long) dividendRates.size() * averageReturnRates.size() > MAX_SIMULATION_SCENARIOS) {
+            throw new BusinessException("Too many rate combinations; maximum is " + MAX_SIMULATION_SCENARIOS);
+        }
+        long[] dividendBps = toValidatedBasisPoints(dividendRates);
+        long[] averageReturnBps = toValidatedBasisPoints(averageReturnRates);
+
+        DividendSimulationSnapshot snapshot = loadSimulationSnapshot(year);
+        long[] scratch = new long[snapshot.size()];
+        long targetSatang = targetPayout != null ? DividendSimulationSnapshot.toSatang(targetPayout) : -1;
+
+        List<DividendSimulationResponse.Scenario> scenarios = new ArrayList<>(dividendBps.length * averageReturnBps.length);
+        for (long dividendBp : dividendBps) {
+            for (long averageReturnBp : averageReturnBps) {
+                DividendSimulationResponse.Scenario scenario = snapshot.evaluate(dividendBp, averageReturnBp, scratch);
+                if (targetPayout != null) {
+                    scenario.setWithinTarget(scenario.getTotalPayout().compareTo(targetPayout) <= 0);
+                }
+                scenarios.add(scenario);
+            }
+        }
+
+        List<DividendSimulationResponse.Scenario> targetMatches = new ArrayList<>();
+        if (targetPayout != null) {
+            for (long averageReturnBp : averageReturnBps) {
+                long solvedBp = snapshot.solveDividendRateBp(averageReturnBp, targetSatang);
+                if (solvedBp >= 0) {
+                    DividendSimulationResponse.Scenario match = snapshot.evaluate(solvedBp, averageReturnBp, scratch);
+                    match.setWithinTarget(true);
+                    targetMatches.add(match);
+                }
+            }
+        }
+
+        return DividendSimulationResponse.builder()
+                .year(year)
+                .memberCount(snapshot.size())
+                .totalShareCapital(snapshot.getTotalShareCapital())
+                .totalInterestPaid(snapshot.getTotalInterestPaid())
+                .targetPayout(targetPayout)
+                .scenarios(scenarios)
+                .targetMatches(targetMatches)
+                .build();
+    }
+
+    DividendSimulationSnapshot loadSimulationSnapshot(Integer year) {
+        LocalDate startDate = LocalDate.of(year, 1, 1);
+        LocalDate endDate = LocalDate.of(year, 12, 31);
+        return DividendSimulationSnapshot.of(year,
+                memberRepository.findActiveMemberShareCapital(),
+                paymentRepository.sumInterestByDateRangeGroupByMember(startDate, endDate));
+    }
+
+    private long[] toValidatedBasisPoints(List<BigDecimal> rates) {
+        long[] bps = new long[rates.size()];
+        for (int i = 0; i < bps.length; i++) {
+            BigDecimal rate = rates.get(i);
+            if (rate == null || rate.signum() < 0 || rate.compareTo(new BigDecimal("100")) > 0) {
+                throw new BusinessException("Rates must be between 0 and 100");
+            }
+            // Basis points hold two decimals; finer rates would be silently rounded
+            if (rate.stripTrailingZeros().scale() > 2) {
+                throw new BusinessException("Rates must have at most 2 decimal places: " + rate.toPlainString());
+            }
+            bps[i] = DividendSimulationSnapshot.toBasisPoints(rate);
+        }
+        return bps;
+    }
+
     public DividendDistribution getDistribution(Integer year) {
         return dividendDistributionRepository.findByYear(year)
                 .orElseThrow(() -> new BusinessException("Dividend calculation for " + year + " not found."));
@@ -0,0 +1,204 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.DividendSimulationResponse;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar, read-only snapshot of the inputs to the dividend calculation.
+ * Share capital and yearly interest are held as satang (1/100 baht) in
+ * parallel primitive arrays so that a rate combination can be evaluated
+ * without allocating BigDecimal objects per member.
+ *
+ * Rates are handled as basis points of a percent (5.25% = 525), which
+ * reproduces the 2-decimal HALF_UP rounding of
+ * {@link DividendService#calculateDividends} exactly.
+ */
+public final class DividendSimulationSnapshot {
+
+    /** 100% expressed in basis points. */
+    static final long MAX_RATE_BP = 10_000L;
+
+    private final int year;
+    private final long[] memberIds;
+    private final long[] shareCapitalSatang;
+    private final long[] interestPaidSatang;
+    private final long totalShareCapitalSatang;
+    private final long totalInterestPaidSatang;
+
+    private DividendSimulationSnapshot(int year, long[] memberIds, long[] shareCapitalSatang,
+            long[] interestPaidSatang) {
+        this.year = year;
+        this.memberIds = memberIds;
+        this.shareCapitalSatang = shareCapitalSatang;
+        this.interestPaidSatang = interestPaidSatang;
+        long shares = 0;
+        long interest = 0;
+        for (int i = 0; i < memberIds.length; i++) {
+            shares += shareCapitalSatang[i];
+            interest += interestPaidSatang[i];
+        }
+        this.totalShareCapitalSatang = shares;
+        this.totalInterestPaidSatang = interest;
+    }
+
+    /**
+     * Build a snapshot from (memberId, shareCapital) rows and
+     * (memberId, interestPaid) rows. Interest rows for members not in the
+     * share capital rows (e.g. inactive members) are ignored.
+     */
+    public static DividendSimulationSnapshot of(int year, List<Object[]> shareCapitalRows,
+            List<Object[]> interestRows) {
+        int n = shareCapitalRows.size();
+        long[] ids = new long[n];
+        long[] shares = new long[n];
+        long[] interest = new long[n];
+        Map<Long, Integer> index = new HashMap<>(n * 2);
+
+        for (int i = 0; i < n; i++) {
+            Object[] row = shareCapitalRows.get(i);
+            ids[i] = ((Number) row[0]).longValue();
+            shares[i] = toSatang((BigDecimal) row[1]);
+            index.put(ids[i], i);
+        }
+        for (Object[] row : interestRows) {
+            Integer i = index.get(((Number) row[0]).longValue());
+            if (i != null) {
+                interest[i] = toSatang((BigDecimal) row[1]);
+            }
+        }
+        return new DividendSimulationSnapshot(year, ids, shares, interest);
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public int size() {
+        return memberIds.length;
+    }
+
+    public BigDecimal getTotalShareCapital() {
+        return fromSatang(totalShareCapitalSatang);
+    }
+
+    public BigDecimal getTotalInterestPaid() {
+        return fromSatang(totalInterestPaidSatang);
+    }
+
+    /**
+     * Total payout (dividend + average return) in satang for a rate pair.
+     * Allocation-free; used by the target solver.
+     */
+    long totalPayoutSatang(long dividendRateBp, long averageReturnRateBp) {
+        long total = 0;
+        for (int i = 0; i < memberIds.length; i++) {
+            long memberTotal = percentOf(shareCapitalSatang[i], dividendRateBp)
+                    + percentOf(interestPaidSatang[i], averageReturnRateBp);
+            if (memberTotal > 0) {
+                total += memberTotal;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Evaluate one rate pair, including the payout distribution across
+     * recipients. {@code scratch} must hold at least {@link #size()} elements
+     * and is reused between calls to avoid per-scenario allocation.
+     */
+    DividendSimulationResponse.Scenario evaluate(long dividendRateBp, long averageReturnRateBp, long[] scratch) {
+        long totalDividend = 0;
+        long totalAverageReturn = 0;
+        int recipients = 0;
+
+        for (int i = 0; i < memberIds.length; i++) {
+            long dividend = percentOf(shareCapitalSatang[i], dividendRateBp);
+            long averageReturn = percentOf(interestPaidSatang[i], averageReturnRateBp);
+            long memberTotal = dividend + averageReturn;
+            // Same recipient rule as calculateDividends: only positive payouts count
+            if (memberTotal > 0) {
+                totalDividend += dividend;
+                totalAverageReturn += averageReturn;
+                scratch[recipients++] = memberTotal;
+            }
+        }
+        Arrays.sort(scratch, 0, recipients);
+
+        return DividendSimulationResponse.Scenario.builder()
+                .dividendRate(fromBasisPoints(dividendRateBp))
+                .averageReturnRate(fromBasisPoints(averageReturnRateBp))
+                .totalDividendAmount(fromSatang(totalDividend))
+                .totalAverageReturnAmount(fromSatang(totalAverageReturn))
+                .totalPayout(fromSatang(totalDividend + totalAverageReturn))
+                .recipientCount(recipients)
+                .medianPayout(fromSatang(percentile(scratch, recipients, 50)))
+                .p90Payout(fromSatang(percentile(scratch, recipients, 90)))
+                .maxPayout(fromSatang(recipients == 0 ? 0 : scratch[recipients - 1]))
+                .build();
+    }
+
+    /**
+     * Highest dividend rate (in basis points) whose total payout does not
+     * exceed {@code targetSatang} for the given average return rate, or -1
+     * if even a zero dividend rate exceeds the target. Total payout is
+     * monotonic in the dividend rate, so a binary search suffices.
+     */
+    long solveDividendRateBp(long averageReturnRateBp, long targetSatang) {
+        if (totalPayoutSatang(0, averageReturnRateBp) > targetSatang) {
+            return -1;
+        }
+        long lo = 0;
+        long hi = MAX_RATE_BP;
+        while (lo < hi) {
+            long mid = (lo + hi + 1) >>> 1;
+            if (totalPayoutSatang(mid, averageReturnRateBp) <= targetSatang) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * satang * (bp / 10000), rounded HALF_UP to whole satang.
+     */
+    static long percentOf(long satang, long basisPoints) {
+        long product = satang * basisPoints;
+        return product >= 0 ? (product + 5_000) / 10_000 : -((-product + 5_000) / 10_000);
+    }
+
+    static long toSatang(BigDecimal amount) {
+        if (amount == null) {
+            return 0;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromSatang(long satang) {
+        return BigDecimal.valueOf(satang, 2);
+    }
+
+    static long toBasisPoints(BigDecimal ratePercent) {
+        return ratePercent.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    static BigDecimal fromBasisPoints(long basisPoints) {
+        return BigDecimal.valueOf(basisPoints, 2);
+    }
+
+    private static long percentile(long[] sorted, int count, int p) {
+        if (count == 0) {
+            return 0;
+        }
+        // Nearest-rank method
+        int rank = (int) Math.ceil(p / 100.0 * count);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+}
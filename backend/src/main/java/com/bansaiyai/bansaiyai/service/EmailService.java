@@ -3,6 +3,8 @@ package com.bansaiyai.bansaiyai.service;
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.Member;
 import com.bansaiyai.bansaiyai.entity.User;
+import com.bansaiyai.bansaiyai.service.notification.NotificationOutboxService;
+import com.bansaiyai.bansaiyai.service.notification.NotificationOutboxService.OutboxMessage;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
@@ -20,11 +22,14 @@ import java.text.NumberFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * Email notification service for sending templated emails.
- * Uses async processing to avoid blocking main threads.
+ * Uses async processing to avoid blocking main threads; payment reminders
+ * go through the notification outbox instead.
  */
 @Service
 @RequiredArgsConstructor
@@ -33,6 +38,7 @@ public class EmailService {
 
   private final JavaMailSender mailSender;
   private final TemplateEngine templateEngine;
+  private final NotificationOutboxService outboxService;
 
   @Value("${spring.mail.username:noreply@bansaiyai.com}")
   private String fromEmail;
@@ -43,6 +49,8 @@ public class EmailService {
   @Value("${app.name:Ban Sai Yai Savings Group}")
   private String appName;
 
+  static final String PAYMENT_REMINDER_TEMPLATE = "email/payment-reminder";
+
   private static final Locale THAI_LOCALE = new Locale("th", "TH");
   private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d MMMM yyyy", THAI_LOCALE);
   private static final NumberFormat CURRENCY_FORMAT = NumberFormat.getCurrencyInstance(THAI_LOCALE);
@@ -153,24 +161,32 @@ public class EmailService {
   }
 
   /**
-   * Send payment reminder email.
+   * Queue a payment reminder in the notification outbox. Runs in the
+   * caller's transaction; the outbox dispatcher sends it.
    */
-  @Async("emailExecutor")
   public void sendPaymentReminder(Member member, Loan loan, BigDecimal amountDue, LocalDate dueDate) {
     if (!emailEnabled || member.getEmail() == null) {
       log.info("Email disabled or no email - would send payment reminder to member: {}", member.getMemberId());
       return;
     }
+    outboxService.enqueue(paymentReminder(member.getEmail(), member.getName(), loan.getLoanNumber(),
+        amountDue, dueDate, false, null));
+  }
 
-    Context context = new Context();
-    context.setVariable("appName", appName);
-    context.setVariable("memberName", member.getName());
-    context.setVariable("loanNumber", loan.getLoanNumber());
-    context.setVariable("amountDue", formatCurrency(amountDue));
-    context.setVariable("dueDate", formatDate(dueDate));
-
-    sendTemplatedEmail(member.getEmail(), "แจ้งเตือนกำหนดชำระ - " + appName,
-        "email/payment-reminder", context);
+  /**
+   * Build a payment reminder for the outbox; {@code overdue} switches to the
+   * past-due wording.
+   */
+  public OutboxMessage paymentReminder(String toEmail, String memberName, String loanNumber,
+      BigDecimal amountDue, LocalDate dueDate, boolean overdue, String dedupeKey) {
+    Map<String, String> variables = new HashMap<>();
+    variables.put("memberName", memberName);
+    variables.put("loanNumber", loanNumber);
+    variables.put("amountDue", formatCurrency(amountDue));
+    variables.put("dueDate", formatDate(dueDate));
+    variables.put("overdue", String.valueOf(overdue));
+    String subject = overdue ? "ค้างชำระเกินกำหนด - " + appName : "แจ้งเตือนกำหนดชำระ - " + appName;
+    return new OutboxMessage(toEmail, subject, PAYMENT_REMINDER_TEMPLATE, variables, dedupeKey);
   }
 
   /**
@@ -209,19 +225,35 @@ public class EmailService {
     sendTemplatedEmail(toEmail, subject, "email/notification", context);
   }
 
-  private void sendTemplatedEmail(String toEmail, String subject, String templateName, Context context) {
-    try {
-      String htmlContent = templateEngine.process(templateName, context);
+  /**
+   * Render a template into a message ready to send. The outbox dispatcher
+   * builds a whole batch this way and sends it over one connection.
+   */
+  public MimeMessage createMessage(String toEmail, String subject, String templateName,
+      Map<String, ?> variables) throws MessagingException {
+    Context context = new Context();
+    context.setVariable("appName", appName);
+    variables.forEach(context::setVariable);
+    return createMessage(toEmail, subject, templateName, context);
+  }
+
+  private MimeMessage createMessage(String toEmail, String subject, String templateName, Context context)
+      throws MessagingException {
+    String htmlContent = templateEngine.process(templateName, context);
 
-      MimeMessage message = mailSender.createMimeMessage();
-      MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    MimeMessage message = mailSender.createMimeMessage();
+    MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-      helper.setFrom(fromEmail);
-      helper.setTo(toEmail);
-      helper.setSubject(subject);
-      helper.setText(htmlContent, true);
+    helper.setFrom(fromEmail);
+    helper.setTo(toEmail);
+    helper.setSubject(subject);
+    helper.setText(htmlContent, true);
+    return message;
+  }
 
-      mailSender.send(message);
+  private void sendTemplatedEmail(String toEmail, String subject, String templateName, Context context) {
+    try {
+      mailSender.send(createMessage(toEmail, subject, templateName, context));
       log.info("Email sent successfully to: {}", toEmail);
 
     } catch (MessagingException e) {
@@ -2,13 +2,26 @@ package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.dto.report.MonthlyReportDTO;
 import com.bansaiyai.bansaiyai.dto.report.OverdueLoanDTO;
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import com.bansaiyai.bansaiyai.repository.SavingTransactionRepository;
+import com.bansaiyai.bansaiyai.util.CsvStreamWriter;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@RequiredArgsConstructor
 public class ExportService {
 
     private static final String CSV_HEADER_MONTHLY = "Month,Total Income,Total Expense,Net Income,New Loans,Closed Loans";
@@ -16,143 +29,186 @@ public class ExportService {
     private static final String CSV_HEADER_INCOME_EXPENSE = "Category,Name,Amount";
     private static final String CSV_HEADER_BALANCE_SHEET = "Category,Item,Amount";
     private static final String CSV_HEADER_DIVIDEND = "Member ID,Name,Share Capital,Interest Paid,Dividend Amount,Average Return,Total Payout";
+    private static final String CSV_HEADER_LEDGER = "Date,Fiscal Period,Account Code,Account Name,Debit,Credit,Reference Type,Reference Number,Description";
+
+    private static final List<String> EXCEL_HEADERS_SAVING_TRANSACTIONS = List.of(
+            "Date", "Transaction Number", "Account Number", "Member ID", "Member Name", "Type", "Amount",
+            "Balance After", "Description");
 
+    private final AccountingRepository accountingRepository;
+    private final SavingTransactionRepository savingTransactionRepository;
+    private final DataExportService dataExportService;
+
+    @BusinessMetric(value = "bansaiyai.export", operation = "monthlyReportCsv")
     public String generateMonthlyReportCsv(MonthlyReportDTO report) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
-        pw.println(CSV_HEADER_MONTHLY);
-        pw.printf("%s,%.2f,%.2f,%.2f,%d,%d%n",
-                report.getMonth(),
-                report.getTotalIncome(),
-                report.getTotalExpense(),
-                report.getNetIncome(),
-                report.getNewLoansCount(),
-                report.getClosedLoansCount());
-
-        return sw.toString();
+        return toCsvString(csv -> {
+            csv.line(CSV_HEADER_MONTHLY);
+            csv.field(report.getMonth())
+                    .money(report.getTotalIncome())
+                    .money(report.getTotalExpense())
+                    .money(report.getNetIncome())
+                    .number(report.getNewLoansCount())
+                    .number(report.getClosedLoansCount())
+                    .endRow();
+        });
     }
 
+    @BusinessMetric(value = "bansaiyai.export", operation = "overdueLoansCsv")
     public String generateOverdueLoansCsv(List<OverdueLoanDTO> loans) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
-        pw.println(CSV_HEADER_OVERDUE);
-        for (OverdueLoanDTO loan : loans) {
-            pw.printf("%s,%s,%.2f,%d,%s%n",
-                    loan.getLoanNumber(),
-                    escapeSpecialCharacters(loan.getMemberName()),
-                    loan.getOutstandingBalance(),
-                    loan.getDaysOverdue(),
-                    loan.getLastPaymentDate() != null ? loan.getLastPaymentDate().toString() : "N/A");
-        }
-
-        return sw.toString();
+        return toCsvString(csv -> {
+            csv.line(CSV_HEADER_OVERDUE);
+            for (OverdueLoanDTO loan : loans) {
+                csv.field(loan.getLoanNumber())
+                        .field(loan.getMemberName())
+                        .money(loan.getOutstandingBalance())
+                        .number(loan.getDaysOverdue());
+                if (loan.getLastPaymentDate() != null) {
+                    csv.date(loan.getLastPaymentDate());
+                } else {
+                    csv.raw("N/A");
+                }
+                csv.endRow();
+            }
+        });
     }
 
+    @BusinessMetric(value = "bansaiyai.export", operation = "incomeExpenseCsv")
     public String generateIncomeExpenseReportCsv(com.bansaiyai.bansaiyai.dto.report.IncomeExpenseReportDTO report) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
-        pw.println("Period," + report.getPeriod());
-        pw.println(CSV_HEADER_INCOME_EXPENSE);
-
-        for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getIncomeItems()) {
-            pw.printf("Income,%s,%.2f%n", escapeSpecialCharacters(item.getCategory()), item.getAmount());
-        }
-        for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getExpenseItems()) {
-            pw.printf("Expense,%s,%.2f%n", escapeSpecialCharacters(item.getCategory()), item.getAmount());
-        }
-
-        pw.println();
-        pw.printf("Total Income,,%.2f%n", report.getTotalIncome());
-        pw.printf("Total Expense,,%.2f%n", report.getTotalExpense());
-        pw.printf("Net Profit,,%.2f%n", report.getNetProfit());
-
-        return sw.toString();
+        return toCsvString(csv -> {
+            csv.raw("Period").field(report.getPeriod()).endRow();
+            csv.line(CSV_HEADER_INCOME_EXPENSE);
+
+            for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getIncomeItems()) {
+                csv.raw("Income").field(item.getCategory()).money(item.getAmount()).endRow();
+            }
+            for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getExpenseItems()) {
+                csv.raw("Expense").field(item.getCategory()).money(item.getAmount()).endRow();
+            }
+
+            csv.endRow();
+            csv.raw("Total Income").empty().money(report.getTotalIncome()).endRow();
+            csv.raw("Total Expense").empty().money(report.getTotalExpense()).endRow();
+            csv.raw("Net Profit").empty().money(report.getNetProfit()).endRow();
+        });
     }
 
+    @BusinessMetric(value = "bansaiyai.export", operation = "balanceSheetCsv")
     public String generateBalanceSheetCsv(com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO report) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
-        pw.println("As of Date," + report.getAsOfDate());
-        pw.println(CSV_HEADER_BALANCE_SHEET);
-
-        for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getAssets()) {
-            pw.printf("Asset,%s,%.2f%n", escapeSpecialCharacters(item.getCategory()), item.getAmount());
-        }
-        for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getLiabilities()) {
-            pw.printf("Liability,%s,%.2f%n", escapeSpecialCharacters(item.getCategory()), item.getAmount());
-        }
-        for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getEquity()) {
-            pw.printf("Equity,%s,%.2f%n", escapeSpecialCharacters(item.getCategory()), item.getAmount());
-        }
-
-        pw.println();
-        pw.printf("Total Assets,,%.2f%n", report.getTotalAssets());
-        pw.printf("Total Liabilities,,%.2f%n", report.getTotalLiabilities());
-        pw.printf("Total Equity,,%.2f%n", report.getTotalEquity());
-
-        return sw.toString();
+        return toCsvString(csv -> {
+            csv.raw("As of Date").field(report.getAsOfDate()).endRow();
+            csv.line(CSV_HEADER_BALANCE_SHEET);
+
+            for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getAssets()) {
+                csv.raw("Asset").field(item.getCategory()).money(item.getAmount()).endRow();
+            }
+            for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getLiabilities()) {
+                csv.raw("Liability").field(item.getCategory()).money(item.getAmount()).endRow();
+            }
+            for (com.bansaiyai.bansaiyai.dto.report.ReportItemDTO item : report.getEquity()) {
+                csv.raw("Equity").field(item.getCategory()).money(item.getAmount()).endRow();
+            }
+
+            csv.endRow();
+            csv.raw("Total Assets").empty().money(report.getTotalAssets()).endRow();
+            csv.raw("Total Liabilities").empty().money(report.getTotalLiabilities()).endRow();
+            csv.raw("Total Equity").empty().money(report.getTotalEquity()).endRow();
+        });
     }
 
+    @BusinessMetric(value = "bansaiyai.export", operation = "dividendRecipientsCsv")
     public String generateDividendRecipientsCsv(List<com.bansaiyai.bansaiyai.entity.DividendRecipient> recipients) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
-        pw.println(CSV_HEADER_DIVIDEND);
-        for (com.bansaiyai.bansaiyai.entity.DividendRecipient recipient : recipients) {
-            pw.printf("%s,%s,%.2f,%.2f,%.2f,%.2f,%.2f%n",
-                    recipient.getMember().getMemberId(),
-                    escapeSpecialCharacters(recipient.getMember().getName()),
-                    recipient.getShareCapitalSnapshot(),
-                    recipient.getInterestPaidSnapshot(),
-                    recipient.getDividendAmount(),
-                    recipient.getAverageReturnAmount(),
-                    recipient.getTotalAmount());
-        }
-
-        return sw.toString();
+        return toCsvString(csv -> {
+            csv.line(CSV_HEADER_DIVIDEND);
+            for (com.bansaiyai.bansaiyai.entity.DividendRecipient recipient : recipients) {
+                csv.field(recipient.getMember().getMemberId())
+                        .field(recipient.getMember().getName())
+                        .money(recipient.getShareCapitalSnapshot())
+                        .money(recipient.getInterestPaidSnapshot())
+                        .money(recipient.getDividendAmount())
+                        .money(recipient.getAverageReturnAmount())
+                        .money(recipient.getTotalAmount())
+                        .endRow();
+            }
+        });
     }
 
+    @BusinessMetric(value = "bansaiyai.export", operation = "memberStatementCsv")
     public String generateMemberStatementCsv(com.bansaiyai.bansaiyai.dto.report.MemberStatementDTO statement) {
-        StringWriter sw = new StringWriter();
-        PrintWriter pw = new PrintWriter(sw);
-
-        pw.println("Member Statement");
-        pw.println("Member Name," + escapeSpecialCharacters(statement.getMemberName()));
-        pw.println("Member ID," + statement.getMemberId());
-        pw.println("Period," + statement.getStartDate() + " to " + statement.getEndDate());
-        pw.println();
-        pw.println("Date,Description,Type,Debit,Credit,Balance");
-
-        for (com.bansaiyai.bansaiyai.dto.report.MemberStatementDTO.StatementItem item : statement.getItems()) {
-            pw.printf("%s,%s,%s,%.2f,%.2f,%s%n",
-                    item.getDate(),
-                    escapeSpecialCharacters(item.getDescription()),
-                    item.getType(),
-                    item.getDebit(),
-                    item.getCredit(),
-                    item.getBalance() != null ? String.format("%.2f", item.getBalance()) : "-");
-        }
-
-        pw.println();
-        pw.printf("Total,,,%.2f,%.2f,%n", statement.getTotalDebits(), statement.getTotalCredits());
-        pw.printf("Net Movement,,,,%.2f%n", statement.getTotalCredits().subtract(statement.getTotalDebits()));
+        return toCsvString(csv -> {
+            csv.line("Member Statement");
+            csv.raw("Member Name").field(statement.getMemberName()).endRow();
+            csv.raw("Member ID").field(statement.getMemberId()).endRow();
+            csv.raw("Period").field(statement.getStartDate() + " to " + statement.getEndDate()).endRow();
+            csv.endRow();
+            csv.line("Date,Description,Type,Debit,Credit,Balance");
+
+            for (com.bansaiyai.bansaiyai.dto.report.MemberStatementDTO.StatementItem item : statement.getItems()) {
+                csv.date(item.getDate())
+                        .field(item.getDescription())
+                        .field(item.getType())
+                        .money(item.getDebit())
+                        .money(item.getCredit());
+                if (item.getBalance() != null) {
+                    csv.money(item.getBalance());
+                } else {
+                    csv.raw("-");
+                }
+                csv.endRow();
+            }
+
+            csv.endRow();
+            csv.raw("Total").empty().empty().money(statement.getTotalDebits()).money(statement.getTotalCredits())
+                    .empty().endRow();
+            csv.raw("Net Movement").empty().empty().empty()
+                    .money(statement.getTotalCredits().subtract(statement.getTotalDebits())).endRow();
+        });
+    }
 
-        return sw.toString();
+    /**
+     * Stream the general ledger for a date range straight to {@code out}.
+     * Rows are read through a server-side cursor and written through a fixed
+     * buffer, so memory use does not depend on the number of entries.
+     *
+     * @param accountCode optional account filter; null exports every account
+     */
+    @Transactional(readOnly = true)
+    @BusinessMetric(value = "bansaiyai.export", operation = "ledgerCsv")
+    public void writeLedgerCsv(LocalDate startDate, LocalDate endDate, String accountCode, OutputStream out) {
+        try (Stream<Object[]> rows = accountingRepository.streamLedgerRows(startDate, endDate, accountCode);
+                CsvStreamWriter csv = new CsvStreamWriter(out)) {
+            csv.line(CSV_HEADER_LEDGER);
+            rows.forEach(row -> csv.date((LocalDate) row[0])
+                    .field((String) row[1])
+                    .field((String) row[2])
+                    .field((String) row[3])
+                    .money((BigDecimal) row[4])
+                    .money((BigDecimal) row[5])
+                    .field((String) row[6])
+                    .field((String) row[7])
+                    .field((String) row[8])
+                    .endRow());
+        }
     }
 
-    private String escapeSpecialCharacters(String data) {
-        if (data == null) {
-            return "";
+    /**
+     * Stream saving transactions for a date range into an Excel workbook
+     * written to {@code out}, using a database cursor and SXSSF so neither the
+     * rows nor the workbook are held in memory.
+     */
+    @Transactional(readOnly = true)
+    @BusinessMetric(value = "bansaiyai.export", operation = "savingTransactionsExcel")
+    public void writeSavingTransactionsExcel(LocalDate startDate, LocalDate endDate, OutputStream out) {
+        try (Stream<Object[]> rows = savingTransactionRepository.streamExportRows(startDate, endDate)) {
+            dataExportService.exportToExcel("Transactions", EXCEL_HEADERS_SAVING_TRANSACTIONS,
+                    rows.map(Arrays::asList), out);
         }
-        String escapedData = data.replaceAll("\\R", " ");
-        if (data.contains(",") || data.contains("\"") || data.contains("'")) {
-            data = data.replace("\"", "\"\"");
-            escapedData = "\"" + data + "\"";
+    }
+
+    private String toCsvString(Consumer<CsvStreamWriter> body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        try (CsvStreamWriter csv = new CsvStreamWriter(bytes, 8 * 1024)) {
+            body.accept(csv);
         }
-        return escapedData;
+        return bytes.toString(StandardCharsets.UTF_8);
     }
 }
@@ -0,0 +1,157 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.InstallmentSchedule;
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import com.bansaiyai.bansaiyai.repository.InstallmentScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Persisted amortization schedule of disbursed loans.
+ *
+ * The schedule is generated once, when the loan is disbursed, with the
+ * reducing balance installment of {@link Loan#calculateInstallment}; the
+ * last installment absorbs the rounding so principal due sums to the amount
+ * disbursed. Each repayment is allocated to the open installments oldest
+ * first, interest and principal separately, so due-date, arrears and
+ * next-payment questions are answered from indexed rows instead of
+ * recomputing the loan math.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class InstallmentScheduleService {
+
+  private final InstallmentScheduleRepository installmentScheduleRepository;
+
+  /**
+   * Generate and store the schedule of a disbursed loan. A loan that already
+   * has a schedule keeps it.
+   */
+  public List<InstallmentSchedule> generateSchedule(Loan loan) {
+    if (installmentScheduleRepository.existsByLoanId(loan.getId())) {
+      return installmentScheduleRepository.findByLoanIdOrderByInstallmentNo(loan.getId());
+    }
+    List<InstallmentSchedule> schedule = buildSchedule(loan.getId(), loan.getMember().getId(),
+        loan.getOutstandingBalance(), loan.getInterestRate(), loan.getTermMonths(), loan.getStartDate());
+    log.debug("Generated {} installments for loan {}", schedule.size(), loan.getLoanNumber());
+    return installmentScheduleRepository.saveAll(schedule);
+  }
+
+  static List<InstallmentSchedule> buildSchedule(Long loanId, Long memberId, BigDecimal principal,
+      BigDecimal annualRatePercent, int months, LocalDate startDate) {
+    BigDecimal monthlyRate = Loan.monthlyRate(annualRatePercent);
+    BigDecimal installment = Loan.calculateInstallment(principal, annualRatePercent, months);
+    List<InstallmentSchedule> schedule = new ArrayList<>(months);
+    BigDecimal balance = principal.setScale(2, RoundingMode.HALF_UP);
+    for (int no = 1; no <= months; no++) {
+      BigDecimal interest = balance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+      BigDecimal principalDue = no == months ? balance : installment.subtract(interest).min(balance);
+      BigDecimal closing = balance.subtract(principalDue);
+      schedule.add(InstallmentSchedule.builder()
+          .loanId(loanId)
+          .memberId(memberId)
+          .installmentNo(no)
+          .dueDate(startDate.plusMonths(no))
+          .openingBalance(balance)
+          .principalDue(principalDue)
+          .interestDue(interest)
+          .amountDue(principalDue.add(interest))
+          .closingBalance(closing)
+          .build());
+      balance = closing;
+    }
+    return schedule;
+  }
+
+  /**
+   * Allocate a repayment to the loan's open installments, oldest first.
+   * Interest and principal are applied to their own components; an
+   * installment is PAID once both are covered. Anything beyond the schedule
+   * is left to the loan's outstanding balance.
+   */
+  public void applyRepayment(Loan loan, BigDecimal principal, BigDecimal interest, LocalDate paidDate) {
+    BigDecimal principalLeft = principal != null ? principal : BigDecimal.ZERO;
+    BigDecimal interestLeft = interest != null ? interest : BigDecimal.ZERO;
+    if (loan.getId() == null || principalLeft.signum() <= 0 && interestLeft.signum() <= 0) {
+      return;
+    }
+
+    List<InstallmentSchedule> changed = new ArrayList<>();
+    for (InstallmentSchedule installment : installmentScheduleRepository
+        .findByLoanIdAndStatusNotOrderByInstallmentNo(loan.getId(), InstallmentStatus.PAID)) {
+      if (principalLeft.signum() <= 0 && interestLeft.signum() <= 0) {
+        break;
+      }
+      BigDecimal interestPart = interestLeft.min(installment.getInterestRemaining()).max(BigDecimal.ZERO);
+      BigDecimal principalPart = principalLeft.min(installment.getPrincipalRemaining()).max(BigDecimal.ZERO);
+      if (interestPart.signum() == 0 && principalPart.signum() == 0) {
+        continue;
+      }
+      installment.setInterestPaid(installment.getInterestPaid().add(interestPart));
+      installment.setPrincipalPaid(installment.getPrincipalPaid().add(principalPart));
+      interestLeft = interestLeft.subtract(interestPart);
+      principalLeft = principalLeft.subtract(principalPart);
+
+      if (installment.getAmountRemaining().signum() <= 0) {
+        installment.setStatus(InstallmentStatus.PAID);
+        installment.setPaidDate(paidDate);
+      } else {
+        installment.setStatus(InstallmentStatus.PARTIAL);
+      }
+      changed.add(installment);
+    }
+    installmentScheduleRepository.saveAll(changed);
+
+    if (principalLeft.signum() > 0 || interestLeft.signum() > 0) {
+      log.debug("Repayment on loan {} exceeds its schedule by principal {}, interest {}",
+          loan.getLoanNumber(), principalLeft, interestLeft);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public List<InstallmentSchedule> getSchedule(Long loanId) {
+    return installmentScheduleRepository.findByLoanIdOrderByInstallmentNo(loanId);
+  }
+
+  @Transactional(readOnly = true)
+  public Optional<InstallmentSchedule> findNextDueForLoan(Long loanId) {
+    return installmentScheduleRepository.findFirstByLoanIdAndStatusNotOrderByInstallmentNo(loanId,
+        InstallmentStatus.PAID);
+  }
+
+  /**
+   * A member's next payment: the earliest open installment over all their loans.
+   */
+  @Transactional(readOnly = true)
+  public Optional<InstallmentSchedule> findNextDueForMember(Long memberId) {
+    return installmentScheduleRepository.findFirstByMemberIdAndStatusNotOrderByDueDateAscInstallmentNoAsc(memberId,
+        InstallmentStatus.PAID);
+  }
+
+  /**
+   * Open installments due from Monday to Sunday of the week containing {@code today}.
+   */
+  @Transactional(readOnly = true)
+  public List<InstallmentSchedule> findDueThisWeek(LocalDate today) {
+    LocalDate monday = today.with(DayOfWeek.MONDAY);
+    return installmentScheduleRepository.findOpenDueBetween(monday, monday.plusDays(6));
+  }
+
+  @Transactional(readOnly = true)
+  public List<InstallmentSchedule> findArrears(LocalDate today) {
+    return installmentScheduleRepository.findInArrears(today);
+  }
+}
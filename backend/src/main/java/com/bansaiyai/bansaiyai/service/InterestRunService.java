@@ -0,0 +1,254 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.InterestRun;
+import com.bansaiyai.bansaiyai.entity.InterestRunChunk;
+import com.bansaiyai.bansaiyai.entity.SavingAccount;
+import com.bansaiyai.bansaiyai.entity.SavingTransaction;
+import com.bansaiyai.bansaiyai.entity.enums.InterestRunStatus;
+import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
+import com.bansaiyai.bansaiyai.exception.BusinessException;
+import com.bansaiyai.bansaiyai.repository.InterestRunChunkRepository;
+import com.bansaiyai.bansaiyai.repository.InterestRunRepository;
+import com.bansaiyai.bansaiyai.repository.SavingRepository;
+import com.bansaiyai.bansaiyai.repository.SavingTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Stream;
+
+/**
+ * Credits monthly savings interest in parallel, resumable chunks.
+ *
+ * A run for an as-of date lists the accounts due for interest and cuts them
+ * into {@link InterestRunChunk}s of consecutive IDs. Chunks are credited on
+ * the bounded {@code interestExecutor} pool, each in its own transaction:
+ * the chunk's accounts are loaded in one query, their balance history is
+ * streamed once to build each account's average daily balance, and the
+ * balance updates and INTEREST_CREDIT transactions are flushed as JDBC
+ * batches together with the chunk's COMPLETED status. Running the same date
+ * again skips completed chunks, so a failed or interrupted run is resumed
+ * by simply starting it again.
+ */
+@Service
+@Slf4j
+public class InterestRunService {
+
+  private static final DateTimeFormatter TXN_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+  private final InterestRunRepository runRepository;
+  private final InterestRunChunkRepository chunkRepository;
+  private final SavingRepository savingRepository;
+  private final SavingTransactionRepository transactionRepository;
+  private final MemberFinancialSummaryService memberFinancialSummaryService;
+  private final TransactionTemplate transactionTemplate;
+  private final Executor interestExecutor;
+
+  @Value("${app.interest.chunk-size:500}")
+  private int chunkSize;
+
+  public InterestRunService(InterestRunRepository runRepository,
+      InterestRunChunkRepository chunkRepository,
+      SavingRepository savingRepository,
+      SavingTransactionRepository transactionRepository,
+      MemberFinancialSummaryService memberFinancialSummaryService,
+      PlatformTransactionManager transactionManager,
+      @Qualifier("interestExecutor") Executor interestExecutor) {
+    this.runRepository = runRepository;
+    this.chunkRepository = chunkRepository;
+    this.savingRepository = savingRepository;
+    this.transactionRepository = transactionRepository;
+    this.memberFinancialSummaryService = memberFinancialSummaryService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.interestExecutor = interestExecutor;
+  }
+
+  /**
+   * Start, or resume, the interest run for a date and wait for it to finish.
+   * A run that already completed is returned unchanged.
+   */
+  public InterestRun runInterest(LocalDate asOfDate, String startedBy) {
+    InterestRun run = transactionTemplate.execute(status -> startOrResume(asOfDate, startedBy));
+    if (run.getStatus() == InterestRunStatus.COMPLETED) {
+      log.info("Interest run for {} already completed", asOfDate);
+      return run;
+    }
+
+    List<InterestRunChunk> chunks = chunkRepository
+        .findByRunIdAndStatusNotOrderByChunkIndex(run.getId(), InterestRunStatus.COMPLETED);
+    log.info("Interest run {} for {}: crediting {} of {} chunks", run.getId(), asOfDate,
+        chunks.size(), run.getTotalChunks());
+
+    CompletableFuture.allOf(chunks.stream()
+        .map(chunk -> CompletableFuture.runAsync(() -> creditChunkOrRecordFailure(chunk.getId(), asOfDate),
+            interestExecutor))
+        .toArray(CompletableFuture[]::new))
+        .join();
+
+    return transactionTemplate.execute(status -> finish(run.getId()));
+  }
+
+  private InterestRun startOrResume(LocalDate asOfDate, String startedBy) {
+    InterestRun existing = runRepository.findByAsOfDate(asOfDate).orElse(null);
+    if (existing != null) {
+      if (existing.getStatus() != InterestRunStatus.COMPLETED) {
+        existing.setStatus(InterestRunStatus.RUNNING);
+        existing.setLastError(null);
+      }
+      return existing;
+    }
+
+    List<Long> accountIds = savingRepository.findIdsRequiringInterest(asOfDate);
+    InterestRun run = runRepository.save(InterestRun.builder()
+        .asOfDate(asOfDate)
+        .status(InterestRunStatus.RUNNING)
+        .chunkSize(chunkSize)
+        .totalChunks((accountIds.size() + chunkSize - 1) / chunkSize)
+        .startedBy(startedBy)
+        .startedAt(LocalDateTime.now())
+        .build());
+
+    List<InterestRunChunk> chunks = new ArrayList<>(run.getTotalChunks());
+    for (int from = 0; from < accountIds.size(); from += chunkSize) {
+      int to = Math.min(from + chunkSize, accountIds.size()) - 1;
+      chunks.add(InterestRunChunk.builder()
+          .runId(run.getId())
+          .chunkIndex(from / chunkSize)
+          .firstAccountId(accountIds.get(from))
+          .lastAccountId(accountIds.get(to))
+          .status(InterestRunStatus.PENDING)
+          .build());
+    }
+    chunkRepository.saveAll(chunks);
+    return run;
+  }
+
+  private void creditChunkOrRecordFailure(Long chunkId, LocalDate asOfDate) {
+    try {
+      transactionTemplate.executeWithoutResult(status -> creditChunk(chunkId, asOfDate));
+    } catch (RuntimeException e) {
+      log.error("Interest chunk {} failed: {}", chunkId, e.getMessage(), e);
+      transactionTemplate.executeWithoutResult(status -> chunkRepository.findById(chunkId).ifPresent(chunk -> {
+        chunk.setStatus(InterestRunStatus.FAILED);
+        chunk.setLastError(truncate(e.getMessage()));
+      }));
+    }
+  }
+
+  /**
+   * Credit one chunk. Runs in its own transaction; the chunk row is locked so
+   * a concurrent resume of the same run waits and then finds it COMPLETED.
+   */
+  void creditChunk(Long chunkId, LocalDate asOfDate) {
+    InterestRunChunk chunk = chunkRepository.findForUpdate(chunkId)
+        .orElseThrow(() -> new BusinessException("Interest chunk not found: " + chunkId, "INTEREST_CHUNK_NOT_FOUND"));
+    if (chunk.getStatus() == InterestRunStatus.COMPLETED) {
+      return;
+    }
+
+    List<SavingAccount> accounts = savingRepository.findRequiringInterestInRange(
+        chunk.getFirstAccountId(), chunk.getLastAccountId(), asOfDate);
+    Map<Long, AverageDailyBalance> balances = new HashMap<>(accounts.size() * 2);
+    LocalDate earliestStart = asOfDate;
+    for (SavingAccount account : accounts) {
+      LocalDate start = periodStart(account);
+      balances.put(account.getId(), new AverageDailyBalance(start, asOfDate, account.getBalance()));
+      if (start.isBefore(earliestStart)) {
+        earliestStart = start;
+      }
+    }
+
+    try (Stream<Object[]> history = transactionRepository.streamBalanceHistory(
+        chunk.getFirstAccountId(), chunk.getLastAccountId(), earliestStart)) {
+      history.forEach(row -> {
+        AverageDailyBalance balance = balances.get((Long) row[0]);
+        if (balance != null) {
+          balance.accept((LocalDate) row[1], (BigDecimal) row[2], (BigDecimal) row[3]);
+        }
+      });
+    }
+
+    List<SavingTransaction> credits = new ArrayList<>();
+    BigDecimal chunkTotal = BigDecimal.ZERO;
+    for (SavingAccount account : accounts) {
+      BigDecimal interest = balances.get(account.getId()).interest(account.getInterestRate());
+      if (interest.signum() <= 0) {
+        continue;
+      }
+      BigDecimal balanceBefore = account.getBalance();
+      account.updateAvailableBalance(interest, true);
+      account.setLastInterestDate(asOfDate);
+      credits.add(SavingTransaction.builder()
+          .savingAccount(account)
+          .transactionNumber("INT-" + asOfDate.format(TXN_DATE) + "-" + account.getId())
+          .transactionType(TransactionType.INTEREST_CREDIT)
+          .amount(interest)
+          .description("Monthly interest credit")
+          .transactionDate(asOfDate)
+          .balanceBefore(balanceBefore)
+          .balanceAfter(account.getBalance())
+          .build());
+      memberFinancialSummaryService.markChanged(account.getMember().getId());
+      chunkTotal = chunkTotal.add(interest);
+    }
+    // Account updates flush with the transactions, both as JDBC batches
+    transactionRepository.saveAll(credits);
+
+    chunk.setStatus(InterestRunStatus.COMPLETED);
+    chunk.setAccountsCredited(credits.size());
+    chunk.setInterestTotal(chunkTotal);
+    chunk.setLastError(null);
+    chunk.setCompletedAt(LocalDateTime.now());
+    log.debug("Interest chunk {} credited {} of {} accounts, total {}", chunk.getChunkIndex(),
+        credits.size(), accounts.size(), chunkTotal);
+  }
+
+  private InterestRun finish(Long runId) {
+    InterestRun run = runRepository.findById(runId)
+        .orElseThrow(() -> new BusinessException("Interest run not found: " + runId, "INTEREST_RUN_NOT_FOUND"));
+    Object[] totals = chunkRepository.summarizeByRunIdAndStatus(runId, InterestRunStatus.COMPLETED).get(0);
+    int completed = ((Number) totals[0]).intValue();
+    run.setCompletedChunks(completed);
+    run.setAccountsCredited(((Number) totals[1]).intValue());
+    run.setTotalInterest((BigDecimal) totals[2]);
+
+    if (completed == run.getTotalChunks()) {
+      run.setStatus(InterestRunStatus.COMPLETED);
+      run.setCompletedAt(LocalDateTime.now());
+      log.info("Interest run {} for {} completed: {} accounts credited, total {}", runId,
+          run.getAsOfDate(), run.getAccountsCredited(), run.getTotalInterest());
+    } else {
+      run.setStatus(InterestRunStatus.FAILED);
+      run.setLastError((run.getTotalChunks() - completed) + " chunk(s) failed; run again to resume");
+      log.warn("Interest run {} for {}: {} of {} chunks completed", runId, run.getAsOfDate(),
+          completed, run.getTotalChunks());
+    }
+    return run;
+  }
+
+  private static LocalDate periodStart(SavingAccount account) {
+    return account.getLastInterestDate() != null ? account.getLastInterestDate() : account.getOpeningDate();
+  }
+
+  private static String truncate(String message) {
+    if (message == null) {
+      return null;
+    }
+    return message.length() <= 1000 ? message : message.substring(0, 1000);
+  }
+}
@@ -3,9 +3,16 @@ package com.bansaiyai.bansaiyai.service;
 import com.bansaiyai.bansaiyai.dto.LoanDocumentResponse;
 import com.bansaiyai.bansaiyai.entity.Collateral;
 import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.StoredBlob;
 import com.bansaiyai.bansaiyai.entity.enums.CollateralType;
 import com.bansaiyai.bansaiyai.repository.CollateralRepository;
 import com.bansaiyai.bansaiyai.repository.LoanRepository;
+import com.bansaiyai.bansaiyai.repository.StoredBlobRepository;
+import com.bansaiyai.bansaiyai.service.storage.BlobService;
+import com.bansaiyai.bansaiyai.service.storage.BlobStore;
+import com.bansaiyai.bansaiyai.service.storage.ImageRenditionService;
+import com.bansaiyai.bansaiyai.service.storage.Rendition;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -13,15 +20,15 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,6 +42,9 @@ public class LoanDocumentService {
 
     private final CollateralRepository collateralRepository;
     private final LoanRepository loanRepository;
+    private final BlobService blobService;
+    private final StoredBlobRepository storedBlobRepository;
+    private final ImageRenditionService imageRenditionService;
 
     @Value("${app.upload.loan-documents-dir:/opt/bansaiyai/uploads/loan-documents}")
     private String loanDocumentsDir;
@@ -51,6 +61,23 @@ public class LoanDocumentService {
     private static final List<String> ALLOWED_FILE_EXTENSIONS = List.of(
             ".pdf", ".jpg", ".jpeg", ".png");
 
+    /** Longest magic number checked (PNG) */
+    private static final int SIGNATURE_LENGTH = 8;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Relative storage path and SHA-256 (hex) of a saved document
+     */
+    private record StoredDocument(String path, String sha256) {
+    }
+
+    /**
+     * A document ready to be served, with its ETag
+     */
+    public record DocumentFile(RangedFileResponse.Body body, String etag) {
+    }
+
     /**
      * Upload collateral document for a loan
      */
@@ -68,11 +95,12 @@ public class LoanDocumentService {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new IllegalArgumentException("Loan not found: " + loanId));
 
-        // 2. Validate file
-        validateFile(file);
+        // 2. Validate file metadata
+        String extension = validateFile(file);
 
-        // 3. Save file to storage
-        String savedFilename = saveDocument(file, loanId);
+        // 3. Check the signature and save the file in one streaming pass
+        StoredDocument stored = saveDocument(file, extension, loanId);
+        String savedFilename = stored.path();
 
         // 4. Create collateral record
         Collateral collateral = Collateral.builder()
@@ -81,6 +109,7 @@ public class LoanDocumentService {
                 .description(description != null ? description : documentName)
                 .estimatedValue(BigDecimal.ZERO) // Placeholder
                 .documentPath(savedFilename)
+                .documentSha256(stored.sha256())
                 .ownershipDocument(documentName)
                 .isVerified(false)
                 .isReleased(false)
@@ -120,10 +149,8 @@ public class LoanDocumentService {
         Collateral collateral = collateralRepository.findById(documentId)
                 .orElseThrow(() -> new IllegalArgumentException("Document not found: " + documentId));
 
-        // Delete physical file
-        if (collateral.getDocumentPath() != null) {
-            deletePhysicalFile(collateral.getDocumentPath());
-        }
+        // Release the stored content
+        releaseDocument(collateral);
 
         // Delete database record
         collateralRepository.delete(collateral);
@@ -163,10 +190,8 @@ public class LoanDocumentService {
         Collateral collateral = collateralRepository.findByUuid(uuid)
                 .orElseThrow(() -> new IllegalArgumentException("Document not found"));
 
-        // Delete physical file
-        if (collateral.getDocumentPath() != null) {
-            deletePhysicalFile(collateral.getDocumentPath());
-        }
+        // Release the stored content
+        releaseDocument(collateral);
 
         // Delete database record
         collateralRepository.deleteByUuid(uuid);
@@ -179,9 +204,11 @@ public class LoanDocumentService {
     // ============================================================================
 
     /**
-     * Validate uploaded file
+     * Validate uploaded file metadata and return its lower-case extension.
+     * The content signature is checked by {@link #saveDocument} while
+     * streaming, so the upload is never read into memory here.
      */
-    private void validateFile(MultipartFile file) {
+    private String validateFile(MultipartFile file) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is required");
         }
@@ -222,22 +249,29 @@ public class LoanDocumentService {
                     "Invalid file extension. Allowed extensions: .pdf, .jpg, .jpeg, .png");
         }
 
-        // Security: Validate actual file content matches extension
-        // This prevents malicious files disguised with safe extensions
-        try {
-            byte[] fileBytes = file.getBytes();
-            if (fileBytes.length < 4) {
-                throw new IllegalArgumentException("File is too small to be valid");
-            }
+        return extension;
+    }
 
-            // Check file magic numbers (file signatures)
-            if (!isValidFileSignature(fileBytes, extension)) {
-                log.warn("File signature mismatch for file: {}, extension: {}", filename, extension);
-                throw new IllegalArgumentException(
-                        "File content does not match extension. Possible file type mismatch.");
-            }
-        } catch (IOException e) {
-            throw new IllegalArgumentException("Failed to read file content: " + e.getMessage());
+    /**
+     * Security: Validate actual file content matches extension by peeking at
+     * the leading bytes of the stream. This prevents malicious files
+     * disguised with safe extensions.
+     */
+    private void validateFileSignature(BufferedInputStream in, String filename, String extension)
+            throws IOException {
+        in.mark(SIGNATURE_LENGTH);
+        byte[] header = in.readNBytes(SIGNATURE_LENGTH);
+        in.reset();
+
+        if (header.length < 4) {
+            throw new IllegalArgumentException("File is too small to be valid");
+        }
+
+        // Check file magic numbers (file signatures)
+        if (!isValidFileSignature(header, extension)) {
+            log.warn("File signature mismatch for file: {}, extension: {}", filename, extension);
+            throw new IllegalArgumentException(
+                    "File content does not match extension. Possible file type mismatch.");
         }
     }
 
@@ -277,33 +311,22 @@ public class LoanDocumentService {
     }
 
     /**
-     * Save document to file system
+     * Save document to the blob store.
+     *
+     * The upload is read once: the signature is peeked from the head of the
+     * stream, then the body is streamed into the content-addressed store,
+     * which hashes it and keeps a single copy of identical content across
+     * loans. The relative path keeps the {loanId}/{filename} shape, with the
+     * SHA-256 as the filename, so document URLs are unchanged.
      */
-    private String saveDocument(MultipartFile file, Long loanId) {
-        try {
-            // Create directory structure: /loan-documents/{loanId}/
-            Path loanDir = Paths.get(loanDocumentsDir, loanId.toString());
-            if (!Files.exists(loanDir)) {
-                Files.createDirectories(loanDir);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : ".pdf";
-
-            String filename = String.format("%s_%s%s",
-                    UUID.randomUUID().toString(),
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")),
-                    extension);
+    private StoredDocument saveDocument(MultipartFile file, String extension, Long loanId) {
+        try (BufferedInputStream in = new BufferedInputStream(file.getInputStream(), COPY_BUFFER_SIZE)) {
+            validateFileSignature(in, file.getOriginalFilename(), extension);
 
-            // Save file
-            Path filePath = loanDir.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+            StoredBlob blob = blobService.store(in, maxFileSize);
 
-            // Return relative path: {loanId}/{filename}
-            return loanId + "/" + filename;
+            // Return relative path: {loanId}/{sha256}{extension}
+            return new StoredDocument(loanId + "/" + blob.getSha256() + extension, blob.getSha256());
 
         } catch (IOException e) {
             log.error("Failed to save document", e);
@@ -311,6 +334,37 @@ public class LoanDocumentService {
         }
     }
 
+    /**
+     * Whether a document's content lives in the blob store rather than as a
+     * file under the per-loan directory (documents uploaded before the blob
+     * store existed)
+     */
+    private static boolean isBlobBacked(Collateral collateral) {
+        String sha256 = collateral.getDocumentSha256();
+        String path = collateral.getDocumentPath();
+        return sha256 != null && path != null && baseName(path).equals(sha256);
+    }
+
+    /**
+     * Filename of a relative document path, without directory or extension
+     */
+    private static String baseName(String documentPath) {
+        String name = documentPath.substring(documentPath.lastIndexOf('/') + 1);
+        int lastDot = name.lastIndexOf('.');
+        return lastDot > 0 ? name.substring(0, lastDot) : name;
+    }
+
+    /**
+     * Give back a document's blob reference, or delete its legacy file
+     */
+    private void releaseDocument(Collateral collateral) {
+        if (isBlobBacked(collateral)) {
+            blobService.release(collateral.getDocumentSha256());
+        } else if (collateral.getDocumentPath() != null) {
+            deletePhysicalFile(collateral.getDocumentPath());
+        }
+    }
+
     /**
      * Delete physical file from storage
      */
@@ -334,13 +388,16 @@ public class LoanDocumentService {
         String documentUrl = collateral.getDocumentPath() != null
                 ? "/api/loans/documents/files/" + collateral.getDocumentPath()
                 : null;
+        boolean hasRenditions = isBlobBacked(collateral) && Rendition.supports(collateral.getDocumentPath());
 
         return LoanDocumentResponse.builder()
                 .documentUuid(collateral.getUuid().toString()) // Use UUID for security
                 .documentName(collateral.getOwnershipDocument())
                 .documentType(getFileExtension(collateral.getDocumentPath()))
                 .documentUrl(documentUrl)
-                .fileSize(getFileSize(collateral.getDocumentPath()))
+                .thumbnailUrl(hasRenditions ? Rendition.THUMBNAIL.url(documentUrl) : null)
+                .previewUrl(hasRenditions ? Rendition.PREVIEW.url(documentUrl) : null)
+                .fileSize(getFileSize(collateral))
                 .uploadedBy(collateral.getCreatedBy())
                 .uploadedAt(collateral.getCreatedAt() != null
                         ? collateral.getCreatedAt().toString()
@@ -363,10 +420,16 @@ public class LoanDocumentService {
     /**
      * Get file size from storage
      */
-    private Long getFileSize(String documentPath) {
+    private Long getFileSize(Collateral collateral) {
+        String documentPath = collateral.getDocumentPath();
         if (documentPath == null) {
             return null;
         }
+        if (isBlobBacked(collateral)) {
+            return storedBlobRepository.findById(collateral.getDocumentSha256())
+                    .map(StoredBlob::getSizeBytes)
+                    .orElse(null);
+        }
         try {
             Path filePath = Paths.get(loanDocumentsDir, documentPath);
             if (Files.exists(filePath)) {
@@ -379,10 +442,64 @@ public class LoanDocumentService {
     }
 
     /**
-     * Get physical file path for serving
+     * Resolve a document file of a loan for serving. Documents in the blob
+     * store are located by the hash in their filename; older documents are
+     * read from the per-loan directory. Empty when the file does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<DocumentFile> openDocumentFile(Long loanId, String filename) throws IOException {
+        String documentPath = loanId + "/" + filename;
+        String sha256 = baseName(documentPath);
+
+        if (BlobStore.isSha256(sha256)
+                && collateralRepository.existsByLoanIdAndDocumentSha256(loanId, sha256)) {
+            StoredBlob blob = storedBlobRepository.findById(sha256).orElse(null);
+            if (blob == null) {
+                return Optional.empty();
+            }
+            BlobStore store = blobService.blobStore();
+            RangedFileResponse.Body body = store.localPath(sha256)
+                    .map(RangedFileResponse::file)
+                    .orElseGet(() -> RangedFileResponse.stream(blob.getSizeBytes(),
+                            blob.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                            (start, count) -> store.open(sha256, start, count)));
+            return Optional.of(new DocumentFile(body, RangedFileResponse.strongEtag(sha256)));
+        }
+
+        // Security: Verify path is within the documents directory
+        Path baseDir = Paths.get(loanDocumentsDir).toAbsolutePath().normalize();
+        Path filePath = baseDir.resolve(documentPath).normalize();
+        if (!filePath.startsWith(baseDir)) {
+            log.warn("Path traversal attempt blocked: {}", documentPath);
+            return Optional.empty();
+        }
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            return Optional.empty();
+        }
+
+        List<String> hashes = collateralRepository.findDocumentSha256ByDocumentPath(documentPath);
+        String etag = hashes.isEmpty()
+                ? RangedFileResponse.weakEtag(filePath)
+                : RangedFileResponse.strongEtag(hashes.get(0));
+        return Optional.of(new DocumentFile(RangedFileResponse.file(filePath), etag));
+    }
+
+    /**
+     * Resolve a downscaled rendition of an image document, generating it on
+     * first request. Only documents in the blob store have renditions. Empty
+     * when the document does not exist or is not an image.
      */
-    public Path getDocumentPath(String documentPath) {
-        return Paths.get(loanDocumentsDir, documentPath).normalize();
+    @Transactional(readOnly = true)
+    public Optional<DocumentFile> openDocumentRendition(Long loanId, String filename, Rendition rendition)
+            throws IOException {
+        String sha256 = baseName(filename);
+        if (!Rendition.supports(filename) || !BlobStore.isSha256(sha256)
+                || !collateralRepository.existsByLoanIdAndDocumentSha256(loanId, sha256)) {
+            return Optional.empty();
+        }
+        return imageRenditionService.render(sha256, rendition)
+                .map(path -> new DocumentFile(RangedFileResponse.file(path),
+                        RangedFileResponse.strongEtag(sha256 + "-" + rendition.param())));
     }
 
     /**
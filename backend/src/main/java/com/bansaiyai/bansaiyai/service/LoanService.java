@@ -12,17 +12,25 @@ import com.bansaiyai.bansaiyai.exception.BusinessException;
 import com.bansaiyai.bansaiyai.exception.ResourceNotFoundException;
 import com.bansaiyai.bansaiyai.repository.LoanRepository;
 import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import com.bansaiyai.bansaiyai.repository.projection.LoanListRow;
+import com.bansaiyai.bansaiyai.util.SearchPatterns;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 
@@ -37,9 +45,16 @@ public class LoanService {
   private final com.bansaiyai.bansaiyai.repository.GuarantorRepository guarantorRepository;
   private final com.bansaiyai.bansaiyai.repository.LoanBalanceRepository loanBalanceRepository;
   private final SystemConfigService systemConfigService;
+  private final MemberFinancialSummaryService memberFinancialSummaryService;
+  private final InstallmentScheduleService installmentScheduleService;
   private static final BigDecimal MAX_LOAN_TO_SAVINGS_RATIO = new BigDecimal("3.0");
   private static final int MIN_TERM_MONTHS = 1;
   private static final int MAX_TERM_MONTHS = 120;
+  static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+  /** Use pg_trgm ranked search; disabled on databases without the extension (H2). */
+  @Value("${app.search.trigram-enabled:false}")
+  private boolean trigramSearchEnabled;
 
   /**
    * Get the maximum loan to savings ratio allowed.
@@ -60,7 +75,7 @@ public class LoanService {
   @Transactional(readOnly = true)
   public LoanResponse getLoanByUuid(UUID uuid) {
     log.debug("Getting loan by UUID: {}", uuid);
-    Loan loan = loanRepository.findByUuid(uuid)
+    Loan loan = loanRepository.findWithMemberByUuid(uuid)
         .orElseThrow(() -> new ResourceNotFoundException("Loan", "uuid", uuid.toString()));
     return convertToResponse(loan);
   }
@@ -80,6 +95,7 @@ public class LoanService {
     }
 
     loanRepository.delete(loan);
+    markLoanParties(loan);
     log.info("Loan UUID: {} deleted successfully", uuid);
   }
 
@@ -193,8 +209,10 @@ public class LoanService {
             .build();
 
         guarantorRepository.save(guarantorEntity);
+        memberFinancialSummaryService.markChanged(guarantorMember.getId());
       }
     }
+    memberFinancialSummaryService.markChanged(member.getId());
 
     log.info("Loan application created with number: {}", loanNumber);
     return convertToResponse(savedLoan);
@@ -248,6 +266,8 @@ public class LoanService {
     loan.setDisbursementReference(generateDisbursementReference());
 
     Loan savedLoan = loanRepository.save(loan);
+    installmentScheduleService.generateSchedule(savedLoan);
+    memberFinancialSummaryService.markChanged(savedLoan.getMember().getId());
     return convertToResponse(savedLoan);
   }
 
@@ -293,43 +313,85 @@ public class LoanService {
     }
 
     Loan savedLoan = loanRepository.save(loan);
+    markLoanParties(savedLoan);
     return convertToResponse(savedLoan);
   }
 
   @Transactional(readOnly = true)
   public Page<LoanResponse> getAllLoans(Pageable pageable) {
-    return loanRepository.findAll(pageable)
+    return loanRepository.findListRows(pageable)
         .map(this::convertToResponse);
   }
 
   @Transactional(readOnly = true)
   public Page<LoanResponse> getLoansByStatus(LoanStatus status, Pageable pageable) {
-    return loanRepository.findByStatus(status, pageable)
+    return loanRepository.findListRowsByStatus(status, pageable)
         .map(this::convertToResponse);
   }
 
   @Transactional(readOnly = true)
   public Page<LoanResponse> getLoansByMember(Long memberId, Pageable pageable) {
-    return loanRepository.findByMemberId(memberId, pageable)
+    return loanRepository.findListRowsByMemberId(memberId, pageable)
         .map(this::convertToResponse);
   }
 
+  /**
+   * Search loans by loan number, borrower name or purpose. Results come back
+   * as a Slice (content plus a "has next" flag) so no COUNT query is run;
+   * the page size is capped at {@link #MAX_SEARCH_PAGE_SIZE}. Use
+   * {@link #countSearchLoans} when the total is needed.
+   */
   @Transactional(readOnly = true)
-  public Page<LoanResponse> searchLoans(String keyword, Pageable pageable) {
-    return loanRepository.searchLoans(keyword, pageable)
-        .map(this::convertToResponse);
+  public Slice<LoanResponse> searchLoans(String keyword, int page, int size) {
+    String trimmed = searchKeyword(keyword);
+    Pageable pageable = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_SEARCH_PAGE_SIZE));
+    String pattern = SearchPatterns.contains(trimmed);
+    if (!trigramSearchEnabled) {
+      return loanRepository.searchLoans(pattern, pageable).map(this::convertToResponse);
+    }
+
+    // The ranked query returns ids only; load their rows in one statement
+    // and put them back in rank order
+    Slice<Long> ids = loanRepository.searchLoansRanked(trimmed, pattern, pageable);
+    if (ids.isEmpty()) {
+      return new SliceImpl<>(List.of(), pageable, false);
+    }
+    Map<Long, LoanListRow> rows = new HashMap<>();
+    for (LoanListRow row : loanRepository.findListRowsByIdIn(ids.getContent())) {
+      rows.put(row.loan().getId(), row);
+    }
+    return ids.map(rows::get).map(this::convertToResponse);
+  }
+
+  /**
+   * Number of loans {@link #searchLoans} matches for the keyword.
+   */
+  @Transactional(readOnly = true)
+  public long countSearchLoans(String keyword) {
+    String pattern = SearchPatterns.contains(searchKeyword(keyword));
+    return trigramSearchEnabled
+        ? loanRepository.countSearchLoansRanked(pattern)
+        : loanRepository.countSearchLoans(pattern);
+  }
+
+  private static String searchKeyword(String keyword) {
+    String trimmed = keyword == null ? "" : keyword.trim();
+    if (trimmed.isEmpty()) {
+      throw new BusinessException("Search keyword is required", "INVALID_KEYWORD");
+    }
+    return trimmed;
   }
 
   @Transactional(readOnly = true)
   public Page<LoanResponse> getLoansByType(LoanType loanType, Pageable pageable) {
-    return loanRepository.findByLoanType(loanType, pageable)
+    return loanRepository.findListRowsByLoanType(loanType, pageable)
         .map(this::convertToResponse);
   }
 
   @Transactional(readOnly = true)
   public LoanResponse getLoanById(Long id) {
     log.debug("Getting loan by ID: {}", id);
-    Loan loan = loanRepository.findById(id)
+    Loan loan = loanRepository.findWithMemberById(id)
         .orElseThrow(() -> new ResourceNotFoundException("Loan", "id", id));
     return convertToResponse(loan);
   }
@@ -379,6 +441,7 @@ public class LoanService {
     }
 
     loanRepository.delete(loan);
+    markLoanParties(loan);
     log.info("Loan ID: {} deleted successfully", id);
   }
 
@@ -436,7 +499,7 @@ public class LoanService {
 
     BigDecimal totalPayoff = outstanding.add(accruedInterest).add(penalty);
 
-    java.util.Map<String, BigDecimal> result = new java.util.HashMap<>();
+    java.util.Map<String, BigDecimal> result = new HashMap<>();
     result.put("principal", outstanding);
     result.put("interest", accruedInterest);
     result.put("penalty", penalty);
@@ -453,8 +516,7 @@ public class LoanService {
     }
 
     // Check existing active loans
-    List<Loan> activeLoans = loanRepository.findByMemberIdAndStatus(memberId, LoanStatus.ACTIVE);
-    if (!activeLoans.isEmpty()) {
+    if (memberFinancialSummaryService.getSummary(memberId).getActiveLoanCount() > 0) {
       return false;
     }
 
@@ -480,6 +542,17 @@ public class LoanService {
 
   // Helper methods
 
+  /**
+   * Refresh the financial summaries of the borrower and every guarantor.
+   */
+  private void markLoanParties(Loan loan) {
+    memberFinancialSummaryService.markChanged(loan.getMember().getId());
+    if (loan.getGuarantors() != null) {
+      loan.getGuarantors().forEach(guarantor -> memberFinancialSummaryService.markChanged(
+          guarantor.getMember().getId()));
+    }
+  }
+
   private String generateLoanNumber() {
     String prefix = "LN";
     String year = String.valueOf(LocalDate.now().getYear());
@@ -511,11 +584,24 @@ public class LoanService {
   }
 
   private LoanResponse convertToResponse(Loan loan) {
+    return convertToResponse(loan, loan.getMember() != null ? loan.getMember().getName() : null);
+  }
+
+  private LoanResponse convertToResponse(LoanListRow row) {
+    return convertToResponse(row.loan(), row.memberName());
+  }
+
+  /**
+   * Map a loan, taking the borrower's name from the caller so listings can
+   * supply it from their own select. Only the member id is read from the
+   * association, which does not initialize a lazy proxy.
+   */
+  private LoanResponse convertToResponse(Loan loan, String memberName) {
     return LoanResponse.builder()
         .id(loan.getId())
         .loanNumber(loan.getLoanNumber())
         .memberId(loan.getMember() != null ? loan.getMember().getId() : null)
-        .memberName(loan.getMember() != null ? loan.getMember().getName() : null)
+        .memberName(memberName)
         .loanType(loan.getLoanType())
         .principalAmount(loan.getPrincipalAmount())
         .approvedAmount(loan.getApprovedAmount())
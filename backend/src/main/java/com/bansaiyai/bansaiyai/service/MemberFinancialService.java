@@ -16,6 +16,7 @@ import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -71,44 +72,22 @@ public class MemberFinancialService {
     }
 
     private List<LoanAccountDTO> buildLoanAccountDTOs(Member member) {
-        if (member.getLoans() == null) {
+        if (member.getLoans() == null || member.getLoans().isEmpty()) {
             return new ArrayList<>();
         }
 
+        // Payments of all the member's loans in one query rather than
+        // initializing each loan's payments collection
+        List<Long> loanIds = member.getLoans().stream().map(Loan::getId).toList();
+        Map<Long, List<Payment>> paymentsByLoan = paymentRepository.findByLoanIdIn(loanIds).stream()
+                .collect(Collectors.groupingBy(p -> p.getLoan().getId()));
+
         return member.getLoans().stream()
-                .map(this::mapLoanToDTO)
+                .map(loan -> mapLoanToDTO(loan, paymentsByLoan.getOrDefault(loan.getId(), new ArrayList<>())))
                 .collect(Collectors.toList());
     }
 
-    private LoanAccountDTO mapLoanToDTO(Loan loan) {
-        // We need loan-related payments.
-        // PaymentRepository has findLoanPaymentsByLoan which takes a list of types.
-        // However, findByLoanId might be simpler if we just want all payments for that
-        // loan.
-        // Let's use findByLoanId (via filtered stream or if repository supports it
-        // without pageable,
-        // actually repository has findByLoanId with Pageable, or findLoanPaymentsByLoan
-        // which is better).
-
-        // Using findLoanPaymentsByLoan requires passing list of types.
-        List<PaymentType> loanTypes = List.of(
-                PaymentType.LOAN_PRINCIPAL,
-                PaymentType.LOAN_INTEREST,
-                PaymentType.LOAN_PAYMENT, // Assuming generic type exists or combined
-                PaymentType.LOAN_FEE,
-                PaymentType.LOAN_PENALTY);
-
-        // Since findLoanPaymentsByLoan might fail if types don't match exactly what's
-        // in DB,
-        // let's grab all payments for the loan via entity relationship if possible,
-        // or use the repository method if we are sure about types.
-        // Loan entity has @OneToMany payments list. Use that!
-
-        List<Payment> loanPayments = loan.getPayments();
-        if (loanPayments == null) {
-            loanPayments = new ArrayList<>();
-        }
-
+    private LoanAccountDTO mapLoanToDTO(Loan loan, List<Payment> loanPayments) {
         // Sort descending
         loanPayments.sort(Comparator.comparing(Payment::getPaymentDate).reversed());
 
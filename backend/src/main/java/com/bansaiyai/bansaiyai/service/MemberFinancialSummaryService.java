@@ -0,0 +1,242 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.MemberFinancialSummary;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.repository.MemberFinancialSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Maintains {@link MemberFinancialSummary} rows.
+ *
+ * Posting services call {@link #markChanged(Long)} for every member whose
+ * savings, share capital, loans, payments or guarantees they touch. The
+ * member's row is recomputed once, just before the posting transaction
+ * commits, from the member's own (indexed) rows, so several postings in one
+ * transaction cost a single refresh and a failed posting leaves the summary
+ * untouched. A nightly job re-derives every row with grouped queries and
+ * repairs any drift, e.g. from writes that bypassed the posting services.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberFinancialSummaryService {
+
+  private static final Object PENDING_KEY = MemberFinancialSummaryService.class.getName() + ".pending";
+
+  private final MemberFinancialSummaryRepository summaryRepository;
+
+  @Value("${app.persistence.insert-on-conflict-enabled:false}")
+  private boolean insertOnConflictEnabled;
+
+  /**
+   * Read a member's summary. Members without a stored row (created outside
+   * the posting services and not yet verified) are computed on the fly.
+   */
+  @Transactional(readOnly = true)
+  public MemberFinancialSummary getSummary(Long memberId) {
+    return summaryRepository.findById(memberId).orElseGet(() -> compute(memberId));
+  }
+
+  /**
+   * Schedule a refresh of the member's summary before the current
+   * transaction commits; refreshes immediately when there is none.
+   */
+  public void markChanged(Long memberId) {
+    if (memberId == null) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      refresh(memberId);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<Long> pending = (Set<Long>) TransactionSynchronizationManager.getResource(PENDING_KEY);
+    if (pending == null) {
+      // Sorted so concurrent transactions lock summary rows in the same order
+      Set<Long> members = new TreeSet<>();
+      TransactionSynchronizationManager.bindResource(PENDING_KEY, members);
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void beforeCommit(boolean readOnly) {
+          members.forEach(MemberFinancialSummaryService.this::refresh);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+          TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_KEY);
+        }
+      });
+      pending = members;
+    }
+    pending.add(memberId);
+  }
+
+  /**
+   * Recompute and store one member's summary. The row is locked before the
+   * aggregates are read, so concurrent postings for the same member cannot
+   * overwrite each other with stale figures. On PostgreSQL a missing row is
+   * first created with ON CONFLICT DO NOTHING, so the first postings for a
+   * member also serialize on it instead of racing to insert it.
+   */
+  @Transactional
+  public MemberFinancialSummary refresh(Long memberId) {
+    if (insertOnConflictEnabled) {
+      summaryRepository.insertIfMissing(memberId);
+    }
+    MemberFinancialSummary row = summaryRepository.findForUpdate(memberId).orElse(null);
+    Map<Long, MemberFinancialSummary> computed = aggregate(
+        summaryRepository.shareCapitalByMember(memberId),
+        summaryRepository.savingsByMember(memberId),
+        summaryRepository.loansByMember(memberId, LoanStatus.ACTIVE),
+        summaryRepository.nextDueByMember(memberId, LoanStatus.ACTIVE, InstallmentStatus.PAID),
+        summaryRepository.guaranteesByMember(memberId),
+        summaryRepository.lastPaymentByMember(memberId, PaymentStatus.COMPLETED));
+    MemberFinancialSummary fresh = computed.get(memberId);
+
+    if (fresh == null) {
+      // Member no longer exists
+      if (row != null) {
+        summaryRepository.delete(row);
+      }
+      return MemberFinancialSummary.empty(memberId);
+    }
+    if (row == null) {
+      return summaryRepository.save(fresh);
+    }
+    row.copyFiguresFrom(fresh);
+    return row;
+  }
+
+  /**
+   * Re-derive every member's summary with grouped queries and repair rows
+   * that are missing, stale or orphaned.
+   *
+   * @return number of rows created, corrected or removed
+   */
+  @Scheduled(cron = "${app.member-summary.verify-cron:0 30 1 * * ?}")
+  @Transactional
+  public int verifyAndRepair() {
+    Map<Long, MemberFinancialSummary> expected = aggregate(
+        summaryRepository.shareCapitalGroupByMember(),
+        summaryRepository.savingsGroupByMember(),
+        summaryRepository.loansGroupByMember(LoanStatus.ACTIVE),
+        summaryRepository.nextDueGroupByMember(LoanStatus.ACTIVE, InstallmentStatus.PAID),
+        summaryRepository.guaranteesGroupByMember(),
+        summaryRepository.lastPaymentGroupByMember(PaymentStatus.COMPLETED));
+
+    Map<Long, MemberFinancialSummary> stored = new HashMap<>();
+    for (MemberFinancialSummary summary : summaryRepository.findAll()) {
+      stored.put(summary.getMemberId(), summary);
+    }
+
+    int repaired = 0;
+    for (MemberFinancialSummary summary : expected.values()) {
+      MemberFinancialSummary current = stored.remove(summary.getMemberId());
+      if (current == null || !current.sameFiguresAs(summary)) {
+        // Re-derive under the row lock: a posting may have committed since
+        // the grouped snapshot above was read
+        refresh(summary.getMemberId());
+        repaired++;
+        if (current != null) {
+          log.warn("Member financial summary drift corrected for member {}", summary.getMemberId());
+        }
+      }
+    }
+    for (MemberFinancialSummary orphan : stored.values()) {
+      summaryRepository.delete(orphan);
+      repaired++;
+    }
+
+    log.info("Verified {} member financial summaries, repaired {}", expected.size(), repaired);
+    return repaired;
+  }
+
+  private MemberFinancialSummary compute(Long memberId) {
+    MemberFinancialSummary summary = aggregate(
+        summaryRepository.shareCapitalByMember(memberId),
+        summaryRepository.savingsByMember(memberId),
+        summaryRepository.loansByMember(memberId, LoanStatus.ACTIVE),
+        summaryRepository.nextDueByMember(memberId, LoanStatus.ACTIVE, InstallmentStatus.PAID),
+        summaryRepository.guaranteesByMember(memberId),
+        summaryRepository.lastPaymentByMember(memberId, PaymentStatus.COMPLETED))
+        .get(memberId);
+    return summary != null ? summary : MemberFinancialSummary.empty(memberId);
+  }
+
+  /**
+   * Fold aggregate rows (each keyed by member id in column 0) into one
+   * summary per member. Members come from the share capital rows; aggregate
+   * rows for unknown members are ignored.
+   */
+  static Map<Long, MemberFinancialSummary> aggregate(List<Object[]> shareCapitalRows,
+      List<Object[]> savingsRows, List<Object[]> loanRows, List<Object[]> nextDueRows,
+      List<Object[]> guaranteeRows, List<Object[]> lastPaymentRows) {
+    Map<Long, MemberFinancialSummary> summaries = new HashMap<>(shareCapitalRows.size() * 2);
+    LocalDateTime now = LocalDateTime.now();
+    for (Object[] row : shareCapitalRows) {
+      MemberFinancialSummary summary = MemberFinancialSummary.empty(memberId(row));
+      summary.setShareCapital(money(row[1]));
+      summary.setUpdatedAt(now);
+      summaries.put(summary.getMemberId(), summary);
+    }
+
+    apply(savingsRows, summaries::get, (summary, row) -> {
+      summary.setTotalSavings(money(row[1]));
+      summary.setSavingsAccountCount(count(row[2]));
+    });
+    apply(loanRows, summaries::get, (summary, row) -> {
+      summary.setOutstandingPrincipal(money(row[1]));
+      summary.setActiveLoanCount(count(row[2]));
+      summary.setLoanCount(count(row[3]));
+    });
+    apply(nextDueRows, summaries::get, (summary, row) -> summary.setNextDueDate((LocalDate) row[1]));
+    apply(guaranteeRows, summaries::get, (summary, row) -> summary.setGuaranteedExposure(money(row[1])));
+    apply(lastPaymentRows, summaries::get, (summary, row) -> summary.setLastPaymentDate((LocalDate) row[1]));
+    return summaries;
+  }
+
+  private static void apply(List<Object[]> rows, Function<Long, MemberFinancialSummary> lookup,
+      BiConsumer<MemberFinancialSummary, Object[]> setter) {
+    for (Object[] row : rows) {
+      MemberFinancialSummary summary = lookup.apply(memberId(row));
+      if (summary != null) {
+        setter.accept(summary, row);
+      }
+    }
+  }
+
+  private static Long memberId(Object[] row) {
+    return ((Number) row[0]).longValue();
+  }
+
+  private static BigDecimal money(Object value) {
+    BigDecimal amount = value instanceof BigDecimal ? (BigDecimal) value
+        : value == null ? BigDecimal.ZERO : new BigDecimal(value.toString());
+    return amount.setScale(2, RoundingMode.HALF_UP);
+  }
+
+  private static int count(Object value) {
+    return value == null ? 0 : ((Number) value).intValue();
+  }
+}
@@ -0,0 +1,343 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.dashboard.MemberSearchResultDTO;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory, copy-on-write index over the fields tellers search members by:
+ * member ID, name tokens (Thai or Latin), ID card and phone.
+ *
+ * Readers take the current immutable snapshot without locking. Writers build
+ * a new snapshot under a lock and publish it through a volatile field, so a
+ * lookup never sees a half-applied change. Prefix lookups binary-search a
+ * sorted key array; substring lookups fall back to a scan of the snapshot.
+ *
+ * The index is patched by {@link MemberSearchIndexListener} whenever a
+ * member insert, update or delete commits, and fully rebuilt on a schedule
+ * to pick up writes made outside this node's persistence context (seeders,
+ * bulk imports, other application nodes).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberSearchIndex {
+
+  /** Upper bound on results per lookup, whatever the caller asks for. */
+  static final int MAX_RESULTS = 50;
+
+  private static final int SCORE_EXACT = 3;
+  private static final int SCORE_PREFIX = 2;
+  private static final int SCORE_SUBSTRING = 1;
+
+  /** Thai honorifics often typed without a space before the given name. */
+  private static final String[] THAI_TITLES = { "นางสาว", "น.ส.", "นาง", "นาย" };
+
+  private final MemberRepository memberRepository;
+
+  private final Object writeLock = new Object();
+  private volatile Snapshot snapshot;
+
+  /**
+   * Find up to {@code limit} members whose member ID, name, ID card or phone
+   * matches every whitespace-separated token of {@code query}. Exact key
+   * matches rank first, then prefix matches, then substring matches; ties
+   * prefer active members, then member ID order.
+   */
+  public List<MemberSearchResultDTO> search(String query, int limit) {
+    String[] tokens = tokenize(query);
+    if (tokens.length == 0 || limit <= 0) {
+      return List.of();
+    }
+    return current().search(tokens, Math.min(limit, MAX_RESULTS));
+  }
+
+  /**
+   * Reload the whole index from the database.
+   */
+  public void rebuild() {
+    synchronized (writeLock) {
+      // Query under the lock so a patch committed meanwhile is not overwritten
+      List<Object[]> rows = memberRepository.findSearchIndexRows();
+      Map<Long, Entry> entries = new HashMap<>(rows.size() * 2);
+      for (Object[] row : rows) {
+        Entry entry = new Entry((Long) row[0], (String) row[1], (String) row[2], (String) row[3],
+            (String) row[4], (String) row[5], Boolean.TRUE.equals(row[6]));
+        entries.put(entry.id, entry);
+      }
+      snapshot = Snapshot.build(entries);
+      log.info("Member search index rebuilt with {} members", entries.size());
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${app.member-search.refresh-interval-ms:900000}",
+      initialDelayString = "${app.member-search.refresh-interval-ms:900000}")
+  public void scheduledRebuild() {
+    try {
+      rebuild();
+    } catch (Exception e) {
+      log.error("Failed to rebuild member search index", e);
+    }
+  }
+
+  /**
+   * Add or replace a member whose changes have committed. Deactivated
+   * members stay searchable and are reported as inactive.
+   */
+  void committed(Member member) {
+    Entry entry = new Entry(member.getId(), member.getMemberId(), member.getName(), member.getIdCard(),
+        member.getPhone(), member.getPhotoPath(), Boolean.TRUE.equals(member.getIsActive()));
+    patch(entry, entry.id);
+  }
+
+  /**
+   * Drop a member whose deletion has committed.
+   */
+  void removed(Long memberId) {
+    patch(null, memberId);
+  }
+
+  int size() {
+    Snapshot current = snapshot;
+    return current == null ? 0 : current.entries.length;
+  }
+
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      synchronized (writeLock) {
+        if (snapshot == null) {
+          rebuild();
+        }
+        current = snapshot;
+      }
+    }
+    return current;
+  }
+
+  private void patch(Entry entry, Long id) {
+    synchronized (writeLock) {
+      Snapshot current = snapshot;
+      if (current == null) {
+        // Not loaded yet; the first search reads the committed state anyway
+        return;
+      }
+      Map<Long, Entry> entries = new HashMap<>(current.byId);
+      if (entry != null) {
+        entries.put(id, entry);
+      } else {
+        entries.remove(id);
+      }
+      snapshot = Snapshot.build(entries);
+    }
+  }
+
+  /**
+   * NFC-normalize, lower-case and split on whitespace. Dashes are dropped
+   * from numeric tokens so "1-2345-67890-12-3" matches a stored ID card.
+   */
+  static String[] tokenize(String text) {
+    if (text == null) {
+      return new String[0];
+    }
+    String normalized = normalize(text);
+    if (normalized.isEmpty()) {
+      return new String[0];
+    }
+    String[] tokens = normalized.split(" ");
+    for (int i = 0; i < tokens.length; i++) {
+      if (tokens[i].indexOf('-') >= 0 && tokens[i].replace("-", "").chars().allMatch(Character::isDigit)) {
+        tokens[i] = tokens[i].replace("-", "");
+      }
+    }
+    return tokens;
+  }
+
+  private static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    return Normalizer.normalize(text, Normalizer.Form.NFC)
+        .toLowerCase(Locale.ROOT)
+        .trim()
+        .replaceAll("\\s+", " ");
+  }
+
+  /**
+   * One member's searchable fields, normalized once at index time.
+   */
+  private static final class Entry {
+    private final Long id;
+    private final String memberId;
+    private final String name;
+    private final String photoPath;
+    private final boolean active;
+    private final String[] keys;
+    private final String haystack;
+
+    private Entry(Long id, String memberId, String name, String idCard, String phone, String photoPath,
+        boolean active) {
+      this.id = id;
+      this.memberId = memberId != null ? memberId : "";
+      this.name = name != null ? name : "";
+      this.photoPath = photoPath;
+      this.active = active;
+
+      String normalizedId = normalize(memberId);
+      String normalizedName = normalize(name);
+      String normalizedIdCard = normalize(idCard);
+      String normalizedPhone = normalize(phone);
+
+      Set<String> keySet = new LinkedHashSet<>();
+      keySet.add(normalizedId);
+      keySet.add(normalizedIdCard);
+      keySet.add(normalizedPhone);
+      keySet.add(normalizedName);
+      for (String token : normalizedName.split(" ")) {
+        keySet.add(token);
+        String untitled = stripTitle(token);
+        if (untitled != null) {
+          keySet.add(untitled);
+        }
+      }
+      keySet.remove("");
+      this.keys = keySet.toArray(new String[0]);
+      this.haystack = normalizedId + '\n' + normalizedName + '\n' + normalizedIdCard + '\n' + normalizedPhone;
+    }
+
+    private static String stripTitle(String token) {
+      for (String title : THAI_TITLES) {
+        if (token.length() > title.length() && token.startsWith(title)) {
+          return token.substring(title.length());
+        }
+      }
+      return null;
+    }
+
+    private boolean containsAll(String[] tokens, int from) {
+      for (int i = from; i < tokens.length; i++) {
+        if (!haystack.contains(tokens[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private MemberSearchResultDTO toResult() {
+      int space = name.indexOf(' ');
+      return new MemberSearchResultDTO(
+          id,
+          space < 0 ? name : name.substring(0, space),
+          space < 0 ? "" : name.substring(space + 1),
+          photoPath != null ? photoPath : "/default-avatar.png",
+          active ? "Active" : "Inactive");
+    }
+  }
+
+  /**
+   * Immutable view of the index. Entries are ordered active-first, then by
+   * member ID, so an entry's position doubles as its tie-break rank.
+   */
+  private static final class Snapshot {
+    private final Map<Long, Entry> byId;
+    private final Entry[] entries;
+    private final String[] keys;
+    private final int[] keyOwners;
+
+    private Snapshot(Map<Long, Entry> byId, Entry[] entries, String[] keys, int[] keyOwners) {
+      this.byId = byId;
+      this.entries = entries;
+      this.keys = keys;
+      this.keyOwners = keyOwners;
+    }
+
+    private static Snapshot build(Map<Long, Entry> byId) {
+      Entry[] entries = byId.values().toArray(new Entry[0]);
+      Arrays.sort(entries, Comparator.comparing((Entry e) -> !e.active).thenComparing(e -> e.memberId));
+
+      int keyCount = 0;
+      for (Entry entry : entries) {
+        keyCount += entry.keys.length;
+      }
+      KeyRef[] refs = new KeyRef[keyCount];
+      int k = 0;
+      for (int i = 0; i < entries.length; i++) {
+        for (String key : entries[i].keys) {
+          refs[k++] = new KeyRef(key, i);
+        }
+      }
+      Arrays.sort(refs, Comparator.comparing(KeyRef::key));
+
+      String[] keys = new String[keyCount];
+      int[] keyOwners = new int[keyCount];
+      for (int i = 0; i < keyCount; i++) {
+        keys[i] = refs[i].key();
+        keyOwners[i] = refs[i].owner();
+      }
+      return new Snapshot(Map.copyOf(byId), entries, keys, keyOwners);
+    }
+
+    private List<MemberSearchResultDTO> search(String[] tokens, int limit) {
+      // entry position -> best score
+      Map<Integer, Integer> hits = new HashMap<>();
+      String first = tokens[0];
+
+      for (int i = lowerBound(first); i < keys.length && keys[i].startsWith(first); i++) {
+        int owner = keyOwners[i];
+        if (entries[owner].containsAll(tokens, 1)) {
+          int score = keys[i].length() == first.length() ? SCORE_EXACT : SCORE_PREFIX;
+          hits.merge(owner, score, Math::max);
+        }
+      }
+
+      // Entries are in rank order, so the first substring hits are the best ones
+      for (int i = 0; i < entries.length && hits.size() < limit; i++) {
+        if (!hits.containsKey(i) && entries[i].containsAll(tokens, 0)) {
+          hits.put(i, SCORE_SUBSTRING);
+        }
+      }
+
+      List<Map.Entry<Integer, Integer>> ranked = new ArrayList<>(hits.entrySet());
+      ranked.sort(Map.Entry.<Integer, Integer>comparingByValue().reversed()
+          .thenComparing(Map.Entry.comparingByKey()));
+
+      List<MemberSearchResultDTO> results = new ArrayList<>(Math.min(limit, ranked.size()));
+      for (int i = 0; i < ranked.size() && i < limit; i++) {
+        results.add(entries[ranked.get(i).getKey()].toResult());
+      }
+      return results;
+    }
+
+    private int lowerBound(String prefix) {
+      int lo = 0;
+      int hi = keys.length;
+      while (lo < hi) {
+        int mid = (lo + hi) >>> 1;
+        if (keys[mid].compareTo(prefix) < 0) {
+          lo = mid + 1;
+        } else {
+          hi = mid;
+        }
+      }
+      return lo;
+    }
+
+    private record KeyRef(String key, int owner) {
+    }
+  }
+}
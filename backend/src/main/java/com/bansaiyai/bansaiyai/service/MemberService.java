@@ -2,10 +2,15 @@ package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.entity.Member;
 import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import com.bansaiyai.bansaiyai.util.SearchPatterns;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,8 +29,13 @@ import java.util.UUID;
 public class MemberService {
 
   private final MemberRepository memberRepository;
-  private final com.bansaiyai.bansaiyai.repository.LoanRepository loanRepository;
-  private final com.bansaiyai.bansaiyai.repository.GuarantorRepository guarantorRepository;
+  private final MemberFinancialSummaryService memberFinancialSummaryService;
+
+  static final int MAX_SEARCH_RESULTS = 100;
+
+  /** Use pg_trgm ranked search; disabled on databases without the extension (H2). */
+  @Value("${app.search.trigram-enabled:false}")
+  private boolean trigramSearchEnabled;
 
   public Page<Member> getAllMembers(Pageable pageable) {
     log.debug("Fetching all members with pagination: {}", pageable);
@@ -86,7 +96,9 @@ public class MemberService {
       }
     }
 
-    return memberRepository.save(member);
+    Member saved = memberRepository.save(member);
+    memberFinancialSummaryService.markChanged(saved.getId());
+    return saved;
   }
 
   @Transactional(readOnly = true)
@@ -94,18 +106,10 @@ public class MemberService {
     Member member = memberRepository.findById(memberId)
         .orElseThrow(() -> new com.bansaiyai.bansaiyai.exception.ResourceNotFoundException("Member", "id", memberId));
 
-    // Calculate Total Debt (Active Loans)
-    java.math.BigDecimal totalDebt = loanRepository
-        .findByMemberIdAndStatus(memberId, com.bansaiyai.bansaiyai.entity.enums.LoanStatus.ACTIVE)
-        .stream()
-        .map(l -> l.getOutstandingBalance() != null ? l.getOutstandingBalance() : java.math.BigDecimal.ZERO)
-        .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
-
-    // Calculate Total Guaranteed Amount (Active Guarantees)
-    java.math.BigDecimal totalGuaranteed = guarantorRepository.findByMemberIdAndIsActive(memberId, true)
-        .stream()
-        .map(g -> g.getGuaranteedAmount() != null ? g.getGuaranteedAmount() : java.math.BigDecimal.ZERO)
-        .reduce(java.math.BigDecimal.ZERO, java.math.BigDecimal::add);
+    com.bansaiyai.bansaiyai.entity.MemberFinancialSummary summary = memberFinancialSummaryService
+        .getSummary(memberId);
+    java.math.BigDecimal totalDebt = summary.getOutstandingPrincipal();
+    java.math.BigDecimal totalGuaranteed = summary.getGuaranteedExposure();
 
     java.math.BigDecimal netLiability = totalDebt.add(totalGuaranteed);
 
@@ -133,8 +137,21 @@ public class MemberService {
     memberRepository.deleteById(id);
   }
 
-  public List<Member> searchMembers(String keyword) {
-    return memberRepository.searchMembers(keyword);
+  /**
+   * Search members by member ID, name, ID card, email or phone, returning at
+   * most {@code limit} rows (capped at {@link #MAX_SEARCH_RESULTS}). The Slice
+   * reports whether more matches exist without running a COUNT query.
+   */
+  public Slice<Member> searchMembers(String keyword, int limit) {
+    String trimmed = keyword == null ? "" : keyword.trim();
+    Pageable pageable = PageRequest.of(0, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+    if (trimmed.isEmpty()) {
+      return new SliceImpl<>(List.of(), pageable, false);
+    }
+    String pattern = SearchPatterns.contains(trimmed);
+    return trigramSearchEnabled
+        ? memberRepository.searchMembersRanked(trimmed, pattern, pageable)
+        : memberRepository.searchMembers(pattern, pageable);
   }
 
   public List<Member> getActiveMembers() {
@@ -6,6 +6,11 @@ import com.bansaiyai.bansaiyai.entity.enums.NotificationStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
 import com.bansaiyai.bansaiyai.repository.*;
+import com.bansaiyai.bansaiyai.service.storage.BlobService;
+import com.bansaiyai.bansaiyai.service.storage.BlobStore;
+import com.bansaiyai.bansaiyai.service.storage.ImageRenditionService;
+import com.bansaiyai.bansaiyai.service.storage.Rendition;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -14,15 +19,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -41,6 +48,11 @@ public class PaymentNotificationService {
     private final LoanRepository loanRepository;
     private final PaymentRepository paymentRepository;
     private final UserRepository userRepository;
+    private final MemberFinancialSummaryService memberFinancialSummaryService;
+    private final InstallmentScheduleService installmentScheduleService;
+    private final BlobService blobService;
+    private final StoredBlobRepository storedBlobRepository;
+    private final ImageRenditionService imageRenditionService;
 
     @Value("${app.upload.slip-images-dir:/opt/bansaiyai/uploads/slips}")
     private String slipImagesDir;
@@ -104,8 +116,11 @@ public class PaymentNotificationService {
 
         // 5. Save slip image
         String slipImagePath = null;
+        String slipSha256 = null;
         if (slipFile != null && !slipFile.isEmpty()) {
-            slipImagePath = saveSlipImage(slipFile);
+            StoredBlob slip = saveSlipImage(slipFile);
+            slipSha256 = slip.getSha256();
+            slipImagePath = slipSha256 + slipExtension(slipFile);
         }
 
         // 6. Create notification
@@ -115,6 +130,7 @@ public class PaymentNotificationService {
                 .payAmount(request.getAmount())
                 .payDate(request.getPaymentDate())
                 .slipImage(slipImagePath)
+                .slipSha256(slipSha256)
                 .status(NotificationStatus.PENDING)
                 .build();
 
@@ -211,6 +227,9 @@ public class PaymentNotificationService {
 
         // 5. Update loan balance
         updateLoanBalance(loan, breakdown);
+        installmentScheduleService.applyRepayment(loan, breakdown.getPrincipalAmount(),
+                breakdown.getInterestAmount(), payment.getPaymentDate());
+        memberFinancialSummaryService.markChanged(loan.getMember().getId());
 
         // 6. Create accounting entries
         createAccountingEntries(payment, breakdown);
@@ -336,36 +355,17 @@ public class PaymentNotificationService {
     }
 
     /**
-     * Save slip image to file system
+     * Save slip image to the blob store. A slip resubmitted with identical
+     * content shares the stored copy.
      */
-    private String saveSlipImage(MultipartFile file) {
-        try {
-            // Validate file
-            validateSlipFile(file);
-
-            // Create directory if not exists
-            Path uploadPath = Paths.get(slipImagesDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null && originalFilename.contains(".")
-                    ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : ".jpg";
-
-            String filename = String.format("%s_%s%s",
-                    UUID.randomUUID().toString(),
-                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMddHHmmss")),
-                    extension);
-
-            // Save file
-            Path filePath = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
+    private StoredBlob saveSlipImage(MultipartFile file) {
+        // Validate file
+        validateSlipFile(file);
 
-            log.info("Slip image saved: {}", filename);
-            return filename;
+        try (InputStream in = file.getInputStream()) {
+            StoredBlob blob = blobService.store(in, maxFileSize);
+            log.info("Slip image saved: {}", blob.getSha256());
+            return blob;
 
         } catch (IOException e) {
             log.error("Failed to save slip image", e);
@@ -373,6 +373,74 @@ public class PaymentNotificationService {
         }
     }
 
+    private static String slipExtension(MultipartFile file) {
+        String originalFilename = file.getOriginalFilename();
+        return originalFilename != null && originalFilename.contains(".")
+                ? originalFilename.substring(originalFilename.lastIndexOf(".")).toLowerCase()
+                : ".jpg";
+    }
+
+    /**
+     * Resolve a slip file for serving. Slips in the blob store are located by
+     * the hash in their filename; older slips are read from the slip
+     * directory. Empty when the file does not exist.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SlipFile> openSlipFile(String filename) throws IOException {
+        int lastDot = filename.lastIndexOf('.');
+        String sha256 = lastDot > 0 ? filename.substring(0, lastDot) : filename;
+
+        if (BlobStore.isSha256(sha256) && paymentNotificationRepository.existsBySlipSha256(sha256)) {
+            StoredBlob blob = storedBlobRepository.findById(sha256).orElse(null);
+            if (blob == null) {
+                return Optional.empty();
+            }
+            BlobStore store = blobService.blobStore();
+            RangedFileResponse.Body body = store.localPath(sha256)
+                    .map(RangedFileResponse::file)
+                    .orElseGet(() -> RangedFileResponse.stream(blob.getSizeBytes(),
+                            blob.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                            (start, count) -> store.open(sha256, start, count)));
+            return Optional.of(new SlipFile(body, RangedFileResponse.strongEtag(sha256)));
+        }
+
+        // Security: Ensure resolved path is still within the slip directory
+        Path baseDir = Paths.get(slipImagesDir).toAbsolutePath().normalize();
+        Path filePath = baseDir.resolve(filename).normalize();
+        if (!filePath.startsWith(baseDir)) {
+            log.warn("Path traversal attempt blocked: {}", filename);
+            return Optional.empty();
+        }
+        if (!Files.isRegularFile(filePath) || !Files.isReadable(filePath)) {
+            return Optional.empty();
+        }
+        return Optional.of(new SlipFile(RangedFileResponse.file(filePath), RangedFileResponse.weakEtag(filePath)));
+    }
+
+    /**
+     * Resolve a downscaled rendition of a slip photo, generating it on first
+     * request. Only slips in the blob store have renditions. Empty when the
+     * slip does not exist or is not an image.
+     */
+    @Transactional(readOnly = true)
+    public Optional<SlipFile> openSlipRendition(String filename, Rendition rendition) throws IOException {
+        int lastDot = filename.lastIndexOf('.');
+        String sha256 = lastDot > 0 ? filename.substring(0, lastDot) : filename;
+        if (!Rendition.supports(filename) || !BlobStore.isSha256(sha256)
+                || !paymentNotificationRepository.existsBySlipSha256(sha256)) {
+            return Optional.empty();
+        }
+        return imageRenditionService.render(sha256, rendition)
+                .map(path -> new SlipFile(RangedFileResponse.file(path),
+                        RangedFileResponse.strongEtag(sha256 + "-" + rendition.param())));
+    }
+
+    /**
+     * A slip ready to be served, with its ETag
+     */
+    public record SlipFile(RangedFileResponse.Body body, String etag) {
+    }
+
     /**
      * Validate slip file
      */
@@ -491,6 +559,8 @@ public class PaymentNotificationService {
     private PaymentNotificationResponse mapToResponse(PaymentNotification notification) {
         Member member = notification.getMember();
         Loan loan = notification.getLoan();
+        boolean hasRenditions = notification.getSlipSha256() != null
+                && Rendition.supports(notification.getSlipImage());
 
         return PaymentNotificationResponse.builder()
                 // Use UUIDs for security (prevent ID enumeration)
@@ -513,6 +583,8 @@ public class PaymentNotificationService {
                 .payAmount(notification.getPayAmount())
                 .payDate(notification.getPayDate())
                 .slipImageUrl(notification.getSlipImageUrl())
+                .slipThumbnailUrl(hasRenditions ? Rendition.THUMBNAIL.url(notification.getSlipImageUrl()) : null)
+                .slipPreviewUrl(hasRenditions ? Rendition.PREVIEW.url(notification.getSlipImageUrl()) : null)
                 .notes(notification.getNotes())
 
                 // Status
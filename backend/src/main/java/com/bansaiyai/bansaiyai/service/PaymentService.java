@@ -41,6 +41,7 @@ public class PaymentService {
   private final SavingRepository savingRepository;
   private final SavingService savingService;
   private final InputSanitizer inputSanitizer;
+  private final MemberFinancialSummaryService memberFinancialSummaryService;
 
   /**
    * Create a new payment
@@ -169,6 +170,9 @@ public class PaymentService {
       }
 
       payment.completePayment();
+      if (payment.getMember() != null) {
+        memberFinancialSummaryService.markChanged(payment.getMember().getId());
+      }
       log.info("Payment processing completed: {}", payment.getPaymentNumber());
 
     } catch (Exception e) {
@@ -230,7 +234,7 @@ public class PaymentService {
    */
   @Transactional(readOnly = true)
   public PaymentResponse getPayment(Long id) {
-    Payment payment = paymentRepository.findById(id)
+    Payment payment = paymentRepository.findWithAssociationsById(id)
         .orElseThrow(() -> new RuntimeException("Payment not found: " + id));
     return PaymentResponse.fromEntity(payment);
   }
@@ -250,8 +254,8 @@ public class PaymentService {
    */
   @Transactional(readOnly = true)
   public Page<PaymentResponse> getPaymentsByMember(Long memberId, Pageable pageable) {
-    return paymentRepository.findByMemberId(memberId, pageable)
-        .map(PaymentResponse::fromEntity);
+    return paymentRepository.findListRowsByMemberId(memberId, pageable)
+        .map(PaymentResponse::fromListRow);
   }
 
   /**
@@ -259,8 +263,8 @@ public class PaymentService {
    */
   @Transactional(readOnly = true)
   public Page<PaymentResponse> getPaymentsByLoan(Long loanId, Pageable pageable) {
-    return paymentRepository.findByLoanId(loanId, pageable)
-        .map(PaymentResponse::fromEntity);
+    return paymentRepository.findListRowsByLoanId(loanId, pageable)
+        .map(PaymentResponse::fromListRow);
   }
 
   /**
@@ -268,8 +272,8 @@ public class PaymentService {
    */
   @Transactional(readOnly = true)
   public Page<PaymentResponse> getPaymentsBySavingsAccount(Long savingAccountId, Pageable pageable) {
-    return paymentRepository.findBySavingAccountId(savingAccountId, pageable)
-        .map(PaymentResponse::fromEntity);
+    return paymentRepository.findListRowsBySavingAccountId(savingAccountId, pageable)
+        .map(PaymentResponse::fromListRow);
   }
 
   /**
@@ -277,8 +281,8 @@ public class PaymentService {
    */
   @Transactional(readOnly = true)
   public Page<PaymentResponse> getAllPayments(Pageable pageable) {
-    return paymentRepository.findAll(pageable)
-        .map(PaymentResponse::fromEntity);
+    return paymentRepository.findListRows(pageable)
+        .map(PaymentResponse::fromListRow);
   }
 
   /**
@@ -0,0 +1,213 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.ReportArtifact;
+import com.bansaiyai.bansaiyai.entity.StoredBlob;
+import com.bansaiyai.bansaiyai.entity.enums.ReportArtifactType;
+import com.bansaiyai.bansaiyai.repository.FiscalPeriodRepository;
+import com.bansaiyai.bansaiyai.repository.ReportArtifactRepository;
+import com.bansaiyai.bansaiyai.service.storage.BlobService;
+import com.bansaiyai.bansaiyai.service.storage.BlobStore;
+import com.bansaiyai.bansaiyai.util.RangedFileResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * Stores rendered reports of closed fiscal periods so they are generated
+ * once instead of on every request.
+ *
+ * An artifact is keyed by report type, the last period it covers, format and
+ * a hash of its other parameters. Once every period a report covers is
+ * closed, its first request renders it into the blob store; later requests
+ * serve the stored bytes with the content hash as a strong ETag and an
+ * immutable cache lifetime. Reports of open periods are rendered on every
+ * request and only revalidated. Reopening a period must call
+ * {@link #invalidate(YearMonth)}, which drops every artifact covering it.
+ */
+@Service
+@Slf4j
+public class ReportArtifactService {
+
+  /** Closed periods never change; private because reports require a login. */
+  static final String CACHE_IMMUTABLE = "private, max-age=31536000, immutable";
+  static final String CACHE_REVALIDATE = "private, no-cache";
+
+  private final ReportArtifactRepository artifactRepository;
+  private final FiscalPeriodRepository fiscalPeriodRepository;
+  private final BlobService blobService;
+  private final TransactionTemplate transactionTemplate;
+
+  public ReportArtifactService(ReportArtifactRepository artifactRepository,
+      FiscalPeriodRepository fiscalPeriodRepository,
+      BlobService blobService,
+      PlatformTransactionManager transactionManager) {
+    this.artifactRepository = artifactRepository;
+    this.fiscalPeriodRepository = fiscalPeriodRepository;
+    this.blobService = blobService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Identity of a report.
+   *
+   * @param from   first period covered; null when the report accumulates from
+   *               the beginning of the ledger
+   * @param to     last period covered
+   * @param params other parameters the content depends on
+   */
+  public record Key(ReportArtifactType type, YearMonth from, YearMonth to, String format, Map<String, ?> params) {
+
+    String paramsHash() {
+      StringBuilder canonical = new StringBuilder("from=").append(from);
+      new TreeMap<String, Object>(params).forEach((name, value) -> canonical.append('&').append(name)
+          .append('=').append(value));
+      return sha256(canonical.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * A report ready to be served.
+   *
+   * @param immutable whether the content can never change, i.e. may be
+   *                  cached without revalidation
+   */
+  public record Artifact(RangedFileResponse.Body body, String etag, String contentType, boolean immutable) {
+
+    public String cacheControl() {
+      return immutable ? CACHE_IMMUTABLE : CACHE_REVALIDATE;
+    }
+  }
+
+  /**
+   * Whether every period from {@code from} to {@code to} is closed. A null
+   * {@code from}, for reports accumulated over the whole ledger, checks
+   * {@code to} alone.
+   */
+  public boolean isClosed(YearMonth from, YearMonth to) {
+    YearMonth first = from != null ? from : to;
+    if (first.isAfter(to)) {
+      return false;
+    }
+    long months = ChronoUnit.MONTHS.between(first, to) + 1;
+    return fiscalPeriodRepository.countClosedBetween(monthKey(first), monthKey(to)) == months;
+  }
+
+  /**
+   * Serve a report, storing it if every period it covers is closed.
+   */
+  public Artifact resolve(Key key, String contentType, Supplier<byte[]> generator) {
+    return resolve(key, contentType, isClosed(key.from(), key.to()), generator);
+  }
+
+  /**
+   * Serve a report whose immutability the caller has decided, e.g. from the
+   * state of a dividend distribution. Sealed reports are stored on first
+   * request and read back afterwards; others are rendered every time.
+   */
+  public Artifact resolve(Key key, String contentType, boolean sealed, Supplier<byte[]> generator) {
+    if (!sealed) {
+      return inMemory(generator.get(), contentType, false);
+    }
+    String paramsHash = key.paramsHash();
+    Optional<ReportArtifact> stored = artifactRepository.findByReportTypeAndPeriodToAndFormatAndParamsHash(
+        key.type(), key.to().toString(), key.format(), paramsHash);
+    if (stored.isPresent()) {
+      return open(stored.get());
+    }
+
+    byte[] content = generator.get();
+    try {
+      transactionTemplate.executeWithoutResult(status -> persist(key, paramsHash, contentType, content));
+    } catch (DataIntegrityViolationException e) {
+      // A concurrent first request stored the same report
+      log.debug("Report artifact {} {} {} already stored", key.type(), key.to(), key.format());
+    }
+    return inMemory(content, contentType, true);
+  }
+
+  /**
+   * Drop every stored report covering a period, releasing its blob. Must be
+   * called when a closed period is reopened.
+   *
+   * @return number of artifacts dropped
+   */
+  @Transactional
+  public int invalidate(YearMonth period) {
+    List<ReportArtifact> covering = artifactRepository.findCovering(period.toString());
+    covering.forEach(artifact -> blobService.release(artifact.getContentSha256()));
+    artifactRepository.deleteAll(covering);
+    log.info("Invalidated {} report artifact(s) covering {}", covering.size(), period);
+    return covering.size();
+  }
+
+  private void persist(Key key, String paramsHash, String contentType, byte[] content) {
+    StoredBlob blob;
+    try {
+      blob = blobService.store(new ByteArrayInputStream(content), Long.MAX_VALUE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to store report artifact", e);
+    }
+    artifactRepository.saveAndFlush(ReportArtifact.builder()
+        .reportType(key.type())
+        .periodFrom(key.from() != null ? key.from().toString() : null)
+        .periodTo(key.to().toString())
+        .format(key.format())
+        .paramsHash(paramsHash)
+        .contentType(contentType)
+        .contentSha256(blob.getSha256())
+        .sizeBytes(blob.getSizeBytes())
+        .createdAt(LocalDateTime.now())
+        .build());
+  }
+
+  private Artifact open(ReportArtifact artifact) {
+    BlobStore store = blobService.blobStore();
+    String sha256 = artifact.getContentSha256();
+    long lastModified = artifact.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    RangedFileResponse.Body body = store.localPath(sha256)
+        .map(RangedFileResponse::file)
+        .orElseGet(() -> RangedFileResponse.stream(artifact.getSizeBytes(), lastModified,
+            (start, count) -> store.open(sha256, start, count)));
+    return new Artifact(body, RangedFileResponse.strongEtag(sha256), artifact.getContentType(), true);
+  }
+
+  private static Artifact inMemory(byte[] content, String contentType, boolean immutable) {
+    RangedFileResponse.Body body = RangedFileResponse.stream(content.length, System.currentTimeMillis(),
+        (start, count) -> new ByteArrayInputStream(content, (int) start, (int) count));
+    return new Artifact(body, RangedFileResponse.strongEtag(sha256(content)), contentType, immutable);
+  }
+
+  private static int monthKey(YearMonth month) {
+    return month.getYear() * 100 + month.getMonthValue();
+  }
+
+  private static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -4,6 +4,8 @@ import com.bansaiyai.bansaiyai.dto.report.MonthlyReportDTO;
 import com.bansaiyai.bansaiyai.dto.report.OverdueLoanDTO;
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
 import com.bansaiyai.bansaiyai.repository.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -19,6 +21,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ReportService {
 
+        private static final LocalDate BEFORE_FIRST_SNAPSHOT = LocalDate.of(1900, 1, 1);
+
+        static final List<PaymentType> PRINCIPAL_REPAYMENT_TYPES = java.util.Arrays.stream(PaymentType.values())
+                        .filter(PaymentType::isPrincipalRepayment)
+                        .toList();
+
         private final AccountingRepository accountingRepository;
         private final LoanRepository loanRepository;
         private final MemberRepository memberRepository;
@@ -26,6 +34,7 @@ public class ReportService {
         private final SavingTransactionRepository savingTransactionRepository;
         private final LoanBalanceRepository loanBalanceRepository;
         private final SavingBalanceRepository savingBalanceRepository;
+        private final AccountPeriodBalanceRepository accountPeriodBalanceRepository;
 
         /**
          * Generate monthly financial summary.
@@ -41,9 +50,9 @@ public class ReportService {
                 // Sum Income (Credits to Revenue accounts) - Simplification: Sum all credits in
                 // period?
                 // Or specific account types. For now, we trust FiscalPeriod tagging in
-                // AccountingEntry.
-                BigDecimal totalCredits = accountingRepository.sumCreditsByFiscalPeriod(period);
-                BigDecimal totalDebits = accountingRepository.sumDebitsByFiscalPeriod(period);
+                // AccountingEntry, read as one row per account.
+                BigDecimal totalCredits = accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(period);
+                BigDecimal totalDebits = accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(period);
 
                 // In basic accounting: Net Income = Income (Credits) - Expenses (Debits)
                 // Adjust based on Account Code logic if needed.
@@ -214,9 +223,18 @@ public class ReportService {
                         incomeItems.add(new com.bansaiyai.bansaiyai.dto.report.ReportItemDTO(type.name(), amount));
                 }
 
+                // Whole months are read from the per-account period totals; other
+                // ranges sum the entries by date
+                boolean wholeMonths = startDate.getDayOfMonth() == 1
+                                && endDate.equals(YearMonth.from(endDate).atEndOfMonth());
+                String fromPeriod = YearMonth.from(startDate).toString();
+                String toPeriod = YearMonth.from(endDate).toString();
+
                 // 2. Manual Income (Account 4xxx)
-                List<Object[]> manualIncome = accountingRepository.sumCreditByCodePatternAndDateRange(startDate,
-                                endDate, "4%");
+                List<Object[]> manualIncome = wholeMonths
+                                ? accountPeriodBalanceRepository.sumCreditByCodePatternAndPeriodRange(fromPeriod,
+                                                toPeriod, "4%")
+                                : accountingRepository.sumCreditByCodePatternAndDateRange(startDate, endDate, "4%");
                 for (Object[] row : manualIncome) {
                         String name = (String) row[0];
                         BigDecimal amount = (BigDecimal) row[1];
@@ -233,8 +251,10 @@ public class ReportService {
                 }
 
                 // 4. Manual Expenses (Account 5xxx)
-                List<Object[]> manualExpense = accountingRepository.sumDebitByCodePatternAndDateRange(startDate,
-                                endDate, "5%");
+                List<Object[]> manualExpense = wholeMonths
+                                ? accountPeriodBalanceRepository.sumDebitByCodePatternAndPeriodRange(fromPeriod,
+                                                toPeriod, "5%")
+                                : accountingRepository.sumDebitByCodePatternAndDateRange(startDate, endDate, "5%");
                 for (Object[] row : manualExpense) {
                         String name = (String) row[0];
                         BigDecimal amount = (BigDecimal) row[1];
@@ -259,7 +279,8 @@ public class ReportService {
         }
 
         /**
-         * Generate Balance Sheet
+         * Generate Balance Sheet as of the end of any date, not only month ends
+         * with snapshots
          */
         @Transactional(readOnly = true)
         public com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO generateBalanceSheet(LocalDate asOfDate) {
@@ -267,27 +288,32 @@ public class ReportService {
                 List<com.bansaiyai.bansaiyai.dto.report.ReportItemDTO> liabilities = new java.util.ArrayList<>();
                 List<com.bansaiyai.bansaiyai.dto.report.ReportItemDTO> equity = new java.util.ArrayList<>();
 
+                // Each component is the latest snapshot on or before the date rolled
+                // forward by the transactions since, in one aggregate query
+                LocalDate loanSnapshot = snapshotDate(loanBalanceRepository.findLatestBalanceDateOnOrBefore(asOfDate));
+                LocalDate savingSnapshot = snapshotDate(
+                                savingBalanceRepository.findLatestBalanceDateOnOrBefore(asOfDate));
+
                 // Assets
-                BigDecimal loansReceivable = loanBalanceRepository.sumOutstandingBalanceByDate(asOfDate);
-                if (loansReceivable.compareTo(BigDecimal.ZERO) == 0 && asOfDate.equals(LocalDate.now())) {
-                        // If today and no snapshot (likely), check live? Or just return 0?
-                        // Simplification: returns 0 if no snapshot. User should generate 'As of Month
-                        // End'.
-                }
+                BigDecimal loansReceivable = loanBalanceRepository.sumOutstandingBalanceAsOf(loanSnapshot, asOfDate,
+                                PRINCIPAL_REPAYMENT_TYPES, PaymentStatus.COMPLETED);
                 assets.add(new com.bansaiyai.bansaiyai.dto.report.ReportItemDTO("Loans Receivable", loansReceivable));
 
-                // Cash (Placeholder - Manual entries needed for accurate cash)
-                // assets.add(new ReportItemDTO("Cash on Hand", ...));
+                // Cash and bank (ledger accounts 100x/101x): each account's closing balance
+                // at the end of the previous period plus its entries so far this period
+                assets.add(new com.bansaiyai.bansaiyai.dto.report.ReportItemDTO("Cash and Bank",
+                                ledgerBalanceAsOf(asOfDate, ReportService::isCashAccount)));
 
                 // Liabilities
-                BigDecimal savingsDeposits = savingBalanceRepository.sumClosingBalanceByDate(asOfDate);
+                BigDecimal savingsDeposits = savingBalanceRepository.sumClosingBalanceAsOf(savingSnapshot, asOfDate,
+                                savingSnapshot.plusDays(1).atStartOfDay(), asOfDate.plusDays(1).atStartOfDay());
                 liabilities.add(new com.bansaiyai.bansaiyai.dto.report.ReportItemDTO("Member Savings",
                                 savingsDeposits));
 
-                // Equity
-                BigDecimal totalShares = memberRepository.sumTotalShareCapital();
-                if (totalShares == null)
-                        totalShares = BigDecimal.ZERO;
+                // Equity: share capital has no snapshots, so the current total is rolled
+                // back by the contributions received after the date
+                BigDecimal totalShares = memberRepository.sumShareCapitalAsOf(asOfDate, PaymentType.SHARE_CAPITAL,
+                                PaymentStatus.COMPLETED);
                 equity.add(new com.bansaiyai.bansaiyai.dto.report.ReportItemDTO("Share Capital", totalShares));
 
                 // Retained Earnings (Simplified: Assets - Liabilities - Equity)
@@ -317,4 +343,37 @@ public class ReportService {
                                 .asOfDate(asOfDate.toString())
                                 .build();
         }
+
+        /**
+         * Net debit balance, as of the end of the given date, of the ledger accounts
+         * whose code matches: the closing balances of the previous fiscal period,
+         * one row per account, plus the current period's entries up to the date.
+         */
+        private BigDecimal ledgerBalanceAsOf(LocalDate asOfDate, java.util.function.Predicate<String> accountCode) {
+                YearMonth period = YearMonth.from(asOfDate);
+                BigDecimal balance = accountPeriodBalanceRepository.findLatestUpTo(period.minusMonths(1).toString())
+                                .stream()
+                                .filter(b -> accountCode.test(b.getAccountCode()))
+                                .map(com.bansaiyai.bansaiyai.entity.AccountPeriodBalance::getClosingBalance)
+                                .reduce(BigDecimal.ZERO, BigDecimal::add);
+                for (Object[] row : accountingRepository.sumNetByFiscalPeriodUpToDateGroupByAccountCode(
+                                period.toString(), asOfDate)) {
+                        if (accountCode.test((String) row[0])) {
+                                balance = balance.add((BigDecimal) row[1]);
+                        }
+                }
+                return balance;
+        }
+
+        /**
+         * Snapshot date to roll forward from; before any data when there is no
+         * snapshot yet, so every transaction counts as a delta.
+         */
+        private static LocalDate snapshotDate(LocalDate latest) {
+                return latest != null ? latest : BEFORE_FIRST_SNAPSHOT;
+        }
+
+        private static boolean isCashAccount(String accountCode) {
+                return accountCode != null && (accountCode.startsWith("100") || accountCode.startsWith("101"));
+        }
 }
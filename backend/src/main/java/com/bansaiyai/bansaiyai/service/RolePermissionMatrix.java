@@ -0,0 +1,99 @@
+package com.bansaiyai.bansaiyai.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable role-permission matrix. Permission slugs are interned to dense
+ * indexes and each role holds its permissions as a bitset over them, so a
+ * check is two hash lookups and a bit test, without allocating.
+ */
+final class RolePermissionMatrix {
+
+  static final RolePermissionMatrix EMPTY = new RolePermissionMatrix(-1, new String[0], Map.of(), Map.of());
+
+  private final long version;
+  private final String[] slugs;
+  private final Map<String, Integer> slugIndex;
+  private final Map<String, long[]> roleBits;
+
+  private RolePermissionMatrix(long version, String[] slugs, Map<String, Integer> slugIndex,
+      Map<String, long[]> roleBits) {
+    this.version = version;
+    this.slugs = slugs;
+    this.slugIndex = slugIndex;
+    this.roleBits = roleBits;
+  }
+
+  /**
+   * Build from (roleName, permSlug) rows; a null slug lists a role without
+   * permissions.
+   */
+  static RolePermissionMatrix build(long version, List<Object[]> pairs) {
+    Map<String, Integer> slugIndex = new HashMap<>();
+    Map<String, Set<Integer>> granted = new LinkedHashMap<>();
+    for (Object[] pair : pairs) {
+      Set<Integer> indexes = granted.computeIfAbsent((String) pair[0], role -> new LinkedHashSet<>());
+      String slug = (String) pair[1];
+      if (slug != null) {
+        indexes.add(slugIndex.computeIfAbsent(slug, s -> slugIndex.size()));
+      }
+    }
+
+    String[] slugs = new String[slugIndex.size()];
+    slugIndex.forEach((slug, index) -> slugs[index] = slug);
+    int words = (slugs.length + 63) >>> 6;
+    Map<String, long[]> roleBits = new HashMap<>(granted.size() * 2);
+    granted.forEach((role, indexes) -> {
+      long[] bits = new long[words];
+      for (int index : indexes) {
+        bits[index >>> 6] |= 1L << index;
+      }
+      roleBits.put(role, bits);
+    });
+    return new RolePermissionMatrix(version, slugs, slugIndex, roleBits);
+  }
+
+  long version() {
+    return version;
+  }
+
+  boolean has(String roleName, String permissionSlug) {
+    long[] bits = roleBits.get(roleName);
+    Integer index = bits != null ? slugIndex.get(permissionSlug) : null;
+    return index != null && (bits[index >>> 6] & (1L << index)) != 0;
+  }
+
+  boolean knows(String roleName) {
+    return roleBits.containsKey(roleName);
+  }
+
+  /**
+   * Permission slugs of a role, or null if the role is unknown.
+   */
+  Set<String> permissionsOf(String roleName) {
+    long[] bits = roleBits.get(roleName);
+    if (bits == null) {
+      return null;
+    }
+    Set<String> permissions = new LinkedHashSet<>();
+    for (int word = 0; word < bits.length; word++) {
+      long remaining = bits[word];
+      while (remaining != 0) {
+        permissions.add(slugs[(word << 6) + Long.numberOfTrailingZeros(remaining)]);
+        remaining &= remaining - 1;
+      }
+    }
+    return permissions;
+  }
+
+  Map<String, Set<String>> asMap() {
+    Map<String, Set<String>> matrix = new HashMap<>();
+    roleBits.keySet().forEach(role -> matrix.put(role, permissionsOf(role)));
+    return matrix;
+  }
+}
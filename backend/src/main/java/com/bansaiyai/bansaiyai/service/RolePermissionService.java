@@ -1,24 +1,32 @@
 package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.entity.Permission;
+import com.bansaiyai.bansaiyai.entity.RbacMatrixVersion;
 import com.bansaiyai.bansaiyai.entity.Role;
 import com.bansaiyai.bansaiyai.entity.User;
 import com.bansaiyai.bansaiyai.repository.PermissionRepository;
+import com.bansaiyai.bansaiyai.repository.RbacMatrixVersionRepository;
 import com.bansaiyai.bansaiyai.repository.RoleRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service for managing role-permission mappings and permission checks.
- * Implements caching for performance optimization.
+ *
+ * Checks read an immutable in-memory {@link RolePermissionMatrix} loaded at
+ * startup, so they never touch the database. Edits bump the version row and
+ * swap in a freshly loaded matrix once they commit; other nodes poll the
+ * version and reload when theirs is older.
  * 
  * Requirements: 2.1, 2.2, 2.3, 2.4, 2.5
  */
@@ -29,27 +37,27 @@ public class RolePermissionService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final RbacMatrixVersionRepository versionRepository;
+
+    private final Object writeLock = new Object();
+    private volatile RolePermissionMatrix matrix;
 
     /**
      * Get all permissions for a specific role.
-     * Results are cached for performance.
      * 
      * @param roleName the name of the role (e.g., "ROLE_OFFICER")
      * @return a set of permission slugs associated with the role
      * @throws IllegalArgumentException if the role is not found
      */
-    @Cacheable(value = "rolePermissions", key = "#roleName")
     public Set<String> getPermissionsForRole(String roleName) {
-        log.debug("Loading permissions for role: {}", roleName);
-
-        Role role = roleRepository.findByRoleName(roleName)
-                .orElseThrow(() -> new IllegalArgumentException("Role not found: " + roleName));
-
-        Set<String> permissionSlugs = role.getPermissions().stream()
-                .map(Permission::getPermSlug)
-                .collect(Collectors.toSet());
-
-        log.debug("Loaded {} permissions for role {}", permissionSlugs.size(), roleName);
+        Set<String> permissionSlugs = current().permissionsOf(roleName);
+        if (permissionSlugs == null) {
+            // The role may have been created since the matrix was loaded
+            permissionSlugs = load().permissionsOf(roleName);
+        }
+        if (permissionSlugs == null) {
+            throw new IllegalArgumentException("Role not found: " + roleName);
+        }
         return permissionSlugs;
     }
 
@@ -67,27 +75,31 @@ public class RolePermissionService {
         }
 
         String roleName = user.getRbacRole().getRoleName();
-        Set<String> permissions = getPermissionsForRole(roleName);
-
-        boolean hasPermission = permissions.contains(permissionSlug);
-        log.debug("User {} with role {} {} permission {}",
-                user.getUsername(), roleName,
-                hasPermission ? "has" : "does not have",
-                permissionSlug);
+        RolePermissionMatrix current = current();
+        if (!current.knows(roleName)) {
+            // The role may have been created since the matrix was loaded
+            current = load();
+        }
+        boolean hasPermission = current.has(roleName, permissionSlug);
+        if (log.isDebugEnabled()) {
+            log.debug("User {} with role {} {} permission {}",
+                    user.getUsername(), roleName,
+                    hasPermission ? "has" : "does not have",
+                    permissionSlug);
+        }
 
         return hasPermission;
     }
 
     /**
      * Add a permission to a role.
-     * Invalidates the cache for the role.
+     * Every node picks up the change once the transaction commits.
      * 
      * @param roleName       the name of the role
      * @param permissionSlug the permission slug to add
      * @throws IllegalArgumentException if the role or permission is not found
      */
     @Transactional
-    @CacheEvict(value = "rolePermissions", key = "#roleName")
     public void addPermissionToRole(String roleName, String permissionSlug) {
         log.info("Adding permission {} to role {}", permissionSlug, roleName);
 
@@ -100,20 +112,20 @@ public class RolePermissionService {
         // Add permission to role's permission set
         role.getPermissions().add(permission);
         roleRepository.save(role);
+        publishChange();
 
         log.info("Successfully added permission {} to role {}", permissionSlug, roleName);
     }
 
     /**
      * Remove a permission from a role.
-     * Invalidates the cache for the role.
+     * Every node picks up the change once the transaction commits.
      * 
      * @param roleName       the name of the role
      * @param permissionSlug the permission slug to remove
      * @throws IllegalArgumentException if the role or permission is not found
      */
     @Transactional
-    @CacheEvict(value = "rolePermissions", key = "#roleName")
     public void removePermissionFromRole(String roleName, String permissionSlug) {
         log.info("Removing permission {} from role {}", permissionSlug, roleName);
 
@@ -126,6 +138,7 @@ public class RolePermissionService {
         // Remove permission from role's permission set
         role.getPermissions().remove(permission);
         roleRepository.save(role);
+        publishChange();
 
         log.info("Successfully removed permission {} from role {}", permissionSlug, roleName);
     }
@@ -135,23 +148,95 @@ public class RolePermissionService {
      * 
      * @return a map of role names to their permission slugs
      */
-
-    @Transactional(readOnly = true)
     public Map<String, Set<String>> getRolePermissionMatrix() {
-        log.debug("Building role-permission matrix");
+        return current().asMap();
+    }
+
+    /**
+     * Record a role or role-permission edit made in the current transaction:
+     * bump the version row so other nodes reload, and reload this node's
+     * matrix once the transaction commits.
+     */
+    @Transactional
+    public void publishChange() {
+        if (versionRepository.increment(LocalDateTime.now()) == 0) {
+            versionRepository.save(RbacMatrixVersion.builder()
+                    .id(RbacMatrixVersion.ID)
+                    .version(1L)
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+        afterCommit(this::load);
+    }
+
+    /**
+     * Load the matrix from the database and swap it in.
+     */
+    public void reload() {
+        load();
+    }
 
-        List<Role> allRoles = roleRepository.findAll();
-        Map<String, Set<String>> matrix = new HashMap<>();
+    private RolePermissionMatrix load() {
+        synchronized (writeLock) {
+            // Version first: an edit committed between the two queries only
+            // causes one more reload on the next check
+            long version = versionRepository.findCurrentVersion().orElse(0L);
+            RolePermissionMatrix loaded = RolePermissionMatrix.build(version,
+                    roleRepository.findRolePermissionPairs());
+            matrix = loaded;
+            log.info("Role-permission matrix version {} loaded", version);
+            return loaded;
+        }
+    }
 
-        for (Role role : allRoles) {
-            Set<String> permissionSlugs = role.getPermissions().stream()
-                    .map(Permission::getPermSlug)
-                    .collect(Collectors.toSet());
-            matrix.put(role.getRoleName(), permissionSlugs);
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            // Loaded on the first check instead
+            log.error("Failed to load role-permission matrix", e);
         }
+    }
 
-        log.debug("Built role-permission matrix with {} roles", matrix.size());
-        return matrix;
+    /**
+     * Reload when another node has published a newer version.
+     */
+    @Scheduled(fixedDelayString = "${app.rbac.version-check-interval-ms:30000}",
+            initialDelayString = "${app.rbac.version-check-interval-ms:30000}")
+    public void refreshIfStale() {
+        try {
+            RolePermissionMatrix current = matrix;
+            long version = versionRepository.findCurrentVersion().orElse(0L);
+            if (current == null || current.version() != version) {
+                reload();
+            }
+        } catch (Exception e) {
+            log.error("Failed to refresh role-permission matrix", e);
+        }
+    }
+
+    private RolePermissionMatrix current() {
+        RolePermissionMatrix current = matrix;
+        if (current == null) {
+            synchronized (writeLock) {
+                current = matrix != null ? matrix : load();
+            }
+        }
+        return current;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
     }
 
     /**
@@ -34,6 +34,7 @@ public class SavingService {
   private final SavingRepository savingRepository;
   private final MemberRepository memberRepository;
   private final InputSanitizer inputSanitizer;
+  private final MemberFinancialSummaryService memberFinancialSummaryService;
 
   /**
    * Create a new savings account
@@ -77,6 +78,7 @@ public class SavingService {
         .build();
 
     SavingAccount savedAccount = savingRepository.save(account);
+    memberFinancialSummaryService.markChanged(member.getId());
 
     // Create opening transaction
     createOpeningTransaction(savedAccount, request.getInitialDeposit(), createdBy);
@@ -110,8 +112,8 @@ public class SavingService {
    */
   @Transactional(readOnly = true)
   public Page<SavingResponse> getAccountsByMember(Long memberId, Pageable pageable) {
-    Page<SavingAccount> accounts = savingRepository.findByMemberIdAndIsActive(memberId, true, pageable);
-    return accounts.map(SavingResponse::fromEntity);
+    return savingRepository.findListRowsByMemberIdAndIsActive(memberId, true, pageable)
+        .map(SavingResponse::fromListRow);
   }
 
   /**
@@ -119,8 +121,8 @@ public class SavingService {
    */
   @Transactional(readOnly = true)
   public Page<SavingResponse> getAllAccounts(Pageable pageable) {
-    Page<SavingAccount> accounts = savingRepository.findActiveAccounts(pageable);
-    return accounts.map(SavingResponse::fromEntity);
+    return savingRepository.findActiveListRows(pageable)
+        .map(SavingResponse::fromListRow);
   }
 
   /**
@@ -144,6 +146,7 @@ public class SavingService {
     BigDecimal balanceBefore = account.getBalance();
     account.updateAvailableBalance(amount, true);
     SavingAccount updatedAccount = savingRepository.save(account);
+    memberFinancialSummaryService.markChanged(account.getMember().getId());
 
     // Create transaction
     createTransaction(updatedAccount, TransactionType.DEPOSIT, amount, description,
@@ -174,6 +177,7 @@ public class SavingService {
     BigDecimal balanceBefore = account.getBalance();
     account.updateAvailableBalance(amount, false);
     SavingAccount updatedAccount = savingRepository.save(account);
+    memberFinancialSummaryService.markChanged(account.getMember().getId());
 
     // Create transaction
     createTransaction(updatedAccount, TransactionType.WITHDRAWAL, amount, description,
@@ -233,56 +237,11 @@ public class SavingService {
     account.setUpdatedBy(updatedBy);
 
     SavingAccount updatedAccount = savingRepository.save(account);
+    memberFinancialSummaryService.markChanged(account.getMember().getId());
     log.info("Closed account {}", account.getAccountNumber());
     return SavingResponse.fromEntity(updatedAccount);
   }
 
-  /**
-   * Calculate and credit interest to accounts
-   */
-  public void calculateAndCreditInterest(LocalDate asOfDate) {
-    List<SavingAccount> accounts = savingRepository.findAccountsRequiringInterest(asOfDate.minusMonths(1));
-
-    for (SavingAccount account : accounts) {
-      try {
-        BigDecimal interestAmount = calculateInterestForPeriod(account, asOfDate);
-        if (interestAmount.compareTo(BigDecimal.ZERO) > 0) {
-          BigDecimal balanceBefore = account.getBalance();
-          account.updateAvailableBalance(interestAmount, true);
-          account.setLastInterestDate(asOfDate);
-          savingRepository.save(account);
-
-          // Create interest transaction
-          createTransaction(account, TransactionType.INTEREST_CREDIT, interestAmount,
-              "Monthly interest credit", balanceBefore, account.getBalance(), "SYSTEM");
-
-          log.info("Credited interest {} to account {}", interestAmount, account.getAccountNumber());
-        }
-      } catch (Exception e) {
-        log.error("Failed to calculate interest for account {}: {}",
-            account.getAccountNumber(), e.getMessage());
-      }
-    }
-  }
-
-  /**
-   * Calculate interest for a period
-   */
-  private BigDecimal calculateInterestForPeriod(SavingAccount account, LocalDate asOfDate) {
-    LocalDate startDate = account.getLastInterestDate() != null ? account.getLastInterestDate()
-        : account.getOpeningDate();
-
-    int daysInPeriod = (int) java.time.temporal.ChronoUnit.DAYS.between(startDate, asOfDate);
-    if (daysInPeriod <= 0) {
-      return BigDecimal.ZERO;
-    }
-
-    // Simple daily compounding interest
-    BigDecimal dailyInterest = account.calculateDailyInterest();
-    return dailyInterest.multiply(new BigDecimal(daysInPeriod))
-        .setScale(2, java.math.RoundingMode.HALF_UP);
-  }
-
   /**
    * Create opening transaction
    */
@@ -15,6 +15,7 @@ import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
 import com.bansaiyai.bansaiyai.entity.enums.ApprovalStatus;
+import com.bansaiyai.bansaiyai.metrics.BusinessMetric;
 import com.bansaiyai.bansaiyai.repository.LoanRepository;
 import com.bansaiyai.bansaiyai.repository.MemberRepository;
 import com.bansaiyai.bansaiyai.repository.SavingRepository;
@@ -45,6 +46,8 @@ public class TransactionService {
         private final PaymentRepository paymentRepository;
         private final DashboardService dashboardService;
         private final AuditService auditService;
+        private final MemberFinancialSummaryService memberFinancialSummaryService;
+        private final InstallmentScheduleService installmentScheduleService;
 
         public TransactionService(
                         MemberRepository memberRepository,
@@ -53,7 +56,9 @@ public class TransactionService {
                         LoanRepository loanRepository,
                         PaymentRepository paymentRepository,
                         DashboardService dashboardService,
-                        AuditService auditService) {
+                        AuditService auditService,
+                        MemberFinancialSummaryService memberFinancialSummaryService,
+                        InstallmentScheduleService installmentScheduleService) {
                 this.memberRepository = memberRepository;
                 this.savingRepository = savingRepository;
                 this.savingTransactionRepository = savingTransactionRepository;
@@ -61,12 +66,15 @@ public class TransactionService {
                 this.paymentRepository = paymentRepository;
                 this.dashboardService = dashboardService;
                 this.auditService = auditService;
+                this.memberFinancialSummaryService = memberFinancialSummaryService;
+                this.installmentScheduleService = installmentScheduleService;
         }
 
         /**
          * Process a deposit transaction
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "deposit")
         public TransactionResponse processDeposit(DepositRequest request) {
                 try {
                         // Validate fiscal period is open
@@ -130,6 +138,7 @@ public class TransactionService {
                         // Save transaction and account
                         transaction = savingTransactionRepository.save(transaction);
                         savingRepository.save(savingAccount);
+                        memberFinancialSummaryService.markChanged(member.getId());
 
                         return new TransactionResponse(
                                         transaction.getId(),
@@ -157,6 +166,7 @@ public class TransactionService {
          * Process a loan payment transaction
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "loanPayment")
         public TransactionResponse processLoanPayment(LoanPaymentRequest request) {
                 try {
                         // Validate fiscal period is open
@@ -227,6 +237,9 @@ public class TransactionService {
                         // Save payment and loan
                         payment = paymentRepository.save(payment);
                         loanRepository.save(loan);
+                        installmentScheduleService.applyRepayment(loan, request.getPrincipalAmount(),
+                                        request.getInterestAmount(), payment.getPaymentDate());
+                        memberFinancialSummaryService.markChanged(loan.getMember().getId());
 
                         return new TransactionResponse(
                                         payment.getId(),
@@ -255,10 +268,16 @@ public class TransactionService {
          */
         public BigDecimal calculateMinimumInterest(Long loanId) {
                 try {
+                        // Interest still due on the next scheduled installment
+                        var nextDue = installmentScheduleService.findNextDueForLoan(loanId);
+                        if (nextDue.isPresent()) {
+                                return nextDue.get().getInterestRemaining();
+                        }
+
                         Loan loan = loanRepository.findById(loanId)
                                         .orElseThrow(() -> new RuntimeException("Loan not found"));
 
-                        // Calculate interest based on outstanding balance and interest rate
+                        // Loans without a schedule: outstanding balance and interest rate
                         BigDecimal outstandingBalance = loan.getOutstandingBalance();
                         BigDecimal annualRate = loan.getInterestRate();
 
@@ -289,6 +308,7 @@ public class TransactionService {
          * Process a deposit transaction with creator tracking
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "deposit")
         public TransactionResponse processDepositWithCreator(DepositRequest request, User creator) {
                 try {
                         // Validate fiscal period is open
@@ -354,6 +374,7 @@ public class TransactionService {
                         // Save transaction and account
                         transaction = savingTransactionRepository.save(transaction);
                         savingRepository.save(savingAccount);
+                        memberFinancialSummaryService.markChanged(member.getId());
 
                         // Log the transaction creation
                         auditService.logAction(creator, "TRANSACTION_CREATE", "SavingTransaction",
@@ -385,6 +406,7 @@ public class TransactionService {
          * Process a loan payment transaction with creator tracking
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "loanPayment")
         public TransactionResponse processLoanPaymentWithCreator(LoanPaymentRequest request, User creator) {
                 try {
                         // Validate fiscal period is open
@@ -457,6 +479,9 @@ public class TransactionService {
                         // Save payment and loan
                         payment = paymentRepository.save(payment);
                         loanRepository.save(loan);
+                        installmentScheduleService.applyRepayment(loan, request.getPrincipalAmount(),
+                                        request.getInterestAmount(), payment.getPaymentDate());
+                        memberFinancialSummaryService.markChanged(loan.getMember().getId());
 
                         // Log the payment creation
                         auditService.logAction(creator, "PAYMENT_CREATE", "Payment",
@@ -518,6 +543,7 @@ public class TransactionService {
          * Void a transaction with audit logging
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "void")
         public TransactionResponse voidTransaction(Long transactionId, User requestingUser, String reason) {
                 try {
                         SavingTransaction transaction = savingTransactionRepository.findById(transactionId)
@@ -552,6 +578,7 @@ public class TransactionService {
                         // Save changes
                         savingTransactionRepository.save(transaction);
                         savingRepository.save(account);
+                        memberFinancialSummaryService.markChanged(account.getMember().getId());
 
                         // Log the void operation
                         auditService.logAction(requestingUser, "TRANSACTION_VOID", "SavingTransaction",
@@ -599,6 +626,7 @@ public class TransactionService {
          * Approve a transaction with self-approval check
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "approveTransaction")
         public TransactionResponse approveTransaction(Long transactionId, User approver) {
                 try {
                         SavingTransaction transaction = savingTransactionRepository.findById(transactionId)
@@ -670,6 +698,7 @@ public class TransactionService {
          * Approve a payment with self-approval check
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "approvePayment")
         public TransactionResponse approvePayment(Long paymentId, User approver) {
                 try {
                         Payment payment = paymentRepository.findById(paymentId)
@@ -741,6 +770,7 @@ public class TransactionService {
          * Reject a transaction
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "rejectTransaction")
         public TransactionResponse rejectTransaction(Long transactionId, User approver, String reason) {
                 try {
                         SavingTransaction transaction = savingTransactionRepository.findById(transactionId)
@@ -794,6 +824,7 @@ public class TransactionService {
          * Process a dividend payout transaction
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "dividendPayout")
         public TransactionResponse processDividendPayout(Long memberId, BigDecimal amount, Integer year, User creator) {
                 try {
                         // Validate member exists
@@ -844,6 +875,7 @@ public class TransactionService {
                         // Save transaction and account
                         transaction = savingTransactionRepository.save(transaction);
                         savingRepository.save(savingAccount);
+                        memberFinancialSummaryService.markChanged(memberId);
 
                         auditService.logAction(creator, "DIVIDEND_PAYOUT", "SavingTransaction", transaction.getId(),
                                         null, null);
@@ -863,10 +895,28 @@ public class TransactionService {
                 }
         }
 
+        /**
+         * Split a loan payment into penalty, interest and principal, paying the
+         * penalty due first, then the interest due, and the rest off principal.
+         */
+        public static PaymentSplit splitPayment(BigDecimal amount, BigDecimal penaltyDue, BigDecimal interestDue) {
+                BigDecimal penalty = amount.min(penaltyDue);
+                BigDecimal remaining = amount.subtract(penalty);
+                BigDecimal interest = remaining.min(interestDue);
+                return new PaymentSplit(penalty, interest, remaining.subtract(interest));
+        }
+
+        /**
+         * A loan payment split by {@link #splitPayment}
+         */
+        public record PaymentSplit(BigDecimal penalty, BigDecimal interest, BigDecimal principal) {
+        }
+
         /**
          * Process a composite payment (Share Deposit + Loan Repayment)
          */
         @Transactional
+        @BusinessMetric(value = "bansaiyai.transaction.post", operation = "compositePayment")
         public CompositeTransactionResponse processCompositePayment(CompositePaymentRequest request, User creator) {
                 try {
                         Long shareTransactionId = null;
@@ -912,55 +962,20 @@ public class TransactionService {
                                 Loan loan = loanRepository.findById(request.getLoanId())
                                                 .orElseThrow(() -> new RuntimeException("Loan not found"));
 
-                                BigDecimal remainingAmount = request.getLoanPaymentAmount();
-
-                                // A. Penalty
+                                // Priority: Penalty > Interest > Principal. Loan.penaltyAmount is the
+                                // accrued fine still owed.
                                 BigDecimal penaltyDue = loan.getPenaltyAmount() != null ? loan.getPenaltyAmount()
                                                 : BigDecimal.ZERO;
-                                // Wait, Loan.penaltyAmount is usually ACCRUED penalty. If we pay it, we reduce
-                                // it?
-                                // Or is it "Penalty Paid"? The entity structure:
-                                // `penaltyAmount` usually stores *accrued* penalty or total penalty?
-                                // Based on previous `accountingService.processLoanClosing`, `penaltyPaid` is
-                                // tracked separately.
-                                // Let's assume `penaltyAmount` on Loan is the ACCUMULATED FINE that is OWED.
-                                BigDecimal penaltyToPay = BigDecimal.ZERO;
-                                if (remainingAmount.compareTo(penaltyDue) >= 0) {
-                                        penaltyToPay = penaltyDue;
-                                        remainingAmount = remainingAmount.subtract(penaltyDue);
-                                } else {
-                                        penaltyToPay = remainingAmount;
-                                        remainingAmount = BigDecimal.ZERO;
-                                }
-
-                                // B. Interest
-                                // Calculate interest accrued since last payment? Or assume user inputs known
-                                // interest?
-                                // Simplified Logic: Priority to Interest.
-                                // We need "Interest Due".
-                                BigDecimal interestDue = calculateMinimumInterest(loan.getId()); // Rough verification
-                                // Actually, strictly for composite payment, we usually apply to interest first.
-                                // Let's apply to Interest up to calculated amount.
-                                BigDecimal interestToPay = BigDecimal.ZERO;
-                                if (remainingAmount.compareTo(BigDecimal.ZERO) > 0) {
-                                        if (remainingAmount.compareTo(interestDue) >= 0) {
-                                                interestToPay = interestDue;
-                                                remainingAmount = remainingAmount.subtract(interestDue);
-                                        } else {
-                                                interestToPay = remainingAmount;
-                                                remainingAmount = BigDecimal.ZERO;
-                                        }
-                                }
-
-                                // C. Principal
-                                BigDecimal principalToPay = remainingAmount;
+                                BigDecimal interestDue = calculateMinimumInterest(loan.getId());
+                                PaymentSplit split = splitPayment(request.getLoanPaymentAmount(), penaltyDue,
+                                                interestDue);
 
                                 LoanPaymentRequest paymentRequest = new LoanPaymentRequest();
                                 paymentRequest.setMemberId(request.getMemberId());
                                 paymentRequest.setLoanId(request.getLoanId());
-                                paymentRequest.setPrincipalAmount(principalToPay);
-                                paymentRequest.setInterestAmount(interestToPay);
-                                paymentRequest.setFineAmount(penaltyToPay);
+                                paymentRequest.setPrincipalAmount(split.principal());
+                                paymentRequest.setInterestAmount(split.interest());
+                                paymentRequest.setFineAmount(split.penalty());
                                 paymentRequest.setNotes(request.getNotes());
 
                                 TransactionResponse loanResponse = processLoanPaymentWithCreator(paymentRequest,
@@ -0,0 +1,215 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import com.bansaiyai.bansaiyai.entity.NotificationOutbox;
+import com.bansaiyai.bansaiyai.entity.enums.OutboxStatus;
+import com.bansaiyai.bansaiyai.exception.BusinessException;
+import com.bansaiyai.bansaiyai.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes emails to the notification_outbox and tracks their delivery.
+ *
+ * Producers enqueue in their own transaction, so a notification exists
+ * exactly when the change it reports committed. The dispatcher claims due
+ * rows in short transactions of their own: claimed rows are leased as
+ * SENDING, sent outside any transaction, and then either marked SENT or
+ * put back as PENDING with an exponential backoff until they run out of
+ * attempts and become DEAD.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class NotificationOutboxService {
+
+  private static final int KEY_LOOKUP_CHUNK = 500;
+  private static final TypeReference<Map<String, Object>> VARIABLES = new TypeReference<>() {
+  };
+
+  private final NotificationOutboxRepository outboxRepository;
+  private final ObjectMapper objectMapper;
+
+  @Value("${app.notification.outbox.provider:smtp}")
+  private String provider;
+
+  @Value("${app.notification.outbox.lease-seconds:300}")
+  private long leaseSeconds;
+
+  @Value("${app.notification.outbox.max-attempts:6}")
+  private int maxAttempts;
+
+  @Value("${app.notification.outbox.retry-base-seconds:60}")
+  private long retryBaseSeconds;
+
+  @Value("${app.notification.outbox.retry-max-seconds:3600}")
+  private long retryMaxSeconds;
+
+  @Value("${app.persistence.insert-on-conflict-enabled:false}")
+  private boolean insertOnConflictEnabled;
+
+  /**
+   * An email to queue. {@code dedupeKey} may be null; when set, a message
+   * whose key was queued before is skipped.
+   */
+  public record OutboxMessage(String recipient, String subject, String template, Map<String, String> variables,
+      String dedupeKey) {
+  }
+
+  public String getProvider() {
+    return provider;
+  }
+
+  public NotificationOutbox enqueue(OutboxMessage message) {
+    return outboxRepository.save(toRow(message));
+  }
+
+  /**
+   * Queue many messages in one batch, skipping those whose dedupe key is
+   * already in the outbox. Returns the number queued.
+   *
+   * Keys queued before are filtered out with one lookup. On PostgreSQL the
+   * keyed rows left are inserted with ON CONFLICT DO NOTHING, so a key that
+   * another transaction queues in the meantime skips only its own row
+   * rather than failing the batch.
+   */
+  public int enqueueAll(List<OutboxMessage> messages) {
+    Set<String> seen = existingKeys(messages.stream()
+        .map(OutboxMessage::dedupeKey)
+        .filter(key -> key != null)
+        .distinct()
+        .toList());
+    List<NotificationOutbox> rows = new ArrayList<>(messages.size());
+    int queued = 0;
+    for (OutboxMessage message : messages) {
+      if (message.dedupeKey() == null) {
+        rows.add(toRow(message));
+      } else if (seen.add(message.dedupeKey())) {
+        if (insertOnConflictEnabled) {
+          queued += insertIfNewKey(toRow(message));
+        } else {
+          rows.add(toRow(message));
+        }
+      }
+    }
+    outboxRepository.saveAll(rows);
+    return queued + rows.size();
+  }
+
+  /**
+   * Claim up to {@code limit} due rows of this provider and lease them as
+   * SENDING. Commits before returning, so the row locks are held only for
+   * the claim; the lease keeps other dispatchers away while the batch is
+   * sent.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public List<NotificationOutbox> claim(int limit) {
+    LocalDateTime now = LocalDateTime.now();
+    List<NotificationOutbox> rows = outboxRepository.claimDue(provider, now, PageRequest.of(0, limit));
+    for (NotificationOutbox row : rows) {
+      row.setStatus(OutboxStatus.SENDING);
+      row.setAttempts(row.getAttempts() + 1);
+      row.setNextAttemptAt(now.plusSeconds(leaseSeconds));
+    }
+    return rows;
+  }
+
+  /**
+   * Record the outcome of a sent batch: delivered rows become SENT, failed
+   * rows are retried with backoff or, out of attempts, become DEAD.
+   */
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public void recordResults(Collection<Long> sentIds, Map<Long, String> failures) {
+    LocalDateTime now = LocalDateTime.now();
+    for (NotificationOutbox row : outboxRepository.findAllById(sentIds)) {
+      row.setStatus(OutboxStatus.SENT);
+      row.setSentAt(now);
+      row.setLastError(null);
+    }
+    for (NotificationOutbox row : outboxRepository.findAllById(failures.keySet())) {
+      row.setLastError(truncate(failures.get(row.getId())));
+      if (row.getAttempts() >= maxAttempts) {
+        row.setStatus(OutboxStatus.DEAD);
+        log.warn("Outbox message {} to {} is dead after {} attempts: {}", row.getId(), row.getRecipient(),
+            row.getAttempts(), row.getLastError());
+      } else {
+        row.setStatus(OutboxStatus.PENDING);
+        row.setNextAttemptAt(now.plusSeconds(backoffSeconds(row.getAttempts())));
+      }
+    }
+  }
+
+  /**
+   * Delay before the next attempt after {@code attempts} failures:
+   * base * 2^(attempts - 1), capped at the configured maximum.
+   */
+  long backoffSeconds(int attempts) {
+    long delay = retryBaseSeconds << Math.min(Math.max(attempts - 1, 0), 20);
+    return Math.min(delay, retryMaxSeconds);
+  }
+
+  @Transactional(readOnly = true)
+  public Map<String, Object> variables(NotificationOutbox row) {
+    if (row.getVariables() == null) {
+      return Map.of();
+    }
+    try {
+      return objectMapper.readValue(row.getVariables(), VARIABLES);
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("Unreadable outbox variables: " + e.getOriginalMessage(), "OUTBOX_VARIABLES");
+    }
+  }
+
+  private NotificationOutbox toRow(OutboxMessage message) {
+    try {
+      return NotificationOutbox.builder()
+          .provider(provider)
+          .recipient(message.recipient())
+          .subject(message.subject())
+          .template(message.template())
+          .variables(objectMapper.writeValueAsString(new LinkedHashMap<>(message.variables())))
+          .dedupeKey(message.dedupeKey())
+          .build();
+    } catch (JsonProcessingException e) {
+      throw new BusinessException("Cannot queue notification: " + e.getOriginalMessage(), "OUTBOX_VARIABLES");
+    }
+  }
+
+  private int insertIfNewKey(NotificationOutbox row) {
+    return outboxRepository.insertIfNewKey(row.getProvider(), row.getRecipient(), row.getSubject(),
+        row.getTemplate(), row.getVariables(), row.getDedupeKey());
+  }
+
+  private Set<String> existingKeys(List<String> keys) {
+    Set<String> existing = new HashSet<>();
+    for (int from = 0; from < keys.size(); from += KEY_LOOKUP_CHUNK) {
+      existing.addAll(outboxRepository.findExistingDedupeKeys(
+          keys.subList(from, Math.min(from + KEY_LOOKUP_CHUNK, keys.size()))));
+    }
+    return existing;
+  }
+
+  private static String truncate(String message) {
+    if (message == null) {
+      return null;
+    }
+    return message.length() <= 1000 ? message : message.substring(0, 1000);
+  }
+}
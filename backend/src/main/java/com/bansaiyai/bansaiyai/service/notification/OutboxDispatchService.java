@@ -0,0 +1,140 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import com.bansaiyai.bansaiyai.entity.NotificationOutbox;
+import com.bansaiyai.bansaiyai.service.EmailService;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Delivers the notification outbox.
+ *
+ * Each round takes as many tokens from the provider's rate limit as a batch
+ * may hold, claims that many due rows, renders them and hands the whole
+ * batch to {@link JavaMailSender#send(MimeMessage...)}, which sends it over
+ * a single SMTP connection. Per-message failures reported by the server are
+ * retried individually; a connection failure retries the whole batch.
+ * Rounds repeat until the outbox is drained or the rate limit is spent.
+ */
+@Service
+@Slf4j
+public class OutboxDispatchService {
+
+  private final NotificationOutboxService outboxService;
+  private final EmailService emailService;
+  private final JavaMailSender mailSender;
+  private final SendRateLimiter rateLimiter;
+
+  @Value("${app.notification.outbox.batch-size:50}")
+  private int batchSize;
+
+  @Value("${app.email.enabled:false}")
+  private boolean emailEnabled;
+
+  public OutboxDispatchService(NotificationOutboxService outboxService,
+      EmailService emailService,
+      JavaMailSender mailSender,
+      @Value("${app.notification.outbox.rate-per-minute:120}") int ratePerMinute) {
+    this.outboxService = outboxService;
+    this.emailService = emailService;
+    this.mailSender = mailSender;
+    this.rateLimiter = new SendRateLimiter(ratePerMinute, System::nanoTime);
+  }
+
+  @Scheduled(fixedDelayString = "${app.notification.outbox.poll-interval-ms:10000}")
+  public void dispatchScheduled() {
+    if (!emailEnabled) {
+      return;
+    }
+    try {
+      int sent = dispatchPending();
+      if (sent > 0) {
+        log.info("Outbox dispatch sent {} email(s)", sent);
+      }
+    } catch (RuntimeException e) {
+      log.error("Outbox dispatch failed: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Send due outbox rows until none are left or the rate limit is reached.
+   * Returns the number delivered.
+   */
+  public int dispatchPending() {
+    String provider = outboxService.getProvider();
+    int delivered = 0;
+    while (true) {
+      int permits = rateLimiter.acquire(provider, batchSize);
+      if (permits == 0) {
+        log.debug("Outbox rate limit reached for {}", provider);
+        return delivered;
+      }
+      List<NotificationOutbox> batch = outboxService.claim(permits);
+      rateLimiter.release(provider, permits - batch.size());
+      if (batch.isEmpty()) {
+        return delivered;
+      }
+      delivered += send(batch);
+      if (batch.size() < permits) {
+        return delivered;
+      }
+    }
+  }
+
+  private int send(List<NotificationOutbox> batch) {
+    List<MimeMessage> messages = new ArrayList<>(batch.size());
+    Map<MimeMessage, Long> ids = new IdentityHashMap<>(batch.size());
+    Map<Long, String> failures = new HashMap<>();
+    for (NotificationOutbox row : batch) {
+      try {
+        MimeMessage message = emailService.createMessage(row.getRecipient(), row.getSubject(), row.getTemplate(),
+            outboxService.variables(row));
+        messages.add(message);
+        ids.put(message, row.getId());
+      } catch (Exception e) {
+        failures.put(row.getId(), "Render failed: " + e.getMessage());
+      }
+    }
+
+    if (!messages.isEmpty()) {
+      try {
+        mailSender.send(messages.toArray(new MimeMessage[0]));
+      } catch (MailSendException e) {
+        if (e.getFailedMessages().isEmpty()) {
+          ids.values().forEach(id -> failures.put(id, e.getMessage()));
+        }
+        e.getFailedMessages().forEach((message, cause) -> {
+          Long id = ids.get(message);
+          if (id != null) {
+            failures.put(id, cause.getMessage());
+          }
+        });
+      } catch (MailException e) {
+        ids.values().forEach(id -> failures.put(id, e.getMessage()));
+      }
+    }
+
+    List<Long> sent = new ArrayList<>(ids.size());
+    for (Long id : ids.values()) {
+      if (!failures.containsKey(id)) {
+        sent.add(id);
+      }
+    }
+    outboxService.recordResults(sent, failures);
+    if (!failures.isEmpty()) {
+      log.warn("Outbox batch of {}: {} sent, {} to retry", batch.size(), sent.size(), failures.size());
+    }
+    return sent.size();
+  }
+}
@@ -0,0 +1,77 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import com.bansaiyai.bansaiyai.repository.InstallmentScheduleRepository;
+import com.bansaiyai.bansaiyai.service.EmailService;
+import com.bansaiyai.bansaiyai.service.notification.NotificationOutboxService.OutboxMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Queues payment reminders from the installment schedule.
+ *
+ * Once a day, every open installment falling due within the next few days
+ * gets one due-soon reminder, and every installment in arrears gets one
+ * overdue reminder per week it stays unpaid. Reminders carry a dedupe key
+ * per installment (and overdue week), so running the job again, or on two
+ * nodes, queues nothing new.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentReminderService {
+
+  private final InstallmentScheduleRepository installmentScheduleRepository;
+  private final NotificationOutboxService outboxService;
+  private final EmailService emailService;
+
+  @Value("${app.email.enabled:false}")
+  private boolean emailEnabled;
+
+  @Value("${app.notification.reminders.days-before:3}")
+  private int daysBefore;
+
+  @Value("${app.notification.reminders.overdue-lookback-days:90}")
+  private int overdueLookbackDays;
+
+  @Scheduled(cron = "${app.notification.reminders.cron:0 0 7 * * ?}")
+  @Transactional
+  public void enqueueScheduled() {
+    if (!emailEnabled) {
+      return;
+    }
+    enqueueReminders(LocalDate.now());
+  }
+
+  /**
+   * Queue the reminders due on {@code today}; returns the number queued.
+   */
+  @Transactional
+  public int enqueueReminders(LocalDate today) {
+    List<Object[]> rows = installmentScheduleRepository.findReminderRows(
+        today.minusDays(overdueLookbackDays), today.plusDays(daysBefore));
+    List<OutboxMessage> reminders = new ArrayList<>(rows.size());
+    for (Object[] row : rows) {
+      Long installmentId = (Long) row[0];
+      LocalDate dueDate = (LocalDate) row[1];
+      boolean overdue = dueDate.isBefore(today);
+      String dedupeKey = overdue
+          ? "PAYMENT_OVERDUE:" + installmentId + ":" + (ChronoUnit.DAYS.between(dueDate, today) - 1) / 7
+          : "PAYMENT_DUE:" + installmentId;
+      reminders.add(emailService.paymentReminder((String) row[4], (String) row[3], (String) row[5],
+          (BigDecimal) row[2], dueDate, overdue, dedupeKey));
+    }
+    int queued = outboxService.enqueueAll(reminders);
+    log.info("Payment reminders for {}: {} open installment(s), {} reminder(s) queued", today, rows.size(), queued);
+    return queued;
+  }
+}
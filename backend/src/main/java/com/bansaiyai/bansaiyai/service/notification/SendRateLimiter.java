@@ -0,0 +1,65 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per sending provider. Each bucket holds up to one minute of
+ * sends and refills continuously at the per-minute rate, so a dispatcher
+ * only claims as many outbox rows as it may send right now.
+ */
+final class SendRateLimiter {
+
+  private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+  private final int perMinute;
+  private final LongSupplier nanoClock;
+  private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+
+  SendRateLimiter(int perMinute, LongSupplier nanoClock) {
+    this.perMinute = perMinute;
+    this.nanoClock = nanoClock;
+  }
+
+  /**
+   * Take up to {@code wanted} tokens; returns how many were granted.
+   */
+  int acquire(String provider, int wanted) {
+    Bucket bucket = buckets.computeIfAbsent(provider, p -> new Bucket(perMinute, nanoClock.getAsLong()));
+    synchronized (bucket) {
+      bucket.refill(perMinute, nanoClock.getAsLong());
+      int granted = (int) Math.min(wanted, (long) bucket.tokens);
+      bucket.tokens -= granted;
+      return granted;
+    }
+  }
+
+  /**
+   * Return tokens that were acquired but not used.
+   */
+  void release(String provider, int unused) {
+    Bucket bucket = buckets.get(provider);
+    if (bucket == null || unused <= 0) {
+      return;
+    }
+    synchronized (bucket) {
+      bucket.tokens = Math.min(perMinute, bucket.tokens + unused);
+    }
+  }
+
+  private static final class Bucket {
+    private double tokens;
+    private long refilledAt;
+
+    private Bucket(double tokens, long now) {
+      this.tokens = tokens;
+      this.refilledAt = now;
+    }
+
+    private void refill(int perMinute, long now) {
+      tokens = Math.min(perMinute, tokens + (double) (now - refilledAt) * perMinute / NANOS_PER_MINUTE);
+      refilledAt = now;
+    }
+  }
+}
@@ -0,0 +1,217 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import com.bansaiyai.bansaiyai.entity.StoredBlob;
+import com.bansaiyai.bansaiyai.repository.StoredBlobRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reference-counted access to the {@link BlobStore} for loan documents and
+ * payment slips.
+ *
+ * Every collateral or slip row that points at a blob holds one reference,
+ * taken by {@link #store} in the row's transaction and given back by
+ * {@link #release}. Both lock the blob's {@code stored_blob} row, and
+ * {@link #store} re-commits the bytes to the store while holding that lock,
+ * so a blob can never disappear under a row that references it. Blobs are
+ * deleted by the sweeper, once they have been unreferenced for the grace
+ * period, or right after a rolled back upload that wrote them.
+ */
+@Service
+@Slf4j
+public class BlobService {
+
+  private final BlobStore blobStore;
+  private final StoredBlobRepository storedBlobRepository;
+  private final TransactionTemplate transactionTemplate;
+
+  @Value("${app.storage.sweep-grace-hours:24}")
+  private long sweepGraceHours;
+
+  @Value("${app.storage.sweep-batch-size:500}")
+  private int sweepBatchSize;
+
+  @Value("${app.persistence.insert-on-conflict-enabled:false}")
+  private boolean insertOnConflictEnabled;
+
+  public BlobService(BlobStore blobStore,
+      StoredBlobRepository storedBlobRepository,
+      PlatformTransactionManager transactionManager) {
+    this.blobStore = blobStore;
+    this.storedBlobRepository = storedBlobRepository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Store content and take a reference to it. Content that is already stored
+   * is not written again; only the reference count changes. Bytes this call
+   * wrote are deleted again if the surrounding transaction rolls back and
+   * nothing else took a reference to them meanwhile.
+   *
+   * @throws IllegalArgumentException if the content exceeds {@code maxBytes}
+   */
+  @Transactional
+  public StoredBlob store(InputStream in, long maxBytes) throws IOException {
+    try (StagedBlob staged = blobStore.stage(in, maxBytes)) {
+      if (insertOnConflictEnabled) {
+        storedBlobRepository.insertIfMissing(staged.sha256(), staged.size());
+      }
+      StoredBlob blob = storedBlobRepository.findForUpdate(staged.sha256())
+          .orElseGet(() -> storedBlobRepository.saveAndFlush(StoredBlob.builder()
+              .sha256(staged.sha256())
+              .sizeBytes(staged.size())
+              .refCount(0)
+              .createdAt(LocalDateTime.now())
+              .build()));
+
+      if (blobStore.commit(staged)) {
+        log.debug("Stored new blob {} ({} bytes)", staged.sha256(), staged.size());
+        discardOnRollback(staged.sha256());
+      } else {
+        log.debug("Blob {} already stored, taking a reference", staged.sha256());
+      }
+
+      blob.setRefCount(blob.getRefCount() + 1);
+      blob.setReleasedAt(null);
+      return blob;
+    }
+  }
+
+  /**
+   * Give back one reference. The blob stays in the store until swept.
+   */
+  @Transactional
+  public void release(String sha256) {
+    StoredBlob blob = storedBlobRepository.findForUpdate(sha256).orElse(null);
+    if (blob == null || blob.getRefCount() <= 0) {
+      log.warn("Release of unreferenced blob {}", sha256);
+      return;
+    }
+    blob.setRefCount(blob.getRefCount() - 1);
+    if (blob.getRefCount() == 0) {
+      blob.setReleasedAt(LocalDateTime.now());
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public StoredBlob find(String sha256) {
+    return storedBlobRepository.findById(sha256)
+        .orElseThrow(() -> new IllegalArgumentException("Blob not found: " + sha256));
+  }
+
+  public BlobStore blobStore() {
+    return blobStore;
+  }
+
+  @Scheduled(cron = "${app.storage.sweep-cron:0 15 3 * * ?}")
+  public void sweepScheduled() {
+    try {
+      int swept = sweep();
+      if (swept > 0) {
+        log.info("Blob sweep deleted {} unreferenced blob(s)", swept);
+      }
+    } catch (RuntimeException e) {
+      log.error("Blob sweep failed: {}", e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Delete blobs that have been unreferenced for longer than the grace
+   * period. Each blob is deleted in its own transaction holding its row lock;
+   * one that was referenced again since it was listed is skipped.
+   */
+  public int sweep() {
+    LocalDateTime cutoff = LocalDateTime.now().minusHours(sweepGraceHours);
+    int swept = 0;
+    List<String> candidates;
+    do {
+      candidates = storedBlobRepository.findReleasedBefore(cutoff, PageRequest.of(0, sweepBatchSize));
+      for (String sha256 : candidates) {
+        Boolean deleted = transactionTemplate.execute(status -> purge(sha256, cutoff));
+        if (Boolean.TRUE.equals(deleted)) {
+          swept++;
+        }
+      }
+    } while (candidates.size() == sweepBatchSize);
+    return swept;
+  }
+
+  /**
+   * Delete bytes just written to the store if the transaction that wrote
+   * them rolls back, since the row that would let the sweeper find them is
+   * rolled back too.
+   */
+  private void discardOnRollback(String sha256) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+      @Override
+      public void afterCompletion(int status) {
+        if (status != STATUS_ROLLED_BACK) {
+          return;
+        }
+        try {
+          transactionTemplate.executeWithoutResult(tx -> discard(sha256));
+        } catch (RuntimeException e) {
+          log.error("Failed to discard blob {} after rollback: {}", sha256, e.getMessage(), e);
+        }
+      }
+    });
+  }
+
+  /**
+   * Delete a blob nothing references, under its row lock. A concurrent
+   * upload of the same content that is still open holds the row (or, on
+   * PostgreSQL, blocks the insert below) until it commits or rolls back.
+   */
+  private void discard(String sha256) {
+    if (insertOnConflictEnabled) {
+      storedBlobRepository.insertIfMissing(sha256, 0);
+    }
+    StoredBlob blob = storedBlobRepository.findForUpdate(sha256).orElse(null);
+    if (blob != null && blob.getRefCount() > 0) {
+      return;
+    }
+    try {
+      blobStore.delete(sha256);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete blob " + sha256, e);
+    }
+    if (blob != null) {
+      storedBlobRepository.delete(blob);
+    }
+    log.debug("Discarded blob {} written by a rolled back transaction", sha256);
+  }
+
+  private boolean purge(String sha256, LocalDateTime cutoff) {
+    StoredBlob blob = storedBlobRepository.findForUpdate(sha256).orElse(null);
+    if (blob == null || blob.getRefCount() > 0
+        || blob.getReleasedAt() == null || !blob.getReleasedAt().isBefore(cutoff)) {
+      return false;
+    }
+    try {
+      blobStore.delete(sha256);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to delete blob " + sha256, e);
+    }
+    storedBlobRepository.delete(blob);
+    return true;
+  }
+}
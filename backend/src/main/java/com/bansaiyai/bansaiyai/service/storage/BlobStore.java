@@ -0,0 +1,78 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed blob storage. Blobs are immutable and keyed by the
+ * lower-case hex SHA-256 of their content, so storing the same bytes twice
+ * keeps one copy.
+ *
+ * Writing is two-phase: {@link #stage} streams the upload to a local
+ * temporary file while hashing it, and {@link #commit} makes it durable under
+ * its hash unless a copy already exists. Reference counting lives in
+ * {@link BlobService}; implementations only move bytes.
+ */
+public interface BlobStore {
+
+  /**
+   * Copy {@code in} to a local staging file, computing its SHA-256 on the way.
+   *
+   * @throws IllegalArgumentException if the content exceeds {@code maxBytes}
+   */
+  StagedBlob stage(InputStream in, long maxBytes) throws IOException;
+
+  /**
+   * Store a staged blob under its hash. A no-op returning {@code false} when
+   * the blob is already present. Either way the staging file is consumed.
+   */
+  boolean commit(StagedBlob staged) throws IOException;
+
+  boolean exists(String sha256) throws IOException;
+
+  /**
+   * Open a whole blob.
+   */
+  InputStream open(String sha256) throws IOException;
+
+  /**
+   * Open {@code length} bytes of a blob starting at {@code offset}.
+   */
+  InputStream open(String sha256, long offset, long length) throws IOException;
+
+  /**
+   * The blob's file when it lives on the local filesystem, for zero-copy
+   * serving; empty for remote stores.
+   */
+  Optional<Path> localPath(String sha256);
+
+  void delete(String sha256) throws IOException;
+
+  /**
+   * Sharded relative key for a hash: {@code ab/cd/abcd...}.
+   */
+  static String shardedKey(String sha256) {
+    if (!isSha256(sha256)) {
+      throw new IllegalArgumentException("Invalid blob hash");
+    }
+    return sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+  }
+
+  /**
+   * Whether {@code value} is a lower-case hex SHA-256, i.e. a valid blob key.
+   */
+  static boolean isSha256(String value) {
+    if (value == null || value.length() != 64) {
+      return false;
+    }
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
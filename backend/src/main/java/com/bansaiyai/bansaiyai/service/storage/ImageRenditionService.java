@@ -0,0 +1,327 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.w3c.dom.Node;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates and caches downscaled JPEG renditions of image blobs using only
+ * JDK ImageIO.
+ *
+ * Renditions are produced on first request and kept on disk under
+ * {@code <cache-dir>/<rendition>/ab/cd/<sha256>.jpg}. Because blobs are
+ * immutable and keyed by content hash, a cached rendition never goes stale
+ * and needs no invalidation. Concurrent requests for the same rendition
+ * wait for a single generation.
+ *
+ * Phone photos are decoded with source subsampling, so a 12-megapixel slip
+ * is never expanded to full size in memory, and EXIF orientation is applied
+ * so portrait shots are not shown sideways.
+ */
+@Service
+@Slf4j
+public class ImageRenditionService {
+
+  private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+  private static final int APP1_MARKER = 0xE1;
+  private static final int EXIF_ORIENTATION_TAG = 0x0112;
+
+  private final BlobStore blobStore;
+  private final Path cacheDir;
+  private final float jpegQuality;
+  private final long maxSourcePixels;
+  private final ConcurrentHashMap<String, Object> inFlight = new ConcurrentHashMap<>();
+
+  public ImageRenditionService(BlobStore blobStore,
+      @Value("${app.storage.renditions.cache-dir:/opt/bansaiyai/uploads/renditions}") String cacheDir,
+      @Value("${app.storage.renditions.jpeg-quality:0.8}") float jpegQuality,
+      @Value("${app.storage.renditions.max-source-pixels:100000000}") long maxSourcePixels) {
+    this.blobStore = blobStore;
+    this.cacheDir = Paths.get(cacheDir).toAbsolutePath().normalize();
+    this.jpegQuality = jpegQuality;
+    this.maxSourcePixels = maxSourcePixels;
+  }
+
+  /**
+   * The cached rendition of an image blob, generating it if needed. Empty
+   * when the blob is missing or is not a decodable image.
+   */
+  public Optional<Path> render(String sha256, Rendition rendition) throws IOException {
+    Path target = cacheDir.resolve(rendition.param()).resolve(BlobStore.shardedKey(sha256) + ".jpg");
+    if (Files.exists(target)) {
+      return Optional.of(target);
+    }
+
+    String key = rendition.param() + "/" + sha256;
+    Object lock = inFlight.computeIfAbsent(key, k -> new Object());
+    try {
+      synchronized (lock) {
+        if (Files.exists(target)) {
+          return Optional.of(target);
+        }
+        if (!blobStore.exists(sha256)) {
+          return Optional.empty();
+        }
+        BufferedImage image;
+        try (InputStream in = blobStore.open(sha256)) {
+          image = decodeScaled(in, rendition.maxEdge());
+        }
+        if (image == null) {
+          log.warn("Blob {} is not a renderable image; no {} rendition", sha256, rendition.param());
+          return Optional.empty();
+        }
+        write(image, target);
+        log.debug("Generated {} rendition of {} ({}x{})",
+            rendition.param(), sha256, image.getWidth(), image.getHeight());
+        return Optional.of(target);
+      }
+    } finally {
+      inFlight.remove(key, lock);
+    }
+  }
+
+  // ============================================================================
+  // Decoding and scaling
+  // ============================================================================
+
+  /**
+   * Decode an image so that its longest edge is at most {@code maxEdge},
+   * upright and flattened onto white. Returns null if no ImageIO reader
+   * recognises the data or the image exceeds the pixel limit.
+   */
+  BufferedImage decodeScaled(InputStream in, int maxEdge) throws IOException {
+    try (ImageInputStream iis = ImageIO.createImageInputStream(in)) {
+      if (iis == null) {
+        return null;
+      }
+      Iterator<ImageReader> readers = ImageIO.getImageReaders(iis);
+      if (!readers.hasNext()) {
+        return null;
+      }
+      ImageReader reader = readers.next();
+      try {
+        reader.setInput(iis, true, false);
+        int width = reader.getWidth(0);
+        int height = reader.getHeight(0);
+        if ((long) width * height > maxSourcePixels) {
+          log.warn("Image too large to render: {}x{}", width, height);
+          return null;
+        }
+        int orientation = exifOrientation(reader);
+
+        // Decode at no less than twice the target size, then scale smoothly
+        ImageReadParam param = reader.getDefaultReadParam();
+        int subsampling = Math.max(1, Math.max(width, height) / (maxEdge * 2));
+        param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+        BufferedImage decoded = reader.read(0, param);
+
+        return orient(scale(decoded, maxEdge), orientation);
+      } finally {
+        reader.dispose();
+      }
+    }
+  }
+
+  private static BufferedImage scale(BufferedImage source, int maxEdge) {
+    int width = source.getWidth();
+    int height = source.getHeight();
+    double factor = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+    int scaledWidth = Math.max(1, (int) Math.round(width * factor));
+    int scaledHeight = Math.max(1, (int) Math.round(height * factor));
+
+    BufferedImage scaled = new BufferedImage(scaledWidth, scaledHeight, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = scaled.createGraphics();
+    try {
+      // JPEG has no alpha: transparent PNG areas become white, not black
+      g.setColor(Color.WHITE);
+      g.fillRect(0, 0, scaledWidth, scaledHeight);
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.drawImage(source, 0, 0, scaledWidth, scaledHeight, null);
+    } finally {
+      g.dispose();
+    }
+    return scaled;
+  }
+
+  /**
+   * Apply an EXIF orientation (1-8) so the image displays upright.
+   */
+  private static BufferedImage orient(BufferedImage source, int orientation) {
+    if (orientation <= 1 || orientation > 8) {
+      return source;
+    }
+    int w = source.getWidth();
+    int h = source.getHeight();
+    AffineTransform t = new AffineTransform();
+    switch (orientation) {
+      case 2 -> { // mirror horizontal
+        t.translate(w, 0);
+        t.scale(-1, 1);
+      }
+      case 3 -> { // rotate 180
+        t.translate(w, h);
+        t.rotate(Math.PI);
+      }
+      case 4 -> { // mirror vertical
+        t.translate(0, h);
+        t.scale(1, -1);
+      }
+      case 5 -> { // transpose
+        t.rotate(-Math.PI / 2);
+        t.scale(-1, 1);
+      }
+      case 6 -> { // rotate 90 clockwise
+        t.translate(h, 0);
+        t.rotate(Math.PI / 2);
+      }
+      case 7 -> { // transverse
+        t.translate(h, w);
+        t.scale(1, -1);
+        t.rotate(Math.PI / 2);
+      }
+      default -> { // 8: rotate 90 counter-clockwise
+        t.translate(0, w);
+        t.rotate(-Math.PI / 2);
+      }
+    }
+    boolean swap = orientation >= 5;
+    BufferedImage oriented = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+    Graphics2D g = oriented.createGraphics();
+    try {
+      g.drawImage(source, t, null);
+    } finally {
+      g.dispose();
+    }
+    return oriented;
+  }
+
+  /**
+   * EXIF orientation of a JPEG, read from the APP1 segment ImageIO exposes
+   * as an unknown marker. 1 (upright) when absent or unreadable.
+   */
+  private static int exifOrientation(ImageReader reader) {
+    try {
+      IIOMetadata metadata = reader.getImageMetadata(0);
+      if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+        return 1;
+      }
+      Node root = metadata.getAsTree(JPEG_METADATA_FORMAT);
+      for (Node section = root.getFirstChild(); section != null; section = section.getNextSibling()) {
+        if (!"markerSequence".equals(section.getNodeName())) {
+          continue;
+        }
+        for (Node marker = section.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+          if ("unknown".equals(marker.getNodeName()) && marker instanceof IIOMetadataNode node
+              && String.valueOf(APP1_MARKER).equals(node.getAttribute("MarkerTag"))
+              && node.getUserObject() instanceof byte[] data) {
+            int orientation = parseExifOrientation(data);
+            if (orientation > 0) {
+              return orientation;
+            }
+          }
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      log.debug("Could not read EXIF orientation: {}", e.getMessage());
+    }
+    return 1;
+  }
+
+  /**
+   * Orientation tag from an APP1 payload ({@code Exif\0\0} + TIFF header +
+   * IFD0), or 0 when not present.
+   */
+  static int parseExifOrientation(byte[] app1) {
+    if (app1.length < 14 || app1[0] != 'E' || app1[1] != 'x' || app1[2] != 'i' || app1[3] != 'f') {
+      return 0;
+    }
+    int tiff = 6;
+    boolean littleEndian = app1[tiff] == 'I' && app1[tiff + 1] == 'I';
+    if (!littleEndian && !(app1[tiff] == 'M' && app1[tiff + 1] == 'M')) {
+      return 0;
+    }
+    int ifd = tiff + readInt(app1, tiff + 4, littleEndian);
+    if (ifd < tiff || ifd + 2 > app1.length) {
+      return 0;
+    }
+    int entries = readShort(app1, ifd, littleEndian);
+    for (int i = 0; i < entries; i++) {
+      int entry = ifd + 2 + i * 12;
+      if (entry + 12 > app1.length) {
+        return 0;
+      }
+      if (readShort(app1, entry, littleEndian) == EXIF_ORIENTATION_TAG) {
+        return readShort(app1, entry + 8, littleEndian);
+      }
+    }
+    return 0;
+  }
+
+  private static int readShort(byte[] data, int offset, boolean littleEndian) {
+    int b0 = data[offset] & 0xFF;
+    int b1 = data[offset + 1] & 0xFF;
+    return littleEndian ? (b1 << 8) | b0 : (b0 << 8) | b1;
+  }
+
+  private static int readInt(byte[] data, int offset, boolean littleEndian) {
+    int hi = readShort(data, littleEndian ? offset + 2 : offset, littleEndian);
+    int lo = readShort(data, littleEndian ? offset : offset + 2, littleEndian);
+    return (hi << 16) | lo;
+  }
+
+  // ============================================================================
+  // Encoding
+  // ============================================================================
+
+  /**
+   * Encode as JPEG into a temporary file next to the target and rename it
+   * into place, so readers never see a partial rendition.
+   */
+  private void write(BufferedImage image, Path target) throws IOException {
+    Files.createDirectories(target.getParent());
+    Path temp = Files.createTempFile(target.getParent(), ".rendition-", ".tmp");
+    try {
+      ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+      try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+        writer.setOutput(out);
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+        writer.write(null, new IIOImage(image, null, null), param);
+      } finally {
+        writer.dispose();
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+}
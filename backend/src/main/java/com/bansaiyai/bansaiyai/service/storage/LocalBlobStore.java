@@ -0,0 +1,127 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * {@link BlobStore} on the local filesystem. Blobs live at
+ * {@code <root>/ab/cd/<sha256>} so no directory grows past a few hundred
+ * entries; staging files are written under {@code <root>/tmp} on the same
+ * filesystem and renamed into place atomically.
+ */
+public class LocalBlobStore implements BlobStore {
+
+  private final Path root;
+  private final Path staging;
+
+  public LocalBlobStore(Path root) {
+    this.root = root.toAbsolutePath().normalize();
+    this.staging = this.root.resolve("tmp");
+  }
+
+  @Override
+  public StagedBlob stage(InputStream in, long maxBytes) throws IOException {
+    return StagedBlob.write(in, staging, maxBytes);
+  }
+
+  @Override
+  public boolean commit(StagedBlob staged) throws IOException {
+    Path target = pathOf(staged.sha256());
+    if (Files.exists(target)) {
+      staged.close();
+      return false;
+    }
+    Files.createDirectories(target.getParent());
+    try {
+      Files.move(staged.file(), target, StandardCopyOption.ATOMIC_MOVE);
+    } catch (FileAlreadyExistsException e) {
+      // Another upload of the same content won the rename
+      staged.close();
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public boolean exists(String sha256) {
+    return Files.exists(pathOf(sha256));
+  }
+
+  @Override
+  public InputStream open(String sha256) throws IOException {
+    return Files.newInputStream(pathOf(sha256));
+  }
+
+  @Override
+  public InputStream open(String sha256, long offset, long length) throws IOException {
+    FileChannel channel = FileChannel.open(pathOf(sha256), StandardOpenOption.READ);
+    channel.position(offset);
+    return new BoundedInputStream(Channels.newInputStream(channel), length);
+  }
+
+  @Override
+  public Optional<Path> localPath(String sha256) {
+    Path path = pathOf(sha256);
+    return Files.exists(path) ? Optional.of(path) : Optional.empty();
+  }
+
+  @Override
+  public void delete(String sha256) throws IOException {
+    Files.deleteIfExists(pathOf(sha256));
+  }
+
+  private Path pathOf(String sha256) {
+    return root.resolve(BlobStore.shardedKey(sha256));
+  }
+
+  /**
+   * Reads at most {@code remaining} bytes of the wrapped stream.
+   */
+  private static final class BoundedInputStream extends InputStream {
+
+    private final InputStream in;
+    private long remaining;
+
+    BoundedInputStream(InputStream in, long remaining) {
+      this.in = in;
+      this.remaining = remaining;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int b = in.read();
+      if (b >= 0) {
+        remaining--;
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+      if (remaining <= 0) {
+        return -1;
+      }
+      int read = in.read(b, off, (int) Math.min(len, remaining));
+      if (read > 0) {
+        remaining -= read;
+      }
+      return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
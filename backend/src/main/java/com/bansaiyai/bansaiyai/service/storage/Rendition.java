@@ -0,0 +1,63 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import java.util.Locale;
+
+/**
+ * Downscaled JPEG variants of an image blob, bounded by their longest edge.
+ */
+public enum Rendition {
+
+  /** Review-queue and document-list thumbnails. */
+  THUMBNAIL("thumbnail", 320),
+
+  /** Fits a phone or laptop screen; what officers open to read a slip. */
+  PREVIEW("preview", 1280);
+
+  private final String param;
+  private final int maxEdge;
+
+  Rendition(String param, int maxEdge) {
+    this.param = param;
+    this.maxEdge = maxEdge;
+  }
+
+  /** Value of the {@code rendition} query parameter. */
+  public String param() {
+    return param;
+  }
+
+  public int maxEdge() {
+    return maxEdge;
+  }
+
+  /**
+   * @throws IllegalArgumentException for an unknown rendition name
+   */
+  public static Rendition fromParam(String value) {
+    String wanted = value.trim().toLowerCase(Locale.ROOT);
+    for (Rendition rendition : values()) {
+      if (rendition.param.equals(wanted)) {
+        return rendition;
+      }
+    }
+    throw new IllegalArgumentException("Unknown rendition: " + value);
+  }
+
+  /**
+   * Whether a file with this name can have renditions (JPEG or PNG).
+   */
+  public static boolean supports(String filename) {
+    if (filename == null) {
+      return false;
+    }
+    String lower = filename.toLowerCase(Locale.ROOT);
+    return lower.endsWith(".jpg") || lower.endsWith(".jpeg") || lower.endsWith(".png");
+  }
+
+  /**
+   * {@code baseUrl} with this rendition selected.
+   */
+  public String url(String baseUrl) {
+    return baseUrl + "?rendition=" + param;
+  }
+}
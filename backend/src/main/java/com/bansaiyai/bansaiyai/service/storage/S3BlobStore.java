@@ -0,0 +1,246 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * {@link BlobStore} on an S3-compatible object store (AWS S3, MinIO, Ceph
+ * RGW), spoken directly over HTTP with AWS Signature Version 4 and
+ * path-style addressing. Objects are keyed {@code <prefix>ab/cd/<sha256>}.
+ *
+ * Uploads are staged on local disk first, so the hash is known before the
+ * PUT: it doubles as the signed payload hash, letting the store reject a
+ * corrupted transfer, and a HEAD on the key skips the PUT entirely for
+ * content that is already stored.
+ */
+@Slf4j
+public class S3BlobStore implements BlobStore {
+
+  private static final String ALGORITHM = "AWS4-HMAC-SHA256";
+  private static final String EMPTY_SHA256 =
+      "e3b0c44298fc1c149afbf4c8996fb92427ae41e4649b934ca495991b7852b855";
+  private static final DateTimeFormatter AMZ_DATE = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+  private static final DateTimeFormatter AMZ_DAY = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+  private final HttpClient client;
+  private final URI endpoint;
+  private final String bucket;
+  private final String prefix;
+  private final String region;
+  private final String accessKey;
+  private final String secretKey;
+  private final Path staging;
+  private final Clock clock;
+
+  public S3BlobStore(URI endpoint, String bucket, String prefix, String region,
+      String accessKey, String secretKey, Path staging, Clock clock) {
+    // Object stores answer HTTP/1.1; no h2c upgrade attempt on every request
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(Duration.ofSeconds(10))
+        .build();
+    this.endpoint = endpoint;
+    this.bucket = bucket;
+    this.prefix = prefix == null ? "" : prefix;
+    this.region = region;
+    this.accessKey = accessKey;
+    this.secretKey = secretKey;
+    this.staging = staging;
+    this.clock = clock;
+  }
+
+  @Override
+  public StagedBlob stage(InputStream in, long maxBytes) throws IOException {
+    return StagedBlob.write(in, staging, maxBytes);
+  }
+
+  @Override
+  public boolean commit(StagedBlob staged) throws IOException {
+    try (staged) {
+      if (exists(staged.sha256())) {
+        return false;
+      }
+      HttpRequest request = signed("PUT", staged.sha256(), staged.sha256(), Map.of(),
+          HttpRequest.BodyPublishers.ofFile(staged.file()));
+      HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+      expectSuccess(response, "PUT", staged.sha256());
+      return true;
+    }
+  }
+
+  @Override
+  public boolean exists(String sha256) throws IOException {
+    HttpRequest request = signed("HEAD", sha256, EMPTY_SHA256, Map.of(), HttpRequest.BodyPublishers.noBody());
+    HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() == 404) {
+      return false;
+    }
+    expectSuccess(response, "HEAD", sha256);
+    return true;
+  }
+
+  @Override
+  public InputStream open(String sha256) throws IOException {
+    return get(sha256, Map.of());
+  }
+
+  @Override
+  public InputStream open(String sha256, long offset, long length) throws IOException {
+    return get(sha256, Map.of("range", "bytes=" + offset + "-" + (offset + length - 1)));
+  }
+
+  private InputStream get(String sha256, Map<String, String> headers) throws IOException {
+    HttpRequest request = signed("GET", sha256, EMPTY_SHA256, headers, HttpRequest.BodyPublishers.noBody());
+    HttpResponse<InputStream> response = send(request, HttpResponse.BodyHandlers.ofInputStream());
+    if (response.statusCode() / 100 != 2) {
+      response.body().close();
+      throw new IOException("S3 GET " + sha256 + " failed with HTTP " + response.statusCode());
+    }
+    return response.body();
+  }
+
+  @Override
+  public Optional<Path> localPath(String sha256) {
+    return Optional.empty();
+  }
+
+  @Override
+  public void delete(String sha256) throws IOException {
+    HttpRequest request = signed("DELETE", sha256, EMPTY_SHA256, Map.of(), HttpRequest.BodyPublishers.noBody());
+    HttpResponse<Void> response = send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() != 404) {
+      expectSuccess(response, "DELETE", sha256);
+    }
+  }
+
+  // ============================================================================
+  // Signature Version 4
+  // ============================================================================
+
+  private HttpRequest signed(String method, String sha256, String payloadHash,
+      Map<String, String> extraHeaders, HttpRequest.BodyPublisher body) {
+    String path = "/" + bucket + "/" + prefix + BlobStore.shardedKey(sha256);
+    URI uri = endpoint.resolve(path);
+
+    ZonedDateTime now = ZonedDateTime.now(clock.withZone(ZoneOffset.UTC));
+    String amzDate = AMZ_DATE.format(now);
+    String day = AMZ_DAY.format(now);
+
+    // Canonical headers must be sorted by lower-case name
+    Map<String, String> headers = new TreeMap<>(extraHeaders);
+    headers.put("host", hostHeader(uri));
+    headers.put("x-amz-content-sha256", payloadHash);
+    headers.put("x-amz-date", amzDate);
+
+    StringBuilder canonicalHeaders = new StringBuilder();
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      canonicalHeaders.append(header.getKey()).append(':').append(header.getValue().trim()).append('\n');
+    }
+    String signedHeaders = String.join(";", headers.keySet());
+
+    String canonicalRequest = method + "\n"
+        + uri.getRawPath() + "\n"
+        + "\n"
+        + canonicalHeaders + "\n"
+        + signedHeaders + "\n"
+        + payloadHash;
+
+    String scope = day + "/" + region + "/s3/aws4_request";
+    String stringToSign = ALGORITHM + "\n" + amzDate + "\n" + scope + "\n" + hex(sha256(canonicalRequest));
+
+    byte[] key = hmac(("AWS4" + secretKey).getBytes(StandardCharsets.UTF_8), day);
+    key = hmac(key, region);
+    key = hmac(key, "s3");
+    key = hmac(key, "aws4_request");
+    String signature = hex(hmac(key, stringToSign));
+
+    HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+        .timeout(Duration.ofMinutes(2))
+        .method(method, body)
+        .header("Authorization", ALGORITHM + " Credential=" + accessKey + "/" + scope
+            + ", SignedHeaders=" + signedHeaders + ", Signature=" + signature);
+    for (Map.Entry<String, String> header : headers.entrySet()) {
+      // The client sets Host itself, from the same URI
+      if (!header.getKey().equals("host")) {
+        builder.header(header.getKey(), header.getValue());
+      }
+    }
+    return builder.build();
+  }
+
+  private static String hostHeader(URI uri) {
+    int port = uri.getPort();
+    boolean defaultPort = port == -1
+        || ("http".equals(uri.getScheme()) && port == 80)
+        || ("https".equals(uri.getScheme()) && port == 443);
+    return defaultPort ? uri.getHost() : uri.getHost() + ":" + port;
+  }
+
+  private static byte[] sha256(String value) {
+    try {
+      return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private static byte[] hmac(byte[] key, String data) {
+    try {
+      Mac mac = Mac.getInstance("HmacSHA256");
+      mac.init(new SecretKeySpec(key, "HmacSHA256"));
+      return mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException("HmacSHA256 not available", e);
+    }
+  }
+
+  private static String hex(byte[] bytes) {
+    return HexFormat.of().formatHex(bytes);
+  }
+
+  /**
+   * Send a request, once more on a fresh connection if the pooled one turns
+   * out to have been closed by the store in the meantime. Every request this
+   * store makes is idempotent: objects are keyed by their content.
+   */
+  private <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+    try {
+      try {
+        return client.send(request, handler);
+      } catch (IOException e) {
+        log.debug("S3 {} {} failed ({}), retrying once", request.method(), request.uri(), e.getMessage());
+        return client.send(request, handler);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while calling object store", e);
+    }
+  }
+
+  private static void expectSuccess(HttpResponse<?> response, String method, String sha256) throws IOException {
+    if (response.statusCode() / 100 != 2) {
+      throw new IOException("S3 " + method + " " + sha256 + " failed with HTTP " + response.statusCode());
+    }
+  }
+}
@@ -0,0 +1,89 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * An upload written to a local temporary file and hashed, waiting to be
+ * committed to a {@link BlobStore}. Closing deletes the temporary file if the
+ * store has not taken it.
+ */
+@Slf4j
+public final class StagedBlob implements AutoCloseable {
+
+  private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private final Path file;
+  private final String sha256;
+  private final long size;
+
+  private StagedBlob(Path file, String sha256, long size) {
+    this.file = file;
+    this.sha256 = sha256;
+    this.size = size;
+  }
+
+  /**
+   * Stream {@code in} into a new temporary file in {@code directory}. Stops
+   * and cleans up as soon as more than {@code maxBytes} have been read.
+   */
+  static StagedBlob write(InputStream in, Path directory, long maxBytes) throws IOException {
+    Files.createDirectories(directory);
+    Path temp = Files.createTempFile(directory, ".blob-", ".tmp");
+    boolean done = false;
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      long size = 0;
+      byte[] buffer = new byte[COPY_BUFFER_SIZE];
+      try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+          size += read;
+          if (size > maxBytes) {
+            throw new IllegalArgumentException(
+                String.format("File size exceeds maximum limit of %d MB", maxBytes / 1024 / 1024));
+          }
+          out.write(buffer, 0, read);
+        }
+      }
+      done = true;
+      return new StagedBlob(temp, HexFormat.of().formatHex(digest.digest()), size);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    } finally {
+      if (!done) {
+        Files.deleteIfExists(temp);
+      }
+    }
+  }
+
+  public String sha256() {
+    return sha256;
+  }
+
+  public long size() {
+    return size;
+  }
+
+  Path file() {
+    return file;
+  }
+
+  @Override
+  public void close() {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      log.warn("Failed to delete staged blob: {}", file, e);
+    }
+  }
+}
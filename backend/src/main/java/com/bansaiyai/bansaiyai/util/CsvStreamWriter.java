@@ -0,0 +1,317 @@
+package com.bansaiyai.bansaiyai.util;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Buffered CSV writer that encodes straight into a byte buffer and flushes it
+ * to an {@link OutputStream} when full, so exports run in constant memory
+ * regardless of row count.
+ *
+ * Money, integers and dates are formatted digit by digit into the buffer
+ * instead of going through {@code String.format}; field escaping uses a
+ * precomputed lookup table rather than regular expressions.
+ *
+ * I/O failures are rethrown as {@link UncheckedIOException} so the writer can
+ * be used from lambdas and streams. Closing flushes the buffer but leaves the
+ * underlying stream open; the caller owns it.
+ */
+public final class CsvStreamWriter implements Closeable, Flushable {
+
+  public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+  private static final boolean[] NEEDS_QUOTING = new boolean[128];
+
+  static {
+    NEEDS_QUOTING[','] = true;
+    NEEDS_QUOTING['"'] = true;
+    NEEDS_QUOTING['\n'] = true;
+    NEEDS_QUOTING['\r'] = true;
+  }
+
+  private final OutputStream out;
+  private final byte[] buffer;
+  private final byte[] digits = new byte[20];
+  private int position;
+  private boolean firstField = true;
+
+  public CsvStreamWriter(OutputStream out) {
+    this(out, DEFAULT_BUFFER_SIZE);
+  }
+
+  public CsvStreamWriter(OutputStream out, int bufferSize) {
+    if (bufferSize < 64) {
+      throw new IllegalArgumentException("Buffer size must be at least 64 bytes");
+    }
+    this.out = out;
+    this.buffer = new byte[bufferSize];
+  }
+
+  /**
+   * Write a text field, quoting it only when it contains a separator, quote
+   * or line break.
+   */
+  public CsvStreamWriter field(CharSequence value) {
+    separator();
+    if (value == null) {
+      return this;
+    }
+    if (needsQuoting(value)) {
+      writeByte('"');
+      for (int i = 0; i < value.length(); i++) {
+        char c = value.charAt(i);
+        if (c == '"') {
+          writeByte('"');
+        }
+        i = writeChar(value, i);
+      }
+      writeByte('"');
+    } else {
+      writeChars(value);
+    }
+    return this;
+  }
+
+  /**
+   * Write a field without any escaping. Only for trusted constant text.
+   */
+  public CsvStreamWriter raw(CharSequence value) {
+    separator();
+    if (value != null) {
+      writeChars(value);
+    }
+    return this;
+  }
+
+  public CsvStreamWriter empty() {
+    separator();
+    return this;
+  }
+
+  public CsvStreamWriter number(long value) {
+    separator();
+    writeLong(value);
+    return this;
+  }
+
+  /**
+   * Write an amount with exactly two decimals, rounded HALF_UP (the same
+   * result as {@code %.2f}). Null is written as an empty field.
+   */
+  public CsvStreamWriter money(BigDecimal amount) {
+    if (amount == null) {
+      return empty();
+    }
+    BigDecimal scaled = amount.scale() == 2 ? amount : amount.setScale(2, RoundingMode.HALF_UP);
+    return money(scaled.unscaledValue().longValueExact());
+  }
+
+  /**
+   * Write an amount given in satang (1/100 baht) as baht with two decimals.
+   */
+  public CsvStreamWriter money(long satang) {
+    separator();
+    if (satang < 0) {
+      writeByte('-');
+    }
+    long abs = Math.abs(satang);
+    writeLong(abs / 100);
+    int fraction = (int) (abs % 100);
+    ensureCapacity(3);
+    buffer[position++] = '.';
+    buffer[position++] = (byte) ('0' + fraction / 10);
+    buffer[position++] = (byte) ('0' + fraction % 10);
+    return this;
+  }
+
+  /**
+   * Write an ISO date (yyyy-MM-dd). Null is written as an empty field.
+   */
+  public CsvStreamWriter date(LocalDate date) {
+    separator();
+    if (date != null) {
+      writeDate(date);
+    }
+    return this;
+  }
+
+  /**
+   * Write a value of any supported type using the most direct formatter.
+   */
+  public CsvStreamWriter value(Object value) {
+    if (value == null) {
+      return empty();
+    } else if (value instanceof Long || value instanceof Integer || value instanceof Short) {
+      return number(((Number) value).longValue());
+    } else if (value instanceof BigDecimal) {
+      return raw(((BigDecimal) value).toPlainString());
+    } else if (value instanceof LocalDate) {
+      return date((LocalDate) value);
+    } else if (value instanceof LocalDateTime) {
+      LocalDateTime dateTime = (LocalDateTime) value;
+      separator();
+      writeDate(dateTime.toLocalDate());
+      writeByte(' ');
+      writeTwoDigits(dateTime.getHour());
+      writeByte(':');
+      writeTwoDigits(dateTime.getMinute());
+      writeByte(':');
+      writeTwoDigits(dateTime.getSecond());
+      return this;
+    }
+    return field(value.toString());
+  }
+
+  /**
+   * Terminate the current row.
+   */
+  public CsvStreamWriter endRow() {
+    writeByte('\n');
+    firstField = true;
+    return this;
+  }
+
+  /**
+   * Write a complete, already-formatted line (e.g. a constant header).
+   */
+  public CsvStreamWriter line(CharSequence text) {
+    return raw(text).endRow();
+  }
+
+  @Override
+  public void flush() {
+    try {
+      drain();
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    flush();
+  }
+
+  private void separator() {
+    if (firstField) {
+      firstField = false;
+    } else {
+      writeByte(',');
+    }
+  }
+
+  private static boolean needsQuoting(CharSequence value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 128 && NEEDS_QUOTING[c]) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void writeChars(CharSequence value) {
+    for (int i = 0; i < value.length(); i++) {
+      i = writeChar(value, i);
+    }
+  }
+
+  /**
+   * UTF-8 encode the char at index i (consuming a surrogate pair if present)
+   * and return the index of the last char consumed.
+   */
+  private int writeChar(CharSequence value, int i) {
+    char c = value.charAt(i);
+    ensureCapacity(4);
+    if (c < 0x80) {
+      buffer[position++] = (byte) c;
+    } else if (c < 0x800) {
+      buffer[position++] = (byte) (0xC0 | (c >> 6));
+      buffer[position++] = (byte) (0x80 | (c & 0x3F));
+    } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+        && Character.isLowSurrogate(value.charAt(i + 1))) {
+      int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+      buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+      buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+      buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+      buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+      return i + 1;
+    } else if (Character.isSurrogate(c)) {
+      buffer[position++] = '?';
+    } else {
+      buffer[position++] = (byte) (0xE0 | (c >> 12));
+      buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+      buffer[position++] = (byte) (0x80 | (c & 0x3F));
+    }
+    return i;
+  }
+
+  private void writeLong(long value) {
+    if (value == Long.MIN_VALUE) {
+      writeChars(Long.toString(value));
+      return;
+    }
+    if (value < 0) {
+      writeByte('-');
+      value = -value;
+    }
+    int count = 0;
+    do {
+      digits[count++] = (byte) ('0' + (value % 10));
+      value /= 10;
+    } while (value != 0);
+    ensureCapacity(count);
+    while (count > 0) {
+      buffer[position++] = digits[--count];
+    }
+  }
+
+  private void writeDate(LocalDate date) {
+    int year = date.getYear();
+    if (year < 1000 || year > 9999) {
+      writeChars(date.toString());
+      return;
+    }
+    writeLong(year);
+    writeByte('-');
+    writeTwoDigits(date.getMonthValue());
+    writeByte('-');
+    writeTwoDigits(date.getDayOfMonth());
+  }
+
+  private void writeTwoDigits(int value) {
+    ensureCapacity(2);
+    buffer[position++] = (byte) ('0' + value / 10);
+    buffer[position++] = (byte) ('0' + value % 10);
+  }
+
+  private void writeByte(int b) {
+    ensureCapacity(1);
+    buffer[position++] = (byte) b;
+  }
+
+  private void ensureCapacity(int bytes) {
+    if (position + bytes > buffer.length) {
+      try {
+        drain();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void drain() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
@@ -0,0 +1,254 @@
+package com.bansaiyai.bansaiyai.util;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Writes a file, or any other seekable body, to a servlet response with HTTP
+ * Range and ETag support.
+ *
+ * Conditional requests ({@code If-None-Match}) are answered with 304, a single
+ * byte range with 206 and an unsatisfiable range with 416. Multi-range
+ * requests fall back to the full body, which RFC 9110 permits.
+ *
+ * A file body is never buffered on the heap: when the container advertises
+ * sendfile (Tomcat NIO) the region is handed to the connector; otherwise it is
+ * copied with {@link FileChannel#transferTo}. Other bodies (remote blobs)
+ * open a stream over just the requested region.
+ */
+public final class RangedFileResponse {
+
+  static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+  static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+  static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+  static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+  private RangedFileResponse() {
+  }
+
+  /**
+   * Content that can be served a byte range at a time.
+   */
+  public interface Body {
+
+    long length() throws IOException;
+
+    long lastModified() throws IOException;
+
+    /** Write {@code count} bytes starting at {@code start}. */
+    void write(HttpServletRequest request, HttpServletResponse response, long start, long count)
+        throws IOException;
+  }
+
+  /**
+   * Opens a stream over {@code count} bytes starting at {@code start}.
+   */
+  @FunctionalInterface
+  public interface RegionOpener {
+    InputStream open(long start, long count) throws IOException;
+  }
+
+  /**
+   * A local file, sent with sendfile or {@link FileChannel#transferTo}.
+   */
+  public static Body file(Path file) {
+    return new Body() {
+      @Override
+      public long length() throws IOException {
+        return Files.size(file);
+      }
+
+      @Override
+      public long lastModified() throws IOException {
+        return Files.getLastModifiedTime(file).toMillis();
+      }
+
+      @Override
+      public void write(HttpServletRequest request, HttpServletResponse response, long start, long count)
+          throws IOException {
+        writeFile(request, response, file, start, count);
+      }
+    };
+  }
+
+  /**
+   * A body of known length read through {@code opener}, one region per
+   * request.
+   */
+  public static Body stream(long length, long lastModified, RegionOpener opener) {
+    return new Body() {
+      @Override
+      public long length() {
+        return length;
+      }
+
+      @Override
+      public long lastModified() {
+        return lastModified;
+      }
+
+      @Override
+      public void write(HttpServletRequest request, HttpServletResponse response, long start, long count)
+          throws IOException {
+        try (InputStream in = opener.open(start, count)) {
+          in.transferTo(response.getOutputStream());
+        }
+      }
+    };
+  }
+
+  /**
+   * Weak ETag derived from file size and modification time, for files whose
+   * content hash is not known.
+   */
+  public static String weakEtag(Path file) throws IOException {
+    return "W/\"" + Long.toHexString(Files.size(file)) + "-"
+        + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+  }
+
+  /**
+   * Strong ETag for a content hash.
+   */
+  public static String strongEtag(String contentHash) {
+    return "\"" + contentHash + "\"";
+  }
+
+  /**
+   * Serve {@code file}. Content type and disposition headers are left to the
+   * caller and must be set before this is called.
+   */
+  public static void write(HttpServletRequest request, HttpServletResponse response,
+      Path file, String etag) throws IOException {
+    write(request, response, file(file), etag);
+  }
+
+  /**
+   * Serve {@code body}. Content type and disposition headers are left to the
+   * caller and must be set before this is called.
+   */
+  public static void write(HttpServletRequest request, HttpServletResponse response,
+      Body body, String etag) throws IOException {
+    long length = body.length();
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setHeader(HttpHeaders.ETAG, etag);
+    response.setDateHeader(HttpHeaders.LAST_MODIFIED, body.lastModified());
+
+    if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag, true)) {
+      response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+      return;
+    }
+
+    long start = 0;
+    long end = length - 1;
+    String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+    String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (rangeHeader != null && (ifRange == null || matches(ifRange, etag, false))) {
+      List<HttpRange> ranges;
+      try {
+        ranges = HttpRange.parseRanges(rangeHeader);
+      } catch (IllegalArgumentException e) {
+        ranges = List.of();
+      }
+      if (ranges.size() == 1) {
+        HttpRange range = ranges.get(0);
+        if (!satisfiable(range, length)) {
+          response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+          response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+          return;
+        }
+        start = range.getRangeStart(length);
+        end = range.getRangeEnd(length);
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+      }
+    }
+
+    long count = end - start + 1;
+    response.setContentLengthLong(count);
+    if ("HEAD".equals(request.getMethod()) || count <= 0) {
+      return;
+    }
+    body.write(request, response, start, count);
+  }
+
+  private static void writeFile(HttpServletRequest request, HttpServletResponse response,
+      Path file, long start, long count) throws IOException {
+    if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+      request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+      request.setAttribute(SENDFILE_START, start);
+      request.setAttribute(SENDFILE_END, start + count);
+      return;
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+      long position = start;
+      long remaining = count;
+      while (remaining > 0) {
+        long sent = channel.transferTo(position, remaining, out);
+        if (sent <= 0) {
+          break;
+        }
+        position += sent;
+        remaining -= sent;
+      }
+    }
+  }
+
+  /**
+   * A range is unsatisfiable when its first byte lies beyond the end of the
+   * file. Depending on the Spring version {@link HttpRange} either returns
+   * such a start or rejects it with an exception.
+   */
+  private static boolean satisfiable(HttpRange range, long length) {
+    try {
+      return length > 0 && range.getRangeStart(length) < length;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Compare an entity-tag header against {@code etag}. {@code If-None-Match}
+   * uses weak comparison, {@code If-Range} strong comparison.
+   */
+  private static boolean matches(String header, String etag, boolean weak) {
+    if (header == null) {
+      return false;
+    }
+    if (weak && header.trim().equals("*")) {
+      return true;
+    }
+    if (!weak && etag.startsWith("W/")) {
+      return false;
+    }
+    String target = opaque(etag);
+    for (String candidate : header.split(",")) {
+      String tag = candidate.trim();
+      if (!weak && tag.startsWith("W/")) {
+        continue;
+      }
+      if (opaque(tag).equals(target)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String opaque(String tag) {
+    return tag.startsWith("W/") ? tag.substring(2) : tag;
+  }
+}
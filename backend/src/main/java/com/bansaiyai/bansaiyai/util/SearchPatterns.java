@@ -0,0 +1,27 @@
+package com.bansaiyai.bansaiyai.util;
+
+/**
+ * Helpers for building LIKE / ILIKE patterns from user-entered keywords.
+ */
+public final class SearchPatterns {
+
+  private SearchPatterns() {
+  }
+
+  /**
+   * Build a "contains" pattern ({@code %keyword%}), escaping LIKE wildcards
+   * in the keyword with the default backslash escape so "50%" or "A_1" match
+   * literally.
+   */
+  public static String contains(String keyword) {
+    StringBuilder pattern = new StringBuilder(keyword.length() + 4).append('%');
+    for (int i = 0; i < keyword.length(); i++) {
+      char c = keyword.charAt(i);
+      if (c == '%' || c == '_' || c == '\\') {
+        pattern.append('\\');
+      }
+      pattern.append(c);
+    }
+    return pattern.append('%').toString();
+  }
+}
@@ -0,0 +1,18 @@
+-- Checkpointed cash account balances written on reconciliation approval.
+-- Balance before a date = latest checkpoint + SUM of entries since it.
+CREATE TABLE IF NOT EXISTS cash_balance_checkpoints (
+    checkpoint_id BIGSERIAL PRIMARY KEY,
+    account_code VARCHAR(10) NOT NULL,
+    balance_date DATE NOT NULL,
+    closing_balance DECIMAL(15, 2) NOT NULL,
+    last_entry_id BIGINT NOT NULL,
+    reconciliation_id BIGINT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_cash_checkpoint_account_date UNIQUE (account_code, balance_date),
+    FOREIGN KEY (reconciliation_id) REFERENCES cash_reconciliations(reconciliation_id) ON DELETE SET NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_cash_checkpoint_account_date ON cash_balance_checkpoints(account_code, balance_date);
+
+-- Delta query scans one account from a date onwards
+CREATE INDEX IF NOT EXISTS idx_accounting_account_code_date ON accounting(account_code, transaction_date);
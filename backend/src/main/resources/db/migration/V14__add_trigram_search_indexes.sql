@@ -0,0 +1,15 @@
+-- Trigram (pg_trgm) GIN indexes for substring search.
+-- B-tree indexes from V4 cannot serve ILIKE '%keyword%'; these can, and
+-- also back the similarity() ranking used by the search queries.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- Member omni-search: member_id, name, id_card, email, phone
+CREATE INDEX IF NOT EXISTS idx_member_member_id_trgm ON member USING GIN (member_id gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_member_name_trgm ON member USING GIN (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_member_id_card_trgm ON member USING GIN (id_card gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_member_email_trgm ON member USING GIN (email gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_member_phone_trgm ON member USING GIN (phone gin_trgm_ops);
+
+-- Loan search: loan_number and purpose (borrower name goes through member)
+CREATE INDEX IF NOT EXISTS idx_loan_loan_number_trgm ON loan USING GIN (loan_number gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_loan_purpose_trgm ON loan USING GIN (purpose gin_trgm_ops);
@@ -0,0 +1,20 @@
+-- Per-member financial position maintained by the posting services.
+-- Rows are created on the first posting for a member and by the nightly
+-- verification job; members without a row are computed on read.
+CREATE TABLE IF NOT EXISTS member_financial_summary (
+    member_id BIGINT PRIMARY KEY,
+    total_savings DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    savings_account_count INTEGER NOT NULL DEFAULT 0,
+    share_capital DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    outstanding_principal DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    active_loan_count INTEGER NOT NULL DEFAULT 0,
+    loan_count INTEGER NOT NULL DEFAULT 0,
+    guaranteed_exposure DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    last_payment_date DATE,
+    next_due_date DATE,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (member_id) REFERENCES member(id) ON DELETE CASCADE
+);
+
+-- Per-member aggregates used to refresh a summary row
+CREATE INDEX IF NOT EXISTS idx_payments_member_status_date ON payments(member_id, payment_status, payment_date);
@@ -0,0 +1,67 @@
+-- Switch entity IDs from IDENTITY to pooled sequences so Hibernate can
+-- batch inserts. Hibernate reserves blocks of 50 IDs per nextval call and
+-- expects each sequence to be named <table>_<pk>_seq (the BIGSERIAL name)
+-- and to increment by 50.
+--
+-- For every table the sequence is created if missing, re-sized to 50 and
+-- moved past the current maximum ID, so the first block Hibernate reserves
+-- starts at MAX(id) + 1. The column default keeps using the sequence, so
+-- plain SQL inserts still work and never collide with a reserved block.
+DO $$
+DECLARE
+    target RECORD;
+    seq_name TEXT;
+    max_id BIGINT;
+BEGIN
+    FOR target IN
+        SELECT * FROM (VALUES
+            ('accounting', 'id'),
+            ('collateral', 'id'),
+            ('dividend_distributions', 'id'),
+            ('dividend_recipients', 'id'),
+            ('fiscal_period', 'id'),
+            ('guarantor', 'id'),
+            ('loan', 'id'),
+            ('loan_balance', 'id'),
+            ('login_attempts', 'id'),
+            ('member', 'id'),
+            ('payment_notification', 'id'),
+            ('payments', 'id'),
+            ('refresh_tokens', 'id'),
+            ('saving_account', 'id'),
+            ('saving_balance', 'id'),
+            ('saving_transaction', 'id'),
+            ('users', 'id'),
+            ('system_audit_log', 'log_id')
+        ) AS t(table_name, column_name)
+    LOOP
+        -- Skip tables or key columns this database does not have
+        CONTINUE WHEN NOT EXISTS (
+            SELECT 1 FROM information_schema.columns c
+            WHERE c.table_schema = current_schema()
+              AND c.table_name = target.table_name
+              AND c.column_name = target.column_name);
+
+        seq_name := target.table_name || '_' || target.column_name || '_seq';
+
+        -- Tables created by Hibernate rather than Flyway use identity columns
+        IF EXISTS (
+            SELECT 1 FROM information_schema.columns c
+            WHERE c.table_schema = current_schema()
+              AND c.table_name = target.table_name
+              AND c.column_name = target.column_name
+              AND c.is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN %I DROP IDENTITY', target.table_name, target.column_name);
+        END IF;
+
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', seq_name);
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50 MINVALUE 1 NO MAXVALUE', seq_name);
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.%I', seq_name, target.table_name, target.column_name);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN %I SET DEFAULT nextval(%L)',
+            target.table_name, target.column_name, seq_name);
+
+        EXECUTE format('SELECT COALESCE(MAX(%I), 0) FROM %I', target.column_name, target.table_name) INTO max_id;
+        -- The next nextval returns max_id + 50: block max_id + 1 .. max_id + 50
+        PERFORM setval(seq_name, max_id + 50, false);
+    END LOOP;
+END $$;
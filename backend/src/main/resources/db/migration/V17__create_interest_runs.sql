@@ -0,0 +1,40 @@
+-- Savings interest runs, split into account ID range chunks. Each chunk is
+-- credited in its own transaction together with its COMPLETED status, so
+-- re-running a date resumes at the first chunk that did not complete.
+CREATE TABLE IF NOT EXISTS interest_run (
+    id BIGSERIAL PRIMARY KEY,
+    as_of_date DATE NOT NULL UNIQUE,
+    status VARCHAR(20) NOT NULL,
+    chunk_size INTEGER NOT NULL,
+    total_chunks INTEGER NOT NULL DEFAULT 0,
+    completed_chunks INTEGER NOT NULL DEFAULT 0,
+    accounts_credited INTEGER NOT NULL DEFAULT 0,
+    total_interest DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    started_by VARCHAR(100),
+    started_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS interest_run_chunk (
+    id BIGSERIAL PRIMARY KEY,
+    run_id BIGINT NOT NULL,
+    chunk_index INTEGER NOT NULL,
+    first_account_id BIGINT NOT NULL,
+    last_account_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    accounts_credited INTEGER NOT NULL DEFAULT 0,
+    interest_total DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    last_error VARCHAR(1000),
+    completed_at TIMESTAMP,
+    CONSTRAINT uk_interest_run_chunk UNIQUE (run_id, chunk_index),
+    FOREIGN KEY (run_id) REFERENCES interest_run(id) ON DELETE CASCADE
+);
+
+-- Hibernate reserves IDs in blocks of 50 (see V16)
+ALTER SEQUENCE interest_run_id_seq INCREMENT BY 50;
+ALTER SEQUENCE interest_run_chunk_id_seq INCREMENT BY 50;
+
+-- Balance history of one chunk: account range scan ordered by date
+CREATE INDEX IF NOT EXISTS idx_saving_transaction_account_date
+    ON saving_transaction(saving_account_id, transaction_date);
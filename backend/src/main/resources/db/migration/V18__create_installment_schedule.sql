@@ -0,0 +1,31 @@
+-- Amortization schedule of a loan, written once at disbursement and updated
+-- by each repayment. Open installments are looked up by due date ("due this
+-- week", arrears) and per member (next payment) through partial indexes that
+-- only hold installments not yet PAID.
+CREATE TABLE IF NOT EXISTS installment_schedule (
+    id BIGSERIAL PRIMARY KEY,
+    loan_id BIGINT NOT NULL,
+    member_id BIGINT NOT NULL,
+    installment_no INTEGER NOT NULL,
+    due_date DATE NOT NULL,
+    opening_balance DECIMAL(15, 2) NOT NULL,
+    principal_due DECIMAL(15, 2) NOT NULL,
+    interest_due DECIMAL(15, 2) NOT NULL,
+    amount_due DECIMAL(15, 2) NOT NULL,
+    closing_balance DECIMAL(15, 2) NOT NULL,
+    principal_paid DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    interest_paid DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    status VARCHAR(20) NOT NULL,
+    paid_date DATE,
+    CONSTRAINT uk_installment_schedule_loan_no UNIQUE (loan_id, installment_no),
+    FOREIGN KEY (loan_id) REFERENCES loan(id) ON DELETE CASCADE,
+    FOREIGN KEY (member_id) REFERENCES member(id) ON DELETE CASCADE
+);
+
+-- Hibernate reserves IDs in blocks of 50 (see V16)
+ALTER SEQUENCE installment_schedule_id_seq INCREMENT BY 50;
+
+CREATE INDEX IF NOT EXISTS idx_installment_open_due
+    ON installment_schedule(due_date) WHERE status <> 'PAID';
+CREATE INDEX IF NOT EXISTS idx_installment_open_member_due
+    ON installment_schedule(member_id, due_date) WHERE status <> 'PAID';
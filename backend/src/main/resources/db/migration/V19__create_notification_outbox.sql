@@ -0,0 +1,26 @@
+-- Transactional outbox for email. Producers insert rows in their own
+-- transaction; dispatchers claim due rows with FOR UPDATE SKIP LOCKED, lease
+-- them as SENDING and send each claimed batch over one SMTP connection.
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    provider VARCHAR(50) NOT NULL,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    template VARCHAR(100) NOT NULL,
+    variables TEXT,
+    dedupe_key VARCHAR(150) UNIQUE,
+    status VARCHAR(20) NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error VARCHAR(1000),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- Hibernate reserves IDs in blocks of 50 (see V16)
+ALTER SEQUENCE notification_outbox_id_seq INCREMENT BY 50;
+
+-- Dispatcher claim: due rows of one provider, oldest first. Sent rows are
+-- never claimed again, so they stay out of the index.
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due
+    ON notification_outbox(provider, next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
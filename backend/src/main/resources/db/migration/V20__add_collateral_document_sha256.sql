@@ -0,0 +1,6 @@
+-- SHA-256 of the stored collateral document, computed while the upload is
+-- streamed to disk. Served as the strong ETag for ranged downloads; documents
+-- uploaded before this column existed fall back to a weak size/mtime ETag.
+ALTER TABLE collateral ADD COLUMN IF NOT EXISTS document_sha256 VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_collateral_document_path ON collateral(document_path);
@@ -0,0 +1,24 @@
+-- Content-addressed blob store for loan documents and payment slips. One row
+-- per distinct content (keyed by SHA-256) with the number of collateral and
+-- payment_notification rows referencing it. Rows at zero references are
+-- swept, with their blob, after a grace period.
+CREATE TABLE IF NOT EXISTS stored_blob (
+    sha256 VARCHAR(64) PRIMARY KEY,
+    size_bytes BIGINT NOT NULL,
+    ref_count INTEGER NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    released_at TIMESTAMP
+);
+
+-- Sweeper scan: unreferenced blobs by release time
+CREATE INDEX IF NOT EXISTS idx_stored_blob_released
+    ON stored_blob(released_at) WHERE ref_count = 0;
+
+-- Slips stored in the blob store record their hash (NULL for legacy files in
+-- the slip directory)
+ALTER TABLE payment_notification ADD COLUMN IF NOT EXISTS slip_sha256 VARCHAR(64);
+
+CREATE INDEX IF NOT EXISTS idx_collateral_document_sha256
+    ON collateral(loan_id, document_sha256) WHERE document_sha256 IS NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_payment_notification_slip_sha256
+    ON payment_notification(slip_sha256) WHERE slip_sha256 IS NOT NULL;
@@ -0,0 +1,38 @@
+-- Per-account, per-fiscal-period ledger totals maintained by the posting
+-- services. Balances are net debit (debits - credits); closing = opening +
+-- period_debit - period_credit and opening = the previous period's closing.
+-- Period close carries every account's closing into the next period.
+CREATE TABLE IF NOT EXISTS account_period_balance (
+    balance_id BIGSERIAL PRIMARY KEY,
+    account_code VARCHAR(10) NOT NULL,
+    fiscal_period VARCHAR(20) NOT NULL,
+    account_name VARCHAR(100),
+    opening_balance DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    period_debit DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    period_credit DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    closing_balance DECIMAL(15, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_account_period_balance UNIQUE (account_code, fiscal_period)
+);
+
+-- Trial balance and statements read one period across all accounts
+CREATE INDEX IF NOT EXISTS idx_account_period_balance_period ON account_period_balance(fiscal_period);
+
+-- Refreshing one account's period aggregates its entries in that period
+CREATE INDEX IF NOT EXISTS idx_accounting_account_code_period ON accounting(account_code, fiscal_period);
+
+-- Backfill from the existing journal
+INSERT INTO account_period_balance (account_code, fiscal_period, account_name, opening_balance,
+        period_debit, period_credit, closing_balance)
+SELECT account_code,
+       fiscal_period,
+       MAX(account_name),
+       SUM(SUM(COALESCE(debit, 0) - COALESCE(credit, 0))) OVER w
+           - SUM(COALESCE(debit, 0) - COALESCE(credit, 0)),
+       SUM(COALESCE(debit, 0)),
+       SUM(COALESCE(credit, 0)),
+       SUM(SUM(COALESCE(debit, 0) - COALESCE(credit, 0))) OVER w
+FROM accounting
+GROUP BY account_code, fiscal_period
+WINDOW w AS (PARTITION BY account_code ORDER BY fiscal_period)
+ON CONFLICT (account_code, fiscal_period) DO NOTHING;
@@ -0,0 +1,22 @@
+-- Rendered reports of closed fiscal periods. Content lives in the blob store
+-- (each row holds one stored_blob reference); a row is keyed by report type,
+-- the last period it covers, format and a hash of the remaining parameters.
+-- period_from is the first period covered, NULL for reports that accumulate
+-- from the beginning of the ledger (balance sheet). Reopening a period
+-- deletes every row whose range covers it.
+CREATE TABLE IF NOT EXISTS report_artifact (
+    artifact_id BIGSERIAL PRIMARY KEY,
+    report_type VARCHAR(40) NOT NULL,
+    period_from VARCHAR(7),
+    period_to VARCHAR(7) NOT NULL,
+    format VARCHAR(10) NOT NULL,
+    params_hash VARCHAR(64) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    content_sha256 VARCHAR(64) NOT NULL,
+    size_bytes BIGINT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_report_artifact UNIQUE (report_type, period_to, format, params_hash)
+);
+
+-- Invalidation on reopen: artifacts covering a period
+CREATE INDEX IF NOT EXISTS idx_report_artifact_period_to ON report_artifact(period_to);
@@ -0,0 +1,9 @@
+-- Version of the role-permission matrix. Every node holds the matrix in
+-- memory; an edit bumps the version and nodes whose copy is older reload it.
+CREATE TABLE IF NOT EXISTS rbac_matrix_version (
+    id SMALLINT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+INSERT INTO rbac_matrix_version (id, version) VALUES (1, 0) ON CONFLICT (id) DO NOTHING;
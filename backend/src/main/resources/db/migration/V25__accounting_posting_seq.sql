@@ -0,0 +1,24 @@
+-- Commit-ordered posting sequence for journal entries. Entry ids come from
+-- pooled blocks, so they follow neither insert nor commit order across
+-- sessions and nodes. posting_seq is drawn just before a posting commits,
+-- under the row lock of accounting_posting_counter, so a higher value
+-- always commits later. Cash checkpoints record the sequence they cover.
+CREATE TABLE IF NOT EXISTS accounting_posting_counter (
+    id SMALLINT PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+ALTER TABLE accounting ADD COLUMN IF NOT EXISTS posting_seq BIGINT;
+
+-- Existing entries are all committed; their id order is as good as any
+UPDATE accounting SET posting_seq = id WHERE posting_seq IS NULL;
+
+INSERT INTO accounting_posting_counter (id, last_seq)
+SELECT 1, COALESCE(MAX(posting_seq), 0) FROM accounting
+ON CONFLICT (id) DO NOTHING;
+
+-- Checkpoints taken so far recorded entry ids, which equal the backfilled sequence
+ALTER TABLE cash_balance_checkpoints RENAME COLUMN last_entry_id TO last_posting_seq;
+
+-- Late postings into a checkpointed range: one account from a sequence onwards
+CREATE INDEX IF NOT EXISTS idx_accounting_account_code_posting_seq ON accounting(account_code, posting_seq);
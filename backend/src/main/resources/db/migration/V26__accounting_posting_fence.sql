@@ -0,0 +1,14 @@
+-- Posting sequence values come from a database sequence instead of the
+-- counter row, so postings no longer queue on one row lock. The row stays as
+-- a fence: postings hold it in share mode from drawing a value until they
+-- commit, and a cash checkpoint takes it exclusively to wait for them.
+CREATE SEQUENCE IF NOT EXISTS accounting_posting_seq;
+
+SELECT setval('accounting_posting_seq',
+    COALESCE((SELECT MAX(last_seq) FROM accounting_posting_counter), 0) + 1, false);
+
+ALTER TABLE accounting_posting_counter RENAME TO accounting_posting_fence;
+ALTER TABLE accounting_posting_fence DROP COLUMN last_seq;
+
+INSERT INTO accounting_posting_fence (id) VALUES (1)
+ON CONFLICT (id) DO NOTHING;
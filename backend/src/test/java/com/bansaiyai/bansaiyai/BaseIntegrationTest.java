@@ -24,5 +24,7 @@ public abstract class BaseIntegrationTest {
         registry.add("spring.datasource.password", postgres::getPassword);
         // Force Hiberante to validate/update schema on the container
         registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+        // schema.sql creates what Hibernate does not; only embedded databases run it by default
+        registry.add("spring.sql.init.mode", () -> "always");
     }
 }
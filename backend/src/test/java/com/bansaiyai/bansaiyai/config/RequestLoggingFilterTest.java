@@ -0,0 +1,153 @@
+package com.bansaiyai.bansaiyai.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestLoggingFilterTest {
+
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+  private final Logger logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+  private RequestLoggingFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+
+    // Run log writes inline so lines can be asserted right away
+    filter = new RequestLoggingFilter(Runnable::run);
+    ReflectionTestUtils.setField(filter, "loggingEnabled", true);
+    ReflectionTestUtils.setField(filter, "includePayload", false);
+    ReflectionTestUtils.setField(filter, "maxPayloadLength", 16);
+    ReflectionTestUtils.setField(filter, "sampleRate", 1.0);
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+  }
+
+  @Test
+  void passesRequestAndResponseThroughUnwrapped() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/loans/documents/files/1/a.pdf");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    MockFilterChain chain = new MockFilterChain();
+
+    filter.doFilter(request, response, chain);
+
+    assertThat(chain.getRequest()).isSameAs(request);
+    assertThat(chain.getResponse()).isSameAs(response);
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .satisfies(line -> assertThat(line)
+            .startsWith("method=GET path=/api/loans/documents/files/1/a.pdf status=200 duration_ms="));
+  }
+
+  @Test
+  void capturesTextualResponseUpToLimit() throws Exception {
+    ReflectionTestUtils.setField(filter, "includePayload", true);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/members");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    String body = "{\"members\":[\"a\",\"b\",\"c\"]}";
+
+    filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        res.setContentType("application/json");
+        res.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+      }
+    }));
+
+    assertThat(response.getContentAsString()).isEqualTo(body);
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .satisfies(line -> assertThat(line).contains("response_body=\"{\\\"members\\\":[\\\"a\\\",...\""));
+  }
+
+  @Test
+  void doesNotCaptureBinaryResponse() throws Exception {
+    ReflectionTestUtils.setField(filter, "includePayload", true);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/export");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    byte[] body = new byte[4096];
+
+    filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest req, HttpServletResponse res) throws IOException {
+        res.setContentType("application/pdf");
+        res.getOutputStream().write(body);
+      }
+    }));
+
+    assertThat(response.getContentAsByteArray()).hasSize(body.length);
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .satisfies(line -> assertThat(line).doesNotContain("response_body"));
+  }
+
+  @Test
+  void asyncResponseIsLoggedWhenExchangeCompletes() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/export");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+      @Override
+      protected void doGet(HttpServletRequest req, HttpServletResponse res) {
+        req.startAsync();
+      }
+    }));
+
+    // The body is still streaming; nothing is logged yet
+    assertThat(appender.list).isEmpty();
+
+    response.setStatus(206);
+    request.getAsyncContext().complete();
+
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .satisfies(line -> assertThat(line).contains("path=/api/reports/export status=206"));
+  }
+
+  @Test
+  void sampledOutRequestsLogOnlyErrors() throws Exception {
+    ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/loans"), new MockHttpServletResponse(),
+        new MockFilterChain());
+    MockHttpServletResponse notFound = new MockHttpServletResponse();
+    notFound.setStatus(404);
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/loans/999"), notFound, new MockFilterChain());
+
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .satisfies(line -> assertThat(line).contains("path=/api/loans/999 status=404"));
+  }
+
+  @Test
+  void onlyTextualBodiesWithinLimitQualify() {
+    assertThat(RequestLoggingFilter.isLoggablePayload("application/json;charset=UTF-8", 10, 16)).isTrue();
+    assertThat(RequestLoggingFilter.isLoggablePayload("text/plain", -1, 16)).isTrue();
+    assertThat(RequestLoggingFilter.isLoggablePayload("application/json", 17, 16)).isFalse();
+    assertThat(RequestLoggingFilter.isLoggablePayload("multipart/form-data; boundary=x", 10, 16)).isFalse();
+    assertThat(RequestLoggingFilter.isLoggablePayload(null, 10, 16)).isFalse();
+  }
+}
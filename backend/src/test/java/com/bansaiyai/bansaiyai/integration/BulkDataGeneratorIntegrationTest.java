@@ -0,0 +1,76 @@
+package com.bansaiyai.bansaiyai.integration;
+
+import com.bansaiyai.bansaiyai.BaseIntegrationTest;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import com.bansaiyai.bansaiyai.seeder.BulkDataGenerator;
+import com.bansaiyai.bansaiyai.seeder.GeneratorOptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkDataGeneratorIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private BulkDataGenerator bulkDataGenerator;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void copiesBalancedHistoryAndLeavesIdsUsable() {
+        long membersBefore = memberRepository.count();
+
+        BulkDataGenerator.GenerationReport report = bulkDataGenerator.generate(
+                new GeneratorOptions(120, 2, 3, 0.5, null, 50, 2, 7L));
+
+        assertEquals(120L, report.rows().get("member"));
+        assertEquals(membersBefore + 120, memberRepository.count());
+        assertEquals(report.rows().get("saving_transaction"),
+                count("SELECT COUNT(*) FROM saving_transaction WHERE created_by = 'generator'"));
+        assertEquals(report.rows().get("payments"),
+                count("SELECT COUNT(*) FROM payments WHERE created_by = 'generator'"));
+        assertTrue(report.rows().get("loan") > 0, "Some members should have borrowed");
+        assertTrue(report.rows().get("system_audit_log") > 0);
+
+        BigDecimal debits = jdbcTemplate.queryForObject(
+                "SELECT SUM(debit) FROM accounting WHERE created_by = 'generator'", BigDecimal.class);
+        BigDecimal credits = jdbcTemplate.queryForObject(
+                "SELECT SUM(credit) FROM accounting WHERE created_by = 'generator'", BigDecimal.class);
+        assertEquals(0, debits.compareTo(credits), "Generated journal must balance");
+        // One posting sequence for the whole run, the last one drawn
+        assertEquals(0L, count("SELECT COUNT(*) FROM accounting WHERE created_by = 'generator' "
+                + "AND (posting_seq IS NULL OR posting_seq <> (SELECT last_value FROM accounting_posting_seq))"));
+
+        // Closing balances match the last transaction of each account
+        assertEquals(0L, count("SELECT COUNT(*) FROM saving_account a WHERE a.created_by = 'generator' "
+                + "AND a.balance <> COALESCE((SELECT t.balance_after FROM saving_transaction t "
+                + "WHERE t.saving_account_id = a.id ORDER BY t.transaction_date DESC, t.id DESC LIMIT 1), 0)"));
+
+        // JPA keeps working after the load: its next ID block starts past the generated rows
+        Member member = memberRepository.save(Member.builder()
+                .memberId("AFTER-GEN-001")
+                .name("After Generation")
+                .idCard("1111111111111")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .address("1 Test Road")
+                .phone("0800000000")
+                .registrationDate(LocalDate.now())
+                .isActive(true)
+                .shareCapital(BigDecimal.valueOf(1000))
+                .build());
+        assertTrue(member.getId() > count("SELECT MAX(id) FROM member WHERE created_by = 'generator'"));
+    }
+
+    private long count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+}
@@ -0,0 +1,223 @@
+package com.bansaiyai.bansaiyai.integration;
+
+import com.bansaiyai.bansaiyai.entity.User;
+import com.bansaiyai.bansaiyai.repository.UserRepository;
+import com.bansaiyai.bansaiyai.seeder.BulkDataGenerator;
+import com.bansaiyai.bansaiyai.seeder.GeneratorOptions;
+import com.bansaiyai.bansaiyai.service.AccountPeriodBalanceService;
+import com.bansaiyai.bansaiyai.service.MemberSearchIndex;
+import org.assertj.core.api.SoftAssertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Calls each read endpoint against a small and a three times larger data
+ * set and fails when the number of SQL statements a request issues grows
+ * with the data, or goes over the endpoint's budget. A new lazy association
+ * touched in a loop (one extra select per row) shows up here instead of in
+ * production. Each budget is the endpoint's current count, so any added
+ * statement fails the test and the budget is raised deliberately.
+ *
+ * Runs on H2 like the other Spring Boot tests without an active profile.
+ * The JDBC batch size is raised so a batched write of any size is one
+ * round trip. Endpoints left out on purpose: the dividend recipient list
+ * and export (they serialize the Member entities), overdue loans (the
+ * generated history has none) and dividend distribution (one payout per
+ * member by design).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:statement-count;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE;NON_KEYWORDS=MONTH",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+        "api.rate-limit.enabled=false"
+})
+@AutoConfigureMockMvc
+@Import(StatementCounter.Config.class)
+class EndpointStatementCountTest {
+
+    private static final GeneratorOptions SMALL = new GeneratorOptions(20, 1, 2, 0.5, null, 50, 1, 11L);
+    private static final GeneratorOptions LARGE = new GeneratorOptions(40, 2, 2, 0.5, null, 50, 1, 12L);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private BulkDataGenerator bulkDataGenerator;
+
+    @Autowired
+    private MemberSearchIndex memberSearchIndex;
+
+    @Autowired
+    private AccountPeriodBalanceService accountPeriodBalanceService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * What a request can depend on in the current data set. The attempt is
+     * 0 for the warm-up call and 1 for the measured one, so writes that can
+     * only happen once (closing a month) pick a different target each time.
+     */
+    private record Phase(int index, long memberId, int attempt) {
+    }
+
+    private record Endpoint(String name, int budget, Function<Phase, MockHttpServletRequestBuilder> request) {
+    }
+
+    private static Endpoint endpoint(String name, int budget, String role,
+            Function<Phase, MockHttpServletRequestBuilder> request) {
+        return new Endpoint(name, budget, phase -> request.apply(phase)
+                .with(user(username(role)).roles(role)));
+    }
+
+    /** Not one of the users DataInitializer seeds into the same context. */
+    private static String username(String role) {
+        return "statement-count-" + role.toLowerCase();
+    }
+
+    private static Endpoint read(String name, int budget, String role, String path) {
+        return endpoint(name, budget, role, phase -> get(path));
+    }
+
+    private static List<Endpoint> endpoints() {
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        return List.of(
+                read("dashboard fiscal period", 0, "OFFICER", "/api/dashboard/fiscal-period"),
+                endpoint("dashboard member search", 0, "OFFICER",
+                        phase -> get("/api/dashboard/members/search").param("q", "Som")),
+                read("officer cash box", 4, "OFFICER", "/api/dashboard/officer/cash-box"),
+                read("officer recent transactions", 2, "OFFICER", "/api/dashboard/officer/recent-transactions"),
+                endpoint("member financials", 7, "OFFICER",
+                        phase -> get("/api/dashboard/members/{id}/financials", phase.memberId())),
+                read("trial balance", 2, "SECRETARY", "/api/dashboard/secretary/trial-balance"),
+                read("unclassified count", 3, "SECRETARY", "/api/dashboard/secretary/unclassified-count"),
+                read("financial previews", 1, "SECRETARY", "/api/dashboard/secretary/financial-previews"),
+                read("PAR analysis", 5, "PRESIDENT", "/api/dashboard/president/par-analysis"),
+                read("liquidity", 2, "PRESIDENT", "/api/dashboard/president/liquidity"),
+                read("membership trends", 24, "PRESIDENT", "/api/dashboard/president/membership-trends"),
+                read("member list", 12, "OFFICER", "/members?size=10"),
+                read("member statistics", 3, "OFFICER", "/members/statistics"),
+                read("active members", 1, "OFFICER", "/members/active"),
+                read("loan list", 2, "OFFICER", "/loans?size=10"),
+                read("loan statistics", 9, "OFFICER", "/loans/statistics"),
+                read("payment list", 2, "OFFICER", "/api/payments?size=10"),
+                read("payment statistics", 0, "PRESIDENT", "/api/payments/statistics"),
+                read("saving account list", 2, "PRESIDENT", "/savings/accounts?size=10"),
+                read("saving statistics", 2, "PRESIDENT", "/savings/statistics"),
+                read("monthly report", 5, "SECRETARY", "/api/reports/monthly?month=" + lastMonth.getMonthValue()
+                        + "&year=" + lastMonth.getYear()),
+                read("income and expense", 5, "SECRETARY", "/api/reports/income-expense?startDate="
+                        + lastMonth.minusMonths(11).atDay(1) + "&endDate=" + lastMonth.atEndOfMonth()),
+                read("balance sheet", 8, "SECRETARY", "/api/reports/balance-sheet?asOfDate=" + LocalDate.now()),
+                endpoint("member statement", 4, "OFFICER",
+                        phase -> get("/api/reports/member/{id}/statement", phase.memberId())),
+                read("journal summary", 1, "OFFICER", "/api/journal/summary"),
+                read("chart of accounts", 1, "SECRETARY", "/api/accounting/accounts"),
+                read("my financials", 5, "MEMBER", "/api/financials/me"),
+                endpoint("dividend simulation", 2, "SECRETARY", phase -> post("/api/dividends/simulate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"year\": " + lastMonth.getYear()
+                                + ", \"dividendRates\": [3, 4, 5], \"averageReturnRates\": [5, 6]}")),
+                endpoint("dividend calculation", 10, "SECRETARY", phase -> post("/api/dividends/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"year\": " + (2001 + phase.index() * 2 + phase.attempt())
+                                + ", \"dividendRate\": 5, \"averageReturnRate\": 6}")),
+                endpoint("month closing", 18, "SECRETARY", phase -> {
+                    YearMonth month = lastMonth.minusMonths(2 + phase.index() * 2 + phase.attempt());
+                    return post("/api/accounting/close-month")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"month\": " + month.getMonthValue() + ", \"year\": " + month.getYear() + "}");
+                }),
+                // Last, so the audit rows the writes above leave behind by a
+                // user are there on both data sets
+                read("audit summary", 8, "PRESIDENT", "/api/audit/summary"));
+    }
+
+    @Test
+    void statementCountsStayFlatAsDataGrows() throws Exception {
+        for (User.Role role : User.Role.values()) {
+            String name = username(role.name());
+            userRepository.save(User.builder()
+                    .username(name)
+                    .email(name + "@statement-count.test")
+                    .password("password")
+                    .role(role)
+                    .enabled(true)
+                    .build());
+        }
+
+        Map<String, Integer> small = measure(0, SMALL);
+        Map<String, Integer> large = measure(1, LARGE);
+
+        SoftAssertions softly = new SoftAssertions();
+        for (Endpoint endpoint : endpoints()) {
+            int smallCount = small.get(endpoint.name());
+            int largeCount = large.get(endpoint.name());
+            softly.assertThat(largeCount)
+                    .as("%s: %d statements on the small data set, %d on the large one",
+                            endpoint.name(), smallCount, largeCount)
+                    .isLessThanOrEqualTo(smallCount);
+            softly.assertThat(largeCount)
+                    .as("%s: statement budget", endpoint.name())
+                    .isLessThanOrEqualTo(endpoint.budget());
+        }
+        softly.assertAll();
+    }
+
+    /**
+     * Add the given data to the database, then call every endpoint once to
+     * warm up and once more to count its statements.
+     */
+    private Map<String, Integer> measure(int index, GeneratorOptions options) throws Exception {
+        bulkDataGenerator.generate(options);
+        memberSearchIndex.rebuild();
+        accountPeriodBalanceService.verifyAndRepair();
+
+        // The newest borrower, whose history spans the latest data set
+        long memberId = jdbcTemplate.queryForObject("SELECT MAX(member_id) FROM loan", Long.class);
+        long userId = userRepository.findByUsername(username("MEMBER")).orElseThrow().getId();
+        jdbcTemplate.update("UPDATE member SET user_id = NULL WHERE user_id = ?", userId);
+        jdbcTemplate.update("UPDATE member SET user_id = ? WHERE id = ?", userId, memberId);
+
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (Endpoint endpoint : endpoints()) {
+            perform(endpoint, new Phase(index, memberId, 0));
+            MvcResult[] result = new MvcResult[1];
+            int statements = StatementCounter.count(
+                    () -> result[0] = perform(endpoint, new Phase(index, memberId, 1)));
+            int status = result[0].getResponse().getStatus();
+            if (status >= 300) {
+                throw new AssertionError(endpoint.name() + " returned " + status + ": "
+                        + result[0].getResponse().getContentAsString());
+            }
+            counts.put(endpoint.name(), statements);
+        }
+        return counts;
+    }
+
+    private MvcResult perform(Endpoint endpoint, Phase phase) throws Exception {
+        return mockMvc.perform(endpoint.request().apply(phase)).andReturn();
+    }
+}
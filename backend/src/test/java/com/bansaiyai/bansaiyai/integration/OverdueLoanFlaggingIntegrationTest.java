@@ -0,0 +1,99 @@
+package com.bansaiyai.bansaiyai.integration;
+
+import com.bansaiyai.bansaiyai.BaseIntegrationTest;
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.repository.LoanRepository;
+import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import com.bansaiyai.bansaiyai.service.AccountingService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The delinquency run's single {@code UPDATE ... RETURNING} on PostgreSQL:
+ * only overdue ACTIVE loans with a balance are flipped, each is audited
+ * once, and a second run finds nothing left to flag.
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "app.delinquency.update-returning-enabled=true"
+})
+public class OverdueLoanFlaggingIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private AccountingService accountingService;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void flagsOverdueLoansWithOneUpdateReturning() {
+        LocalDate today = LocalDate.now();
+        Member member = memberRepository.save(Member.builder()
+                .memberId("DQ-PG-001")
+                .name("Overdue Borrower")
+                .idCard("1800000000000")
+                .dateOfBirth(LocalDate.of(1980, 1, 1))
+                .address("8 Overdue Road")
+                .phone("0888888888")
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build());
+        Loan overdue = loanRepository.save(loan(member, "LN-PG-1", LoanStatus.ACTIVE, today.minusDays(45), "12345.67"));
+        Loan current = loanRepository.save(loan(member, "LN-PG-2", LoanStatus.ACTIVE, today.plusDays(10), "8000.00"));
+        Loan paidOff = loanRepository.save(loan(member, "LN-PG-3", LoanStatus.ACTIVE, today.minusDays(5), "0.00"));
+
+        accountingService.checkAndFlagOverdueLoans();
+        // Nothing left to flag; the audit rows of the first run stay the only ones
+        accountingService.checkAndFlagOverdueLoans();
+
+        assertEquals(LoanStatus.DEFAULTED, loanRepository.findById(overdue.getId()).orElseThrow().getStatus());
+        assertEquals(LoanStatus.ACTIVE, loanRepository.findById(current.getId()).orElseThrow().getStatus());
+        assertEquals(LoanStatus.ACTIVE, loanRepository.findById(paidOff.getId()).orElseThrow().getStatus());
+
+        List<Long> audited = jdbcTemplate.queryForList(
+                "SELECT entity_id FROM system_audit_log WHERE action = 'LOAN_DEFAULTED' AND entity_id IN (?, ?, ?)",
+                Long.class, overdue.getId(), current.getId(), paidOff.getId());
+        assertEquals(List.of(overdue.getId()), audited);
+
+        // The RETURNING row's maturity date and balance reach the audit values
+        String newValues = jdbcTemplate.queryForObject(
+                "SELECT new_values FROM system_audit_log WHERE action = 'LOAN_DEFAULTED' AND entity_id = ?",
+                String.class, overdue.getId());
+        assertTrue(newValues.contains("\"daysOverdue\":45"), newValues);
+        assertTrue(newValues.contains("12345.67"), newValues);
+    }
+
+    private static Loan loan(Member member, String number, LoanStatus status, LocalDate maturity, String outstanding) {
+        Loan loan = new Loan();
+        loan.setLoanNumber(number);
+        loan.setMember(member);
+        loan.setLoanType(LoanType.PERSONAL);
+        loan.setPrincipalAmount(new BigDecimal("20000.00"));
+        loan.setInterestRate(new BigDecimal("12.00"));
+        loan.setTermMonths(12);
+        loan.setStartDate(maturity.minusMonths(12));
+        loan.setEndDate(maturity);
+        loan.setMaturityDate(maturity);
+        loan.setOutstandingBalance(new BigDecimal(outstanding));
+        loan.setStatus(status);
+        return loan;
+    }
+}
@@ -0,0 +1,129 @@
+package com.bansaiyai.bansaiyai.integration;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+/**
+ * Counts the SQL statements the calling thread sends through the
+ * application's DataSource. Import {@link Config} to wrap the DataSource.
+ *
+ * Only the thread that called {@link #count(Callable)} is counted, so
+ * audit rows and request logs written on async executors do not make the
+ * numbers flaky. A JDBC batch counts once, as it is one round trip. ID
+ * sequence fetches are ignored: the pooled optimizer takes a block of 50
+ * at a time, so they depend on what ran earlier rather than on the
+ * request being measured.
+ */
+final class StatementCounter {
+
+    private static final ThreadLocal<int[]> ACTIVE = new ThreadLocal<>();
+
+    private static final Set<String> EXECUTE_METHODS = Set.of(
+            "execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private StatementCounter() {
+    }
+
+    /**
+     * Run the action and return how many statements it executed on this thread.
+     */
+    static int count(Callable<?> action) throws Exception {
+        int[] counter = new int[1];
+        ACTIVE.set(counter);
+        try {
+            action.call();
+        } finally {
+            ACTIVE.remove();
+        }
+        return counter[0];
+    }
+
+    private static void record(String sql) {
+        int[] counter = ACTIVE.get();
+        if (counter == null || isSequenceFetch(sql)) {
+            return;
+        }
+        counter[0]++;
+    }
+
+    private static boolean isSequenceFetch(String sql) {
+        if (sql == null) {
+            return false;
+        }
+        String lower = sql.toLowerCase(Locale.ROOT);
+        return lower.contains("next value for") || lower.contains("nextval(");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        return proxy(DataSource.class, (p, method, args) -> {
+            Object result = invoke(dataSource, method, args);
+            return result instanceof Connection connection ? wrap(connection) : result;
+        });
+    }
+
+    private static Connection wrap(Connection connection) {
+        return proxy(Connection.class, (p, method, args) -> {
+            Object result = invoke(connection, method, args);
+            if (result instanceof CallableStatement statement) {
+                return wrap(CallableStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof PreparedStatement statement) {
+                return wrap(PreparedStatement.class, statement, (String) args[0]);
+            }
+            if (result instanceof Statement statement) {
+                return wrap(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private static <S extends Statement> S wrap(Class<S> type, S statement, String preparedSql) {
+        return proxy(type, (p, method, args) -> {
+            if (EXECUTE_METHODS.contains(method.getName())) {
+                record(args != null && args.length > 0 && args[0] instanceof String sql ? sql : preparedSql);
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    @TestConfiguration
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor statementCountingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.bansaiyai.bansaiyai.metrics;
+
+import com.bansaiyai.bansaiyai.dto.CompositeTransactionResponse;
+import com.bansaiyai.bansaiyai.dto.TransactionResponse;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BusinessMetricAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private PostingService service;
+
+    static class PostingService {
+
+        @BusinessMetric(value = "test.transaction.post", operation = "deposit")
+        public String deposit(boolean fail) {
+            if (fail) {
+                throw new IllegalStateException("Account is closed");
+            }
+            return "ok";
+        }
+
+        @BusinessMetric(value = "test.transaction.post", operation = "loanPayment")
+        public TransactionResponse loanPayment(String status) {
+            return new TransactionResponse(null, null, "LOAN_PAYMENT", BigDecimal.TEN, LocalDateTime.now(),
+                    status, null);
+        }
+
+        @BusinessMetric(value = "test.transaction.post", operation = "compositePayment")
+        public CompositeTransactionResponse compositePayment(String status) {
+            return CompositeTransactionResponse.builder().status(status).build();
+        }
+
+        @BusinessMetric("test.audit.log")
+        public void logAction() {
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory factory = new AspectJProxyFactory(new PostingService());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new BusinessMetricAspect(registry));
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void recordsSuccessTaggedWithCallerRole() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "officer", null, List.of(new SimpleGrantedAuthority("ROLE_OFFICER"))));
+
+        service.deposit(false);
+        service.deposit(false);
+
+        Timer timer = registry.get("test.transaction.post")
+                .tags("operation", "deposit", "outcome", "success", "exception", "none", "role", "OFFICER")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+    }
+
+    @Test
+    void recordsFailureWithExceptionAndRethrows() {
+        assertThatThrownBy(() -> service.deposit(true)).isInstanceOf(IllegalStateException.class);
+
+        Timer timer = registry.get("test.transaction.post")
+                .tags("outcome", "failure", "exception", "IllegalStateException", "role", "SYSTEM")
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordsFailedResponseAsFailure() {
+        service.loanPayment("FAILED");
+        service.loanPayment("SUCCESS");
+        service.compositePayment("FAILED");
+
+        assertThat(registry.get("test.transaction.post")
+                .tags("operation", "loanPayment", "outcome", "failure", "exception", "none")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("test.transaction.post")
+                .tags("operation", "loanPayment", "outcome", "success")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.get("test.transaction.post")
+                .tags("operation", "compositePayment", "outcome", "failure")
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void operationDefaultsToMethodName() {
+        service.logAction();
+
+        assertThat(registry.get("test.audit.log").tag("operation", "logAction").timer().count()).isEqualTo(1);
+    }
+}
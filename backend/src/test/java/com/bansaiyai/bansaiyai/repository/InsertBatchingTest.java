@@ -0,0 +1,139 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.SavingAccount;
+import com.bansaiyai.bansaiyai.entity.SavingTransaction;
+import com.bansaiyai.bansaiyai.entity.enums.AccountType;
+import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that sequence-generated IDs let Hibernate batch inserts: IDs come
+ * from the database in pooled blocks and rows go out in JDBC batches rather
+ * than one statement per row.
+ *
+ * The timing comparison over 100k rows ({@code -Dbenchmark.rows} to
+ * change) runs only with {@code -Dbenchmark=true}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InsertBatchingTest {
+
+    private static final Logger log = LoggerFactory.getLogger(InsertBatchingTest.class);
+
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private SavingAccount account;
+
+    @BeforeEach
+    void setUp() {
+        Member member = em.persist(Member.builder()
+                .memberId("M9000")
+                .name("Batch Member")
+                .idCard("1900000000000")
+                .dateOfBirth(LocalDate.of(1980, 1, 1))
+                .address("1 Batch Road, Ban Sai Yai")
+                .phone("0899999999")
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build());
+        account = em.persist(SavingAccount.builder()
+                .member(member)
+                .accountType(AccountType.SAVINGS)
+                .accountNumber("SA-TEST-BATCH")
+                .accountName("Batch Savings")
+                .balance(BigDecimal.ZERO)
+                .interestRate(new BigDecimal("2.50"))
+                .isActive(true)
+                .isFrozen(false)
+                .build());
+        em.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void persistingTwoHundredTransactions_UsesPooledIdsAndBatchedInserts() {
+        insert(200, 0);
+
+        // 4 sequence calls (one per block of 50) and 4 insert batches,
+        // against 200 + 200 statements with IDENTITY
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(10);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void benchmark_BatchedVersusRowByRowInserts() {
+        int rows = Integer.getInteger("benchmark.rows", 100_000);
+        Session session = em.getEntityManager().unwrap(Session.class);
+
+        insert(BATCH_SIZE * 20, 0); // warm-up
+
+        // Row by row stands in for IDENTITY keys, which cannot be switched
+        // per session: one insert statement per row
+        session.setJdbcBatchSize(1);
+        statistics.clear();
+        long start = System.nanoTime();
+        insert(rows, 1_000_000);
+        long rowByRowMillis = (System.nanoTime() - start) / 1_000_000;
+        long rowByRowStatements = statistics.getPrepareStatementCount();
+
+        session.setJdbcBatchSize(BATCH_SIZE);
+        statistics.clear();
+        start = System.nanoTime();
+        insert(rows, 2_000_000);
+        long batchedMillis = (System.nanoTime() - start) / 1_000_000;
+        long batchedStatements = statistics.getPrepareStatementCount();
+
+        log.info("Inserted {} saving transactions: row-by-row {} ms ({} statements), batched {} ms ({} statements)",
+                rows, rowByRowMillis, rowByRowStatements, batchedMillis, batchedStatements);
+        assertThat(rowByRowStatements).isGreaterThanOrEqualTo(rows);
+        // One insert batch and at most one sequence call per block
+        assertThat(batchedStatements).isLessThanOrEqualTo(2L * rows / BATCH_SIZE + 2);
+    }
+
+    private void insert(int rows, int offset) {
+        for (int i = 0; i < rows; i++) {
+            em.persist(SavingTransaction.builder()
+                    .savingAccount(account)
+                    .transactionNumber(String.format("TXN-BATCH-%08d", offset + i))
+                    .transactionType(TransactionType.DEPOSIT)
+                    .amount(new BigDecimal("100.00"))
+                    .transactionDate(LocalDate.of(2026, 1, 1))
+                    .balanceBefore(BigDecimal.ZERO)
+                    .balanceAfter(new BigDecimal("100.00"))
+                    .build());
+            if ((i + 1) % BATCH_SIZE == 0) {
+                em.flush();
+                em.clear();
+                account = em.getEntityManager().getReference(SavingAccount.class, account.getId());
+            }
+        }
+        em.flush();
+        em.clear();
+        account = em.getEntityManager().getReference(SavingAccount.class, account.getId());
+    }
+}
@@ -0,0 +1,219 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.dto.LoanResponse;
+import com.bansaiyai.bansaiyai.dto.PaymentResponse;
+import com.bansaiyai.bansaiyai.dto.SavingResponse;
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.Payment;
+import com.bansaiyai.bansaiyai.entity.SavingAccount;
+import com.bansaiyai.bansaiyai.entity.enums.AccountType;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
+import com.bansaiyai.bansaiyai.service.InstallmentScheduleService;
+import com.bansaiyai.bansaiyai.service.LoanService;
+import com.bansaiyai.bansaiyai.service.MemberFinancialSummaryService;
+import com.bansaiyai.bansaiyai.service.PaymentService;
+import com.bansaiyai.bansaiyai.service.SavingService;
+import com.bansaiyai.bansaiyai.service.SystemConfigService;
+import com.bansaiyai.bansaiyai.util.InputSanitizer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins the number of SQL statements each paged listing issues, so a mapper
+ * that starts touching a lazy association (one extra select per row) fails
+ * here instead of in production.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ LoanService.class, PaymentService.class, SavingService.class })
+class ListingFetchPlanTest {
+
+    private static final int MEMBERS = 10;
+    private static final int ROWS_PER_MEMBER = 6;
+    private static final PageRequest PAGE = PageRequest.of(0, 50, Sort.by(Sort.Direction.DESC, "id"));
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private SavingService savingService;
+
+    @MockBean
+    private SystemConfigService systemConfigService;
+
+    @MockBean
+    private MemberFinancialSummaryService memberFinancialSummaryService;
+
+    @MockBean
+    private InstallmentScheduleService installmentScheduleService;
+
+    @MockBean
+    private InputSanitizer inputSanitizer;
+
+    private Statistics statistics;
+    private Member firstMember;
+    private Loan firstLoan;
+
+    @BeforeEach
+    void setUp() {
+        for (int m = 0; m < MEMBERS; m++) {
+            Member member = em.persist(member(m));
+            SavingAccount account = em.persist(SavingAccount.builder()
+                    .accountNumber(String.format("SA-TEST-%04d", m))
+                    .member(member)
+                    .accountType(AccountType.SAVINGS)
+                    .accountName("Savings " + m)
+                    .balance(new BigDecimal("1000.00"))
+                    .interestRate(new BigDecimal("2.50"))
+                    .isActive(true)
+                    .isFrozen(false)
+                    .build());
+            for (int i = 0; i < ROWS_PER_MEMBER; i++) {
+                Loan loan = em.persist(loan(member, m * ROWS_PER_MEMBER + i));
+                em.persist(payment(member, loan, account, m * ROWS_PER_MEMBER + i));
+                if (firstLoan == null) {
+                    firstLoan = loan;
+                    firstMember = member;
+                }
+            }
+        }
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void loanListing_FiftyRowPage_IsOneSelectPlusCount() {
+        Page<LoanResponse> page = loanService.getAllLoans(PAGE);
+
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(page.getContent()).allSatisfy(loan -> assertThat(loan.getMemberName()).startsWith("Member "));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void loanListingByStatusAndMember_StayWithinTwoStatements() {
+        assertThat(loanService.getLoansByStatus(LoanStatus.ACTIVE, PAGE).getTotalElements())
+                .isEqualTo(MEMBERS * ROWS_PER_MEMBER);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        statistics.clear();
+        assertThat(loanService.getLoansByMember(firstMember.getId(), PAGE).getContent())
+                .hasSize(ROWS_PER_MEMBER);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void loanSearch_IsASingleSelect() {
+        assertThat(loanService.searchLoans("member", 0, 50).getContent()).hasSize(50);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void loanDetail_LoadsBorrowerWithTheLoan() {
+        LoanResponse loan = loanService.getLoanById(firstLoan.getId());
+
+        assertThat(loan.getMemberName()).isEqualTo(firstMember.getName());
+        // Loan joined to its member, plus the lookup Hibernate always issues
+        // for Member's inverse one-to-one savingAccount
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void paymentListing_FiftyRowPage_IsOneSelectPlusCount() {
+        Page<PaymentResponse> page = paymentService.getAllPayments(PAGE);
+
+        assertThat(page.getContent()).hasSize(50);
+        assertThat(page.getContent()).allSatisfy(payment -> {
+            assertThat(payment.getMemberName()).startsWith("Member ");
+            assertThat(payment.getLoanNumber()).startsWith("LN-TEST-");
+            assertThat(payment.getSavingAccountNumber()).isNotBlank();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+
+        statistics.clear();
+        assertThat(paymentService.getPaymentsByMember(firstMember.getId(), PAGE).getContent())
+                .hasSize(ROWS_PER_MEMBER);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void savingListing_IsOneSelectPlusCount() {
+        Page<SavingResponse> page = savingService.getAllAccounts(PAGE);
+
+        assertThat(page.getContent()).hasSize(MEMBERS);
+        assertThat(page.getContent()).allSatisfy(account -> assertThat(account.getMemberName()).startsWith("Member "));
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+    }
+
+    private static Member member(int n) {
+        return Member.builder()
+                .memberId(String.format("M%04d", n))
+                .name(String.format("Member %02d", n))
+                .idCard(String.format("%013d", 1000000000000L + n))
+                .dateOfBirth(LocalDate.of(1980, 1, 1))
+                .address("99 Test Road, Ban Sai Yai")
+                .phone(String.format("08%08d", n))
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build();
+    }
+
+    private static Loan loan(Member member, int n) {
+        Loan loan = new Loan();
+        loan.setLoanNumber(String.format("LN-TEST-%04d", n));
+        loan.setMember(member);
+        loan.setLoanType(LoanType.PERSONAL);
+        loan.setPrincipalAmount(new BigDecimal("10000.00"));
+        loan.setInterestRate(new BigDecimal("12.00"));
+        loan.setTermMonths(12);
+        loan.setStartDate(LocalDate.of(2025, 1, 1));
+        loan.setEndDate(LocalDate.of(2026, 1, 1));
+        loan.setStatus(LoanStatus.ACTIVE);
+        loan.setPurpose("Loan for member " + member.getName());
+        return loan;
+    }
+
+    private static Payment payment(Member member, Loan loan, SavingAccount account, int n) {
+        return Payment.builder()
+                .paymentNumber(String.format("PAY-TEST-%04d", n))
+                .member(member)
+                .loan(loan)
+                .savingAccount(account)
+                .paymentType(PaymentType.LOAN_PRINCIPAL)
+                .paymentStatus(PaymentStatus.COMPLETED)
+                .amount(new BigDecimal("500.00"))
+                .paymentDate(LocalDate.of(2025, 2, 1))
+                .build();
+    }
+}
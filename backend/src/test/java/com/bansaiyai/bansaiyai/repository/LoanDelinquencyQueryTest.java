@@ -0,0 +1,109 @@
+package com.bansaiyai.bansaiyai.repository;
+
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the set-based delinquency statements against a real database, so the
+ * bulk penalty formula is checked against {@link Loan#calculatePenalty()}.
+ */
+@DataJpaTest
+class LoanDelinquencyQueryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 30);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    private Loan overdue;
+    private Loan current;
+    private Loan paidOff;
+    private Loan alreadyDefaulted;
+
+    @BeforeEach
+    void setUp() {
+        Member member = em.persist(Member.builder()
+                .memberId("M7000")
+                .name("Delinquency Member")
+                .idCard("1700000000000")
+                .dateOfBirth(LocalDate.of(1980, 1, 1))
+                .address("7 Overdue Road, Ban Sai Yai")
+                .phone("0877777777")
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build());
+        overdue = em.persist(loan(member, "LN-DQ-1", LoanStatus.ACTIVE, TODAY.minusDays(45), "12345.67"));
+        current = em.persist(loan(member, "LN-DQ-2", LoanStatus.ACTIVE, TODAY.plusDays(10), "8000.00"));
+        paidOff = em.persist(loan(member, "LN-DQ-3", LoanStatus.ACTIVE, TODAY.minusDays(5), "0.00"));
+        alreadyDefaulted = em.persist(loan(member, "LN-DQ-4", LoanStatus.DEFAULTED, TODAY.minusDays(400), "2000.00"));
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void portableFlagging_DefaultsOnlyOverdueLoansWithABalance() {
+        List<Loan> locked = loanRepository.findOverdueForUpdate(LoanStatus.ACTIVE, TODAY);
+
+        assertThat(locked).extracting(Loan::getLoanNumber).containsExactly("LN-DQ-1");
+
+        List<Long> ids = List.of(overdue.getId());
+        assertThat(loanRepository.updateStatusByIds(ids, LoanStatus.ACTIVE, LoanStatus.DEFAULTED)).isEqualTo(1);
+        // A second run finds the loan no longer ACTIVE
+        assertThat(loanRepository.updateStatusByIds(ids, LoanStatus.ACTIVE, LoanStatus.DEFAULTED)).isZero();
+        em.clear();
+
+        assertThat(em.find(Loan.class, overdue.getId()).getStatus()).isEqualTo(LoanStatus.DEFAULTED);
+        assertThat(em.find(Loan.class, current.getId()).getStatus()).isEqualTo(LoanStatus.ACTIVE);
+        assertThat(em.find(Loan.class, paidOff.getId()).getStatus()).isEqualTo(LoanStatus.ACTIVE);
+    }
+
+    @Test
+    void bulkPenaltyAccrual_MatchesEntityFormula() {
+        loanRepository.updateStatusByIds(List.of(overdue.getId()), LoanStatus.ACTIVE, LoanStatus.DEFAULTED);
+
+        int accrued = loanRepository.accruePenaltiesByStatus(LoanStatus.DEFAULTED, TODAY, Loan.DAILY_PENALTY_RATE);
+        em.clear();
+
+        assertThat(accrued).isEqualTo(2);
+        assertThat(em.find(Loan.class, overdue.getId()).getPenaltyAmount())
+                .isEqualByComparingTo(Loan.calculatePenalty(new BigDecimal("12345.67"), 45));
+        assertThat(em.find(Loan.class, alreadyDefaulted.getId()).getPenaltyAmount())
+                .isEqualByComparingTo(Loan.calculatePenalty(new BigDecimal("2000.00"), 400));
+        assertThat(em.find(Loan.class, current.getId()).getPenaltyAmount()).isEqualByComparingTo("0");
+
+        Object[] totals = loanRepository.sumPenaltiesByStatus(LoanStatus.DEFAULTED).get(0);
+        assertThat(((Number) totals[0]).longValue()).isEqualTo(2);
+    }
+
+    private static Loan loan(Member member, String number, LoanStatus status, LocalDate maturity, String outstanding) {
+        Loan loan = new Loan();
+        loan.setLoanNumber(number);
+        loan.setMember(member);
+        loan.setLoanType(LoanType.PERSONAL);
+        loan.setPrincipalAmount(new BigDecimal("20000.00"));
+        loan.setInterestRate(new BigDecimal("12.00"));
+        loan.setTermMonths(12);
+        loan.setStartDate(maturity.minusMonths(12));
+        loan.setEndDate(maturity);
+        loan.setMaturityDate(maturity);
+        loan.setOutstandingBalance(new BigDecimal(outstanding));
+        loan.setStatus(status);
+        return loan;
+    }
+}
@@ -0,0 +1,39 @@
+package com.bansaiyai.bansaiyai.seeder;
+
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkTableWriterTest {
+
+    private static String copyValue(Object value) {
+        StringBuilder line = new StringBuilder();
+        BulkTableWriter.appendCopyValue(line, value);
+        return line.toString();
+    }
+
+    @Test
+    void encodesValuesInCopyTextFormat() {
+        assertThat(copyValue(null)).isEqualTo("\\N");
+        assertThat(copyValue(true)).isEqualTo("t");
+        assertThat(copyValue(new BigDecimal("1E+3"))).isEqualTo("1000");
+        assertThat(copyValue(LoanType.EMERGENCY)).isEqualTo("EMERGENCY");
+        assertThat(copyValue(LocalDate.of(2024, 2, 29))).isEqualTo("2024-02-29");
+        assertThat(copyValue("a\tb\nc\\d")).isEqualTo("a\\tb\\nc\\\\d");
+    }
+
+    @Test
+    void parsesLoanMix() {
+        assertThat(GeneratorOptions.parseLoanMix("personal:70, HOUSING:30"))
+                .isEqualTo(Map.of(LoanType.PERSONAL, 70, LoanType.HOUSING, 30));
+        assertThat(GeneratorOptions.parseLoanMix(null)).isEmpty();
+        assertThatThrownBy(() -> GeneratorOptions.parseLoanMix("CAR:10"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,204 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.AccountPeriodBalance;
+import com.bansaiyai.bansaiyai.entity.AccountingEntry;
+import com.bansaiyai.bansaiyai.repository.AccountPeriodBalanceRepository;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountPeriodBalanceServiceTest {
+
+    @Mock
+    private AccountPeriodBalanceRepository balanceRepository;
+
+    @Mock
+    private AccountingRepository accountingRepository;
+
+    @Mock
+    private AccountingPostingService postingService;
+
+    @InjectMocks
+    private AccountPeriodBalanceService service;
+
+    @Test
+    void recordPosting_WithoutTransaction_CreatesRowOpeningAtPreviousClosing() {
+        stubSums("10100", "2026-10", "700", "200", "Cash");
+        when(balanceRepository.findForUpdate("10100", "2026-10")).thenReturn(Optional.empty());
+        when(balanceRepository.findFirstByAccountCodeAndFiscalPeriodLessThanOrderByFiscalPeriodDesc("10100", "2026-10"))
+                .thenReturn(Optional.of(row("10100", "2026-09", "0", "1000", "0")));
+        when(balanceRepository.save(any(AccountPeriodBalance.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        AccountingEntry entry = new AccountingEntry();
+        entry.setAccountCode("10100");
+        entry.setFiscalPeriod("2026-10");
+        service.recordPosting(entry);
+        verify(postingService).stamp(entry);
+
+        ArgumentCaptor<AccountPeriodBalance> saved = ArgumentCaptor.forClass(AccountPeriodBalance.class);
+        verify(balanceRepository).save(saved.capture());
+        assertEquals("Cash", saved.getValue().getAccountName());
+        assertEquals(0, new BigDecimal("1000").compareTo(saved.getValue().getOpeningBalance()));
+        assertEquals(0, new BigDecimal("1500").compareTo(saved.getValue().getClosingBalance()));
+        // Later periods were carried from 1000, so they move by the 500 posted
+        verify(balanceRepository).shiftLaterPeriods(eq("10100"), eq("2026-10"),
+                argThat(delta -> delta.compareTo(new BigDecimal("500")) == 0));
+    }
+
+    @Test
+    void recordPosting_InTransaction_AddsMovementToExistingRowWithoutSummingJournal() {
+        AccountPeriodBalance existing = row("10100", "2026-10", "1000", "700", "200");
+        when(balanceRepository.findForUpdate("10100", "2026-10")).thenReturn(Optional.of(existing));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            service.recordPosting(entry("10100", "2026-10", "300", "0"));
+            service.recordPosting(entry("10100", "2026-10", "0", "50"));
+            verifyNoInteractions(balanceRepository);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Both entries applied under one lock of the row
+        verify(balanceRepository, times(1)).findForUpdate("10100", "2026-10");
+        verify(accountingRepository, never()).sumByAccountCodeAndFiscalPeriod(any(), any());
+        verify(balanceRepository).save(existing);
+        assertEquals(0, new BigDecimal("1000").compareTo(existing.getPeriodDebit()));
+        assertEquals(0, new BigDecimal("250").compareTo(existing.getPeriodCredit()));
+        assertEquals(0, new BigDecimal("1750").compareTo(existing.getClosingBalance()));
+        verify(balanceRepository).shiftLaterPeriods(eq("10100"), eq("2026-10"),
+                argThat(delta -> delta.compareTo(new BigDecimal("250")) == 0));
+    }
+
+    @Test
+    void refresh_WithInsertOnConflict_TreatsJustCreatedRowAsNew() {
+        ReflectionTestUtils.setField(service, "insertOnConflictEnabled", true);
+        AccountPeriodBalance created = row("10100", "2026-10", "0", "0", "0");
+        stubSums("10100", "2026-10", "700", "200", "Cash");
+        when(balanceRepository.insertIfMissing("10100", "2026-10")).thenReturn(1);
+        when(balanceRepository.findForUpdate("10100", "2026-10")).thenReturn(Optional.of(created));
+        when(balanceRepository.findFirstByAccountCodeAndFiscalPeriodLessThanOrderByFiscalPeriodDesc("10100", "2026-10"))
+                .thenReturn(Optional.of(row("10100", "2026-09", "0", "1000", "0")));
+        when(balanceRepository.save(created)).thenReturn(created);
+
+        service.refresh("10100", "2026-10");
+
+        InOrder order = inOrder(balanceRepository);
+        order.verify(balanceRepository).insertIfMissing("10100", "2026-10");
+        order.verify(balanceRepository).findForUpdate("10100", "2026-10");
+        assertEquals(0, new BigDecimal("1500").compareTo(created.getClosingBalance()));
+        // Later periods were carried from 1000, not from the placeholder's zero
+        verify(balanceRepository).shiftLaterPeriods(eq("10100"), eq("2026-10"),
+                argThat(delta -> delta.compareTo(new BigDecimal("500")) == 0));
+    }
+
+    @Test
+    void refresh_UnchangedClosing_LeavesLaterPeriodsAlone() {
+        AccountPeriodBalance existing = row("10100", "2026-10", "1000", "700", "200");
+        stubSums("10100", "2026-10", "700", "200", null);
+        when(balanceRepository.findForUpdate("10100", "2026-10")).thenReturn(Optional.of(existing));
+        when(balanceRepository.findFirstByAccountCodeAndFiscalPeriodLessThanOrderByFiscalPeriodDesc("10100", "2026-10"))
+                .thenReturn(Optional.empty());
+        when(accountingRepository.sumNetByAccountCodeBeforeFiscalPeriod("10100", "2026-10"))
+                .thenReturn(new BigDecimal("1000"));
+        when(balanceRepository.save(existing)).thenReturn(existing);
+
+        AccountPeriodBalance refreshed = service.refresh("10100", "2026-10");
+
+        assertSame(existing, refreshed);
+        verify(balanceRepository, never()).shiftLaterPeriods(any(), any(), any());
+    }
+
+    @Test
+    void rollForward_CarriesClosingIntoNextPeriodForAccountsWithoutARow() {
+        when(balanceRepository.findByFiscalPeriod("2026-11"))
+                .thenReturn(List.of(row("20100", "2026-11", "-300", "0", "0")));
+        when(balanceRepository.findLatestUpTo("2026-10")).thenReturn(List.of(
+                row("10100", "2026-10", "1000", "700", "200"),
+                row("20100", "2026-09", "0", "0", "300")));
+
+        int created = service.rollForward("2026-10");
+
+        assertEquals(1, created);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<AccountPeriodBalance>> saved = ArgumentCaptor.forClass(List.class);
+        verify(balanceRepository).saveAll(saved.capture());
+        AccountPeriodBalance next = saved.getValue().get(0);
+        assertEquals("10100", next.getAccountCode());
+        assertEquals("2026-11", next.getFiscalPeriod());
+        assertEquals(0, new BigDecimal("1500").compareTo(next.getOpeningBalance()));
+        assertEquals(0, new BigDecimal("1500").compareTo(next.getClosingBalance()));
+    }
+
+    @Test
+    void verifyAndRepair_RefreshesFromFirstDriftedPeriodOnwards() {
+        List<Object[]> sums = new ArrayList<>();
+        sums.add(new Object[] { "10100", "2026-08", new BigDecimal("100"), BigDecimal.ZERO });
+        sums.add(new Object[] { "10100", "2026-09", new BigDecimal("50"), BigDecimal.ZERO });
+        sums.add(new Object[] { "10100", "2026-10", new BigDecimal("25"), BigDecimal.ZERO });
+        when(accountingRepository.sumGroupByAccountCodeAndFiscalPeriod()).thenReturn(sums);
+        // September is missing 50 of its debits; October is consistent with the
+        // stored September but not with the journal
+        when(balanceRepository.findAllByOrderByAccountCodeAscFiscalPeriodAsc()).thenReturn(List.of(
+                row("10100", "2026-08", "0", "100", "0"),
+                row("10100", "2026-09", "100", "0", "0"),
+                row("10100", "2026-10", "100", "25", "0")));
+        when(accountingRepository.sumByAccountCodeAndFiscalPeriod(any(), any()))
+                .thenAnswer(inv -> List.<Object[]>of(new Object[] { BigDecimal.ZERO, BigDecimal.ZERO, null }));
+        when(balanceRepository.findFirstByAccountCodeAndFiscalPeriodLessThanOrderByFiscalPeriodDesc(any(), any()))
+                .thenReturn(Optional.empty());
+        when(accountingRepository.sumNetByAccountCodeBeforeFiscalPeriod(any(), any())).thenReturn(BigDecimal.ZERO);
+        when(balanceRepository.save(any(AccountPeriodBalance.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        int repaired = service.verifyAndRepair();
+
+        assertEquals(2, repaired);
+        verify(balanceRepository, never()).findForUpdate("10100", "2026-08");
+        verify(balanceRepository).findForUpdate("10100", "2026-09");
+        verify(balanceRepository).findForUpdate("10100", "2026-10");
+    }
+
+    private static AccountingEntry entry(String accountCode, String fiscalPeriod, String debit, String credit) {
+        AccountingEntry entry = new AccountingEntry();
+        entry.setAccountCode(accountCode);
+        entry.setFiscalPeriod(fiscalPeriod);
+        entry.setDebit(new BigDecimal(debit));
+        entry.setCredit(new BigDecimal(credit));
+        return entry;
+    }
+
+    private void stubSums(String accountCode, String fiscalPeriod, String debit, String credit, String name) {
+        List<Object[]> sums = new ArrayList<>();
+        sums.add(new Object[] { new BigDecimal(debit), new BigDecimal(credit), name });
+        when(accountingRepository.sumByAccountCodeAndFiscalPeriod(accountCode, fiscalPeriod)).thenReturn(sums);
+    }
+
+    private static AccountPeriodBalance row(String accountCode, String fiscalPeriod, String opening, String debit,
+            String credit) {
+        AccountPeriodBalance row = AccountPeriodBalance.builder()
+                .accountCode(accountCode)
+                .fiscalPeriod(fiscalPeriod)
+                .build();
+        row.setFigures(new BigDecimal(opening), new BigDecimal(debit), new BigDecimal(credit));
+        return row;
+    }
+}
@@ -0,0 +1,103 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.AccountingEntry;
+import com.bansaiyai.bansaiyai.entity.AccountingPostingFence;
+import com.bansaiyai.bansaiyai.repository.AccountingPostingFenceRepository;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AccountingPostingServiceTest {
+
+    @Mock
+    private AccountingPostingFenceRepository fenceRepository;
+
+    @Mock
+    private AccountingRepository accountingRepository;
+
+    @InjectMocks
+    private AccountingPostingService service;
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void stamp_InTransaction_DrawsOneSequenceForAllEntriesBeforeCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(fenceRepository.findForShare()).thenReturn(Optional.of(fence()));
+        when(fenceRepository.nextPostingSeq()).thenReturn(42L);
+
+        service.stamp(entry(10L));
+        service.stamp(entry(11L));
+        verifyNoInteractions(fenceRepository, accountingRepository);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).beforeCommit(false);
+        synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // Shared before drawing, so a checkpoint waits for this posting
+        InOrder inOrder = inOrder(fenceRepository, accountingRepository);
+        inOrder.verify(fenceRepository).findForShare();
+        inOrder.verify(fenceRepository).nextPostingSeq();
+        inOrder.verify(accountingRepository).assignPostingSeq(List.of(10L, 11L), 42L);
+        verify(fenceRepository, never()).findForUpdate();
+    }
+
+    @Test
+    void stamp_WithoutFenceRow_CreatesIt() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(fenceRepository.findForShare()).thenReturn(Optional.empty());
+        when(fenceRepository.nextPostingSeq()).thenReturn(1L);
+
+        service.stamp(entry(10L));
+        TransactionSynchronizationManager.getSynchronizations().get(0).beforeCommit(false);
+
+        verify(fenceRepository).saveAndFlush(any(AccountingPostingFence.class));
+        verify(accountingRepository).assignPostingSeq(List.of(10L), 1L);
+    }
+
+    @Test
+    void lockWatermark_LocksFenceThenDrawsSequence() {
+        when(fenceRepository.findForUpdate()).thenReturn(Optional.of(fence()));
+        when(fenceRepository.nextPostingSeq()).thenReturn(300L);
+
+        assertEquals(300L, service.lockWatermark());
+
+        InOrder inOrder = inOrder(fenceRepository);
+        inOrder.verify(fenceRepository).findForUpdate();
+        inOrder.verify(fenceRepository).nextPostingSeq();
+    }
+
+    private static AccountingPostingFence fence() {
+        return AccountingPostingFence.builder()
+                .id(AccountingPostingFence.ID)
+                .build();
+    }
+
+    private static AccountingEntry entry(Long id) {
+        AccountingEntry entry = new AccountingEntry();
+        entry.setId(id);
+        entry.setAccountCode("1001");
+        return entry;
+    }
+}
@@ -2,6 +2,7 @@ package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.LoanBalance;
+import com.bansaiyai.bansaiyai.entity.Member;
 import com.bansaiyai.bansaiyai.entity.Payment;
 import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
@@ -25,9 +26,11 @@ import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -57,6 +60,12 @@ class AccountingServiceTest {
     private com.bansaiyai.bansaiyai.repository.AccountRepository accountRepository;
     @Mock
     private com.bansaiyai.bansaiyai.repository.AccountingRepository accountingRepository;
+    @Mock
+    private MemberFinancialSummaryService memberFinancialSummaryService;
+    @Mock
+    private AccountPeriodBalanceService accountPeriodBalanceService;
+    @Mock
+    private ReportArtifactService reportArtifactService;
 
     @InjectMocks
     private AccountingService accountingService;
@@ -80,16 +89,19 @@ class AccountingServiceTest {
                 .startDate(LocalDate.of(2025, 1, 1))
                 .status(LoanStatus.ACTIVE)
                 .build();
+        // The builder ignores id; closing keys snapshots and payments by it
+        loan.setId(1L);
     }
 
     @Test
     void closeMonth_ShouldProcessActiveLoan_WhenNotClosedAttempted() {
         // Arrange
         when(loanRepository.findByStatusIn(any())).thenReturn(List.of(loan));
-        when(loanBalanceRepository.findByLoanIdAndBalanceDate(loan.getId(), END_DATE)).thenReturn(Optional.empty());
+        when(loanBalanceRepository.findLoanIdsByBalanceDate(END_DATE)).thenReturn(List.of());
 
         // Mock Payments
         Payment payment = Payment.builder()
+                .loan(loan)
                 .paymentType(PaymentType.LOAN_REPAYMENT)
                 .paymentStatus(PaymentStatus.COMPLETED)
                 .paymentDate(LocalDate.of(2025, 10, 15))
@@ -98,7 +110,8 @@ class AccountingServiceTest {
                 .amount(new BigDecimal("600.00"))
                 .build();
 
-        when(paymentRepository.findLoanPaymentsByLoan(eq(loan.getId()), anyList()))
+        when(paymentRepository.findLoanPaymentsByDateRange(anyList(), eq(PaymentStatus.COMPLETED), eq(START_DATE),
+                eq(END_DATE)))
                 .thenReturn(List.of(payment));
         when(fiscalPeriodRepository.findByMonthAndYear(MONTH, YEAR)).thenReturn(Optional.empty());
         when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(BigDecimal.ZERO);
@@ -109,17 +122,17 @@ class AccountingServiceTest {
 
         // Assert
         verify(loanRepository).findByStatusIn(any());
-        verify(loanBalanceRepository).save(any(LoanBalance.class));
-
-        // You could capture the argument and assert values if needed
+        verify(loanBalanceRepository).saveAll(argThat((List<LoanBalance> balances) -> balances.size() == 1
+                && balances.get(0).getPrincipalPaid().compareTo(new BigDecimal("500.00")) == 0
+                && balances.get(0).getPaymentCount() == 1));
+        verify(accountPeriodBalanceService).rollForward("2025-10");
     }
 
     @Test
     void closeMonth_ShouldSkip_WhenAlreadyClosed() {
         // Arrange
         when(loanRepository.findByStatusIn(any())).thenReturn(List.of(loan));
-        when(loanBalanceRepository.findByLoanIdAndBalanceDate(loan.getId(), END_DATE))
-                .thenReturn(Optional.of(new LoanBalance()));
+        when(loanBalanceRepository.findLoanIdsByBalanceDate(END_DATE)).thenReturn(List.of(loan.getId()));
         when(fiscalPeriodRepository.findByMonthAndYear(MONTH, YEAR)).thenReturn(Optional.empty());
         when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(BigDecimal.ZERO);
         when(accountingRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(BigDecimal.ZERO);
@@ -128,24 +141,101 @@ class AccountingServiceTest {
         accountingService.closeMonth(MONTH, YEAR, "admin");
 
         // Assert
-        verify(loanBalanceRepository, never()).save(any(LoanBalance.class));
+        verify(loanBalanceRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void reopenMonth_ShouldOpenPeriodAndInvalidateStoredReports() {
+        com.bansaiyai.bansaiyai.entity.FiscalPeriod period = com.bansaiyai.bansaiyai.entity.FiscalPeriod.builder()
+                .month(MONTH).year(YEAR).status("CLOSED").closedBy("secretary").build();
+        when(fiscalPeriodRepository.findByMonthAndYear(MONTH, YEAR)).thenReturn(Optional.of(period));
+
+        accountingService.reopenMonth(MONTH, YEAR, "president");
+
+        assertEquals("OPEN", period.getStatus());
+        verify(fiscalPeriodRepository).save(period);
+        verify(reportArtifactService).invalidate(YEAR_MONTH);
     }
 
     @Test
-    void checkAndFlagOverdueLoans_ShouldMarkDefaulted() {
-        Loan overdueLoan = new Loan();
-        overdueLoan.setId(99L);
-        overdueLoan.setLoanNumber("L-OVERDUE");
-        overdueLoan.setOutstandingBalance(new BigDecimal("5000"));
-        overdueLoan.setMaturityDate(LocalDate.now().minusDays(1)); // Yesterday
-        overdueLoan.setStatus(LoanStatus.ACTIVE);
+    void reopenMonth_ShouldReject_WhenPeriodNotClosed() {
+        when(fiscalPeriodRepository.findByMonthAndYear(MONTH, YEAR)).thenReturn(Optional.empty());
 
-        when(loanRepository.findOverdueLoansByStatus(LoanStatus.ACTIVE))
-                .thenReturn(List.of(overdueLoan));
+        assertThrows(com.bansaiyai.bansaiyai.exception.BusinessException.class,
+                () -> accountingService.reopenMonth(MONTH, YEAR, "president"));
+        verifyNoInteractions(reportArtifactService);
+    }
+
+    @Test
+    void checkAndFlagOverdueLoans_ShouldDefaultInBulkAndAuditAsBatch() {
+        LocalDate maturity = LocalDate.now().minusDays(30);
+        when(loanRepository.findOverdueForUpdate(eq(LoanStatus.ACTIVE), any(LocalDate.class))).thenReturn(List.of(
+                overdueLoan(99L, 7L, "L-OVERDUE", "5000.00", maturity),
+                overdueLoan(100L, 8L, "L-OVERDUE-2", "3000.00", maturity)));
+        when(loanRepository.accruePenaltiesByStatus(eq(LoanStatus.DEFAULTED), any(LocalDate.class),
+                eq(Loan.DAILY_PENALTY_RATE))).thenReturn(3);
+        when(loanRepository.sumPenaltiesByStatus(LoanStatus.DEFAULTED))
+                .thenReturn(List.<Object[]>of(new Object[] { 3L, new BigDecimal("80.00") }));
 
         accountingService.checkAndFlagOverdueLoans();
 
-        assertEquals(LoanStatus.DEFAULTED, overdueLoan.getStatus());
-        verify(loanRepository).save(overdueLoan);
+        verify(loanRepository).updateStatusByIds(List.of(99L, 100L), LoanStatus.ACTIVE, LoanStatus.DEFAULTED);
+        verify(loanRepository, never()).save(any(Loan.class));
+        verify(memberFinancialSummaryService).markChanged(7L);
+        verify(memberFinancialSummaryService).markChanged(8L);
+        verify(auditService).systemEntry(eq("LOAN_DEFAULTED"), eq("Loan"), eq(99L), any(),
+                argThat(values -> values instanceof java.util.Map<?, ?> map
+                        && new BigDecimal("50.00").equals(map.get("penaltyAmount"))
+                        && Long.valueOf(30).equals(map.get("daysOverdue"))));
+        verify(auditService).systemEntry(eq("OVERDUE_LOAN_CHECK"), eq("Loan"), isNull(), isNull(),
+                argThat(values -> values instanceof java.util.Map<?, ?> map
+                        && Integer.valueOf(2).equals(map.get("flaggedLoans"))
+                        && Integer.valueOf(3).equals(map.get("penaltyAccruedLoans"))));
+        verify(auditService).logSystemActions(argThat(rows -> rows.size() == 3));
+    }
+
+    @Test
+    void checkAndFlagOverdueLoans_WithUpdateReturning_AuditsReturnedRows() {
+        org.springframework.test.util.ReflectionTestUtils.setField(accountingService, "updateReturningEnabled", true);
+        LocalDate maturity = LocalDate.now().minusDays(30);
+        when(loanRepository.flagOverdueLoansReturning(any(LocalDate.class))).thenReturn(List.<Object[]>of(
+                new Object[] { 100L, 8L, "L-OVERDUE-2", new BigDecimal("3000.00"), java.sql.Date.valueOf(maturity) }));
+        when(loanRepository.sumPenaltiesByStatus(LoanStatus.DEFAULTED)).thenReturn(List.of());
+
+        accountingService.checkAndFlagOverdueLoans();
+
+        verify(loanRepository, never()).findOverdueForUpdate(any(), any());
+        verify(loanRepository, never()).updateStatusByIds(anyList(), any(), any());
+        verify(memberFinancialSummaryService).markChanged(8L);
+        verify(auditService).systemEntry(eq("LOAN_DEFAULTED"), eq("Loan"), eq(100L), any(),
+                argThat(values -> values instanceof java.util.Map<?, ?> map
+                        && Long.valueOf(30).equals(map.get("daysOverdue"))));
+        verify(auditService).logSystemActions(argThat(rows -> rows.size() == 2));
+    }
+
+    @Test
+    void checkAndFlagOverdueLoans_NothingOverdue_StillAccruesAndWritesSummary() {
+        when(loanRepository.findOverdueForUpdate(eq(LoanStatus.ACTIVE), any(LocalDate.class))).thenReturn(List.of());
+        when(loanRepository.sumPenaltiesByStatus(LoanStatus.DEFAULTED)).thenReturn(List.of());
+
+        accountingService.checkAndFlagOverdueLoans();
+
+        verify(loanRepository, never()).updateStatusByIds(anyList(), any(), any());
+        verify(loanRepository).accruePenaltiesByStatus(eq(LoanStatus.DEFAULTED), any(LocalDate.class),
+                eq(Loan.DAILY_PENALTY_RATE));
+        verify(memberFinancialSummaryService, never()).markChanged(any());
+        verify(auditService).logSystemActions(argThat(rows -> rows.size() == 1));
+    }
+
+    private static Loan overdueLoan(Long id, Long memberId, String number, String outstanding, LocalDate maturity) {
+        Member member = new Member();
+        member.setId(memberId);
+        Loan overdue = new Loan();
+        overdue.setId(id);
+        overdue.setMember(member);
+        overdue.setLoanNumber(number);
+        overdue.setOutstandingBalance(new BigDecimal(outstanding));
+        overdue.setMaturityDate(maturity);
+        return overdue;
     }
 }
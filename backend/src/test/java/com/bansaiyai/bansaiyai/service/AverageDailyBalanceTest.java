@@ -0,0 +1,58 @@
+package com.bansaiyai.bansaiyai.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AverageDailyBalanceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 1);
+    private static final LocalDate END = LocalDate.of(2026, 3, 31);
+    private static final BigDecimal RATE = new BigDecimal("3.65");
+
+    @Test
+    void noTransactions_UsesCurrentBalanceForWholePeriod() {
+        AverageDailyBalance adb = new AverageDailyBalance(START, END, new BigDecimal("1000.00"));
+
+        assertEquals(new BigDecimal("1000.00"), adb.average());
+        assertEquals(new BigDecimal("3.00"), adb.interest(RATE));
+    }
+
+    @Test
+    void transactionsInPeriod_WeightBalanceByDaysHeld() {
+        AverageDailyBalance adb = new AverageDailyBalance(START, END, new BigDecimal("700.00"));
+        adb.accept(START.plusDays(10), new BigDecimal("1000.00"), new BigDecimal("2000.00"));
+        adb.accept(START.plusDays(20), new BigDecimal("2000.00"), new BigDecimal("700.00"));
+
+        // 10 days at 1,000 + 10 at 2,000 + 10 at 700 = 37,000 balance-days
+        assertEquals(new BigDecimal("1233.33"), adb.average());
+        assertEquals(new BigDecimal("3.70"), adb.interest(RATE));
+    }
+
+    @Test
+    void transactionAfterPeriod_OnlySuppliesTheBalanceInEffect() {
+        AverageDailyBalance adb = new AverageDailyBalance(START, END, new BigDecimal("5000.00"));
+        adb.accept(END.plusDays(3), new BigDecimal("1000.00"), new BigDecimal("5000.00"));
+
+        assertEquals(new BigDecimal("1000.00"), adb.average());
+    }
+
+    @Test
+    void transactionOnPeriodStart_BelongsToPreviousPeriod() {
+        AverageDailyBalance adb = new AverageDailyBalance(START, END, new BigDecimal("1000.00"));
+        adb.accept(START, new BigDecimal("0.00"), new BigDecimal("1000.00"));
+
+        assertEquals(new BigDecimal("1000.00"), adb.average());
+    }
+
+    @Test
+    void emptyPeriodOrOverdrawnBalance_EarnsNothing() {
+        assertEquals(new BigDecimal("0.00"),
+                new AverageDailyBalance(END, END, new BigDecimal("1000.00")).interest(RATE));
+        assertEquals(new BigDecimal("0.00"),
+                new AverageDailyBalance(START, END, new BigDecimal("-50.00")).interest(RATE));
+    }
+}
@@ -39,6 +39,8 @@ class BackendEnhancementTest {
     private MemberRepository memberRepository;
     @Mock
     private GuarantorRepository guarantorRepository;
+    @Mock
+    private MemberFinancialSummaryService memberFinancialSummaryService;
 
     @InjectMocks
     private LoanService loanService;
@@ -0,0 +1,117 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO;
+import com.bansaiyai.bansaiyai.dto.report.ReportItemDTO;
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.LoanBalance;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.Payment;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rolls a loan balance snapshot forward on a real database, with every
+ * kind of principal repayment the tellers and posting services record.
+ */
+@DataJpaTest
+@Import(ReportService.class)
+class BalanceSheetAsOfQueryTest {
+
+    private static final LocalDate SNAPSHOT = LocalDate.of(2026, 1, 31);
+    private static final LocalDate AS_OF = LocalDate.of(2026, 2, 15);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private ReportService reportService;
+
+    private Member member;
+    private Loan loan;
+    private int paymentCount;
+
+    @BeforeEach
+    void setUp() {
+        member = em.persist(Member.builder()
+                .memberId("M7100")
+                .name("Balance Sheet Member")
+                .idCard("1710000000000")
+                .dateOfBirth(LocalDate.of(1982, 3, 1))
+                .address("71 Snapshot Road, Ban Sai Yai")
+                .phone("0871111111")
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build());
+
+        loan = new Loan();
+        loan.setLoanNumber("LN-BS-1");
+        loan.setMember(member);
+        loan.setLoanType(LoanType.PERSONAL);
+        loan.setPrincipalAmount(new BigDecimal("20000.00"));
+        loan.setApprovedAmount(new BigDecimal("20000.00"));
+        loan.setInterestRate(new BigDecimal("12.00"));
+        loan.setTermMonths(12);
+        loan.setStartDate(LocalDate.of(2025, 12, 1));
+        loan.setEndDate(LocalDate.of(2026, 12, 1));
+        loan.setMaturityDate(LocalDate.of(2026, 12, 1));
+        loan.setDisbursementDate(LocalDate.of(2025, 12, 1));
+        loan.setOutstandingBalance(new BigDecimal("20000.00"));
+        loan.setStatus(LoanStatus.ACTIVE);
+        loan = em.persist(loan);
+
+        em.persist(LoanBalance.builder()
+                .loan(loan)
+                .balanceDate(SNAPSHOT)
+                .outstandingBalance(new BigDecimal("20000.00"))
+                .build());
+    }
+
+    @Test
+    void loansReceivable_DeductsTellerPrincipalPaymentsSinceSnapshot() {
+        // Teller repayment, as recorded by TransactionService
+        payment(PaymentType.LOAN_PRINCIPAL, "3000.00", LocalDate.of(2026, 2, 10));
+        payment(PaymentType.LOAN_REPAYMENT, "1000.00", LocalDate.of(2026, 2, 12));
+        // Not principal, and after the date: both left out
+        payment(PaymentType.LOAN_INTEREST, "500.00", LocalDate.of(2026, 2, 12));
+        payment(PaymentType.LOAN_PRINCIPAL, "2000.00", LocalDate.of(2026, 2, 20));
+        em.flush();
+        em.clear();
+
+        BalanceSheetDTO sheet = reportService.generateBalanceSheet(AS_OF);
+
+        BigDecimal loansReceivable = sheet.getAssets().stream()
+                .filter(item -> item.getCategory().equals("Loans Receivable"))
+                .map(ReportItemDTO::getAmount)
+                .findFirst()
+                .orElseThrow();
+        // 20000 at the snapshot, less 3000 at the teller and 1000 posted
+        assertThat(loansReceivable).isEqualByComparingTo("16000.00");
+    }
+
+    private void payment(PaymentType type, String principal, LocalDate date) {
+        Payment payment = new Payment();
+        payment.setPaymentNumber("PAY-BS-" + (++paymentCount));
+        payment.setMember(member);
+        payment.setLoan(loan);
+        payment.setPaymentType(type);
+        payment.setPaymentStatus(PaymentStatus.COMPLETED);
+        payment.setAmount(new BigDecimal(principal));
+        payment.setPrincipalAmount(type == PaymentType.LOAN_INTEREST ? BigDecimal.ZERO : new BigDecimal(principal));
+        payment.setInterestAmount(type == PaymentType.LOAN_INTEREST ? new BigDecimal(principal) : BigDecimal.ZERO);
+        payment.setPaymentDate(date);
+        em.persist(payment);
+    }
+}
@@ -0,0 +1,171 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.AccountingEntry;
+import com.bansaiyai.bansaiyai.entity.CashBalanceCheckpoint;
+import com.bansaiyai.bansaiyai.entity.CashReconciliation;
+import com.bansaiyai.bansaiyai.entity.User;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import com.bansaiyai.bansaiyai.repository.CashBalanceCheckpointRepository;
+import com.bansaiyai.bansaiyai.repository.CashReconciliationRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CashReconciliationServiceTest {
+
+    private static final String CASH = "1001";
+
+    @Mock
+    private CashReconciliationRepository cashReconciliationRepository;
+    @Mock
+    private AccountingRepository accountingRepository;
+    @Mock
+    private CashBalanceCheckpointRepository checkpointRepository;
+    @Mock
+    private AuditService auditService;
+    @Mock
+    private AccountPeriodBalanceService accountPeriodBalanceService;
+    @Mock
+    private AccountingPostingService postingService;
+
+    @InjectMocks
+    private CashReconciliationService service;
+
+    @Test
+    void calculateDatabaseBalance_WithoutCheckpoint_SumsFullHistory() {
+        LocalDate date = LocalDate.of(2024, 6, 10);
+        when(checkpointRepository.findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(CASH, date))
+                .thenReturn(Optional.empty());
+        when(accountingRepository.sumNetByAccountCodeBefore(CASH, date, null))
+                .thenReturn(new BigDecimal("40000.00"));
+
+        assertEquals(new BigDecimal("40000.00"), service.calculateDatabaseBalance(date));
+        verify(accountingRepository, never()).findByAccountCodeAndTransactionDateBefore(any(), any());
+    }
+
+    @Test
+    void calculateDatabaseBalance_WithCheckpoint_AddsDeltaOnly() {
+        LocalDate date = LocalDate.of(2024, 6, 10);
+        CashBalanceCheckpoint checkpoint = CashBalanceCheckpoint.builder()
+                .accountCode(CASH)
+                .balanceDate(LocalDate.of(2024, 6, 7))
+                .closingBalance(new BigDecimal("35000.00"))
+                .lastPostingSeq(120L)
+                .build();
+        when(checkpointRepository.findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(CASH, date))
+                .thenReturn(Optional.of(checkpoint));
+        when(accountingRepository.sumNetByAccountCodeBetween(CASH, LocalDate.of(2024, 6, 7), date, null))
+                .thenReturn(new BigDecimal("-1500.00"));
+        // Back-dated after the checkpoint was taken
+        when(accountingRepository.sumNetByAccountCodePostedSince(CASH, LocalDate.of(2024, 6, 7), 120L, null))
+                .thenReturn(new BigDecimal("200.00"));
+
+        assertEquals(new BigDecimal("33700.00"), service.calculateDatabaseBalance(date));
+        verify(accountingRepository, never()).sumNetByAccountCodeBefore(any(), any(), any());
+    }
+
+    @Test
+    void approveDiscrepancy_CheckpointsPreviousDayClosingBalance() {
+        LocalDate date = LocalDate.of(2024, 6, 10);
+        User secretary = new User();
+        secretary.setUsername("secretary");
+        secretary.setRole(User.Role.SECRETARY);
+
+        CashReconciliation reconciliation = CashReconciliation.builder()
+                .reconciliationId(5L)
+                .date(date)
+                .physicalCount(new BigDecimal("900.00"))
+                .databaseBalance(new BigDecimal("1000.00"))
+                .variance(new BigDecimal("-100.00"))
+                .status(CashReconciliation.ReconciliationStatus.PENDING)
+                .build();
+
+        when(cashReconciliationRepository.findById(5L)).thenReturn(Optional.of(reconciliation));
+        when(cashReconciliationRepository.save(any(CashReconciliation.class))).thenAnswer(i -> i.getArgument(0));
+        when(postingService.lockWatermark()).thenReturn(200L);
+        when(checkpointRepository.findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(CASH, date))
+                .thenReturn(Optional.empty());
+        when(accountingRepository.sumNetByAccountCodeBefore(CASH, date, 200L)).thenReturn(new BigDecimal("1000.00"));
+        when(checkpointRepository.findByAccountCodeAndBalanceDate(CASH, date.minusDays(1)))
+                .thenReturn(Optional.empty());
+
+        service.approveDiscrepancy(5L, secretary, "counted twice");
+
+        ArgumentCaptor<CashBalanceCheckpoint> captor = ArgumentCaptor.forClass(CashBalanceCheckpoint.class);
+        verify(checkpointRepository).save(captor.capture());
+        CashBalanceCheckpoint saved = captor.getValue();
+        assertEquals(date.minusDays(1), saved.getBalanceDate());
+        assertEquals(new BigDecimal("1000.00"), saved.getClosingBalance());
+        assertEquals(200L, saved.getLastPostingSeq());
+        assertEquals(5L, saved.getReconciliationId());
+        verify(accountingRepository).save(any(AccountingEntry.class));
+        assertEquals(CashReconciliation.ReconciliationStatus.APPROVED, reconciliation.getStatus());
+        verify(auditService).logAction(eq(secretary), eq("APPROVE_DISCREPANCY"), any(), eq(5L), any(), any());
+    }
+
+    @Test
+    void createReconciliation_WithoutVariance_CheckpointsPreviousDayClosingBalance() {
+        LocalDate today = LocalDate.now();
+        User officer = new User();
+        officer.setUsername("officer");
+        officer.setRole(User.Role.OFFICER);
+
+        when(cashReconciliationRepository.existsByDate(today)).thenReturn(false);
+        when(checkpointRepository.findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(CASH, today))
+                .thenReturn(Optional.empty());
+        when(accountingRepository.sumNetByAccountCodeBefore(CASH, today, null)).thenReturn(new BigDecimal("1000.00"));
+        when(cashReconciliationRepository.save(any(CashReconciliation.class))).thenAnswer(i -> {
+            CashReconciliation saved = i.getArgument(0);
+            saved.setReconciliationId(7L);
+            return saved;
+        });
+        when(postingService.lockWatermark()).thenReturn(300L);
+        when(accountingRepository.sumNetByAccountCodeBefore(CASH, today, 300L)).thenReturn(new BigDecimal("1000.00"));
+        when(checkpointRepository.findByAccountCodeAndBalanceDate(CASH, today.minusDays(1)))
+                .thenReturn(Optional.empty());
+
+        service.createReconciliation(new BigDecimal("1000.00"), officer, null);
+
+        ArgumentCaptor<CashBalanceCheckpoint> captor = ArgumentCaptor.forClass(CashBalanceCheckpoint.class);
+        verify(checkpointRepository).save(captor.capture());
+        CashBalanceCheckpoint saved = captor.getValue();
+        assertEquals(today.minusDays(1), saved.getBalanceDate());
+        assertEquals(new BigDecimal("1000.00"), saved.getClosingBalance());
+        assertEquals(300L, saved.getLastPostingSeq());
+        assertEquals(7L, saved.getReconciliationId());
+        // No variance, no adjusting entry
+        verify(accountingRepository, never()).save(any(AccountingEntry.class));
+    }
+
+    @Test
+    void createReconciliation_WithVariance_LeavesCheckpointToApproval() {
+        LocalDate today = LocalDate.now();
+        User officer = new User();
+        officer.setUsername("officer");
+        officer.setRole(User.Role.OFFICER);
+
+        when(cashReconciliationRepository.existsByDate(today)).thenReturn(false);
+        when(checkpointRepository.findFirstByAccountCodeAndBalanceDateBeforeOrderByBalanceDateDesc(CASH, today))
+                .thenReturn(Optional.empty());
+        when(accountingRepository.sumNetByAccountCodeBefore(CASH, today, null)).thenReturn(new BigDecimal("1000.00"));
+        when(cashReconciliationRepository.save(any(CashReconciliation.class))).thenAnswer(i -> i.getArgument(0));
+
+        service.createReconciliation(new BigDecimal("950.00"), officer, null);
+
+        verify(postingService, never()).lockWatermark();
+        verify(checkpointRepository, never()).save(any());
+    }
+}
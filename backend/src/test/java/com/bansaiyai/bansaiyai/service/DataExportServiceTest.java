@@ -5,11 +5,18 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -142,4 +149,68 @@ class DataExportServiceTest {
     assertNotNull(result);
     assertTrue(result.length > 0);
   }
+
+  @Test
+  void exportToExcel_shouldStreamToOutputStream() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    dataExportService.exportToExcel("Stream", Arrays.asList("ID", "Amount"),
+        IntStream.range(0, 2_000).mapToObj(i -> Arrays.<Object>asList((long) i, BigDecimal.valueOf(i, 2))), out);
+
+    byte[] result = out.toByteArray();
+    assertTrue(result.length > 0);
+    assertEquals((byte) 0x50, result[0]);
+    assertEquals((byte) 0x4B, result[1]);
+  }
+
+  /**
+   * Writes one million rows in a separate JVM capped at 96 MB of heap. The
+   * XSSF DOM would need several GB for the same sheet; SXSSF keeps only the
+   * row window in memory, so the child must finish without OutOfMemoryError.
+   */
+  @Test
+  void exportToExcel_shouldWriteMillionRowsUnderFixedHeapCap() throws IOException, InterruptedException {
+    String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+    Process process = new ProcessBuilder(java, "-Xmx96m", "-Djava.awt.headless=true",
+        "-cp", System.getProperty("java.class.path"), MillionRowExport.class.getName())
+        .redirectErrorStream(true)
+        .start();
+
+    boolean finished = process.waitFor(5, TimeUnit.MINUTES);
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+    if (!finished) {
+      process.destroyForcibly();
+      fail("Export did not finish in time");
+    }
+
+    assertEquals(0, process.exitValue(), output);
+    assertTrue(output.contains("rows=1000000"), output);
+  }
+
+  static class MillionRowExport {
+    public static void main(String[] args) {
+      long[] bytes = { 0 };
+      OutputStream discard = new OutputStream() {
+        @Override
+        public void write(int b) {
+          bytes[0]++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+          bytes[0] += len;
+        }
+      };
+
+      LocalDate start = LocalDate.of(2024, 1, 1);
+      new DataExportService().exportToExcel("Transactions",
+          Arrays.asList("ID", "Transaction Number", "Member", "Type", "Amount", "Date"),
+          IntStream.range(0, 1_000_000).mapToObj(i -> Arrays.<Object>asList(
+              (long) i, "TXN" + i, "Member " + (i % 5_000), "DEPOSIT",
+              BigDecimal.valueOf(i % 100_000, 2), start.plusDays(i % 365))),
+          discard);
+
+      System.out.println("rows=1000000 bytes=" + bytes[0]);
+    }
+  }
 }
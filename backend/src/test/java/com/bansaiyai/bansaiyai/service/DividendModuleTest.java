@@ -11,11 +11,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -64,13 +66,13 @@ public class DividendModuleTest {
     @Test
     void testCalculateDividends() {
         // Mock Data
-        when(memberRepository.findByIsActiveTrue()).thenReturn(List.of(member1));
-        when(savingRepository.findFirstByMemberIdAndIsActiveTrue(member1.getId())).thenReturn(Optional.of(saving1));
-        when(paymentRepository.sumInterestByMemberAndYear(member1.getId(), 2024)).thenReturn(new BigDecimal("1000.00"));
+        when(memberRepository.findActiveMemberShareCapital())
+                .thenReturn(List.<Object[]>of(new Object[] { member1.getId(), saving1.getShareCapital() }));
+        when(paymentRepository.sumInterestByDateRangeGroupByMember(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)))
+                .thenReturn(List.<Object[]>of(new Object[] { member1.getId(), new BigDecimal("1000.00") }));
 
         // existsByYear returns false by default for mock, which is what we want.
         when(dividendDistributionRepository.save(any(DividendDistribution.class))).thenAnswer(i -> i.getArguments()[0]);
-        when(dividendRecipientRepository.save(any(DividendRecipient.class))).thenAnswer(i -> i.getArguments()[0]);
 
         // Logic
         DividendDistribution dist = dividendService.calculateDividends(
@@ -86,7 +88,7 @@ public class DividendModuleTest {
         assertEquals(0, new BigDecimal("600.00")
                 .compareTo(dist.getTotalDividendAmount().add(dist.getTotalAverageReturnAmount())));
 
-        verify(dividendRecipientRepository, times(1)).save(any(DividendRecipient.class));
+        verify(dividendRecipientRepository).saveAll(argThat((List<DividendRecipient> recipients) -> recipients.size() == 1));
     }
 
     @Test
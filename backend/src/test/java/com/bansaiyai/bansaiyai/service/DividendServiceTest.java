@@ -1,5 +1,6 @@
 package com.bansaiyai.bansaiyai.service;
 
+import com.bansaiyai.bansaiyai.dto.DividendSimulationResponse;
 import com.bansaiyai.bansaiyai.entity.DividendDistribution;
 import com.bansaiyai.bansaiyai.entity.DividendRecipient;
 import com.bansaiyai.bansaiyai.entity.Member;
@@ -14,12 +15,14 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -58,8 +61,12 @@ class DividendServiceTest {
                 member.setId(1L);
 
                 when(dividendDistributionRepository.existsByYear(year)).thenReturn(false);
-                when(memberRepository.findByIsActiveTrue()).thenReturn(Collections.singletonList(member));
-                when(paymentRepository.sumInterestByMemberAndYear(eq(1L), eq(year))).thenReturn(new BigDecimal("100"));
+                when(memberRepository.findActiveMemberShareCapital())
+                                .thenReturn(List.<Object[]>of(new Object[] { member.getId(), member.getShareCapital() }));
+                when(paymentRepository.sumInterestByDateRangeGroupByMember(LocalDate.of(year, 1, 1),
+                                LocalDate.of(year, 12, 31)))
+                                .thenReturn(List.<Object[]>of(new Object[] { 1L, new BigDecimal("100") }));
+                when(memberRepository.getReferenceById(1L)).thenReturn(member);
 
                 when(dividendDistributionRepository.save(any(DividendDistribution.class)))
                                 .thenAnswer(i -> i.getArguments()[0]);
@@ -77,7 +84,8 @@ class DividendServiceTest {
                 assertEquals(new BigDecimal("50.00"), result.getTotalDividendAmount());
                 assertEquals(new BigDecimal("10.00"), result.getTotalAverageReturnAmount());
 
-                verify(dividendRecipientRepository, times(1)).save(any(DividendRecipient.class));
+                verify(dividendRecipientRepository).saveAll(
+                                argThat((List<DividendRecipient> recipients) -> recipients.get(0).getMember() == member));
         }
 
         @Test
@@ -123,4 +131,72 @@ class DividendServiceTest {
                 verify(transactionService).processDividendPayout(eq(10L), eq(new BigDecimal("100")), eq(year),
                                 eq(user));
         }
+
+        @Test
+        void simulateDividends_MatchesCalculationAndPersistsNothing() {
+                when(memberRepository.findActiveMemberShareCapital()).thenReturn(List.of(
+                                new Object[] { 1L, new BigDecimal("1000.00") },
+                                new Object[] { 2L, new BigDecimal("333.33") },
+                                new Object[] { 3L, BigDecimal.ZERO }));
+                when(paymentRepository.sumInterestByDateRangeGroupByMember(LocalDate.of(2024, 1, 1),
+                                LocalDate.of(2024, 12, 31))).thenReturn(List.<Object[]>of(
+                                                new Object[] { 1L, new BigDecimal("100.00") },
+                                                new Object[] { 99L, new BigDecimal("500.00") }));
+
+                DividendSimulationResponse result = dividendService.simulateDividends(2024,
+                                List.of(new BigDecimal("5.0"), new BigDecimal("7.25")),
+                                List.of(new BigDecimal("10.0")), null);
+
+                assertEquals(3, result.getMemberCount());
+                assertEquals(new BigDecimal("1333.33"), result.getTotalShareCapital());
+                // Interest for member 99 (not active) is ignored
+                assertEquals(new BigDecimal("100.00"), result.getTotalInterestPaid());
+                assertEquals(2, result.getScenarios().size());
+
+                DividendSimulationResponse.Scenario first = result.getScenarios().get(0);
+                // 1000 * 5% = 50.00, 333.33 * 5% = 16.6665 -> 16.67 (HALF_UP like calculateDividends)
+                assertEquals(new BigDecimal("66.67"), first.getTotalDividendAmount());
+                assertEquals(new BigDecimal("10.00"), first.getTotalAverageReturnAmount());
+                assertEquals(new BigDecimal("76.67"), first.getTotalPayout());
+                assertEquals(2, first.getRecipientCount());
+                assertEquals(new BigDecimal("60.00"), first.getMaxPayout());
+                assertNull(first.getWithinTarget());
+                assertTrue(result.getTargetMatches().isEmpty());
+
+                verify(dividendDistributionRepository, never()).save(any());
+                verify(dividendRecipientRepository, never()).save(any());
+        }
+
+        @Test
+        void simulateDividends_SolvesHighestRateWithinTarget() {
+                when(memberRepository.findActiveMemberShareCapital()).thenReturn(List.<Object[]>of(
+                                new Object[] { 1L, new BigDecimal("10000.00") }));
+                when(paymentRepository.sumInterestByDateRangeGroupByMember(any(), any()))
+                                .thenReturn(List.<Object[]>of(new Object[] { 1L, new BigDecimal("1000.00") }));
+
+                DividendSimulationResponse result = dividendService.simulateDividends(2024,
+                                List.of(new BigDecimal("6")), List.of(new BigDecimal("10")), new BigDecimal("600.00"));
+
+                // 6% of 10000 + 10% of 1000 = 700 > 600
+                assertFalse(result.getScenarios().get(0).getWithinTarget());
+                // 5% of 10000 + 10% of 1000 = 600 <= 600
+                DividendSimulationResponse.Scenario match = result.getTargetMatches().get(0);
+                assertEquals(new BigDecimal("5.00"), match.getDividendRate());
+                assertEquals(new BigDecimal("600.00"), match.getTotalPayout());
+        }
+
+        @Test
+        void simulateDividends_RejectsOutOfRangeRates() {
+                assertThrows(BusinessException.class, () -> dividendService.simulateDividends(2024,
+                                List.of(new BigDecimal("101")), List.of(BigDecimal.ONE), null));
+        }
+
+        @Test
+        void simulateDividends_RejectsRatesFinerThanBasisPoints() {
+                assertThrows(BusinessException.class, () -> dividendService.simulateDividends(2024,
+                                List.of(new BigDecimal("5.125")), List.of(BigDecimal.ONE), null));
+                assertThrows(BusinessException.class, () -> dividendService.simulateDividends(2024,
+                                List.of(BigDecimal.ONE), List.of(new BigDecimal("0.001")), null));
+                verifyNoInteractions(paymentRepository);
+        }
 }
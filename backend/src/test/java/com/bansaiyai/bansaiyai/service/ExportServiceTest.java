@@ -0,0 +1,90 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.report.MonthlyReportDTO;
+import com.bansaiyai.bansaiyai.dto.report.OverdueLoanDTO;
+import com.bansaiyai.bansaiyai.repository.AccountingRepository;
+import com.bansaiyai.bansaiyai.repository.SavingTransactionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    @Mock
+    private AccountingRepository accountingRepository;
+    @Mock
+    private SavingTransactionRepository savingTransactionRepository;
+    @Mock
+    private DataExportService dataExportService;
+
+    @InjectMocks
+    private ExportService exportService;
+
+    @Test
+    void generateMonthlyReportCsv_FormatsMoneyWithTwoDecimals() {
+        MonthlyReportDTO report = MonthlyReportDTO.builder()
+                .month("2024-05")
+                .totalIncome(new BigDecimal("1500.5"))
+                .totalExpense(new BigDecimal("200.125"))
+                .netIncome(new BigDecimal("1300.375"))
+                .newLoansCount(3)
+                .closedLoansCount(1)
+                .build();
+
+        String csv = exportService.generateMonthlyReportCsv(report);
+
+        assertEquals("Month,Total Income,Total Expense,Net Income,New Loans,Closed Loans\n"
+                + "2024-05,1500.50,200.13,1300.38,3,1\n", csv);
+    }
+
+    @Test
+    void generateOverdueLoansCsv_EscapesNamesAndDefaultsMissingDate() {
+        OverdueLoanDTO loan = OverdueLoanDTO.builder()
+                .loanNumber("LN-1")
+                .memberName("Somchai, Jr.")
+                .outstandingBalance(new BigDecimal("1000"))
+                .daysOverdue(12)
+                .build();
+
+        String csv = exportService.generateOverdueLoansCsv(List.of(loan));
+
+        assertTrue(csv.endsWith("LN-1,\"Somchai, Jr.\",1000.00,12,N/A\n"));
+    }
+
+    @Test
+    void writeLedgerCsv_StreamsRowsAndClosesCursor() {
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        LocalDate end = LocalDate.of(2024, 1, 31);
+        AtomicBoolean closed = new AtomicBoolean(false);
+        Stream<Object[]> rows = Stream.<Object[]>of(
+                new Object[] { LocalDate.of(2024, 1, 2), "2024-01", "1001", "Cash",
+                        new BigDecimal("500.00"), BigDecimal.ZERO, "SAVINGS", "JRN-1", "Deposit" },
+                new Object[] { LocalDate.of(2024, 1, 3), "2024-01", "2001", "Member Savings",
+                        null, new BigDecimal("500"), null, null, "Deposit, member 7" })
+                .onClose(() -> closed.set(true));
+        when(accountingRepository.streamLedgerRows(start, end, null)).thenReturn(rows);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.writeLedgerCsv(start, end, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        assertEquals("2024-01-02,2024-01,1001,Cash,500.00,0.00,SAVINGS,JRN-1,Deposit", lines[1]);
+        assertEquals("2024-01-03,2024-01,2001,Member Savings,,500.00,,,\"Deposit, member 7\"", lines[2]);
+        assertTrue(closed.get());
+    }
+}
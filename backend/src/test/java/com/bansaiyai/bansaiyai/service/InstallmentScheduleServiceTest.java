@@ -0,0 +1,156 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.InstallmentSchedule;
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.repository.InstallmentScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates a schedule on the embedded database and runs repayments and the
+ * due-date lookups against it.
+ */
+@DataJpaTest
+@Import(InstallmentScheduleService.class)
+class InstallmentScheduleServiceTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 1, 15);
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private InstallmentScheduleService installmentScheduleService;
+
+    @Autowired
+    private InstallmentScheduleRepository installmentScheduleRepository;
+
+    private Member member;
+    private Loan loan;
+
+    @BeforeEach
+    void setUp() {
+        member = em.persist(Member.builder()
+                .memberId("M8200")
+                .name("Schedule Member")
+                .idCard("1820000000000")
+                .dateOfBirth(LocalDate.of(1980, 1, 1))
+                .address("82 Schedule Road, Ban Sai Yai")
+                .phone("0882000000")
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build());
+        loan = em.persist(loan("LN-SCH-1", "12000.00", "12.00", 12));
+        em.flush();
+    }
+
+    @Test
+    void generateSchedule_AmortizesPrincipalExactly() {
+        List<InstallmentSchedule> schedule = installmentScheduleService.generateSchedule(loan);
+
+        assertThat(schedule).hasSize(12);
+        InstallmentSchedule first = schedule.get(0);
+        assertThat(first.getDueDate()).isEqualTo(START.plusMonths(1));
+        assertThat(first.getInterestDue()).isEqualByComparingTo("120.00");
+        assertThat(first.getAmountDue()).isEqualByComparingTo(Loan.calculateInstallment(
+                new BigDecimal("12000.00"), new BigDecimal("12.00"), 12));
+        assertThat(schedule.stream().map(InstallmentSchedule::getPrincipalDue).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .isEqualByComparingTo("12000.00");
+        assertThat(schedule.get(11).getClosingBalance()).isEqualByComparingTo("0.00");
+
+        // Disbursing twice keeps the first schedule
+        installmentScheduleService.generateSchedule(loan);
+        assertThat(installmentScheduleRepository.findByLoanIdOrderByInstallmentNo(loan.getId())).hasSize(12);
+    }
+
+    @Test
+    void applyRepayment_AllocatesToOldestInstallmentsFirst() {
+        List<InstallmentSchedule> schedule = installmentScheduleService.generateSchedule(loan);
+        InstallmentSchedule first = schedule.get(0);
+        InstallmentSchedule second = schedule.get(1);
+        LocalDate paid = START.plusMonths(1);
+
+        // The first installment in full plus half of the second's principal
+        BigDecimal principal = first.getPrincipalDue().add(second.getPrincipalDue().divide(BigDecimal.valueOf(2)));
+        installmentScheduleService.applyRepayment(loan, principal, first.getInterestDue(), paid);
+        em.flush();
+        em.clear();
+
+        List<InstallmentSchedule> after = installmentScheduleRepository.findByLoanIdOrderByInstallmentNo(loan.getId());
+        assertThat(after.get(0).getStatus()).isEqualTo(InstallmentStatus.PAID);
+        assertThat(after.get(0).getPaidDate()).isEqualTo(paid);
+        assertThat(after.get(1).getStatus()).isEqualTo(InstallmentStatus.PARTIAL);
+        assertThat(after.get(1).getInterestPaid()).isEqualByComparingTo("0.00");
+        assertThat(after.get(2).getStatus()).isEqualTo(InstallmentStatus.PENDING);
+
+        assertThat(installmentScheduleService.findNextDueForLoan(loan.getId()))
+                .hasValueSatisfying(next -> assertThat(next.getInstallmentNo()).isEqualTo(2));
+    }
+
+    @Test
+    void dueDateLookups_ReadOpenInstallments() {
+        Loan later = em.persist(loan("LN-SCH-2", "6000.00", "12.00", 6));
+        later.setStartDate(START.minusDays(2));
+        installmentScheduleService.generateSchedule(loan);
+        installmentScheduleService.generateSchedule(later);
+        InstallmentSchedule firstOfLoan = installmentScheduleService.getSchedule(loan.getId()).get(0);
+        installmentScheduleService.applyRepayment(loan, firstOfLoan.getPrincipalDue(), firstOfLoan.getInterestDue(),
+                firstOfLoan.getDueDate());
+
+        // The member's next payment is the second loan's first installment
+        assertThat(installmentScheduleService.findNextDueForMember(member.getId()))
+                .hasValueSatisfying(next -> {
+                    assertThat(next.getLoanId()).isEqualTo(later.getId());
+                    assertThat(next.getDueDate()).isEqualTo(LocalDate.of(2026, 2, 13));
+                    assertThat(next.getAmountDue()).isEqualByComparingTo(Loan.calculateInstallment(
+                            new BigDecimal("6000.00"), new BigDecimal("12.00"), 6));
+                });
+
+        // Week of Monday 9 March 2026: both loans fall due that week
+        assertThat(installmentScheduleService.findDueThisWeek(LocalDate.of(2026, 3, 11)))
+                .extracting(InstallmentSchedule::getDueDate)
+                .containsExactly(LocalDate.of(2026, 3, 13), LocalDate.of(2026, 3, 15));
+
+        // On 1 April: Feb 13 and Mar 13 of the second loan, Mar 15 of the first (Feb 15 was paid)
+        assertThat(installmentScheduleService.findArrears(LocalDate.of(2026, 4, 1)))
+                .extracting(InstallmentSchedule::getDueDate)
+                .containsExactly(LocalDate.of(2026, 2, 13), LocalDate.of(2026, 3, 13), LocalDate.of(2026, 3, 15));
+        List<Object[]> arrears = installmentScheduleRepository.summarizeArrearsByLoan(LocalDate.of(2026, 4, 1));
+        assertThat(arrears).hasSize(2);
+        assertThat(arrears.get(0)[0]).isEqualTo(later.getId());
+        assertThat(((Number) arrears.get(0)[2]).longValue()).isEqualTo(2);
+        List<InstallmentSchedule> laterSchedule = installmentScheduleService.getSchedule(later.getId());
+        assertThat((BigDecimal) arrears.get(0)[3]).isEqualByComparingTo(
+                laterSchedule.get(0).getAmountDue().add(laterSchedule.get(1).getAmountDue()));
+    }
+
+    private Loan loan(String number, String principal, String rate, int months) {
+        Loan loan = new Loan();
+        loan.setLoanNumber(number);
+        loan.setMember(member);
+        loan.setLoanType(LoanType.PERSONAL);
+        loan.setPrincipalAmount(new BigDecimal(principal));
+        loan.setInterestRate(new BigDecimal(rate));
+        loan.setTermMonths(months);
+        loan.setStartDate(START);
+        loan.setEndDate(START.plusMonths(months));
+        loan.setMaturityDate(START.plusMonths(months));
+        loan.setOutstandingBalance(new BigDecimal(principal));
+        loan.setStatus(LoanStatus.ACTIVE);
+        return loan;
+    }
+}
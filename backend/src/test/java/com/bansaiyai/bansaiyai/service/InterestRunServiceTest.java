@@ -0,0 +1,187 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.InterestRun;
+import com.bansaiyai.bansaiyai.entity.InterestRunChunk;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.SavingAccount;
+import com.bansaiyai.bansaiyai.entity.SavingTransaction;
+import com.bansaiyai.bansaiyai.entity.enums.AccountType;
+import com.bansaiyai.bansaiyai.entity.enums.InterestRunStatus;
+import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
+import com.bansaiyai.bansaiyai.repository.InterestRunChunkRepository;
+import com.bansaiyai.bansaiyai.repository.InterestRunRepository;
+import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import com.bansaiyai.bansaiyai.repository.SavingRepository;
+import com.bansaiyai.bansaiyai.repository.SavingTransactionRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs interest crediting end to end on the embedded database with two
+ * workers. Not transactional: every chunk commits on its own, as in
+ * production.
+ */
+@DataJpaTest(properties = "app.interest.chunk-size=2")
+@Import({ InterestRunService.class, InterestRunServiceTest.WorkerConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class InterestRunServiceTest {
+
+    private static final LocalDate OPENED = LocalDate.of(2026, 1, 1);
+    private static final LocalDate AS_OF = LocalDate.of(2026, 1, 31);
+
+    @TestConfiguration
+    static class WorkerConfig {
+        @Bean(name = "interestExecutor")
+        Executor interestExecutor() {
+            ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(2);
+            executor.setMaxPoolSize(2);
+            executor.initialize();
+            return executor;
+        }
+    }
+
+    @Autowired
+    private InterestRunService interestRunService;
+
+    @Autowired
+    private InterestRunRepository runRepository;
+
+    @Autowired
+    private InterestRunChunkRepository chunkRepository;
+
+    @Autowired
+    private MemberRepository memberRepository;
+
+    @Autowired
+    private SavingRepository savingRepository;
+
+    @Autowired
+    private SavingTransactionRepository transactionRepository;
+
+    @MockBean
+    private MemberFinancialSummaryService memberFinancialSummaryService;
+
+    private final List<SavingAccount> accounts = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 5; i++) {
+            Member member = memberRepository.save(Member.builder()
+                    .memberId(String.format("M81%02d", i))
+                    .name("Interest Member " + i)
+                    .idCard(String.format("%013d", 1810000000000L + i))
+                    .dateOfBirth(LocalDate.of(1980, 1, 1))
+                    .address("81 Interest Road, Ban Sai Yai")
+                    .phone(String.format("08100000%02d", i))
+                    .registrationDate(OPENED)
+                    .isActive(true)
+                    .build());
+            // 1,000.00 at 3.65% earns 0.10 a day
+            accounts.add(savingRepository.save(SavingAccount.builder()
+                    .accountNumber(String.format("SA-INT-%02d", i))
+                    .member(member)
+                    .accountType(AccountType.SAVINGS)
+                    .accountName("Savings " + i)
+                    .balance(new BigDecimal("1000.00"))
+                    .availableBalance(new BigDecimal("1000.00"))
+                    .interestRate(new BigDecimal("3.65"))
+                    .openingDate(OPENED)
+                    .lastInterestDate(OPENED)
+                    .isActive(true)
+                    .isFrozen(false)
+                    .build()));
+        }
+
+        // Account 0 received 500.00 on day 10 of the period
+        SavingAccount topUp = accounts.get(0);
+        topUp.setBalance(new BigDecimal("1500.00"));
+        topUp.setAvailableBalance(new BigDecimal("1500.00"));
+        accounts.set(0, savingRepository.save(topUp));
+        transactionRepository.save(SavingTransaction.builder()
+                .savingAccount(topUp)
+                .transactionNumber("TXN-INT-DEPOSIT")
+                .transactionType(TransactionType.DEPOSIT)
+                .amount(new BigDecimal("500.00"))
+                .transactionDate(OPENED.plusDays(10))
+                .balanceBefore(new BigDecimal("1000.00"))
+                .balanceAfter(new BigDecimal("1500.00"))
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        chunkRepository.deleteAll();
+        runRepository.deleteAll();
+        transactionRepository.deleteAll();
+        savingRepository.deleteAll();
+        memberRepository.deleteAll();
+    }
+
+    @Test
+    void runInterest_CreditsAverageDailyBalanceInChunks() {
+        InterestRun run = interestRunService.runInterest(AS_OF, "president");
+
+        assertThat(run.getStatus()).isEqualTo(InterestRunStatus.COMPLETED);
+        assertThat(run.getTotalChunks()).isEqualTo(3);
+        assertThat(run.getCompletedChunks()).isEqualTo(3);
+        assertThat(run.getAccountsCredited()).isEqualTo(5);
+        // 10 days at 1,000 + 20 days at 1,500 = 4.00; four flat accounts at 3.00
+        assertThat(run.getTotalInterest()).isEqualByComparingTo("16.00");
+
+        SavingAccount topUp = savingRepository.findById(accounts.get(0).getId()).orElseThrow();
+        assertThat(topUp.getBalance()).isEqualByComparingTo("1504.00");
+        assertThat(topUp.getLastInterestDate()).isEqualTo(AS_OF);
+        assertThat(transactionRepository.findAll())
+                .filteredOn(t -> t.getTransactionType() == TransactionType.INTEREST_CREDIT)
+                .hasSize(5)
+                .allSatisfy(t -> assertThat(t.getTransactionNumber()).startsWith("INT-20260131-"));
+    }
+
+    @Test
+    void runInterest_SameDateTwice_DoesNotCreditAgain() {
+        interestRunService.runInterest(AS_OF, "president");
+        InterestRun again = interestRunService.runInterest(AS_OF, "president");
+
+        assertThat(again.getStatus()).isEqualTo(InterestRunStatus.COMPLETED);
+        assertThat(transactionRepository.count()).isEqualTo(6);
+    }
+
+    @Test
+    void runInterest_ResumesOnlyUnfinishedChunks() {
+        InterestRun run = interestRunService.runInterest(AS_OF, "president");
+
+        // Simulate a run that died before its last chunk committed
+        InterestRunChunk last = chunkRepository
+                .findByRunIdAndStatusNotOrderByChunkIndex(run.getId(), InterestRunStatus.PENDING).get(2);
+        last.setStatus(InterestRunStatus.PENDING);
+        chunkRepository.save(last);
+        run.setStatus(InterestRunStatus.FAILED);
+        runRepository.save(run);
+
+        InterestRun resumed = interestRunService.runInterest(AS_OF, "president");
+
+        assertThat(resumed.getStatus()).isEqualTo(InterestRunStatus.COMPLETED);
+        // The chunk's account was already credited, so the retry credits nothing
+        assertThat(chunkRepository.findById(last.getId()).orElseThrow().getAccountsCredited()).isZero();
+        assertThat(transactionRepository.count()).isEqualTo(6);
+    }
+}
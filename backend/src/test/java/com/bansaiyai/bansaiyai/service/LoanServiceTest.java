@@ -10,14 +10,21 @@ import com.bansaiyai.bansaiyai.exception.BusinessException;
 import com.bansaiyai.bansaiyai.exception.ResourceNotFoundException;
 import com.bansaiyai.bansaiyai.repository.LoanRepository;
 import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import com.bansaiyai.bansaiyai.repository.projection.LoanListRow;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -27,6 +34,7 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -47,6 +55,10 @@ class LoanServiceTest {
   private com.bansaiyai.bansaiyai.repository.LoanBalanceRepository loanBalanceRepository;
   @Mock
   private com.bansaiyai.bansaiyai.service.SystemConfigService systemConfigService;
+  @Mock
+  private MemberFinancialSummaryService memberFinancialSummaryService;
+  @Mock
+  private InstallmentScheduleService installmentScheduleService;
 
   @InjectMocks
   private LoanService loanService;
@@ -305,7 +317,7 @@ class LoanServiceTest {
     @DisplayName("Should get loan by ID")
     void shouldGetLoanById() {
       // Arrange
-      when(loanRepository.findById(1L)).thenReturn(Optional.of(pendingLoan));
+      when(loanRepository.findWithMemberById(1L)).thenReturn(Optional.of(pendingLoan));
 
       // Act
       LoanResponse response = loanService.getLoanById(1L);
@@ -319,7 +331,7 @@ class LoanServiceTest {
     @DisplayName("Should throw exception when loan not found by ID")
     void shouldThrowExceptionWhenLoanNotFoundById() {
       // Arrange
-      when(loanRepository.findById(999L)).thenReturn(Optional.empty());
+      when(loanRepository.findWithMemberById(999L)).thenReturn(Optional.empty());
 
       // Act & Assert
       assertThatThrownBy(() -> loanService.getLoanById(999L))
@@ -419,4 +431,61 @@ class LoanServiceTest {
       assertThat(response.getInterestRate()).isEqualByComparingTo(new BigDecimal("12.0"));
     }
   }
+
+  @Nested
+  @DisplayName("Loan Search Tests")
+  class LoanSearchTests {
+
+    @Test
+    @DisplayName("Should use portable LIKE search with escaped pattern and capped page size")
+    void shouldUsePortableSearchWhenTrigramDisabled() {
+      when(loanRepository.searchLoans(eq("%50\\%%"), any(Pageable.class)))
+          .thenReturn(new SliceImpl<>(List.of(new LoanListRow(pendingLoan, "Somchai")), PageRequest.of(0, 100),
+              true));
+
+      Slice<LoanResponse> result = loanService.searchLoans(" 50% ", 0, 500);
+
+      assertThat(result.getContent()).extracting(LoanResponse::getMemberName).containsExactly("Somchai");
+      assertThat(result.hasNext()).isTrue();
+      ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+      verify(loanRepository).searchLoans(eq("%50\\%%"), pageable.capture());
+      assertThat(pageable.getValue().getPageSize()).isEqualTo(LoanService.MAX_SEARCH_PAGE_SIZE);
+      verify(loanRepository, never()).searchLoansRanked(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Should use trigram-ranked search when enabled")
+    void shouldUseRankedSearchWhenTrigramEnabled() {
+      ReflectionTestUtils.setField(loanService, "trigramSearchEnabled", true);
+      when(loanRepository.searchLoansRanked(eq("LN-001"), eq("%LN-001%"), any(Pageable.class)))
+          .thenReturn(new SliceImpl<>(List.of(2L, pendingLoan.getId())));
+      Loan other = Loan.builder().loanNumber("LN-001-B").principalAmount(new BigDecimal("5000"))
+          .interestRate(new BigDecimal("12.0")).termMonths(6).build();
+      other.setId(2L);
+      when(loanRepository.findListRowsByIdIn(List.of(2L, pendingLoan.getId())))
+          .thenReturn(List.of(new LoanListRow(pendingLoan, "A"), new LoanListRow(other, "B")));
+
+      Slice<LoanResponse> result = loanService.searchLoans("LN-001", 0, 10);
+
+      // Rank order from the search query, not the row load order
+      assertThat(result.getContent()).extracting(LoanResponse::getId).containsExactly(2L, pendingLoan.getId());
+      verify(loanRepository, never()).searchLoans(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should count matches with the same pattern as the search")
+    void shouldCountMatchesWithSearchPattern() {
+      when(loanRepository.countSearchLoans("%50\\%%")).thenReturn(120L);
+
+      assertThat(loanService.countSearchLoans(" 50% ")).isEqualTo(120L);
+      verify(loanRepository, never()).countSearchLoansRanked(any());
+    }
+
+    @Test
+    @DisplayName("Should reject blank keyword")
+    void shouldRejectBlankKeyword() {
+      assertThatThrownBy(() -> loanService.searchLoans("  ", 0, 10))
+          .isInstanceOf(BusinessException.class);
+    }
+  }
 }
@@ -0,0 +1,180 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.MemberFinancialSummary;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
+import com.bansaiyai.bansaiyai.repository.MemberFinancialSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberFinancialSummaryServiceTest {
+
+    private static final LocalDate DUE = LocalDate.of(2026, 12, 31);
+    private static final LocalDate PAID = LocalDate.of(2026, 10, 1);
+
+    @Mock
+    private MemberFinancialSummaryRepository summaryRepository;
+
+    @InjectMocks
+    private MemberFinancialSummaryService service;
+
+    @Test
+    void aggregate_FoldsRowsPerMemberAndIgnoresUnknownMembers() {
+        Map<Long, MemberFinancialSummary> result = MemberFinancialSummaryService.aggregate(
+                rows(new Object[] { 1L, new BigDecimal("1000") }, new Object[] { 2L, BigDecimal.ZERO }),
+                rows(new Object[] { 1L, new BigDecimal("2500.5"), 2L }),
+                rows(new Object[] { 1L, new BigDecimal("40000"), 1L, 3L }),
+                rows(new Object[] { 1L, DUE }),
+                rows(new Object[] { 2L, new BigDecimal("15000") }, new Object[] { 99L, BigDecimal.TEN }),
+                rows(new Object[] { 1L, PAID }));
+
+        assertEquals(2, result.size());
+        MemberFinancialSummary first = result.get(1L);
+        assertEquals(new BigDecimal("1000.00"), first.getShareCapital());
+        assertEquals(new BigDecimal("2500.50"), first.getTotalSavings());
+        assertEquals(2, first.getSavingsAccountCount());
+        assertEquals(new BigDecimal("40000.00"), first.getOutstandingPrincipal());
+        assertEquals(1, first.getActiveLoanCount());
+        assertEquals(3, first.getLoanCount());
+        assertEquals(DUE, first.getNextDueDate());
+        assertEquals(PAID, first.getLastPaymentDate());
+
+        MemberFinancialSummary second = result.get(2L);
+        assertEquals(new BigDecimal("15000.00"), second.getGuaranteedExposure());
+        assertEquals(0, second.getActiveLoanCount());
+        assertNull(second.getLastPaymentDate());
+    }
+
+    @Test
+    void markChanged_WithoutTransaction_RefreshesAndInsertsMissingRow() {
+        stubMember(5L, new BigDecimal("300"), new BigDecimal("1200"));
+        when(summaryRepository.findForUpdate(5L)).thenReturn(Optional.empty());
+        when(summaryRepository.save(any(MemberFinancialSummary.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        service.markChanged(5L);
+
+        verify(summaryRepository).save(argThat(s -> s.getMemberId().equals(5L)
+                && s.getShareCapital().compareTo(new BigDecimal("300")) == 0
+                && s.getTotalSavings().compareTo(new BigDecimal("1200")) == 0));
+    }
+
+    @Test
+    void refresh_WithInsertOnConflict_CreatesRowBeforeLockingIt() {
+        ReflectionTestUtils.setField(service, "insertOnConflictEnabled", true);
+        MemberFinancialSummary created = MemberFinancialSummary.empty(5L);
+        stubMember(5L, new BigDecimal("300"), new BigDecimal("1200"));
+        when(summaryRepository.insertIfMissing(5L)).thenReturn(1);
+        when(summaryRepository.findForUpdate(5L)).thenReturn(Optional.of(created));
+
+        MemberFinancialSummary result = service.refresh(5L);
+
+        assertSame(created, result);
+        assertEquals(new BigDecimal("1200.00"), created.getTotalSavings());
+        var order = inOrder(summaryRepository);
+        order.verify(summaryRepository).insertIfMissing(5L);
+        order.verify(summaryRepository).findForUpdate(5L);
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_UpdatesLockedRowInPlace() {
+        MemberFinancialSummary stored = MemberFinancialSummary.empty(5L);
+        stubMember(5L, new BigDecimal("300"), new BigDecimal("50"));
+        when(summaryRepository.findForUpdate(5L)).thenReturn(Optional.of(stored));
+
+        MemberFinancialSummary result = service.refresh(5L);
+
+        assertSame(stored, result);
+        assertEquals(new BigDecimal("50.00"), stored.getTotalSavings());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void refresh_DeletesRowOfRemovedMember() {
+        MemberFinancialSummary stored = MemberFinancialSummary.empty(8L);
+        when(summaryRepository.findForUpdate(8L)).thenReturn(Optional.of(stored));
+        when(summaryRepository.shareCapitalByMember(8L)).thenReturn(List.of());
+
+        service.refresh(8L);
+
+        verify(summaryRepository).delete(stored);
+    }
+
+    @Test
+    void getSummary_MissingRow_ComputesWithoutSaving() {
+        stubMember(5L, new BigDecimal("300"), new BigDecimal("75"));
+        when(summaryRepository.findById(5L)).thenReturn(Optional.empty());
+
+        MemberFinancialSummary result = service.getSummary(5L);
+
+        assertEquals(new BigDecimal("75.00"), result.getTotalSavings());
+        verify(summaryRepository, never()).save(any());
+    }
+
+    @Test
+    void verifyAndRepair_RefreshesDriftedAndMissingRowsAndDropsOrphans() {
+        when(summaryRepository.shareCapitalGroupByMember()).thenReturn(rows(
+                new Object[] { 1L, new BigDecimal("100") },
+                new Object[] { 2L, new BigDecimal("200") },
+                new Object[] { 3L, new BigDecimal("300") }));
+        when(summaryRepository.savingsGroupByMember()).thenReturn(List.of());
+        when(summaryRepository.loansGroupByMember(LoanStatus.ACTIVE)).thenReturn(List.of());
+        when(summaryRepository.nextDueGroupByMember(LoanStatus.ACTIVE, InstallmentStatus.PAID)).thenReturn(List.of());
+        when(summaryRepository.guaranteesGroupByMember()).thenReturn(List.of());
+        when(summaryRepository.lastPaymentGroupByMember(PaymentStatus.COMPLETED)).thenReturn(List.of());
+
+        MemberFinancialSummary inSync = MemberFinancialSummary.empty(1L);
+        inSync.setShareCapital(new BigDecimal("100.00"));
+        MemberFinancialSummary drifted = MemberFinancialSummary.empty(2L);
+        drifted.setShareCapital(new BigDecimal("999.00"));
+        MemberFinancialSummary orphan = MemberFinancialSummary.empty(42L);
+        when(summaryRepository.findAll()).thenReturn(List.of(inSync, drifted, orphan));
+
+        // Member 2 is corrected in place, member 3 has no row yet
+        stubMember(2L, new BigDecimal("200"), null);
+        when(summaryRepository.findForUpdate(2L)).thenReturn(Optional.of(drifted));
+        stubMember(3L, new BigDecimal("300"), null);
+        when(summaryRepository.findForUpdate(3L)).thenReturn(Optional.empty());
+        when(summaryRepository.save(any(MemberFinancialSummary.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        int repaired = service.verifyAndRepair();
+
+        assertEquals(3, repaired);
+        assertEquals(new BigDecimal("200.00"), drifted.getShareCapital());
+        verify(summaryRepository, never()).findForUpdate(1L);
+        verify(summaryRepository).save(argThat(s -> s.getMemberId().equals(3L)));
+        verify(summaryRepository).delete(orphan);
+    }
+
+    private void stubMember(Long memberId, BigDecimal shareCapital, BigDecimal savings) {
+        when(summaryRepository.shareCapitalByMember(memberId))
+                .thenReturn(rows(new Object[] { memberId, shareCapital }));
+        when(summaryRepository.savingsByMember(memberId)).thenReturn(savings == null ? List.of()
+                : rows(new Object[] { memberId, savings, 1L }));
+        when(summaryRepository.loansByMember(memberId, LoanStatus.ACTIVE)).thenReturn(List.of());
+        when(summaryRepository.nextDueByMember(memberId, LoanStatus.ACTIVE, InstallmentStatus.PAID))
+                .thenReturn(List.of());
+        when(summaryRepository.guaranteesByMember(memberId)).thenReturn(List.of());
+        when(summaryRepository.lastPaymentByMember(memberId, PaymentStatus.COMPLETED)).thenReturn(List.of());
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return List.of(rows);
+    }
+}
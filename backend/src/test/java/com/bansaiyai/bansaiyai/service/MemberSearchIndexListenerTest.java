@@ -0,0 +1,88 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The search index follows member writes made through any repository call,
+ * not just the member services, and only once they commit. Not
+ * transactional, so each write commits as in production.
+ */
+@DataJpaTest
+@Import({ MemberSearchIndex.class, MemberSearchIndexListener.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MemberSearchIndexListenerTest {
+
+  @Autowired
+  private MemberSearchIndex memberSearchIndex;
+
+  @Autowired
+  private MemberRepository memberRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @AfterEach
+  void tearDown() {
+    memberRepository.deleteAll();
+  }
+
+  @Test
+  void committedWritesReachTheIndex() {
+    // Loaded before the member exists, so it can only appear through the listener
+    assertThat(memberSearchIndex.search("Kanokwan", 5)).isEmpty();
+
+    Member member = memberRepository.save(member("IDX-001", "Kanokwan Thongdee", "1900000000001"));
+    assertThat(memberSearchIndex.search("Kanokwan", 5)).singleElement()
+        .satisfies(result -> assertThat(result.getMemberId()).isEqualTo(member.getId()));
+
+    // An update made outside MemberService, as share capital payments do
+    member.setShareCapital(new BigDecimal("500.00"));
+    member.setName("Kanokwan Srisuk");
+    memberRepository.save(member);
+    assertThat(memberSearchIndex.search("Srisuk", 5)).hasSize(1);
+    assertThat(memberSearchIndex.search("Thongdee", 5)).isEmpty();
+
+    memberRepository.deleteById(member.getId());
+    assertThat(memberSearchIndex.search("Kanokwan", 5)).isEmpty();
+  }
+
+  @Test
+  void rolledBackWritesDoNot() {
+    assertThat(memberSearchIndex.search("Pimchanok", 5)).isEmpty();
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      memberRepository.save(member("IDX-002", "Pimchanok Kaewdee", "1900000000002"));
+      status.setRollbackOnly();
+    });
+
+    assertThat(memberSearchIndex.search("Pimchanok", 5)).isEmpty();
+  }
+
+  private static Member member(String memberId, String name, String idCard) {
+    return Member.builder()
+        .memberId(memberId)
+        .name(name)
+        .idCard(idCard)
+        .dateOfBirth(LocalDate.of(1985, 3, 1))
+        .address("1 Index Road")
+        .phone("0800000000")
+        .registrationDate(LocalDate.of(2024, 1, 1))
+        .isActive(true)
+        .build();
+  }
+}
@@ -0,0 +1,124 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.dto.dashboard.MemberSearchResultDTO;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.repository.MemberRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MemberSearchIndexTest {
+
+    @Mock
+    private MemberRepository memberRepository;
+
+    @InjectMocks
+    private MemberSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] { 1L, "M001", "นายสมชาย ใจดี", "1101700203451", "0812345678", null, true });
+        rows.add(new Object[] { 2L, "M002", "สมหญิง รักเรียน", "3100500112233", "0899999999", "/p/2.jpg", true });
+        rows.add(new Object[] { 3L, "M003", "John Smith", "1234567890123", "0811111111", null, false });
+        rows.add(new Object[] { 4L, "M010", "Somchai Dee", "5555555555555", "0822222222", null, true });
+        lenient().when(memberRepository.findSearchIndexRows()).thenReturn(rows);
+    }
+
+    @Test
+    void search_ThaiPrefix_MatchesNameTokensAndStripsTitle() {
+        List<MemberSearchResultDTO> results = index.search("สม", 10);
+
+        assertEquals(List.of(1L, 2L), ids(results));
+        assertEquals("นายสมชาย", results.get(0).getFirstName());
+        assertEquals("ใจดี", results.get(0).getLastName());
+        assertEquals("/default-avatar.png", results.get(0).getThumbnailUrl());
+    }
+
+    @Test
+    void search_ExactMemberIdRanksBeforePrefix() {
+        List<MemberSearchResultDTO> results = index.search("m001", 10);
+
+        assertEquals(1L, results.get(0).getMemberId());
+        assertEquals(List.of(1L, 2L), ids(index.search("m0", 2)));
+    }
+
+    @Test
+    void search_SubstringAndDashedIdCard() {
+        assertEquals(List.of(2L), ids(index.search("รักเรียน", 5)));
+        assertEquals(List.of(1L), ids(index.search("1-1017-00203-45-1", 5)));
+        assertEquals(List.of(2L), ids(index.search("9999", 5)));
+    }
+
+    @Test
+    void search_MultipleTokensMustAllMatch() {
+        assertEquals(List.of(1L), ids(index.search("สมชาย ใจ", 5)));
+        assertTrue(index.search("สมชาย smith", 5).isEmpty());
+    }
+
+    @Test
+    void search_PrefersActiveMembersAndReportsStatus() {
+        List<MemberSearchResultDTO> results = index.search("s", 10);
+
+        assertEquals(List.of(4L, 3L), ids(results));
+        assertEquals("Inactive", results.get(1).getStatus());
+    }
+
+    @Test
+    void search_BlankQueryOrLimit_ReturnsEmptyWithoutLoading() {
+        assertTrue(index.search("   ", 5).isEmpty());
+        assertTrue(index.search("M001", 0).isEmpty());
+        verify(memberRepository, never()).findSearchIndexRows();
+    }
+
+    @Test
+    void committedAndRemoved_PatchSnapshotWithoutReloading() {
+        index.search("M001", 1);
+
+        Member member = Member.builder()
+                .memberId("M020")
+                .name("วิภา ศรีสุข")
+                .idCard("9876543210987")
+                .phone("0870000000")
+                .isActive(true)
+                .build();
+        member.setId(20L);
+        index.committed(member);
+        assertEquals(List.of(20L), ids(index.search("วิภา", 5)));
+
+        member.setIsActive(false);
+        index.committed(member);
+        assertEquals("Inactive", index.search("วิภา", 5).get(0).getStatus());
+
+        index.removed(20L);
+        assertTrue(index.search("วิภา", 5).isEmpty());
+        assertEquals(4, index.size());
+        verify(memberRepository, times(1)).findSearchIndexRows();
+    }
+
+    @Test
+    void rebuild_ReplacesSnapshot() {
+        index.search("M001", 1);
+        when(memberRepository.findSearchIndexRows()).thenReturn(List.<Object[]>of(
+                new Object[] { 9L, "M009", "Only One", "1111111111111", "0800000000", null, true }));
+
+        index.rebuild();
+
+        assertTrue(index.search("M001", 5).isEmpty());
+        assertEquals(List.of(9L), ids(index.search("only", 5)));
+    }
+
+    private static List<Long> ids(List<MemberSearchResultDTO> results) {
+        return results.stream().map(MemberSearchResultDTO::getMemberId).toList();
+    }
+}
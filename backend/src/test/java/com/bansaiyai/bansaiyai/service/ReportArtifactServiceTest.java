@@ -0,0 +1,166 @@
+package com.bansaiyai.bansaiyai.service;
+
+import com.bansaiyai.bansaiyai.entity.FiscalPeriod;
+import com.bansaiyai.bansaiyai.entity.ReportArtifact;
+import com.bansaiyai.bansaiyai.entity.enums.ReportArtifactType;
+import com.bansaiyai.bansaiyai.repository.FiscalPeriodRepository;
+import com.bansaiyai.bansaiyai.repository.ReportArtifactRepository;
+import com.bansaiyai.bansaiyai.repository.StoredBlobRepository;
+import com.bansaiyai.bansaiyai.service.storage.BlobService;
+import com.bansaiyai.bansaiyai.service.storage.BlobStore;
+import com.bansaiyai.bansaiyai.service.storage.LocalBlobStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Storing, serving and invalidating report artifacts on the embedded
+ * database over a local blob store. Not transactional: artifacts are
+ * persisted in their own transaction, as in production.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:report-artifact;DB_CLOSE_DELAY=-1;NON_KEYWORDS=MONTH")
+// The generated embedded database cannot take NON_KEYWORDS, which fiscal_period.month needs
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ ReportArtifactService.class, BlobService.class, ReportArtifactServiceTest.StoreConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReportArtifactServiceTest {
+
+  private static final YearMonth JANUARY = YearMonth.of(2026, 1);
+  private static final YearMonth FEBRUARY = YearMonth.of(2026, 2);
+
+  @TestConfiguration
+  static class StoreConfig {
+    @Bean
+    BlobStore blobStore() {
+      try {
+        return new LocalBlobStore(Files.createTempDirectory("report-artifact-test"));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @Autowired
+  private ReportArtifactService reportArtifactService;
+
+  @Autowired
+  private ReportArtifactRepository reportArtifactRepository;
+
+  @Autowired
+  private FiscalPeriodRepository fiscalPeriodRepository;
+
+  @Autowired
+  private StoredBlobRepository storedBlobRepository;
+
+  private final AtomicInteger renders = new AtomicInteger();
+
+  @AfterEach
+  void tearDown() {
+    reportArtifactRepository.deleteAll();
+    storedBlobRepository.deleteAll();
+    fiscalPeriodRepository.deleteAll();
+  }
+
+  @Test
+  void closedPeriodIsRenderedOnceAndServedImmutable() {
+    close(JANUARY);
+    ReportArtifactService.Key key = monthly(JANUARY);
+
+    ReportArtifactService.Artifact first = reportArtifactService.resolve(key, "text/csv", render("january"));
+    ReportArtifactService.Artifact second = reportArtifactService.resolve(key, "text/csv", render("changed"));
+
+    assertThat(renders).hasValue(1);
+    assertThat(first.immutable()).isTrue();
+    assertThat(second.immutable()).isTrue();
+    assertThat(second.etag()).isEqualTo(first.etag());
+    assertThat(second.cacheControl()).contains("immutable");
+    assertThat(reportArtifactRepository.findAll()).singleElement()
+        .satisfies(artifact -> assertThat(artifact.getReportType()).isEqualTo(ReportArtifactType.MONTHLY_REPORT));
+  }
+
+  @Test
+  void openPeriodIsRenderedEveryTimeAndNotStored() {
+    ReportArtifactService.Key key = monthly(JANUARY);
+
+    ReportArtifactService.Artifact first = reportArtifactService.resolve(key, "text/csv", render("draft"));
+    ReportArtifactService.Artifact second = reportArtifactService.resolve(key, "text/csv", render("revised"));
+
+    assertThat(renders).hasValue(2);
+    assertThat(second.immutable()).isFalse();
+    assertThat(second.cacheControl()).contains("no-cache");
+    assertThat(second.etag()).isNotEqualTo(first.etag());
+    assertThat(reportArtifactRepository.count()).isZero();
+  }
+
+  @Test
+  void rangeIsStoredOnlyOnceEveryPeriodIsClosed() {
+    close(JANUARY);
+    ReportArtifactService.Key key = new ReportArtifactService.Key(ReportArtifactType.INCOME_EXPENSE,
+        JANUARY, FEBRUARY, "json", Map.of());
+
+    assertThat(reportArtifactService.resolve(key, "application/json", render("{}")).immutable()).isFalse();
+
+    close(FEBRUARY);
+    assertThat(reportArtifactService.resolve(key, "application/json", render("{}")).immutable()).isTrue();
+    assertThat(reportArtifactRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  void invalidateDropsArtifactsCoveringThePeriodAndReleasesTheirBlobs() {
+    close(JANUARY);
+    close(FEBRUARY);
+    reportArtifactService.resolve(monthly(JANUARY), "text/csv", render("january"));
+    reportArtifactService.resolve(monthly(FEBRUARY), "text/csv", render("february"));
+    reportArtifactService.resolve(new ReportArtifactService.Key(ReportArtifactType.BALANCE_SHEET,
+        null, FEBRUARY, "json", Map.of("asOfDate", LocalDate.of(2026, 2, 28))), "application/json",
+        render("{\"assets\":[]}"));
+
+    int dropped = reportArtifactService.invalidate(JANUARY);
+
+    // January's report and the cumulative balance sheet; February's report stays
+    assertThat(dropped).isEqualTo(2);
+    assertThat(reportArtifactRepository.findAll()).singleElement()
+        .extracting(ReportArtifact::getPeriodTo).isEqualTo("2026-02");
+    assertThat(storedBlobRepository.findAll())
+        .filteredOn(blob -> blob.getRefCount() == 0)
+        .hasSize(2);
+  }
+
+  private Supplier<byte[]> render(String content) {
+    return () -> {
+      renders.incrementAndGet();
+      return content.getBytes(StandardCharsets.UTF_8);
+    };
+  }
+
+  private static ReportArtifactService.Key monthly(YearMonth period) {
+    return new ReportArtifactService.Key(ReportArtifactType.MONTHLY_REPORT, period, period, "csv", Map.of());
+  }
+
+  private void close(YearMonth period) {
+    fiscalPeriodRepository.save(FiscalPeriod.builder()
+        .month(period.getMonthValue())
+        .year(period.getYear())
+        .status("CLOSED")
+        .build());
+  }
+}
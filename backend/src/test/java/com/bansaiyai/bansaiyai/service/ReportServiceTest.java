@@ -2,6 +2,8 @@ package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.dto.report.BalanceSheetDTO;
 import com.bansaiyai.bansaiyai.dto.report.IncomeExpenseReportDTO;
+import com.bansaiyai.bansaiyai.entity.AccountPeriodBalance;
+import com.bansaiyai.bansaiyai.entity.enums.PaymentStatus;
 import com.bansaiyai.bansaiyai.entity.enums.PaymentType;
 import com.bansaiyai.bansaiyai.entity.enums.TransactionType;
 import com.bansaiyai.bansaiyai.repository.*;
@@ -19,7 +21,10 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +44,8 @@ class ReportServiceTest {
     private LoanBalanceRepository loanBalanceRepository;
     @Mock
     private SavingBalanceRepository savingBalanceRepository;
+    @Mock
+    private AccountPeriodBalanceRepository accountPeriodBalanceRepository;
 
     @InjectMocks
     private ReportService reportService;
@@ -57,7 +64,8 @@ class ReportServiceTest {
         // Mock Manual Income
         List<Object[]> manualIncome = new ArrayList<>();
         manualIncome.add(new Object[] { "Other Income", new BigDecimal("100") });
-        when(accountingRepository.sumCreditByCodePatternAndDateRange(start, end, "4%")).thenReturn(manualIncome);
+        when(accountPeriodBalanceRepository.sumCreditByCodePatternAndPeriodRange("2024-01", "2024-01", "4%"))
+                .thenReturn(manualIncome);
 
         // Mock Savings Interest Expense
         when(savingTransactionRepository.sumAmountByTypeAndDateRange(TransactionType.INTEREST_CREDIT, start, end))
@@ -66,7 +74,8 @@ class ReportServiceTest {
         // Mock Manual Expense
         List<Object[]> manualExpense = new ArrayList<>();
         manualExpense.add(new Object[] { "Utility", new BigDecimal("20") });
-        when(accountingRepository.sumDebitByCodePatternAndDateRange(start, end, "5%")).thenReturn(manualExpense);
+        when(accountPeriodBalanceRepository.sumDebitByCodePatternAndPeriodRange("2024-01", "2024-01", "5%"))
+                .thenReturn(manualExpense);
 
         // Act
         IncomeExpenseReportDTO report = reportService.generateIncomeExpenseReport(start, end);
@@ -80,35 +89,98 @@ class ReportServiceTest {
         assertEquals(new BigDecimal("530"), report.getNetProfit());
     }
 
+    @Test
+    void generateIncomeExpenseReport_PartialMonth_SumsEntriesByDate() {
+        LocalDate start = LocalDate.of(2024, 1, 10);
+        LocalDate end = LocalDate.of(2024, 2, 20);
+
+        when(paymentRepository.findRevenueByDateRangeGroupByType(start, end)).thenReturn(Collections.emptyList());
+        List<Object[]> manualIncome = new ArrayList<>();
+        manualIncome.add(new Object[] { "Other Income", new BigDecimal("100") });
+        when(accountingRepository.sumCreditByCodePatternAndDateRange(start, end, "4%")).thenReturn(manualIncome);
+        when(savingTransactionRepository.sumAmountByTypeAndDateRange(TransactionType.INTEREST_CREDIT, start, end))
+                .thenReturn(BigDecimal.ZERO);
+        when(accountingRepository.sumDebitByCodePatternAndDateRange(start, end, "5%"))
+                .thenReturn(Collections.emptyList());
+
+        IncomeExpenseReportDTO report = reportService.generateIncomeExpenseReport(start, end);
+
+        assertEquals(new BigDecimal("100"), report.getTotalIncome());
+        verifyNoInteractions(accountPeriodBalanceRepository);
+    }
+
     @Test
     void generateBalanceSheet_Success() {
         // Arrange
         LocalDate asOf = LocalDate.of(2024, 12, 31);
 
         // Assets
-        when(loanBalanceRepository.sumOutstandingBalanceByDate(asOf)).thenReturn(new BigDecimal("50000"));
+        when(loanBalanceRepository.findLatestBalanceDateOnOrBefore(asOf)).thenReturn(asOf);
+        when(loanBalanceRepository.sumOutstandingBalanceAsOf(eq(asOf), eq(asOf), anyList(),
+                eq(PaymentStatus.COMPLETED))).thenReturn(new BigDecimal("50000"));
 
         // Liabilities
-        when(savingBalanceRepository.sumClosingBalanceByDate(asOf)).thenReturn(new BigDecimal("20000"));
+        when(savingBalanceRepository.findLatestBalanceDateOnOrBefore(asOf)).thenReturn(asOf);
+        when(savingBalanceRepository.sumClosingBalanceAsOf(asOf, asOf, asOf.plusDays(1).atStartOfDay(),
+                asOf.plusDays(1).atStartOfDay())).thenReturn(new BigDecimal("20000"));
 
         // Equity (Shares)
-        when(memberRepository.sumTotalShareCapital()).thenReturn(new BigDecimal("10000"));
+        when(memberRepository.sumShareCapitalAsOf(asOf, PaymentType.SHARE_CAPITAL, PaymentStatus.COMPLETED))
+                .thenReturn(new BigDecimal("10000"));
+
+        // Cash: November closing of 10100 plus December entries up to the date;
+        // the income account is not cash
+        when(accountPeriodBalanceRepository.findLatestUpTo("2024-11")).thenReturn(List.of(
+                AccountPeriodBalance.builder().accountCode("10100").closingBalance(new BigDecimal("4000")).build(),
+                AccountPeriodBalance.builder().accountCode("40100").closingBalance(new BigDecimal("-900")).build()));
+        List<Object[]> december = new ArrayList<>();
+        december.add(new Object[] { "10100", new BigDecimal("1000") });
+        when(accountingRepository.sumNetByFiscalPeriodUpToDateGroupByAccountCode("2024-12", asOf))
+                .thenReturn(december);
 
         // Retained Earnings = Assets - Liabilities - Existing Equity
-        // 50000 - 20000 - 10000 = 20000
+        // 55000 - 20000 - 10000 = 25000
 
         // Act
         BalanceSheetDTO sheet = reportService.generateBalanceSheet(asOf);
 
         // Assert
-        assertEquals(new BigDecimal("50000"), sheet.getTotalAssets());
+        assertEquals(new BigDecimal("55000"), sheet.getTotalAssets());
         assertEquals(new BigDecimal("20000"), sheet.getTotalLiabilities());
 
         // Equity should include Retained Earnings
-        // 10000 (Shares) + 20000 (Retained) = 30000
-        assertEquals(new BigDecimal("30000"), sheet.getTotalEquity());
+        // 10000 (Shares) + 25000 (Retained) = 35000
+        assertEquals(new BigDecimal("35000"), sheet.getTotalEquity());
 
         // Accounting Equation Check
         assertEquals(sheet.getTotalAssets(), sheet.getTotalLiabilities().add(sheet.getTotalEquity()));
     }
+
+    @Test
+    void generateBalanceSheet_MidMonth_RollsSnapshotsForward() {
+        LocalDate asOf = LocalDate.of(2025, 1, 15);
+        LocalDate snapshot = LocalDate.of(2024, 12, 31);
+
+        when(loanBalanceRepository.findLatestBalanceDateOnOrBefore(asOf)).thenReturn(snapshot);
+        when(loanBalanceRepository.sumOutstandingBalanceAsOf(snapshot, asOf,
+                List.of(PaymentType.LOAN_PRINCIPAL, PaymentType.LOAN_REPAYMENT, PaymentType.LOAN_CLOSURE),
+                PaymentStatus.COMPLETED))
+                .thenReturn(new BigDecimal("48000"));
+        // No savings snapshot yet: every transaction is a delta
+        when(savingBalanceRepository.findLatestBalanceDateOnOrBefore(asOf)).thenReturn(null);
+        when(savingBalanceRepository.sumClosingBalanceAsOf(eq(LocalDate.of(1900, 1, 1)), eq(asOf), any(),
+                eq(asOf.plusDays(1).atStartOfDay()))).thenReturn(new BigDecimal("21000"));
+        when(memberRepository.sumShareCapitalAsOf(asOf, PaymentType.SHARE_CAPITAL, PaymentStatus.COMPLETED))
+                .thenReturn(new BigDecimal("9000"));
+        when(accountPeriodBalanceRepository.findLatestUpTo("2024-12")).thenReturn(Collections.emptyList());
+        when(accountingRepository.sumNetByFiscalPeriodUpToDateGroupByAccountCode("2025-01", asOf))
+                .thenReturn(Collections.emptyList());
+
+        BalanceSheetDTO sheet = reportService.generateBalanceSheet(asOf);
+
+        assertEquals(new BigDecimal("48000"), sheet.getTotalAssets());
+        assertEquals(new BigDecimal("21000"), sheet.getTotalLiabilities());
+        assertEquals(new BigDecimal("27000"), sheet.getTotalEquity());
+        assertEquals("2025-01-15", sheet.getAsOfDate());
+    }
 }
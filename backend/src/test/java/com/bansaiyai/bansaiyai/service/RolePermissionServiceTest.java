@@ -4,6 +4,7 @@ import com.bansaiyai.bansaiyai.entity.Permission;
 import com.bansaiyai.bansaiyai.entity.Role;
 import com.bansaiyai.bansaiyai.entity.User;
 import com.bansaiyai.bansaiyai.repository.PermissionRepository;
+import com.bansaiyai.bansaiyai.repository.RbacMatrixVersionRepository;
 import com.bansaiyai.bansaiyai.repository.RolePermissionRepository;
 import com.bansaiyai.bansaiyai.repository.RoleRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +38,9 @@ class RolePermissionServiceTest {
     @Mock
     private RolePermissionRepository rolePermissionRepository;
 
+    @Mock
+    private RbacMatrixVersionRepository versionRepository;
+
     @InjectMocks
     private RolePermissionService rolePermissionService;
 
@@ -93,8 +97,7 @@ class RolePermissionServiceTest {
     @Test
     void shouldReturnPermissionsForOfficerRole() {
         // Given
-        when(roleRepository.findByRoleName("ROLE_OFFICER"))
-                .thenReturn(Optional.of(officerRole));
+        stubPairs(officerRole, secretaryRole);
         
         // When
         Set<String> permissions = rolePermissionService.getPermissionsForRole("ROLE_OFFICER");
@@ -105,7 +108,7 @@ class RolePermissionServiceTest {
         assertTrue(permissions.contains("transaction.create"));
         assertTrue(permissions.contains("transaction.view"));
         
-        verify(roleRepository, times(1)).findByRoleName("ROLE_OFFICER");
+        verify(roleRepository, times(1)).findRolePermissionPairs();
     }
 
     /**
@@ -115,8 +118,7 @@ class RolePermissionServiceTest {
     @Test
     void shouldThrowExceptionForNonExistentRole() {
         // Given
-        when(roleRepository.findByRoleName("ROLE_INVALID"))
-                .thenReturn(Optional.empty());
+        stubPairs(officerRole);
         
         // When & Then
         IllegalArgumentException exception = assertThrows(
@@ -125,7 +127,8 @@ class RolePermissionServiceTest {
         );
         
         assertTrue(exception.getMessage().contains("Role not found"));
-        verify(roleRepository, times(1)).findByRoleName("ROLE_INVALID");
+        // Loaded, then reloaded once in case the role was created since
+        verify(roleRepository, times(2)).findRolePermissionPairs();
     }
 
     /**
@@ -139,8 +142,7 @@ class RolePermissionServiceTest {
         user.setUsername("officer1");
         user.setRbacRole(officerRole);
         
-        when(roleRepository.findByRoleName("ROLE_OFFICER"))
-                .thenReturn(Optional.of(officerRole));
+        stubPairs(officerRole);
         
         // When
         boolean hasPermission = rolePermissionService.hasPermission(user, "transaction.create");
@@ -160,8 +162,7 @@ class RolePermissionServiceTest {
         user.setUsername("officer1");
         user.setRbacRole(officerRole);
         
-        when(roleRepository.findByRoleName("ROLE_OFFICER"))
-                .thenReturn(Optional.of(officerRole));
+        stubPairs(officerRole);
         
         // When
         boolean hasPermission = rolePermissionService.hasPermission(user, "loan.approve");
@@ -329,8 +330,7 @@ class RolePermissionServiceTest {
     @Test
     void shouldReturnCompleteRolePermissionMatrix() {
         // Given
-        List<Role> allRoles = Arrays.asList(officerRole, secretaryRole);
-        when(roleRepository.findAll()).thenReturn(allRoles);
+        stubPairs(officerRole, secretaryRole);
         
         // When
         Map<String, Set<String>> matrix = rolePermissionService.getRolePermissionMatrix();
@@ -352,7 +352,7 @@ class RolePermissionServiceTest {
         assertTrue(secretaryPerms.contains("transaction.view"));
         assertTrue(secretaryPerms.contains("loan.approve"));
         
-        verify(roleRepository, times(1)).findAll();
+        verify(roleRepository, times(1)).findRolePermissionPairs();
     }
 
     /**
@@ -362,7 +362,7 @@ class RolePermissionServiceTest {
     @Test
     void shouldReturnEmptyMatrixWhenNoRolesExist() {
         // Given
-        when(roleRepository.findAll()).thenReturn(Collections.emptyList());
+        stubPairs();
         
         // When
         Map<String, Set<String>> matrix = rolePermissionService.getRolePermissionMatrix();
@@ -370,7 +370,7 @@ class RolePermissionServiceTest {
         // Then
         assertNotNull(matrix);
         assertTrue(matrix.isEmpty());
-        verify(roleRepository, times(1)).findAll();
+        verify(roleRepository, times(1)).findRolePermissionPairs();
     }
 
     /**
@@ -390,16 +390,15 @@ class RolePermissionServiceTest {
                 .thenReturn(Optional.of(newPermission));
         when(roleRepository.save(any(Role.class)))
                 .thenReturn(officerRole);
+        stubPairs(officerRole);
+        assertFalse(rolePermissionService.getPermissionsForRole("ROLE_OFFICER").contains("member.create"));
         
         // When
         rolePermissionService.addPermissionToRole("ROLE_OFFICER", "member.create");
         
-        // Then - verify that the method was called (cache should be invalidated)
+        // Then - the version is bumped and the matrix reloaded
         verify(roleRepository, times(1)).save(officerRole);
-        
-        // Subsequent call should fetch fresh data
-        when(roleRepository.findByRoleName("ROLE_OFFICER"))
-                .thenReturn(Optional.of(officerRole));
+        verify(versionRepository).increment(any());
         
         Set<String> permissions = rolePermissionService.getPermissionsForRole("ROLE_OFFICER");
         assertTrue(permissions.contains("member.create"));
@@ -418,18 +417,141 @@ class RolePermissionServiceTest {
                 .thenReturn(Optional.of(transactionCreatePerm));
         when(roleRepository.save(any(Role.class)))
                 .thenReturn(officerRole);
+        stubPairs(officerRole);
+        assertTrue(rolePermissionService.getPermissionsForRole("ROLE_OFFICER").contains("transaction.create"));
         
         // When
         rolePermissionService.removePermissionFromRole("ROLE_OFFICER", "transaction.create");
         
-        // Then - verify that the method was called (cache should be invalidated)
+        // Then - the version is bumped and the matrix reloaded
         verify(roleRepository, times(1)).save(officerRole);
-        
-        // Subsequent call should fetch fresh data
-        when(roleRepository.findByRoleName("ROLE_OFFICER"))
-                .thenReturn(Optional.of(officerRole));
+        verify(versionRepository).increment(any());
         
         Set<String> permissions = rolePermissionService.getPermissionsForRole("ROLE_OFFICER");
         assertFalse(permissions.contains("transaction.create"));
     }
+
+    /**
+     * Test: permission checks read the loaded matrix, not the database
+     * Requirement: 2.2
+     */
+    @Test
+    void shouldCheckPermissionsWithoutQueryingAfterLoad() {
+        // Given
+        User user = new User();
+        user.setUsername("secretary1");
+        user.setRbacRole(secretaryRole);
+        stubPairs(officerRole, secretaryRole);
+        rolePermissionService.reload();
+        
+        // When
+        for (int i = 0; i < 100; i++) {
+            assertTrue(rolePermissionService.hasPermission(user, "loan.approve"));
+            assertFalse(rolePermissionService.hasPermission(user, "transaction.create"));
+        }
+        
+        // Then
+        verify(roleRepository, times(1)).findRolePermissionPairs();
+        verify(roleRepository, never()).findByRoleName(any());
+    }
+
+    /**
+     * Test: a role created after the matrix was loaded is checked against a
+     * reloaded matrix
+     * Requirement: 2.2
+     */
+    @Test
+    void shouldReloadForRoleCreatedSinceLoad() {
+        // Given
+        stubPairs(officerRole);
+        rolePermissionService.reload();
+        Role auditorRole = new Role();
+        auditorRole.setRoleId(3);
+        auditorRole.setRoleName("ROLE_AUDITOR");
+        auditorRole.setPermissions(new HashSet<>(Set.of(transactionViewPerm)));
+        stubPairs(officerRole, auditorRole);
+        User auditor = new User();
+        auditor.setUsername("auditor1");
+        auditor.setRbacRole(auditorRole);
+        
+        // When & Then
+        assertTrue(rolePermissionService.hasPermission(auditor, "transaction.view"));
+        assertFalse(rolePermissionService.hasPermission(auditor, "loan.approve"));
+        // Reloaded once; the role is known from then on
+        verify(roleRepository, times(2)).findRolePermissionPairs();
+    }
+
+    /**
+     * Test: roles with more permissions than fit one bitset word
+     * Requirement: 2.2
+     */
+    @Test
+    void shouldCheckPermissionsBeyondSixtyFourSlugs() {
+        // Given
+        List<Object[]> pairs = new ArrayList<>();
+        for (int i = 0; i < 130; i++) {
+            pairs.add(new Object[] { "ROLE_PRESIDENT", "perm." + i });
+        }
+        pairs.add(new Object[] { "ROLE_OFFICER", "perm.129" });
+        pairs.add(new Object[] { "ROLE_MEMBER", null });
+        when(roleRepository.findRolePermissionPairs()).thenReturn(pairs);
+        
+        // When & Then
+        assertEquals(130, rolePermissionService.getPermissionsForRole("ROLE_PRESIDENT").size());
+        assertEquals(Set.of("perm.129"), rolePermissionService.getPermissionsForRole("ROLE_OFFICER"));
+        assertTrue(rolePermissionService.getPermissionsForRole("ROLE_MEMBER").isEmpty());
+        
+        User officer = new User();
+        officer.setUsername("officer1");
+        officer.setRbacRole(officerRole);
+        assertTrue(rolePermissionService.hasPermission(officer, "perm.129"));
+        assertFalse(rolePermissionService.hasPermission(officer, "perm.64"));
+        assertFalse(rolePermissionService.hasPermission(officer, "perm.unknown"));
+    }
+
+    /**
+     * Test: a node reloads when another node has published a newer version
+     * Requirement: 2.3
+     */
+    @Test
+    void shouldReloadOnlyWhenVersionChanges() {
+        // Given
+        stubPairs(officerRole);
+        when(versionRepository.findCurrentVersion()).thenReturn(Optional.of(3L));
+        rolePermissionService.reload();
+        
+        // When - unchanged
+        rolePermissionService.refreshIfStale();
+        
+        // Then
+        verify(roleRepository, times(1)).findRolePermissionPairs();
+        
+        // When - another node edited the matrix
+        officerRole.getPermissions().add(loanApprovePerm);
+        when(versionRepository.findCurrentVersion()).thenReturn(Optional.of(4L));
+        rolePermissionService.refreshIfStale();
+        
+        // Then
+        verify(roleRepository, times(2)).findRolePermissionPairs();
+        assertTrue(rolePermissionService.getPermissionsForRole("ROLE_OFFICER").contains("loan.approve"));
+    }
+
+    /**
+     * Answer the pair query from the roles' current permission sets, so
+     * edits made through the service show up on the next load.
+     */
+    private void stubPairs(Role... roles) {
+        when(roleRepository.findRolePermissionPairs()).thenAnswer(invocation -> {
+            List<Object[]> pairs = new ArrayList<>();
+            for (Role role : roles) {
+                if (role.getPermissions().isEmpty()) {
+                    pairs.add(new Object[] { role.getRoleName(), null });
+                }
+                for (Permission permission : role.getPermissions()) {
+                    pairs.add(new Object[] { role.getRoleName(), permission.getPermSlug() });
+                }
+            }
+            return pairs;
+        });
+    }
 }
@@ -2,6 +2,7 @@ package com.bansaiyai.bansaiyai.service;
 
 import com.bansaiyai.bansaiyai.dto.CompositePaymentRequest;
 import com.bansaiyai.bansaiyai.dto.CompositeTransactionResponse;
+import com.bansaiyai.bansaiyai.entity.InstallmentSchedule;
 import com.bansaiyai.bansaiyai.entity.Loan;
 import com.bansaiyai.bansaiyai.entity.Member;
 import com.bansaiyai.bansaiyai.entity.Payment;
@@ -47,6 +48,10 @@ public class TransactionServiceTest {
     private DashboardService dashboardService;
     @Mock
     private AuditService auditService;
+    @Mock
+    private MemberFinancialSummaryService memberFinancialSummaryService;
+    @Mock
+    private InstallmentScheduleService installmentScheduleService;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -121,6 +126,8 @@ public class TransactionServiceTest {
         // Verify individual creates were audited too (by the internal method calls)
         verify(auditService).logAction(eq(officer), eq("TRANSACTION_CREATE"), anyString(), eq(111L), any(), any());
         verify(auditService).logAction(eq(officer), eq("PAYMENT_CREATE"), anyString(), eq(222L), any(), any());
+        verify(installmentScheduleService).applyRepayment(eq(loan), any(BigDecimal.class), any(BigDecimal.class),
+                eq(LocalDate.now()));
     }
 
     @Test
@@ -162,6 +169,49 @@ public class TransactionServiceTest {
         }));
     }
 
+    @Test
+    void processCompositePayment_TakesInterestDueFromSchedule() {
+        CompositePaymentRequest request = new CompositePaymentRequest();
+        request.setMemberId(member.getId());
+        request.setLoanPaymentAmount(new BigDecimal("1000"));
+        request.setLoanId(loan.getId());
+        request.setShareAmount(BigDecimal.ZERO);
+
+        when(dashboardService.getCurrentFiscalPeriod()).thenReturn(createOpenPeriod());
+        when(memberRepository.findById(member.getId())).thenReturn(Optional.of(member));
+        when(loanRepository.findById(loan.getId())).thenReturn(Optional.of(loan));
+        when(paymentRepository.save(any(Payment.class))).thenAnswer(i -> i.getArgument(0));
+        when(installmentScheduleService.findNextDueForLoan(loan.getId())).thenReturn(Optional.of(
+                InstallmentSchedule.builder()
+                        .interestDue(new BigDecimal("30.00"))
+                        .interestPaid(new BigDecimal("10.00"))
+                        .build()));
+
+        transactionService.processCompositePayment(request, officer);
+
+        // Only the 20.00 still open on the next installment is taken as interest
+        verify(paymentRepository).save(argThat(payment -> payment.getInterestAmount().compareTo(new BigDecimal("20.00")) == 0
+                && payment.getPrincipalAmount().compareTo(new BigDecimal("980.00")) == 0));
+        verify(installmentScheduleService).applyRepayment(eq(loan),
+                argThat(p -> p.compareTo(new BigDecimal("980.00")) == 0),
+                argThat(i -> i.compareTo(new BigDecimal("20.00")) == 0), any());
+    }
+
+    @Test
+    void splitPayment_paysPenaltyThenInterestThenPrincipal() {
+        TransactionService.PaymentSplit full = TransactionService.splitPayment(
+                new BigDecimal("1000.00"), new BigDecimal("50.00"), new BigDecimal("20.00"));
+        assertEquals(0, full.penalty().compareTo(new BigDecimal("50.00")));
+        assertEquals(0, full.interest().compareTo(new BigDecimal("20.00")));
+        assertEquals(0, full.principal().compareTo(new BigDecimal("930.00")));
+
+        TransactionService.PaymentSplit partial = TransactionService.splitPayment(
+                new BigDecimal("60.00"), new BigDecimal("50.00"), new BigDecimal("20.00"));
+        assertEquals(0, partial.penalty().compareTo(new BigDecimal("50.00")));
+        assertEquals(0, partial.interest().compareTo(new BigDecimal("10.00")));
+        assertEquals(0, partial.principal().signum());
+    }
+
     private com.bansaiyai.bansaiyai.dto.dashboard.FiscalPeriodDTO createOpenPeriod() {
         return new com.bansaiyai.bansaiyai.dto.dashboard.FiscalPeriodDTO("October 2025", "OPEN");
     }
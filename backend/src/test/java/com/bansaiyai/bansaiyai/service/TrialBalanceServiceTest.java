@@ -41,6 +41,15 @@ class TrialBalanceServiceTest {
     @Mock
     private com.bansaiyai.bansaiyai.repository.AccountRepository accountRepository;
 
+    @Mock
+    private MemberSearchIndex memberSearchIndex;
+
+    @Mock
+    private MemberFinancialSummaryService memberFinancialSummaryService;
+
+    @Mock
+    private com.bansaiyai.bansaiyai.repository.AccountPeriodBalanceRepository accountPeriodBalanceRepository;
+
     private DashboardService dashboardService;
 
     @BeforeEach
@@ -52,7 +61,10 @@ class TrialBalanceServiceTest {
                 paymentRepository,
                 savingTransactionRepository,
                 accountingRepository,
-                accountRepository);
+                accountRepository,
+                memberSearchIndex,
+                memberFinancialSummaryService,
+                accountPeriodBalanceRepository);
     }
 
     @Test
@@ -61,8 +73,8 @@ class TrialBalanceServiceTest {
         BigDecimal debits = new BigDecimal("50000.00");
         BigDecimal credits = new BigDecimal("50000.00");
 
-        when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(debits);
-        when(accountingRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(credits);
+        when(accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(debits);
+        when(accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(credits);
 
         // When: Calculate trial balance
         TrialBalanceDTO result = dashboardService.calculateTrialBalance();
@@ -81,8 +93,8 @@ class TrialBalanceServiceTest {
         BigDecimal debits = new BigDecimal("60000.00");
         BigDecimal credits = new BigDecimal("50000.00");
 
-        when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(debits);
-        when(accountingRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(credits);
+        when(accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(debits);
+        when(accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(credits);
 
         // When: Calculate trial balance
         TrialBalanceDTO result = dashboardService.calculateTrialBalance();
@@ -101,8 +113,8 @@ class TrialBalanceServiceTest {
         BigDecimal debits = new BigDecimal("40000.00");
         BigDecimal credits = new BigDecimal("50000.00");
 
-        when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(debits);
-        when(accountingRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(credits);
+        when(accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(debits);
+        when(accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(credits);
 
         // When: Calculate trial balance
         TrialBalanceDTO result = dashboardService.calculateTrialBalance();
@@ -118,8 +130,8 @@ class TrialBalanceServiceTest {
     @Test
     void testCalculateTrialBalance_NullValues() {
         // Given: Null values from repository
-        when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(null);
-        when(accountingRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(null);
+        when(accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(null);
+        when(accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(null);
 
         // When: Calculate trial balance
         TrialBalanceDTO result = dashboardService.calculateTrialBalance();
@@ -137,8 +149,8 @@ class TrialBalanceServiceTest {
         // Given: Zero values
         BigDecimal zero = BigDecimal.ZERO;
 
-        when(accountingRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(zero);
-        when(accountingRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(zero);
+        when(accountPeriodBalanceRepository.sumDebitsByFiscalPeriod(anyString())).thenReturn(zero);
+        when(accountPeriodBalanceRepository.sumCreditsByFiscalPeriod(anyString())).thenReturn(zero);
 
         // When: Calculate trial balance
         TrialBalanceDTO result = dashboardService.calculateTrialBalance();
@@ -0,0 +1,128 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Minimal in-process SMTP server for dispatch tests. Accepts mail for any
+ * recipient except those listed as rejected (answered with 550), records
+ * each delivered message and counts connections.
+ */
+class LocalSmtpServer implements AutoCloseable {
+
+  record Received(String recipient, String data) {
+  }
+
+  private final ServerSocket serverSocket;
+  private final Set<String> rejected;
+  private final List<Received> received = new CopyOnWriteArrayList<>();
+  private final AtomicInteger connections = new AtomicInteger();
+  private final Thread acceptor;
+
+  LocalSmtpServer(Set<String> rejected) throws IOException {
+    this.rejected = rejected;
+    this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    this.acceptor = new Thread(this::acceptLoop, "local-smtp");
+    this.acceptor.setDaemon(true);
+    this.acceptor.start();
+  }
+
+  int port() {
+    return serverSocket.getLocalPort();
+  }
+
+  List<Received> received() {
+    return received;
+  }
+
+  int connections() {
+    return connections.get();
+  }
+
+  void reset() {
+    received.clear();
+    connections.set(0);
+  }
+
+  @Override
+  public void close() throws IOException {
+    serverSocket.close();
+  }
+
+  private void acceptLoop() {
+    while (!serverSocket.isClosed()) {
+      try (Socket socket = serverSocket.accept()) {
+        connections.incrementAndGet();
+        converse(socket);
+      } catch (IOException e) {
+        // closed, or the client hung up
+      }
+    }
+  }
+
+  private void converse(Socket socket) throws IOException {
+    BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+    Writer out = new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8);
+    reply(out, "220 localhost ready");
+    String recipient = null;
+    String line;
+    while ((line = in.readLine()) != null) {
+      String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+      switch (command) {
+        case "EHLO", "HELO" -> reply(out, "250 localhost");
+        case "MAIL" -> {
+          recipient = null;
+          reply(out, "250 OK");
+        }
+        case "RCPT" -> {
+          String address = line.substring(line.indexOf('<') + 1, line.indexOf('>'));
+          if (rejected.contains(address)) {
+            reply(out, "550 No such user " + address);
+          } else {
+            recipient = address;
+            reply(out, "250 OK");
+          }
+        }
+        case "DATA" -> {
+          if (recipient == null) {
+            reply(out, "503 No valid recipients");
+            break;
+          }
+          reply(out, "354 End data with <CR><LF>.<CR><LF>");
+          StringBuilder data = new StringBuilder();
+          String dataLine;
+          while ((dataLine = in.readLine()) != null && !dataLine.equals(".")) {
+            data.append(dataLine).append('\n');
+          }
+          received.add(new Received(recipient, data.toString()));
+          reply(out, "250 OK");
+        }
+        case "RSET" -> {
+          recipient = null;
+          reply(out, "250 OK");
+        }
+        case "QUIT" -> {
+          reply(out, "221 Bye");
+          return;
+        }
+        default -> reply(out, "250 OK");
+      }
+    }
+  }
+
+  private static void reply(Writer out, String line) throws IOException {
+    out.write(line + "\r\n");
+    out.flush();
+  }
+}
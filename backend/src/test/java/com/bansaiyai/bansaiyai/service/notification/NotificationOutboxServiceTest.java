@@ -0,0 +1,81 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import com.bansaiyai.bansaiyai.entity.NotificationOutbox;
+import com.bansaiyai.bansaiyai.repository.NotificationOutboxRepository;
+import com.bansaiyai.bansaiyai.service.notification.NotificationOutboxService.OutboxMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationOutboxServiceTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    private NotificationOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationOutboxService(outboxRepository, new ObjectMapper());
+        ReflectionTestUtils.setField(service, "provider", "smtp");
+    }
+
+    @Test
+    void enqueueAll_WithInsertOnConflict_SkipsOnlyTheDuplicateRow() {
+        ReflectionTestUtils.setField(service, "insertOnConflictEnabled", true);
+        when(outboxRepository.findExistingDedupeKeys(anyCollection())).thenReturn(List.of("reminder:1"));
+        // Queued by another transaction after the lookup
+        when(outboxRepository.insertIfNewKey(any(), any(), any(), any(), any(), eq("reminder:2"))).thenReturn(0);
+        when(outboxRepository.insertIfNewKey(any(), any(), any(), any(), any(), eq("reminder:3"))).thenReturn(1);
+
+        int queued = service.enqueueAll(List.of(
+                message("reminder:1"),
+                message("reminder:2"),
+                message("reminder:3"),
+                message("reminder:3"),
+                message(null)));
+
+        assertEquals(2, queued);
+        verify(outboxRepository, never()).insertIfNewKey(any(), any(), any(), any(), any(), eq("reminder:1"));
+        verify(outboxRepository, times(1)).insertIfNewKey(any(), any(), any(), any(), any(), eq("reminder:3"));
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationOutbox>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertNull(saved.getValue().get(0).getDedupeKey());
+    }
+
+    @Test
+    void enqueueAll_WithoutInsertOnConflict_BatchesNewKeys() {
+        when(outboxRepository.findExistingDedupeKeys(anyCollection())).thenReturn(List.of("reminder:1"));
+
+        int queued = service.enqueueAll(List.of(message("reminder:1"), message("reminder:2"), message(null)));
+
+        assertEquals(2, queued);
+        verify(outboxRepository, never()).insertIfNewKey(any(), any(), any(), any(), any(), any());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<NotificationOutbox>> saved = ArgumentCaptor.forClass(List.class);
+        verify(outboxRepository).saveAll(saved.capture());
+        assertEquals(2, saved.getValue().size());
+    }
+
+    private static OutboxMessage message(String dedupeKey) {
+        return new OutboxMessage("member@example.com", "Payment reminder", "payment-reminder",
+                Map.of("loanNumber", "LN-1"), dedupeKey);
+    }
+}
@@ -0,0 +1,161 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import com.bansaiyai.bansaiyai.entity.NotificationOutbox;
+import com.bansaiyai.bansaiyai.entity.enums.OutboxStatus;
+import com.bansaiyai.bansaiyai.repository.NotificationOutboxRepository;
+import com.bansaiyai.bansaiyai.service.EmailService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dispatches the outbox on the embedded database to a local SMTP stand-in.
+ * Not transactional: claims and results commit on their own, as in
+ * production.
+ */
+@DataJpaTest(properties = {
+    "app.notification.outbox.max-attempts=2",
+    "app.notification.outbox.rate-per-minute=1000"
+})
+@Import({ NotificationOutboxService.class, OutboxDispatchService.class, EmailService.class,
+    OutboxDispatchServiceTest.SmtpConfig.class })
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, ThymeleafAutoConfiguration.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxDispatchServiceTest {
+
+    private static final String BOUNCE = "bounce@example.com";
+    private static final LocalSmtpServer SMTP = startSmtp();
+
+    @TestConfiguration
+    static class SmtpConfig {
+        @Bean
+        JavaMailSender javaMailSender() {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("127.0.0.1");
+            sender.setPort(SMTP.port());
+            Properties properties = new Properties();
+            properties.put("mail.smtp.auth", "false");
+            properties.put("mail.smtp.starttls.enable", "false");
+            sender.setJavaMailProperties(properties);
+            return sender;
+        }
+    }
+
+    @Autowired
+    private OutboxDispatchService dispatchService;
+
+    @Autowired
+    private EmailService emailService;
+
+    @Autowired
+    private NotificationOutboxService outboxService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    private static LocalSmtpServer startSmtp() {
+        try {
+            return new LocalSmtpServer(Set.of(BOUNCE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxRepository.deleteAll();
+        SMTP.reset();
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void dispatch_SendsTheBatchOverOneConnection() {
+        for (int i = 1; i <= 3; i++) {
+            outboxService.enqueue(reminder("member" + i + "@example.com", "LN-OUT-" + i));
+        }
+
+        assertThat(dispatchService.dispatchPending()).isEqualTo(3);
+
+        assertThat(SMTP.connections()).isEqualTo(1);
+        assertThat(SMTP.received())
+                .extracting(LocalSmtpServer.Received::recipient)
+                .containsExactlyInAnyOrder("member1@example.com", "member2@example.com", "member3@example.com");
+        assertThat(outboxRepository.findAll())
+                .allSatisfy(row -> {
+                    assertThat(row.getStatus()).isEqualTo(OutboxStatus.SENT);
+                    assertThat(row.getAttempts()).isEqualTo(1);
+                    assertThat(row.getSentAt()).isNotNull();
+                });
+        // Nothing left to claim
+        assertThat(dispatchService.dispatchPending()).isZero();
+    }
+
+    @Test
+    void dispatch_RetriesRejectedRecipientWithBackoffUntilDead() {
+        outboxService.enqueue(reminder("member@example.com", "LN-OUT-1"));
+        NotificationOutbox bounce = outboxService.enqueue(reminder(BOUNCE, "LN-OUT-2"));
+
+        assertThat(dispatchService.dispatchPending()).isEqualTo(1);
+
+        NotificationOutbox retry = outboxRepository.findById(bounce.getId()).orElseThrow();
+        assertThat(retry.getStatus()).isEqualTo(OutboxStatus.PENDING);
+        assertThat(retry.getAttempts()).isEqualTo(1);
+        assertThat(retry.getLastError()).isNotBlank();
+        assertThat(retry.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(50));
+
+        // Not due yet
+        assertThat(dispatchService.dispatchPending()).isZero();
+
+        retry.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(retry);
+        assertThat(dispatchService.dispatchPending()).isZero();
+
+        NotificationOutbox dead = outboxRepository.findById(bounce.getId()).orElseThrow();
+        assertThat(dead.getStatus()).isEqualTo(OutboxStatus.DEAD);
+        assertThat(dead.getAttempts()).isEqualTo(2);
+        assertThat(SMTP.received()).hasSize(1);
+    }
+
+    @Test
+    void dispatch_ReclaimsRowsWhoseLeaseExpired() {
+        NotificationOutbox row = outboxService.enqueue(reminder("member@example.com", "LN-OUT-1"));
+        // A dispatcher claimed the row and died before recording the result
+        row.setStatus(OutboxStatus.SENDING);
+        row.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        outboxRepository.save(row);
+
+        assertThat(dispatchService.dispatchPending()).isEqualTo(1);
+        assertThat(outboxRepository.findById(row.getId()).orElseThrow().getStatus()).isEqualTo(OutboxStatus.SENT);
+    }
+
+    private NotificationOutboxService.OutboxMessage reminder(String to, String loanNumber) {
+        return emailService.paymentReminder(to, "Outbox Member", loanNumber, new BigDecimal("1234.50"),
+                LocalDate.of(2026, 11, 1), false, null);
+    }
+}
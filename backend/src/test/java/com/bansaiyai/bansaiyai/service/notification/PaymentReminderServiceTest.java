@@ -0,0 +1,124 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import com.bansaiyai.bansaiyai.entity.InstallmentSchedule;
+import com.bansaiyai.bansaiyai.entity.Loan;
+import com.bansaiyai.bansaiyai.entity.Member;
+import com.bansaiyai.bansaiyai.entity.NotificationOutbox;
+import com.bansaiyai.bansaiyai.entity.enums.InstallmentStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanStatus;
+import com.bansaiyai.bansaiyai.entity.enums.LoanType;
+import com.bansaiyai.bansaiyai.repository.NotificationOutboxRepository;
+import com.bansaiyai.bansaiyai.service.EmailService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.thymeleaf.TemplateEngine;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = {
+    "app.notification.reminders.days-before=3",
+    "app.notification.reminders.overdue-lookback-days=90"
+})
+@Import({ PaymentReminderService.class, NotificationOutboxService.class, EmailService.class })
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+class PaymentReminderServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 10);
+
+    @MockBean
+    private JavaMailSender mailSender;
+
+    @MockBean
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private PaymentReminderService reminderService;
+
+    @Autowired
+    private NotificationOutboxRepository outboxRepository;
+
+    private Loan loan;
+    private Member member;
+
+    @BeforeEach
+    void setUp() {
+        member = em.persist(Member.builder()
+                .memberId("M8300")
+                .name("Reminder Member")
+                .idCard("1830000000000")
+                .dateOfBirth(LocalDate.of(1980, 1, 1))
+                .address("83 Reminder Road, Ban Sai Yai")
+                .phone("0883000000")
+                .email("reminder@example.com")
+                .registrationDate(LocalDate.of(2024, 1, 1))
+                .isActive(true)
+                .build());
+        loan = new Loan();
+        loan.setLoanNumber("LN-REM-1");
+        loan.setMember(member);
+        loan.setLoanType(LoanType.PERSONAL);
+        loan.setPrincipalAmount(new BigDecimal("6000.00"));
+        loan.setInterestRate(new BigDecimal("12.00"));
+        loan.setTermMonths(6);
+        loan.setStartDate(TODAY.minusMonths(3));
+        loan.setEndDate(TODAY.plusMonths(3));
+        loan.setMaturityDate(TODAY.plusMonths(3));
+        loan.setOutstandingBalance(new BigDecimal("6000.00"));
+        loan.setStatus(LoanStatus.ACTIVE);
+        loan = em.persist(loan);
+    }
+
+    @Test
+    void enqueueReminders_QueuesDueSoonAndOverdueOnce() {
+        installment(1, TODAY.minusDays(10), InstallmentStatus.PARTIAL);
+        installment(2, TODAY.minusDays(20), InstallmentStatus.PAID);
+        installment(3, TODAY.plusDays(2), InstallmentStatus.PENDING);
+        installment(4, TODAY.plusDays(9), InstallmentStatus.PENDING);
+        em.flush();
+
+        assertThat(reminderService.enqueueReminders(TODAY)).isEqualTo(2);
+        assertThat(outboxRepository.findAll())
+                .extracting(NotificationOutbox::getDedupeKey)
+                .allSatisfy(key -> assertThat(key).matches("PAYMENT_(DUE|OVERDUE):\\d+(:\\d+)?"))
+                .anySatisfy(key -> assertThat(key).endsWith(":1"));
+        assertThat(outboxRepository.findAll())
+                .allSatisfy(row -> assertThat(row.getRecipient()).isEqualTo("reminder@example.com"))
+                .anySatisfy(row -> assertThat(row.getVariables()).contains("\"overdue\":\"true\""));
+
+        // Same day again: nothing new
+        assertThat(reminderService.enqueueReminders(TODAY)).isZero();
+        // A week later: a second overdue reminder, the first for the now-overdue
+        // installment, and the next one falls due soon
+        assertThat(reminderService.enqueueReminders(TODAY.plusDays(7))).isEqualTo(3);
+    }
+
+    private void installment(int no, LocalDate dueDate, InstallmentStatus status) {
+        em.persist(InstallmentSchedule.builder()
+                .loanId(loan.getId())
+                .memberId(member.getId())
+                .installmentNo(no)
+                .dueDate(dueDate)
+                .openingBalance(new BigDecimal("6000.00"))
+                .principalDue(new BigDecimal("1000.00"))
+                .interestDue(new BigDecimal("60.00"))
+                .amountDue(new BigDecimal("1060.00"))
+                .closingBalance(new BigDecimal("5000.00"))
+                .principalPaid(status == InstallmentStatus.PARTIAL ? new BigDecimal("500.00") : BigDecimal.ZERO)
+                .status(status)
+                .build());
+    }
+}
@@ -0,0 +1,42 @@
+package com.bansaiyai.bansaiyai.service.notification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SendRateLimiterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final SendRateLimiter limiter = new SendRateLimiter(60, now::get);
+
+    @Test
+    void fullBucket_GrantsUpToOneMinuteOfSends() {
+        assertEquals(50, limiter.acquire("smtp", 50));
+        assertEquals(10, limiter.acquire("smtp", 50));
+        assertEquals(0, limiter.acquire("smtp", 50));
+    }
+
+    @Test
+    void emptyBucket_RefillsAtThePerMinuteRate() {
+        limiter.acquire("smtp", 60);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertEquals(10, limiter.acquire("smtp", 50));
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(5));
+        assertEquals(60, limiter.acquire("smtp", 100));
+    }
+
+    @Test
+    void providersHaveSeparateBuckets_AndUnusedTokensReturn() {
+        assertEquals(60, limiter.acquire("smtp", 60));
+        assertEquals(60, limiter.acquire("backup", 60));
+
+        limiter.release("smtp", 15);
+        assertEquals(15, limiter.acquire("smtp", 50));
+        assertEquals(0, limiter.acquire("backup", 1));
+    }
+}
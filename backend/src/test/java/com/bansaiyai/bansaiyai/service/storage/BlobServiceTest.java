@@ -0,0 +1,172 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import com.bansaiyai.bansaiyai.entity.StoredBlob;
+import com.bansaiyai.bansaiyai.repository.StoredBlobRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reference counting and sweeping on the embedded database over a local
+ * blob store. Not transactional: the sweeper deletes each blob in its own
+ * transaction, as in production.
+ */
+@DataJpaTest(properties = "app.storage.sweep-grace-hours=1")
+@Import({ BlobService.class, BlobServiceTest.StoreConfig.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BlobServiceTest {
+
+  private static final byte[] SCAN = "house registration".getBytes(StandardCharsets.UTF_8);
+
+  @TestConfiguration
+  static class StoreConfig {
+    @Bean
+    BlobStore blobStore() {
+      try {
+        return new LocalBlobStore(Files.createTempDirectory("blob-service-test"));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  @Autowired
+  private BlobService blobService;
+
+  @Autowired
+  private BlobStore blobStore;
+
+  @Autowired
+  private StoredBlobRepository storedBlobRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @AfterEach
+  void tearDown() throws Exception {
+    // Every test stores the same content; leave no bytes for the next one
+    for (StoredBlob blob : storedBlobRepository.findAll()) {
+      blobStore.delete(blob.getSha256());
+    }
+    storedBlobRepository.deleteAll();
+  }
+
+  @Test
+  void repeatedUploadSharesOneCopy() throws Exception {
+    StoredBlob first = blobService.store(new ByteArrayInputStream(SCAN), 1024);
+    StoredBlob second = blobService.store(new ByteArrayInputStream(SCAN), 1024);
+
+    assertThat(second.getSha256()).isEqualTo(first.getSha256());
+    assertThat(storedBlobRepository.findAll()).singleElement()
+        .satisfies(blob -> {
+          assertThat(blob.getRefCount()).isEqualTo(2);
+          assertThat(blob.getSizeBytes()).isEqualTo(SCAN.length);
+        });
+    assertThat(blobStore.localPath(first.getSha256())).isPresent();
+  }
+
+  @Test
+  void blobIsSweptOnlyAfterLastReleaseAndGracePeriod() throws Exception {
+    String sha256 = blobService.store(new ByteArrayInputStream(SCAN), 1024).getSha256();
+    blobService.store(new ByteArrayInputStream(SCAN), 1024);
+
+    blobService.release(sha256);
+    assertThat(blobService.sweep()).isZero();
+
+    blobService.release(sha256);
+    assertThat(storedBlobRepository.findById(sha256)).get()
+        .satisfies(blob -> assertThat(blob.getReleasedAt()).isNotNull());
+    // Still inside the grace period
+    assertThat(blobService.sweep()).isZero();
+
+    releasedAt(sha256, LocalDateTime.now().minusHours(2));
+    assertThat(blobService.sweep()).isEqualTo(1);
+
+    assertThat(storedBlobRepository.findById(sha256)).isEmpty();
+    assertThat(blobStore.exists(sha256)).isFalse();
+  }
+
+  @Test
+  void reuploadBeforeSweepRevivesBlob() throws Exception {
+    String sha256 = blobService.store(new ByteArrayInputStream(SCAN), 1024).getSha256();
+    blobService.release(sha256);
+    releasedAt(sha256, LocalDateTime.now().minusHours(2));
+
+    blobService.store(new ByteArrayInputStream(SCAN), 1024);
+
+    assertThat(blobService.sweep()).isZero();
+    StoredBlob blob = storedBlobRepository.findById(sha256).orElseThrow();
+    assertThat(blob.getRefCount()).isEqualTo(1);
+    assertThat(blob.getReleasedAt()).isNull();
+    assertThat(blobStore.exists(sha256)).isTrue();
+  }
+
+  @Test
+  void missingBytesAreRestoredOnNextUpload() throws Exception {
+    String sha256 = blobService.store(new ByteArrayInputStream(SCAN), 1024).getSha256();
+    blobStore.delete(sha256);
+
+    blobService.store(new ByteArrayInputStream(SCAN), 1024);
+
+    Path restored = blobStore.localPath(sha256).orElseThrow();
+    assertThat(Files.readAllBytes(restored)).isEqualTo(SCAN);
+  }
+
+  @Test
+  void rolledBackFirstUploadLeavesNoBytes() throws Exception {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    String sha256 = transaction.execute(status -> {
+      status.setRollbackOnly();
+      try {
+        return blobService.store(new ByteArrayInputStream(SCAN), 1024).getSha256();
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    assertThat(storedBlobRepository.findById(sha256)).isEmpty();
+    assertThat(blobStore.exists(sha256)).isFalse();
+  }
+
+  @Test
+  void rolledBackReuploadKeepsReferencedBytes() throws Exception {
+    String sha256 = blobService.store(new ByteArrayInputStream(SCAN), 1024).getSha256();
+
+    new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+      status.setRollbackOnly();
+      try {
+        blobService.store(new ByteArrayInputStream(SCAN), 1024);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+
+    assertThat(storedBlobRepository.findById(sha256)).get()
+        .satisfies(blob -> assertThat(blob.getRefCount()).isEqualTo(1));
+    assertThat(blobStore.exists(sha256)).isTrue();
+  }
+
+  private void releasedAt(String sha256, LocalDateTime when) {
+    StoredBlob blob = storedBlobRepository.findById(sha256).orElseThrow();
+    blob.setReleasedAt(when);
+    storedBlobRepository.save(blob);
+  }
+}
@@ -0,0 +1,152 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageRenditionServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  private LocalBlobStore blobStore;
+  private ImageRenditionService renditions;
+
+  @BeforeEach
+  void setUp() {
+    blobStore = new LocalBlobStore(tempDir.resolve("blobs"));
+    renditions = new ImageRenditionService(blobStore, tempDir.resolve("renditions").toString(), 0.8f, 100_000_000L);
+  }
+
+  @Test
+  void thumbnailFitsWithinLongestEdge() throws Exception {
+    String sha256 = store(encode(photo(3000, 2000, BufferedImage.TYPE_INT_RGB), "jpg"));
+
+    Path thumbnail = renditions.render(sha256, Rendition.THUMBNAIL).orElseThrow();
+
+    BufferedImage image = ImageIO.read(thumbnail.toFile());
+    assertThat(image.getWidth()).isEqualTo(320);
+    assertThat(image.getHeight()).isEqualTo(213);
+  }
+
+  @Test
+  void smallImageIsNotUpscaled() throws Exception {
+    String sha256 = store(encode(photo(200, 100, BufferedImage.TYPE_INT_RGB), "png"));
+
+    BufferedImage image = ImageIO.read(renditions.render(sha256, Rendition.PREVIEW).orElseThrow().toFile());
+
+    assertThat(image.getWidth()).isEqualTo(200);
+    assertThat(image.getHeight()).isEqualTo(100);
+  }
+
+  @Test
+  void renditionIsCachedOnDisk() throws Exception {
+    String sha256 = store(encode(photo(1600, 1200, BufferedImage.TYPE_INT_RGB), "jpg"));
+
+    Path first = renditions.render(sha256, Rendition.PREVIEW).orElseThrow();
+    long modified = Files.getLastModifiedTime(first).toMillis();
+    // Served from the cache even once the source is gone
+    blobStore.delete(sha256);
+    Path second = renditions.render(sha256, Rendition.PREVIEW).orElseThrow();
+
+    assertThat(second).isEqualTo(first);
+    assertThat(Files.getLastModifiedTime(second).toMillis()).isEqualTo(modified);
+  }
+
+  @Test
+  void transparentPngIsFlattenedOntoWhite() throws Exception {
+    BufferedImage transparent = new BufferedImage(400, 400, BufferedImage.TYPE_INT_ARGB);
+    String sha256 = store(encode(transparent, "png"));
+
+    BufferedImage image = ImageIO.read(renditions.render(sha256, Rendition.THUMBNAIL).orElseThrow().toFile());
+
+    Color center = new Color(image.getRGB(160, 160));
+    assertThat(center.getRed()).isGreaterThan(245);
+    assertThat(center.getGreen()).isGreaterThan(245);
+    assertThat(center.getBlue()).isGreaterThan(245);
+  }
+
+  @Test
+  void nonImageHasNoRendition() throws Exception {
+    String sha256 = store("%PDF-1.4 not an image".getBytes(StandardCharsets.UTF_8));
+
+    assertThat(renditions.render(sha256, Rendition.THUMBNAIL)).isEmpty();
+  }
+
+  @Test
+  void missingBlobHasNoRendition() throws Exception {
+    Optional<Path> rendition = renditions.render("a".repeat(64), Rendition.THUMBNAIL);
+
+    assertThat(rendition).isEmpty();
+  }
+
+  @Test
+  void readsOrientationFromExifSegment() {
+    assertThat(ImageRenditionService.parseExifOrientation(exif(true, 6))).isEqualTo(6);
+    assertThat(ImageRenditionService.parseExifOrientation(exif(false, 8))).isEqualTo(8);
+    assertThat(ImageRenditionService.parseExifOrientation("XMP data".getBytes(StandardCharsets.US_ASCII)))
+        .isZero();
+  }
+
+  private String store(byte[] content) throws IOException {
+    StagedBlob staged = blobStore.stage(new ByteArrayInputStream(content), Long.MAX_VALUE);
+    String sha256 = staged.sha256();
+    blobStore.commit(staged);
+    return sha256;
+  }
+
+  private static BufferedImage photo(int width, int height, int type) {
+    BufferedImage image = new BufferedImage(width, height, type);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.BLUE);
+    g.fillRect(0, 0, width, height);
+    g.setColor(Color.ORANGE);
+    g.fillOval(width / 4, height / 4, width / 2, height / 2);
+    g.dispose();
+    return image;
+  }
+
+  private static byte[] encode(BufferedImage image, String format) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ImageIO.write(image, format, out);
+    return out.toByteArray();
+  }
+
+  /**
+   * An APP1 payload holding a single-entry IFD0 with the orientation tag.
+   */
+  private static byte[] exif(boolean littleEndian, int orientation) {
+    byte[] data = new byte[6 + 8 + 2 + 12];
+    System.arraycopy("Exif\0\0".getBytes(StandardCharsets.US_ASCII), 0, data, 0, 6);
+    data[6] = data[7] = (byte) (littleEndian ? 'I' : 'M');
+    put(data, 8, 2, 42, littleEndian);
+    put(data, 10, 4, 8, littleEndian);
+    put(data, 14, 2, 1, littleEndian);
+    put(data, 16, 2, 0x0112, littleEndian);
+    put(data, 18, 2, 3, littleEndian);
+    put(data, 20, 4, 1, littleEndian);
+    put(data, 24, 2, orientation, littleEndian);
+    return data;
+  }
+
+  private static void put(byte[] data, int offset, int size, int value, boolean littleEndian) {
+    for (int i = 0; i < size; i++) {
+      int shift = littleEndian ? i * 8 : (size - 1 - i) * 8;
+      data[offset + i] = (byte) (value >>> shift);
+    }
+  }
+}
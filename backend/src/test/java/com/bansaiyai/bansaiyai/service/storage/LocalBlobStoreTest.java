@@ -0,0 +1,104 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Filesystem layout, deduplication and cleanup of the local blob store.
+ */
+class LocalBlobStoreTest {
+
+  private static final byte[] CONTENT = "id card scan".getBytes(StandardCharsets.UTF_8);
+  private static final String SHA256 = sha256Hex(CONTENT);
+
+  @TempDir
+  Path root;
+
+  private LocalBlobStore store;
+
+  @BeforeEach
+  void setUp() {
+    store = new LocalBlobStore(root);
+  }
+
+  @Test
+  void commitMovesBlobIntoShardedPath() throws Exception {
+    StagedBlob staged = store.stage(new ByteArrayInputStream(CONTENT), 1024);
+
+    assertThat(staged.sha256()).isEqualTo(SHA256);
+    assertThat(staged.size()).isEqualTo(CONTENT.length);
+    assertThat(store.commit(staged)).isTrue();
+
+    Path expected = root.resolve(SHA256.substring(0, 2)).resolve(SHA256.substring(2, 4)).resolve(SHA256);
+    assertThat(store.localPath(SHA256)).contains(expected);
+    assertThat(Files.readAllBytes(expected)).isEqualTo(CONTENT);
+    try (var files = Files.list(root.resolve("tmp"))) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @Test
+  void identicalContentIsStoredOnce() throws Exception {
+    assertThat(store.commit(store.stage(new ByteArrayInputStream(CONTENT), 1024))).isTrue();
+    assertThat(store.commit(store.stage(new ByteArrayInputStream(CONTENT), 1024))).isFalse();
+
+    try (var files = Files.walk(root)) {
+      assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+    }
+  }
+
+  @Test
+  void oversizedContentIsRejectedAndNotLeftBehind() throws Exception {
+    assertThatThrownBy(() -> store.stage(new ByteArrayInputStream(new byte[2048]), 1024))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessageContaining("File size exceeds maximum limit");
+
+    try (var files = Files.list(root.resolve("tmp"))) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @Test
+  void openReadsRequestedRange() throws Exception {
+    store.commit(store.stage(new ByteArrayInputStream(CONTENT), 1024));
+
+    try (InputStream in = store.open(SHA256, 3, 4)) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("card");
+    }
+  }
+
+  @Test
+  void deleteRemovesBlob() throws Exception {
+    store.commit(store.stage(new ByteArrayInputStream(CONTENT), 1024));
+
+    store.delete(SHA256);
+
+    assertThat(store.exists(SHA256)).isFalse();
+    assertThat(store.localPath(SHA256)).isEmpty();
+  }
+
+  @Test
+  void rejectsKeysThatAreNotHashes() {
+    assertThatThrownBy(() -> store.open("../../etc/passwd", 0, 1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static String sha256Hex(byte[] content) {
+    try {
+      return java.util.HexFormat.of().formatHex(
+          java.security.MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
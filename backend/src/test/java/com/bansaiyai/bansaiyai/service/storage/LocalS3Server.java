@@ -0,0 +1,141 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-process stand-in for an S3-compatible object store: path-style
+ * HEAD, PUT, GET (with a single byte range) and DELETE on one bucket. Like S3
+ * it rejects unsigned requests and PUTs whose body does not match the signed
+ * x-amz-content-sha256. Records every request as "METHOD key".
+ */
+class LocalS3Server implements AutoCloseable {
+
+  private static final Pattern AUTHORIZATION = Pattern.compile(
+      "AWS4-HMAC-SHA256 Credential=[^/]+/\\d{8}/[^/]+/s3/aws4_request, "
+          + "SignedHeaders=[a-z0-9;-]+, Signature=[0-9a-f]{64}");
+  private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d+)");
+
+  private final HttpServer server;
+  private final String bucket;
+  private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  LocalS3Server(String bucket) throws IOException {
+    this.bucket = bucket;
+    this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    this.server.createContext("/", this::handle);
+    this.server.start();
+  }
+
+  URI endpoint() {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort());
+  }
+
+  Map<String, byte[]> objects() {
+    return objects;
+  }
+
+  List<String> requests() {
+    return requests;
+  }
+
+  private void handle(HttpExchange exchange) throws IOException {
+    try {
+      String method = exchange.getRequestMethod();
+      String path = exchange.getRequestURI().getRawPath();
+      String bucketPrefix = "/" + bucket + "/";
+      if (!path.startsWith(bucketPrefix)) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      String key = path.substring(bucketPrefix.length());
+      requests.add(method + " " + key);
+
+      String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+      if (authorization == null || !AUTHORIZATION.matcher(authorization).matches()
+          || exchange.getRequestHeaders().getFirst("x-amz-date") == null) {
+        exchange.sendResponseHeaders(403, -1);
+        return;
+      }
+
+      switch (method) {
+        case "PUT" -> {
+          byte[] body = exchange.getRequestBody().readAllBytes();
+          String declared = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+          if (!sha256(body).equals(declared)) {
+            exchange.sendResponseHeaders(400, -1);
+            return;
+          }
+          objects.put(key, body);
+          exchange.sendResponseHeaders(200, -1);
+        }
+        case "HEAD" -> {
+          byte[] body = objects.get(key);
+          if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+          }
+          exchange.sendResponseHeaders(200, -1);
+        }
+        case "GET" -> {
+          byte[] body = objects.get(key);
+          if (body == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+          }
+          int status = 200;
+          String range = exchange.getRequestHeaders().getFirst("Range");
+          if (range != null) {
+            Matcher m = RANGE.matcher(range);
+            if (m.matches()) {
+              int start = Integer.parseInt(m.group(1));
+              int end = Math.min(Integer.parseInt(m.group(2)), body.length - 1);
+              body = Arrays.copyOfRange(body, start, end + 1);
+              status = 206;
+            }
+          }
+          exchange.sendResponseHeaders(status, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+        }
+        case "DELETE" -> {
+          objects.remove(key);
+          exchange.sendResponseHeaders(204, -1);
+        }
+        default -> exchange.sendResponseHeaders(405, -1);
+      }
+    } finally {
+      exchange.close();
+    }
+  }
+
+  private static String sha256(byte[] body) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+}
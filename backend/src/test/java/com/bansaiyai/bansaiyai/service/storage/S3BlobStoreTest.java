@@ -0,0 +1,92 @@
+package com.bansaiyai.bansaiyai.service.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the S3 store against an in-process S3 stand-in.
+ */
+class S3BlobStoreTest {
+
+  private static final byte[] CONTENT = "house registration scan".getBytes(StandardCharsets.UTF_8);
+
+  @TempDir
+  Path staging;
+
+  private LocalS3Server server;
+  private S3BlobStore store;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    server = new LocalS3Server("bansaiyai");
+    store = new S3BlobStore(server.endpoint(), "bansaiyai", "blobs/", "us-east-1",
+        "test-access", "test-secret", staging, Clock.systemUTC());
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.close();
+  }
+
+  @Test
+  void commitUploadsUnderShardedKeyWithSignedPayloadHash() throws Exception {
+    StagedBlob staged = store.stage(new ByteArrayInputStream(CONTENT), 1024);
+    String sha256 = staged.sha256();
+
+    assertThat(store.commit(staged)).isTrue();
+
+    String key = "blobs/" + sha256.substring(0, 2) + "/" + sha256.substring(2, 4) + "/" + sha256;
+    assertThat(server.objects()).containsOnlyKeys(key);
+    assertThat(server.objects().get(key)).isEqualTo(CONTENT);
+    assertThat(store.exists(sha256)).isTrue();
+    assertThat(store.localPath(sha256)).isEmpty();
+    try (var files = Files.list(staging)) {
+      assertThat(files).isEmpty();
+    }
+  }
+
+  @Test
+  void repeatedContentIsNotUploadedAgain() throws Exception {
+    store.commit(store.stage(new ByteArrayInputStream(CONTENT), 1024));
+    server.requests().clear();
+
+    boolean written = store.commit(store.stage(new ByteArrayInputStream(CONTENT), 1024));
+
+    assertThat(written).isFalse();
+    assertThat(server.requests()).allMatch(request -> request.startsWith("HEAD "));
+  }
+
+  @Test
+  void openReadsRequestedRange() throws Exception {
+    StagedBlob staged = store.stage(new ByteArrayInputStream(CONTENT), 1024);
+    String sha256 = staged.sha256();
+    store.commit(staged);
+
+    try (InputStream in = store.open(sha256, 6, 12)) {
+      assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("registration");
+    }
+  }
+
+  @Test
+  void deleteRemovesObject() throws Exception {
+    StagedBlob staged = store.stage(new ByteArrayInputStream(CONTENT), 1024);
+    String sha256 = staged.sha256();
+    store.commit(staged);
+
+    store.delete(sha256);
+
+    assertThat(store.exists(sha256)).isFalse();
+    assertThat(server.objects()).isEmpty();
+  }
+}
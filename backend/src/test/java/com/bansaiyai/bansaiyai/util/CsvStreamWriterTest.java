@@ -0,0 +1,111 @@
+package com.bansaiyai.bansaiyai.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for CsvStreamWriter.
+ */
+@DisplayName("CsvStreamWriter Tests")
+class CsvStreamWriterTest {
+
+  private static String write(int bufferSize, Consumer<CsvStreamWriter> body) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    try (CsvStreamWriter csv = new CsvStreamWriter(out, bufferSize)) {
+      body.accept(csv);
+    }
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+      "1000.5, 1000.50",
+      "0.005, 0.01",
+      "-12.345, -12.35",
+      "123456789.999, 123456790.00",
+      "7, 7.00"
+  })
+  @DisplayName("money should match %.2f formatting")
+  void moneyShouldMatchPrintf(String input, String expected) {
+    BigDecimal amount = new BigDecimal(input);
+    assertThat(write(64, csv -> csv.money(amount))).isEqualTo(expected);
+    assertThat(String.format("%.2f", amount)).isEqualTo(expected);
+  }
+
+  @Test
+  @DisplayName("should quote only fields that need it")
+  void shouldEscapeFields() {
+    String result = write(64, csv -> csv
+        .field("plain")
+        .field("a,b")
+        .field("say \"hi\"")
+        .field("line\nbreak")
+        .field(null)
+        .endRow());
+
+    assertThat(result).isEqualTo("plain,\"a,b\",\"say \"\"hi\"\"\",\"line\nbreak\",\n");
+  }
+
+  @Test
+  @DisplayName("should encode Thai text and surrogate pairs as UTF-8")
+  void shouldEncodeUtf8() {
+    String text = "สมชาย ใจดี 😀";
+    assertThat(write(64, csv -> csv.field(text))).isEqualTo(text);
+  }
+
+  @Test
+  @DisplayName("should format dates, numbers and timestamps without String.format")
+  void shouldFormatValues() {
+    String result = write(64, csv -> csv
+        .value(LocalDate.of(2024, 3, 7))
+        .value(-42L)
+        .value(LocalDateTime.of(2024, 3, 7, 9, 5, 3))
+        .value(new BigDecimal("1.50"))
+        .value(null)
+        .endRow());
+
+    assertThat(result).isEqualTo("2024-03-07,-42,2024-03-07 09:05:03,1.50,\n");
+  }
+
+  @Test
+  @DisplayName("should flush through a small buffer without losing data")
+  void shouldStreamThroughSmallBuffer() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int[] writes = { 0 };
+    OutputStream counting = new OutputStream() {
+      @Override
+      public void write(int b) {
+        out.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) {
+        writes[0]++;
+        out.write(b, off, len);
+      }
+    };
+
+    try (CsvStreamWriter csv = new CsvStreamWriter(counting, 64)) {
+      for (int i = 0; i < 1000; i++) {
+        csv.number(i).money(i * 101L).field("row").endRow();
+      }
+    }
+
+    String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+    assertThat(lines).hasSize(1000);
+    assertThat(lines[999]).isEqualTo("999,1008.99,row");
+    assertThat(writes[0]).isGreaterThan(100);
+  }
+}
@@ -0,0 +1,135 @@
+package com.bansaiyai.bansaiyai.util;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for RangedFileResponse.
+ */
+@DisplayName("RangedFileResponse Tests")
+class RangedFileResponseTest {
+
+  private static final String BODY = "0123456789abcdefghij";
+  private static final String ETAG = RangedFileResponse.strongEtag("cafebabe");
+
+  @TempDir
+  Path dir;
+
+  private Path file;
+  private MockHttpServletRequest request;
+  private MockHttpServletResponse response;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    file = Files.writeString(dir.resolve("doc.pdf"), BODY, StandardCharsets.US_ASCII);
+    request = new MockHttpServletRequest("GET", "/doc.pdf");
+    response = new MockHttpServletResponse();
+  }
+
+  @Test
+  @DisplayName("Serves the full file with validators when no range is requested")
+  void fullBody() throws Exception {
+    RangedFileResponse.write(request, response, file, ETAG);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentAsString()).isEqualTo(BODY);
+    assertThat(response.getContentLengthLong()).isEqualTo(BODY.length());
+    assertThat(response.getHeader("ETag")).isEqualTo(ETAG);
+    assertThat(response.getHeader("Accept-Ranges")).isEqualTo("bytes");
+  }
+
+  @Test
+  @DisplayName("Serves a single byte range as 206")
+  void singleRange() throws Exception {
+    request.addHeader("Range", "bytes=5-9");
+
+    RangedFileResponse.write(request, response, file, ETAG);
+
+    assertThat(response.getStatus()).isEqualTo(206);
+    assertThat(response.getContentAsString()).isEqualTo("56789");
+    assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 5-9/20");
+  }
+
+  @Test
+  @DisplayName("Open-ended and suffix ranges resume from the right offset")
+  void openAndSuffixRanges() throws Exception {
+    request.addHeader("Range", "bytes=15-");
+    RangedFileResponse.write(request, response, file, ETAG);
+    assertThat(response.getContentAsString()).isEqualTo("fghij");
+
+    MockHttpServletRequest suffix = new MockHttpServletRequest("GET", "/doc.pdf");
+    suffix.addHeader("Range", "bytes=-3");
+    MockHttpServletResponse suffixResponse = new MockHttpServletResponse();
+    RangedFileResponse.write(suffix, suffixResponse, file, ETAG);
+    assertThat(suffixResponse.getContentAsString()).isEqualTo("hij");
+    assertThat(suffixResponse.getHeader("Content-Range")).isEqualTo("bytes 17-19/20");
+  }
+
+  @Test
+  @DisplayName("Range past the end of the file is 416")
+  void unsatisfiableRange() throws Exception {
+    request.addHeader("Range", "bytes=50-60");
+
+    RangedFileResponse.write(request, response, file, ETAG);
+
+    assertThat(response.getStatus()).isEqualTo(416);
+    assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */20");
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Matching If-None-Match is 304 without a body")
+  void notModified() throws Exception {
+    request.addHeader("If-None-Match", "\"other\", " + ETAG);
+
+    RangedFileResponse.write(request, response, file, ETAG);
+
+    assertThat(response.getStatus()).isEqualTo(304);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Stale If-Range ignores the range and sends the whole file")
+  void staleIfRange() throws Exception {
+    request.addHeader("Range", "bytes=5-9");
+    request.addHeader("If-Range", "\"stale\"");
+
+    RangedFileResponse.write(request, response, file, ETAG);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentAsString()).isEqualTo(BODY);
+  }
+
+  @Test
+  @DisplayName("Hands the region to the connector when sendfile is supported")
+  void sendfile() throws Exception {
+    request.setAttribute(RangedFileResponse.SENDFILE_SUPPORT, Boolean.TRUE);
+    request.addHeader("Range", "bytes=5-9");
+
+    RangedFileResponse.write(request, response, file, ETAG);
+
+    assertThat(request.getAttribute(RangedFileResponse.SENDFILE_START)).isEqualTo(5L);
+    assertThat(request.getAttribute(RangedFileResponse.SENDFILE_END)).isEqualTo(10L);
+    assertThat(response.getContentAsByteArray()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Weak ETag changes with file content")
+  void weakEtag() throws Exception {
+    String before = RangedFileResponse.weakEtag(file);
+    Files.writeString(file, BODY + "!", StandardCharsets.US_ASCII);
+
+    assertThat(before).startsWith("W/\"");
+    assertThat(RangedFileResponse.weakEtag(file)).isNotEqualTo(before);
+  }
+}
@@ -0,0 +1,2 @@
+-- Objects the Flyway migrations create that no entity maps
+CREATE SEQUENCE IF NOT EXISTS accounting_posting_seq;